@@ -31,6 +31,28 @@ public final class FaceAuthConfig {
     /** margin < M_AMBIGUOUS → UNCERTAIN(LOW_MARGIN), "다시 시도" */
     public final float grayMAmbiguous;
 
+    // ── 1:N 매칭 성능 ───────────────────────────────────────────────────
+    /** 이 템플릿 수 이상이면 병렬 샤드 스캔 (기본 2048). 미만은 단일 스레드. */
+    public final int   parallelMatchMinGallerySize;
+    /** 병렬 스캔 워커 수. 0 이하면 min(코어 수, 4). */
+    public final int   parallelMatchThreads;
+    /** int8 양자화 갤러리로 1:N 스캔 후 후보만 float 재점수화 (기본 false). 결과는 float 스캔과 동일. */
+    public final boolean quantizedTemplates;
+    /** 봉인된 갤러리 스냅샷 파일로 콜드 스타트 로드 (기본 false). SQLite가 원본, stale이면 자동 재작성. */
+    public final boolean gallerySnapshotEnabled;
+    /** IVF 근사 검색 사용 여부 (기본 false). */
+    public final boolean annEnabled;
+    /** 이 템플릿 수 이상일 때만 IVF 후보 검색 (기본 10000). */
+    public final int   annMinGallerySize;
+    /** IVF 리스트 수. 0 이하면 sqrt(n). */
+    public final int   annNumLists;
+    /** 검색 시 스캔할 IVF 리스트 수 (기본 8). 클수록 recall↑ 속도↓. */
+    public final int   annProbeLists;
+    /** IVF가 반환할 후보 사용자 수 (기본 32). 정확 스코어로 재정렬. */
+    public final int   annCandidateUsers;
+    /** N회 인증마다 1회 exact 스캔과 비교해 recall 로그 (0 이하면 미사용, 기본 20). */
+    public final int   annRecallSampleEvery;
+
     // ── Enrollment (SSoT) ───────────────────────────────────────────────
     /** 연속 안정 프레임 수 (5~10 권장, 기본 7) */
     public final int   requiredStableFrames;
@@ -48,6 +70,16 @@ public final class FaceAuthConfig {
     public final float authMinFaceAreaRatio;
     /** 인증 안정 프레임 수 AUTH_STABLE_FRAMES_REQUIRED (3~5). */
     public final int   authStableFramesRequired;
+    /** 추적 얼굴이 안정적일 때 ML Kit 검출 간격 (프레임, 기본 3). 1 이하 = 매 프레임 검출. */
+    public final int   frameSkipInterval;
+    /** 검출 간격 복귀 기준: bbox 폭 대비 이동·크기 변화 (기본 0.04). */
+    public final float frameSkipMotionRatio;
+    /** 가이드 밖에서는 랜드마크 없는 경량 ML Kit 검출, 가이드 안 후보부터 전체 검출 (기본 true). */
+    public final boolean detectorTiering;
+    /** 그레이존일 때 같은 trackingId 임베딩을 최대 몇 프레임 융합 후 2차 검증할지 (기본 3). 1 = 단일 프레임 판정. */
+    public final int   authFusionFrames;
+    /** 같은 trackingId·거의 같은 자세/크기/선명도 프레임의 임베딩 재사용 유효 시간 (ms, 기본 1500). 0 = 사용 안 함. */
+    public final long  authEmbedCacheTtlMs;
 
     // ── Yaw / Liveness (SSoT) ─────────────────────────────────────────────
     /** Yaw Verification CENTER: abs(usedYaw) <= this (10) */
@@ -127,6 +159,36 @@ public final class FaceAuthConfig {
     public final boolean modelOutputIsNormalized;
     /** 모델 버전 문자열 (DB 저장용) */
     public final String  modelVersion;
+    /**
+     * true = 기기 모델 + modelVersion 별 1회 백그라운드에서 CPU 스레드/XNNPACK(+ 허용 시 NNAPI/GPU) 후보를
+     * 측정해 최속 구성 저장, 다음 엔진 생성부터 사용. 출력이 CPU 기본 구성과 어긋나는 후보는 제외.
+     * false = CPU 2 threads 고정 (기존 동작).
+     */
+    public final boolean acceleratorAutoSelect;
+    /**
+     * true = 자동 선택 후보에 NNAPI/GPU delegate 포함 (FP16 완화 없이 생성, 출력 일치 검사 통과 시만 채택).
+     * false = CPU 구성만 (등록 템플릿과 같은 FP32 경로).
+     */
+    public final boolean acceleratorAllowDelegates;
+    /** 자동 선택 시 후보당 측정 추론 횟수 (워밍업 제외, 중앙값 사용) */
+    public final int     acceleratorBenchmarkRuns;
+    /**
+     * true = initialize() 직후 백그라운드에서 공용 FaceDetector/FaceEmbedder 생성 + 더미 추론 1회
+     * (XNNPACK 가중치 패킹·delegate 준비를 카메라 화면 진입 전에 끝냄). 실행 구성 측정은 설정과 무관하게 백그라운드.
+     */
+    public final boolean enginePrewarm;
+    /** 공용 엔진 참조가 0이 된 뒤 닫기까지 대기 (ms). 0 = 즉시 닫음, 음수 = SDK 수명 동안 유지 */
+    public final long    engineIdleReleaseMs;
+    /** false = 프레임 단위 진단 이벤트도 전부 기록 (샘플링 정책 무시) */
+    public final boolean logSamplingEnabled;
+    /** auth_gate_status 샘플링 정책 (SamplingPolicy 형식: all, off, head:N, every:N, rate:R/B, change) */
+    public final String  logGateStatusSampling;
+    /** auth_match_probe 샘플링 정책 (시도당 1회 판정, 허용 건수만큼 점수 상위 행부터 기록. head:N = 시도당 N건) */
+    public final String  logMatchProbeSampling;
+    /** auth_liveness_progress 샘플링 정책 */
+    public final String  logLivenessProgressSampling;
+    /** 샘플링 집계(log_sampling_stats) 출력 주기 (ms). 0 이하 = 출력 안 함 */
+    public final long    logSamplingStatsIntervalMs;
     /** POC 모드 (audit debug_json 허용) */
     public final boolean pocMode;
 
@@ -138,6 +200,16 @@ public final class FaceAuthConfig {
         this.grayT2                   = b.grayT2;
         this.grayM2                   = b.grayM2;
         this.grayMAmbiguous           = b.grayMAmbiguous;
+        this.parallelMatchMinGallerySize = b.parallelMatchMinGallerySize;
+        this.parallelMatchThreads     = b.parallelMatchThreads;
+        this.quantizedTemplates       = b.quantizedTemplates;
+        this.gallerySnapshotEnabled   = b.gallerySnapshotEnabled;
+        this.annEnabled               = b.annEnabled;
+        this.annMinGallerySize        = b.annMinGallerySize;
+        this.annNumLists              = b.annNumLists;
+        this.annProbeLists            = b.annProbeLists;
+        this.annCandidateUsers        = b.annCandidateUsers;
+        this.annRecallSampleEvery     = b.annRecallSampleEvery;
         this.requiredStableFrames      = b.requiredStableFrames;
         this.minBboxAreaRatio          = b.minBboxAreaRatio;
         this.enrollMaxAbsYaw           = b.enrollMaxAbsYaw;
@@ -145,6 +217,11 @@ public final class FaceAuthConfig {
         this.authYawMaxDeg             = b.authYawMaxDeg;
         this.authMinFaceAreaRatio      = b.authMinFaceAreaRatio;
         this.authStableFramesRequired  = b.authStableFramesRequired;
+        this.frameSkipInterval         = b.frameSkipInterval;
+        this.frameSkipMotionRatio      = b.frameSkipMotionRatio;
+        this.detectorTiering           = b.detectorTiering;
+        this.authFusionFrames          = b.authFusionFrames;
+        this.authEmbedCacheTtlMs       = b.authEmbedCacheTtlMs;
         this.yawCenterMaxAbsDeg        = b.yawCenterMaxAbsDeg;
         this.yawLeftMinDeg             = b.yawLeftMinDeg;
         this.yawRightMinDeg            = b.yawRightMinDeg;
@@ -175,6 +252,16 @@ public final class FaceAuthConfig {
         this.embeddingDim            = b.embeddingDim;
         this.modelOutputIsNormalized = b.modelOutputIsNormalized;
         this.modelVersion            = b.modelVersion;
+        this.acceleratorAutoSelect   = b.acceleratorAutoSelect;
+        this.acceleratorAllowDelegates = b.acceleratorAllowDelegates;
+        this.acceleratorBenchmarkRuns = b.acceleratorBenchmarkRuns;
+        this.enginePrewarm           = b.enginePrewarm;
+        this.engineIdleReleaseMs     = b.engineIdleReleaseMs;
+        this.logSamplingEnabled      = b.logSamplingEnabled;
+        this.logGateStatusSampling   = b.logGateStatusSampling;
+        this.logMatchProbeSampling   = b.logMatchProbeSampling;
+        this.logLivenessProgressSampling = b.logLivenessProgressSampling;
+        this.logSamplingStatsIntervalMs  = b.logSamplingStatsIntervalMs;
         this.pocMode                 = b.pocMode;
     }
 
@@ -212,6 +299,17 @@ public final class FaceAuthConfig {
         float   grayT2                  = 0.82f;
         float   grayM2                  = 0.04f;
         float   grayMAmbiguous           = 0.03f;
+        // ── 1:N 매칭 성능
+        int     parallelMatchMinGallerySize = 2048;
+        int     parallelMatchThreads    = 0;
+        boolean quantizedTemplates      = false;
+        boolean gallerySnapshotEnabled  = false;
+        boolean annEnabled              = false;
+        int     annMinGallerySize       = 10_000;
+        int     annNumLists             = 0;
+        int     annProbeLists           = 8;
+        int     annCandidateUsers       = 32;
+        int     annRecallSampleEvery    = 20;
         // ── Enrollment (SSoT)
         int     requiredStableFrames   = 7;
         float   minBboxAreaRatio        = 0.05f;
@@ -221,6 +319,11 @@ public final class FaceAuthConfig {
         float   authYawMaxDeg           = 18f;
         float   authMinFaceAreaRatio    = 0.12f;
         int     authStableFramesRequired = 3;
+        int     frameSkipInterval       = 3;
+        float   frameSkipMotionRatio    = 0.04f;
+        boolean detectorTiering         = true;
+        int     authFusionFrames        = 3;
+        long    authEmbedCacheTtlMs     = 1_500L;
         // ── Yaw / Liveness (SSoT)
         float   yawCenterMaxAbsDeg      = 10f;
         float   yawLeftMinDeg           = -13f;
@@ -256,6 +359,16 @@ public final class FaceAuthConfig {
         int     embeddingDim            = 192;      // face_embedder 출력 차원
         boolean modelOutputIsNormalized = true;     // face_embedder은 L2 정규화 출력
         String  modelVersion            = "face_embedder-v1.0";
+        boolean acceleratorAutoSelect   = true;
+        boolean acceleratorAllowDelegates = false;
+        int     acceleratorBenchmarkRuns = 5;
+        boolean enginePrewarm           = true;
+        long    engineIdleReleaseMs     = 60_000L;
+        boolean logSamplingEnabled      = true;
+        String  logGateStatusSampling   = "change";
+        String  logMatchProbeSampling   = "head:64";
+        String  logLivenessProgressSampling = "rate:5/10";
+        long    logSamplingStatsIntervalMs  = 10_000L;
         boolean pocMode                 = false;
 
         public Builder matchThreshold(float v)          { matchThreshold = v;          return this; }
@@ -265,6 +378,17 @@ public final class FaceAuthConfig {
         public Builder grayT2(float v)                  { grayT2 = v;                 return this; }
         public Builder grayM2(float v)                  { grayM2 = v;                 return this; }
         public Builder grayMAmbiguous(float v)          { grayMAmbiguous = v;        return this; }
+        public Builder parallelMatchMinGallerySize(int v) { parallelMatchMinGallerySize = v; return this; }
+        public Builder parallelMatchThreads(int v)      { parallelMatchThreads = v;    return this; }
+        public Builder quantizedTemplates(boolean v)    { quantizedTemplates = v;      return this; }
+        public Builder gallerySnapshotEnabled(boolean v) { gallerySnapshotEnabled = v; return this; }
+        public Builder annEnabled(boolean v)            { annEnabled = v;              return this; }
+        public Builder annMinGallerySize(int v)         { annMinGallerySize = v;       return this; }
+        public Builder annLists(int numLists, int probeLists) {
+            annNumLists = numLists; annProbeLists = probeLists; return this;
+        }
+        public Builder annCandidateUsers(int v)         { annCandidateUsers = v;       return this; }
+        public Builder annRecallSampleEvery(int v)      { annRecallSampleEvery = v;    return this; }
         public Builder requiredStableFrames(int v)      { requiredStableFrames = v;    return this; }
         public Builder minBboxAreaRatio(float v)        { minBboxAreaRatio = v;         return this; }
         public Builder enrollMaxAbsYaw(float v)         { enrollMaxAbsYaw = v;          return this; }
@@ -272,6 +396,11 @@ public final class FaceAuthConfig {
         public Builder authYawMaxDeg(float v)           { authYawMaxDeg = v;            return this; }
         public Builder authMinFaceAreaRatio(float v)    { authMinFaceAreaRatio = v;     return this; }
         public Builder authStableFramesRequired(int v)  { authStableFramesRequired = v; return this; }
+        public Builder frameSkipInterval(int v)         { frameSkipInterval = v;        return this; }
+        public Builder frameSkipMotionRatio(float v)    { frameSkipMotionRatio = v;     return this; }
+        public Builder detectorTiering(boolean v)       { detectorTiering = v;          return this; }
+        public Builder authFusionFrames(int v)          { authFusionFrames = v;         return this; }
+        public Builder authEmbedCacheTtlMs(long v)      { authEmbedCacheTtlMs = v;      return this; }
         public Builder yawCenterMaxAbsDeg(float v)      { yawCenterMaxAbsDeg = v;      return this; }
         public Builder yawLeftMinDeg(float v)           { yawLeftMinDeg = v;           return this; }
         public Builder yawRightMinDeg(float v)          { yawRightMinDeg = v;          return this; }
@@ -309,6 +438,16 @@ public final class FaceAuthConfig {
         public Builder embeddingDim(int v)              { embeddingDim = v;            return this; }
         public Builder modelOutputIsNormalized(boolean v){ modelOutputIsNormalized = v; return this; }
         public Builder modelVersion(String v)           { modelVersion = v;            return this; }
+        public Builder acceleratorAutoSelect(boolean v) { acceleratorAutoSelect = v;   return this; }
+        public Builder acceleratorAllowDelegates(boolean v) { acceleratorAllowDelegates = v; return this; }
+        public Builder acceleratorBenchmarkRuns(int v)  { acceleratorBenchmarkRuns = v; return this; }
+        public Builder enginePrewarm(boolean v)         { enginePrewarm = v;           return this; }
+        public Builder engineIdleReleaseMs(long v)      { engineIdleReleaseMs = v;     return this; }
+        public Builder logSamplingEnabled(boolean v)    { logSamplingEnabled = v;      return this; }
+        public Builder logGateStatusSampling(String v)  { logGateStatusSampling = v;   return this; }
+        public Builder logMatchProbeSampling(String v)  { logMatchProbeSampling = v;   return this; }
+        public Builder logLivenessProgressSampling(String v) { logLivenessProgressSampling = v; return this; }
+        public Builder logSamplingStatsIntervalMs(long v)    { logSamplingStatsIntervalMs = v;  return this; }
         public Builder pocMode(boolean v)               { pocMode = v;                 return this; }
 
         public FaceAuthConfig build() { return new FaceAuthConfig(this); }
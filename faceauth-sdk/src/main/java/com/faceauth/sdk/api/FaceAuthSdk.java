@@ -7,9 +7,16 @@ import android.os.Handler;
 import android.os.Looper;
 
 import com.faceauth.sdk.camera.AuthenticationActivity;
+import com.faceauth.sdk.camera.EnginePool;
 import com.faceauth.sdk.camera.EnrollmentActivity;
+import com.faceauth.sdk.logging.EventJournal;
+import com.faceauth.sdk.logging.EventSampler;
+import com.faceauth.sdk.logging.EventSchema;
 import com.faceauth.sdk.logging.FileLogger;
 import com.faceauth.sdk.logging.SafeLogger;
+import com.faceauth.sdk.logging.SamplingPolicy;
+import com.faceauth.sdk.matcher.GalleryService;
+import com.faceauth.sdk.matcher.IvfIndex;
 import com.faceauth.sdk.storage.EnrolledUserDebugRow;
 import com.faceauth.sdk.storage.StorageManager;
 
@@ -41,6 +48,12 @@ public final class FaceAuthSdk {
     private final Context        appContext;
     private final FaceAuthConfig config;
     private final StorageManager storageManager;
+    /** 프로세스 공용 인메모리 갤러리. 초기화 시 백그라운드 로드, 이후 StorageManager 통지로 증분 갱신. */
+    private final GalleryService galleryService;
+    /** config.annEnabled 일 때만 생성. saveProfile/deleteUser/resetAll 시 증분 갱신. */
+    private final IvfIndex       annIndex;
+    /** 화면 간 공용 FaceDetector/FaceEmbedder. config.enginePrewarm 이면 초기화 직후 백그라운드 워밍업. */
+    private final EnginePool     enginePool;
 
     // ── 내부 콜백 보관 (Activity 간 전달) ────────────────────────────────
     public static volatile EnrollmentCallback pendingEnrollCallback;
@@ -63,17 +76,50 @@ public final class FaceAuthSdk {
         }
         synchronized (FaceAuthSdk.class) {
             if (INSTANCE == null) {
+                configureLogSampling(config);
                 INSTANCE = new FaceAuthSdk(context.getApplicationContext(), config);
                 FileLogger.init(context.getApplicationContext());
+                EventJournal.init(context.getApplicationContext());
+                if (config.enginePrewarm) INSTANCE.enginePool.prewarmAsync();
+                else INSTANCE.enginePool.calibrateAsync();
                 SafeLogger.i("FaceAuthSdk", "SDK 초기화 완료 (modelVersion=" + config.modelVersion + ")");
             }
         }
     }
 
+    /** 프레임 단위 진단 이벤트 샘플링 정책 적용. 정책 문자열 오류 시 IllegalArgumentException. */
+    private static void configureLogSampling(FaceAuthConfig config) {
+        boolean on = config.logSamplingEnabled;
+        EventSampler.configure(EventSchema.AUTH_GATE_STATUS,
+                on ? SamplingPolicy.parse(config.logGateStatusSampling) : SamplingPolicy.ALL);
+        EventSampler.configure(EventSchema.AUTH_MATCH_PROBE,
+                on ? SamplingPolicy.parse(config.logMatchProbeSampling) : SamplingPolicy.ALL);
+        EventSampler.configure(EventSchema.AUTH_LIVENESS_PROGRESS,
+                on ? SamplingPolicy.parse(config.logLivenessProgressSampling) : SamplingPolicy.ALL);
+        EventSampler.setStatsIntervalMs(config.logSamplingStatsIntervalMs);
+    }
+
     private FaceAuthSdk(Context ctx, FaceAuthConfig cfg) {
         this.appContext     = ctx;
         this.config         = cfg;
         this.storageManager = StorageManager.getInstance(ctx, cfg);
+        this.galleryService = new GalleryService(storageManager::loadAllActiveProfiles,
+                cfg.embeddingDim, cfg.quantizedTemplates);
+        storageManager.addProfileChangeListener(galleryService);
+        galleryService.preloadAsync();
+        if (cfg.annEnabled) {
+            this.annIndex = new IvfIndex(cfg.embeddingDim, cfg.annNumLists, cfg.annProbeLists,
+                    Executors.newSingleThreadExecutor(r -> {
+                        Thread t = new Thread(r, "FaceAuth-IvfTrain");
+                        t.setDaemon(true);
+                        t.setPriority(Thread.MIN_PRIORITY);
+                        return t;
+                    }));
+            storageManager.addProfileChangeListener(annIndex);
+        } else {
+            this.annIndex = null;
+        }
+        this.enginePool = new EnginePool(ctx, cfg);
     }
 
     private static FaceAuthSdk get() {
@@ -199,4 +245,13 @@ public final class FaceAuthSdk {
 
     /** @hide */
     public static StorageManager getStorageManager() { return get().storageManager; }
+
+    /** @hide */
+    public static GalleryService getGalleryService() { return get().galleryService; }
+
+    /** @hide null if config.annEnabled == false */
+    public static IvfIndex getAnnIndex() { return get().annIndex; }
+
+    /** @hide */
+    public static EnginePool getEnginePool() { return get().enginePool; }
 }
@@ -3,7 +3,7 @@ package com.faceauth.sdk.camera;
 import android.Manifest;
 import android.content.pm.ApplicationInfo;
 import android.content.pm.PackageManager;
-import android.graphics.Bitmap;
+import android.graphics.Rect;
 import android.os.Bundle;
 import android.os.Handler;
 import android.os.Looper;
@@ -30,15 +30,27 @@ import com.faceauth.sdk.api.FailureReason;
 import com.faceauth.sdk.api.FaceAuthConfig;
 import com.faceauth.sdk.api.VerificationState;
 import com.faceauth.sdk.api.FaceAuthSdk;
+import com.faceauth.sdk.detection.DetectionException;
 import com.faceauth.sdk.detection.FaceAligner;
 import com.faceauth.sdk.detection.FaceDetector;
+import com.faceauth.sdk.detection.TieredFaceDetector;
 import com.faceauth.sdk.embedding.FaceEmbedder;
 import com.faceauth.sdk.logging.AuthErrorLogger;
+import com.faceauth.sdk.logging.EventJournal;
+import com.faceauth.sdk.logging.EventSampler;
+import com.faceauth.sdk.logging.EventSchema;
 import com.faceauth.sdk.logging.FileLogger;
 import com.faceauth.sdk.logging.SafeLogger;
 import com.faceauth.sdk.matcher.EmbeddingMatcher;
+import com.faceauth.sdk.matcher.GalleryScores;
+import com.faceauth.sdk.matcher.GalleryService;
+import com.faceauth.sdk.matcher.IvfIndex;
+import com.faceauth.sdk.matcher.PackedGallery;
+import com.faceauth.sdk.matcher.ParallelGalleryMatcher;
+import com.faceauth.sdk.matcher.QuantizedGallery;
 import com.faceauth.sdk.matcher.SecondaryVerifier;
 import com.faceauth.sdk.matcher.TemplateCache;
+import com.faceauth.sdk.matcher.TemporalFusion;
 import com.faceauth.sdk.overlay.FaceGuideOverlay;
 import com.faceauth.sdk.quality.QualityGate;
 import com.faceauth.sdk.storage.ProfileRecord;
@@ -53,11 +65,15 @@ import com.google.mlkit.vision.face.Face;
 
 import java.io.File;
 import java.io.FileOutputStream;
+import java.nio.FloatBuffer;
 import java.nio.charset.StandardCharsets;
 import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.CancellationException;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Executors;
 import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
 
 import org.json.JSONObject;
 
@@ -73,7 +89,7 @@ public final class AuthenticationActivity extends AppCompatActivity {
     private static final long   AUTH_RUN_MAX_MS = 60_000L;  // 인식 대기시간 1분
     private static int          nextAuthRunId   = 0;
 
-    private FaceDetector   faceDetector;
+    private TieredFaceDetector faceDetector;
     private FaceEmbedder   faceEmbedder;
     private QualityGate    qualityGate;
     private StorageManager storageManager;
@@ -91,13 +107,43 @@ public final class AuthenticationActivity extends AppCompatActivity {
     private TextView        tvStatusMessage;
     private AuthViewModel   authViewModel;
 
+    /** 프로세스 공용 갤러리 (FaceAuthSdk 소유). 세션은 스냅샷만 참조하고 DB를 직접 읽지 않음. */
+    private GalleryService      galleryService;
+    private GalleryService.Snapshot gallerySnapshot;
     private List<ProfileRecord> candidates;
     private TemplateCache       templateCache;
+    /** 1:N 스캔용 패킹 갤러리. 스냅샷 교체 시 함께 교체 (quantizedTemplates면 null, TemplateCache 양자화 갤러리 사용). */
+    private volatile PackedGallery gallery;
+    /** 대형 갤러리용 병렬 스캔 (config.parallelMatchMinGallerySize 미만은 직렬). */
+    private ParallelGalleryMatcher parallelMatcher;
+    /** 프레임 YUV → 얼굴 ROI 입력 텐서·품질 검사용 luma (버퍼 재사용, cameraExecutor 전용). */
+    private final FaceRoiSampler roiSampler = new FaceRoiSampler();
+
+    // ── 단계 파이프라인: 분석기(검출·품질·ROI) → embedStage(임베딩·매칭·판정) → auditExecutor(감사 로그) ──
+    private static final int TENSOR_LENGTH    = FaceAligner.OUTPUT_SIZE * FaceAligner.OUTPUT_SIZE * 3;
+    /** 분석기 작성 중 1 + 대기 1 + 임베딩 중 1 */
+    private static final int TENSOR_POOL_SIZE = 3;
+    private final ArrayBlockingQueue<float[]> tensorPool = new ArrayBlockingQueue<>(TENSOR_POOL_SIZE);
+    private LatestWinsStage<FaceJob> embedStage;
+    private ExecutorService          auditExecutor;
+    /** NO_MATCH 재시도 요청 (embedStage → 분석기). 안정 프레임 카운터는 분석기 스레드 전용. */
+    private final AtomicBoolean stabilityResetPending = new AtomicBoolean();
+    /** 같은 trackingId 임베딩 융합 (embedStage 전용) */
+    private TemporalFusion fusion;
+    /** 같은 트랙 근사 중복 프레임 임베딩 재사용 (embedStage 전용) */
+    private TrackEmbeddingCache embedCache;
+    /** 추적 안정 시 검출 주기 조절 (cameraExecutor 전용) */
+    private FrameScheduler frameScheduler;
+    /** 직전 검출 프레임이 안정 프레임 수 외 게이트(가이드·면적·yaw)를 통과했는지 (cameraExecutor 전용) */
+    private boolean        lastGatesReady;
+    /** IVF 근사 후보 검색 (config.annEnabled && 갤러리 >= annMinGallerySize 일 때만). */
+    private IvfIndex annIndex;
+    private int      annAttempts;
     /** 현재 런 ID. 매 run 시작 시 갱신, 로그에 사용. */
     private int     currentAuthRunId;
     /** 인증 런 시작 시각 (1분 재시도 창 계산용). */
     private long    runStartTimeMs;
-    private boolean authDone;
+    private volatile boolean authDone;
     private int     stableFrames;
     private Integer lastTrackingId;
 
@@ -134,6 +180,8 @@ public final class AuthenticationActivity extends AppCompatActivity {
     private volatile String lastQueryFirst5;
 
     private ExecutorService cameraExecutor;
+    /** 진행 중 검출 (onDestroy에서 취소 → 결과 대신 프레임만 닫힘) */
+    private volatile FaceDetector.Request detection;
     private final Handler   mainHandler = new Handler(Looper.getMainLooper());
 
     @Override
@@ -173,6 +221,7 @@ public final class AuthenticationActivity extends AppCompatActivity {
         resetAuthRunState();
         currentAuthRunId = ++nextAuthRunId;
         runStartTimeMs = System.currentTimeMillis();
+        EventSampler.startWindow();
         SafeLogger.i(TAG, String.format("{\"event\":\"auth_run_start\",\"authRunId\":%d,\"timestamp\":%d,\"maxWaitMs\":%d}", currentAuthRunId, runStartTimeMs, AUTH_RUN_MAX_MS));
         // #region agent log
         try {
@@ -187,26 +236,39 @@ public final class AuthenticationActivity extends AppCompatActivity {
         // #endregion
 
         cameraExecutor = Executors.newSingleThreadExecutor();
+        frameScheduler = new FrameScheduler(config.frameSkipInterval, config.frameSkipMotionRatio);
+        fusion         = new TemporalFusion(config.authFusionFrames);
+        embedCache     = new TrackEmbeddingCache(config.authEmbedCacheTtlMs);
+        embedStage     = new LatestWinsStage<>("auth-embed", this::embedAndMatch, job -> recycleTensor(job.tensor));
+        auditExecutor  = Executors.newSingleThreadExecutor();
+        parallelMatcher = new ParallelGalleryMatcher(
+                config.parallelMatchThreads, config.parallelMatchMinGallerySize);
 
         try {
-            faceDetector = new FaceDetector();
-            faceEmbedder = new FaceEmbedder(this, config);
+            EnginePool engines = FaceAuthSdk.getEnginePool();
+            faceDetector = engines.acquireTieredDetector(this);
+            faceEmbedder = engines.acquireEmbedder(this);
         } catch (Exception e) {
             deliverResult(AuthResult.failure(
                     FailureReason.FAIL_INTERNAL, 0f, "초기화 오류가 발생했습니다."));
             return;
         }
 
-        // 후보 프로파일 사전 로딩 (백그라운드)
+        // 후보 프로파일: 공용 갤러리 스냅샷 (최초 1회만 DB 로드, 이후 메모리) (백그라운드)
+        galleryService = FaceAuthSdk.getGalleryService();
         cameraExecutor.execute(() -> {
-            candidates = storageManager.loadAllActiveProfiles();
-            if (candidates.isEmpty()) {
+            GalleryService.Snapshot snap;
+            try {
+                snap = galleryService.get();
+            } catch (CancellationException e) {
+                return;   // 화면 종료로 인터럽트 → 로드 중단 (부분 갤러리 미게시)
+            }
+            if (snap.isEmpty()) {
                 deliverResult(AuthResult.failure(
                         FailureReason.FAIL_INTERNAL, 0f, "등록된 얼굴이 없습니다."));
                 return;
             }
-            templateCache = new TemplateCache(config.embeddingDim);
-            templateCache.setProfiles(candidates);
+            applyGallerySnapshot(snap);
             gateDbLoadedThisRun = true;
             int count = candidates.size();
             StringBuilder ids = new StringBuilder("[");
@@ -257,16 +319,70 @@ public final class AuthenticationActivity extends AppCompatActivity {
         }, ContextCompat.getMainExecutor(this));
     }
 
+    /**
+     * 분석기 진입: 검출만 시작하고 바로 반환 (스레드를 막지 않음).
+     * 결과는 cameraExecutor에서 onFacesDetected로 이어지며, 프레임은 그 경로 끝에서 닫힘.
+     */
     private void analyzeFrame(@NonNull ImageProxy proxy) {
         if (authDone || candidates == null) { proxy.close(); return; }
-
+        long frameStartMs = System.currentTimeMillis();
+        long frameMs = proxy.getImageInfo().getTimestamp() / 1_000_000L;
+        if (stabilityResetPending.compareAndSet(true, false)) {
+            stableFrames = 0;
+            lastTrackingId = null;
+            frameScheduler.onLost();
+        }
+        // 안정 추적 중에는 검출 주기를 낮춤. 다음 프레임이 안정 조건을 채우면 실제 얼굴이 필요하므로 항상 검출.
+        boolean needsFreshFace = lastGatesReady && stableFrames + 1 >= config.authStableFramesRequired;
+        if (!frameScheduler.shouldDetect(frameMs, needsFreshFace)) {
+            // 건너뛴 프레임: 직전 검출이 안정 대기였고 예측 bbox도 거의 정지면 안정 카운트만 진행
+            if (lastGatesReady && frameScheduler.skippedFrameStill()) {
+                stableFrames++;
+                lastStableFrames = stableFrames;
+            }
+            proxy.close();
+            return;
+        }
+        FaceDetector.Request previous = detection;
+        if (previous != null) previous.cancel();   // 이전 프레임 결과가 아직이면 버림 (최신 프레임 우선)
         try {
             android.media.Image mediaImage = proxy.getImage();
-            if (mediaImage == null) return;
-            int rotation = proxy.getImageInfo().getRotationDegrees();
-            InputImage inputImage = InputImage.fromMediaImage(mediaImage, rotation);
-            List<Face> faces = faceDetector.detectSync(inputImage);
+            if (mediaImage == null) { proxy.close(); return; }
+            InputImage inputImage = InputImage.fromMediaImage(
+                    mediaImage, proxy.getImageInfo().getRotationDegrees());
+            detection = faceDetector.detectAsync(inputImage, cameraExecutor, new FaceDetector.Callback() {
+                @Override public void onFaces(List<Face> faces) {
+                    onFacesDetected(proxy, faces, frameStartMs, frameMs);
+                }
+
+                @Override public void onError(DetectionException e) {
+                    try {
+                        failInternal(e, "analyzeFrame");
+                    } finally {
+                        proxy.close();
+                    }
+                }
+
+                @Override public void onCancelled() {
+                    proxy.close();
+                }
+            });
+        } catch (Exception e) {
+            failInternal(e, "analyzeFrame");
+            proxy.close();
+        }
+    }
+
+    /** 검출 이후: 게이트 → 품질 → ROI 샘플링 → embedStage 전달 (cameraExecutor). */
+    private void onFacesDetected(ImageProxy proxy, List<Face> faces, long frameStartMs, long frameMs) {
+        if (authDone) { proxy.close(); return; }
+        refreshGallerySnapshot();
+
+        try {
             if (faces.isEmpty()) {
+                frameScheduler.onLost();
+                faceDetector.onGuideState(false);
+                lastGatesReady = false;
                 showGuide(FaceGuideOverlay.GuideState.IDLE, "얼굴이 감지되지 않습니다.");
                 return;
             }
@@ -282,7 +398,9 @@ public final class AuthenticationActivity extends AppCompatActivity {
                     faces, imageW, imageH,
                     viewW, viewH, viewCx, viewCy, viewR,
                     config.guideInnerMarginRatio,
-                    config.guideCircleRadiusRatio);
+                    config.guideCircleRadiusRatio,
+                    faceDetector::trackingId);
+            faceDetector.onGuideState(snapshot.isInsideGuide);   // 가이드 안 후보 → 다음 프레임부터 랜드마크 검출
 
             float usedYaw = snapshot.usedYaw;
             boolean gateFaceReady = snapshot.roiCandidateCount >= 1 && snapshot.isInsideGuide
@@ -303,6 +421,13 @@ public final class AuthenticationActivity extends AppCompatActivity {
                 lastTrackingId = tid;
             }
             gateStableReady = stableFrames >= config.authStableFramesRequired;
+            if (snapshot.selectedFace != null) {
+                Rect box = snapshot.selectedFace.getBoundingBox();
+                frameScheduler.onDetected(tid, box.left, box.top, box.right, box.bottom, frameMs);
+            } else {
+                frameScheduler.onLost();
+            }
+            lastGatesReady = gateFaceReady && gateYawOk;
 
             lastFacesCount = faces.size();
             lastRoiCandidateCount = snapshot.roiCandidateCount;
@@ -314,10 +439,11 @@ public final class AuthenticationActivity extends AppCompatActivity {
             lastGateEmbeddingComputed = gateEmbeddingComputedThisRun;
             lastGateDbLoaded = gateDbLoaded;
 
-            SafeLogger.i(TAG, String.format(
-                    "{\"event\":\"auth_gate_status\",\"authRunId\":%d,\"gate_face_ready\":%s,\"gate_stable_ready\":%s,\"gate_embedding_computed\":%s,\"gate_db_loaded\":%s,\"gate_compared_all\":false,\"stableFrames\":%d,\"requiredFrames\":%d,\"tid\":%s,\"roiCandidateCount\":%d,\"bboxRatio\":%.4f}",
-                    currentAuthRunId, gateFaceReady, gateStableReady, gateEmbeddingComputedThisRun, gateDbLoaded,
-                    stableFrames, config.authStableFramesRequired, tid != null ? tid : "null", snapshot.roiCandidateCount, snapshot.bboxAreaRatio));
+            EventJournal.begin(EventSchema.AUTH_GATE_STATUS)
+                    .i(currentAuthRunId).b(gateFaceReady).b(gateStableReady).b(gateEmbeddingComputedThisRun)
+                    .b(gateDbLoaded).b(false).i(stableFrames).i(config.authStableFramesRequired)
+                    .n(tid).i(snapshot.roiCandidateCount).f(snapshot.bboxAreaRatio)
+                    .commit();
 
             if (snapshot.roiCandidateCount == 0) {
                 showGuide(FaceGuideOverlay.GuideState.IDLE, "얼굴이 감지되지 않습니다.");
@@ -336,29 +462,76 @@ public final class AuthenticationActivity extends AppCompatActivity {
                 showGuide(FaceGuideOverlay.GuideState.QUALITY_OK, "얼굴을 인식 중...");
                 return;
             }
+            if (!faceDetector.lastResultHasLandmarks()) {
+                // 경량 검출 결과 (전환 직후 1프레임): 눈 정렬 불가 → 다음 전체 검출 프레임에서 진행
+                showGuide(FaceGuideOverlay.GuideState.QUALITY_OK, "얼굴을 인식 중...");
+                return;
+            }
 
-            Bitmap frame = ImageUtils.toBitmapFromYuvNoJpeg(proxy);
-            if (frame == null) return;
+            // 전체 프레임 RGB 변환 없이 Y 평면 좌상단(blur·밝기)과 얼굴 ROI만 읽음
+            if (!roiSampler.readLuma(proxy, QualityGate.BLUR_WINDOW, QualityGate.BLUR_WINDOW)) return;
             Face face = snapshot.selectedFace;
-            QualityGate.Result qr = qualityGate.check(frame, face, frame.getWidth(), frame.getHeight());
+            QualityGate.Result qr = qualityGate.check(roiSampler.luma(),
+                    roiSampler.lumaWidth(), roiSampler.lumaHeight(),
+                    face, roiSampler.frameWidth(), roiSampler.frameHeight());
             if (!qr.passed) {
                 showGuide(FaceGuideOverlay.GuideState.FAIL, qr.guideMessage);
-                frame.recycle();
                 return;
             }
 
             showGuide(FaceGuideOverlay.GuideState.QUALITY_OK, "얼굴을 인식 중...");
 
+            // 정렬 ROI를 풀 버퍼에 샘플링(원시 0..255)한 뒤 프레임 반납 → 다음 프레임 검출이 이 얼굴의 임베딩과 겹침
+            float[] tensor = tensorPool.poll();
+            if (tensor == null) tensor = new float[TENSOR_LENGTH];
+            if (!roiSampler.sample(proxy, face, FloatBuffer.wrap(tensor), 1f, 0f)) {
+                recycleTensor(tensor);
+                return;
+            }
+
             int enrolledCount = candidates.size();
-            float threshold = config.matchThreshold;
             SafeLogger.i(TAG, String.format(
                     "{\"event\":\"auth_match_attempt\",\"authRunId\":%d,\"yaw\":%.2f,\"ratio\":%.4f,\"tid\":%s,\"enrolledCount\":%d,\"threshold\":%.4f}",
-                    currentAuthRunId, usedYaw, snapshot.bboxAreaRatio, tid != null ? tid : "null", enrolledCount, threshold));
+                    currentAuthRunId, usedYaw, snapshot.bboxAreaRatio, tid != null ? tid : "null", enrolledCount, config.matchThreshold));
+            embedStage.offer(new FaceJob(tensor, gallerySnapshot, annIndex, tid,
+                    usedYaw, face.getHeadEulerAngleX(), snapshot.bboxAreaRatio, qr.blurScore,
+                    stableFrames, frameStartMs));
 
-            Bitmap aligned  = FaceAligner.align(frame, face);
-            float[] liveEmb = faceEmbedder.embed(aligned);
-            aligned.recycle();
-            frame.recycle();
+        } catch (Exception e) {
+            failInternal(e, "onFacesDetected");
+        } finally {
+            proxy.close();
+        }
+    }
+
+    /**
+     * 임베딩 + 매칭 + 판정 (embedStage 스레드). 대기 중 더 새 얼굴이 오면 이전 작업은 실행 전에 버려짐.
+     * 감사 로그는 auditExecutor로 넘겨 판정 전달을 막지 않음.
+     */
+    private void embedAndMatch(FaceJob job) {
+        if (authDone) {
+            recycleTensor(job.tensor);
+            return;
+        }
+        try {
+            // 같은 트랙의 근사 중복 프레임이면 직전 임베딩 재사용 (재추론 생략)
+            float[] liveEmb = embedCache.lookup(job.trackingId, job.usedYaw, job.pitch,
+                    job.bboxAreaRatio, job.blurScore, job.frameTimeMs);
+            boolean reused = liveEmb != null;
+            if (reused) {
+                recycleTensor(job.tensor);
+            } else {
+                try {
+                    liveEmb = faceEmbedder.embed(job, null);
+                } finally {
+                    recycleTensor(job.tensor);
+                }
+                embedCache.put(job.trackingId, job.usedYaw, job.pitch,
+                        job.bboxAreaRatio, job.blurScore, job.frameTimeMs, liveEmb);
+            }
+            List<ProfileRecord> candidates = job.gallery.profiles;
+            float usedYaw = job.usedYaw;
+            int stableFrames = job.stableFrames;
 
             double norm = 0;
             for (float v : liveEmb) norm += (double) v * v;
@@ -371,17 +544,25 @@ public final class AuthenticationActivity extends AppCompatActivity {
             lastQueryNorm = norm;
             lastQueryFirst5 = EmbeddingDebugUtils.first5(liveEmb, 3);
             SafeLogger.i(TAG, String.format(
-                    "{\"event\":\"auth_embedding_computed\",\"authRunId\":%d,\"dim\":%d,\"embeddingHash\":%.4f,\"norm\":%.4f}",
-                    currentAuthRunId, liveEmb.length, hashSum, norm));
+                    "{\"event\":\"auth_embedding_computed\",\"authRunId\":%d,\"dim\":%d,\"embeddingHash\":%.4f,\"norm\":%.4f,\"reused\":%s}",
+                    currentAuthRunId, liveEmb.length, hashSum, norm, reused));
 
             postVerificationState(VerificationState.FIRST_VERIFY_RUNNING);
-            EmbeddingMatcher.TopTwoResult topTwo = EmbeddingMatcher.findTopTwoUsersWithMargin(liveEmb, candidates);
-            EmbeddingMatcher.findTopMatchWithLogging(liveEmb, candidates, config.matchThreshold, TAG);
+            // 같은 트랙의 이전 프레임과 융합한 임베딩으로 판정 (authFusionFrames=1이면 이번 프레임 그대로)
+            // 재사용 임베딩이 이미 융합에 들어간 트랙이면 새 증거 없음 → 더 모으지 않고 현재 융합으로 판정
+            float[] fusedEmb = reused && fusion.isTracking(job.trackingId)
+                    ? fusion.settle()
+                    : fusion.add(job.trackingId, liveEmb);
+            int fusedFrames = fusion.count();
+            // 판정·진단 로그 모두 같은 스코어링 결과에서 파생 (갤러리 재스캔 없음)
+            GalleryScores scores = matchScores(fusedEmb, job.gallery, job.annIndex);
+            scores.log(TAG, config.matchThreshold);
+            EmbeddingMatcher.TopTwoResult topTwo = scores.topTwo;
 
-            enrolledCount = candidates.size();
+            int enrolledCount = candidates.size();
             String bestId = topTwo.top1UserId;
             float bestScore = topTwo.top1Score;
-            threshold = config.matchThreshold;
+            float threshold = config.matchThreshold;
             lastGateComparedAll = true;
             lastEnrolledCount = enrolledCount;
             lastComparedCount = enrolledCount;
@@ -404,22 +585,27 @@ public final class AuthenticationActivity extends AppCompatActivity {
             String auditResult = "NO_MATCH";
             Float centroidScoreObj = null;
 
-            if (topTwo.top1Score >= tHigh && topTwo.margin >= mHigh) {
+            TemporalFusion.Band band = fusion.band(topTwo.top1Score, topTwo.margin, tHigh, mHigh, tLow);
+            if (band == TemporalFusion.Band.ACCEPT) {
                 decision = "ACCEPT";
                 reason = "primary";
                 auditResult = "SUCCESS";
                 finalScore = topTwo.top1Score;
                 postVerificationState(VerificationState.ACCEPT);
-            } else if (topTwo.top1Score < tLow) {
+            } else if (band == TemporalFusion.Band.REJECT) {
                 decision = "REJECT";
                 reason = "below_t_low";
                 auditResult = "NO_MATCH";
                 postVerificationState(VerificationState.REJECT);
+            } else if (band == TemporalFusion.Band.COLLECT) {
+                // 그레이존: 재안정화 없이 같은 트랙의 다음 품질 통과 프레임을 더 모음
+                decision = "COLLECT";
+                reason = "fusion";
             } else {
                 triggerSecondary = true;
                 postVerificationState(VerificationState.SECONDARY_VERIFY_RUNNING);
                 SecondaryVerifier.Result sec = SecondaryVerifier.verify(
-                        liveEmb, topTwo.top1UserId, profileType, templateCache,
+                        fusedEmb, topTwo.top1UserId, profileType, job.gallery.templateCache,
                         config.grayT2, config.grayM2, config.grayMAmbiguous, topTwo.margin);
                 centroidScoreObj = Float.isNaN(sec.centroidScore) ? null : sec.centroidScore;
                 postVerificationState(VerificationState.SECONDARY_VERIFY_DONE);
@@ -447,11 +633,12 @@ public final class AuthenticationActivity extends AppCompatActivity {
             }
 
             lastDecisionStr = decision;
-            SafeLogger.i(TAG, String.format(
-                    "{\"event\":\"auth_match_result\",\"authRunId\":%d,\"bestId\":\"%s\",\"bestScore\":%.4f,\"top2Id\":\"%s\",\"top2Score\":%.4f,\"margin\":%.4f,\"decision\":\"%s\",\"triggerSecondary\":%s}",
-                    currentAuthRunId, bestId != null ? bestId : "", bestScore,
-                    topTwo.top2UserId != null ? topTwo.top2UserId : "", topTwo.top2Score, topTwo.margin,
-                    decision, triggerSecondary));
+            EventJournal.begin(EventSchema.AUTH_MATCH_RESULT)
+                    .i(currentAuthRunId).s(bestId).f(bestScore).s(topTwo.top2UserId).f(topTwo.top2Score)
+                    .f(topTwo.margin).s(decision).b(triggerSecondary).i(fusedFrames)
+                    .l(System.currentTimeMillis() - job.frameTimeMs)
+                    .commit();
+            if (band == TemporalFusion.Band.COLLECT) return;
             SafeLogger.i(TAG, String.format(
                     "{\"event\":\"auth_compare_done\",\"authRunId\":%d,\"enrolledCount\":%d,\"comparedCount\":%d,\"bestId\":\"%s\",\"bestScore\":%.4f,\"threshold\":%.4f,\"decision\":\"%s\"}",
                     currentAuthRunId, enrolledCount, enrolledCount, bestId != null ? bestId : "", bestScore, threshold, decision));
@@ -471,32 +658,33 @@ public final class AuthenticationActivity extends AppCompatActivity {
                     debugJson.put("decision", decision);
                     debugJson.put("reason", reason);
                     JSONObject quality = new JSONObject();
-                    quality.put("bboxAreaRatio", snapshot.bboxAreaRatio);
+                    quality.put("bboxAreaRatio", job.bboxAreaRatio);
                     quality.put("yawAbs", Math.abs(usedYaw));
                     quality.put("stableFrames", stableFrames);
                     quality.put("qualityScore", 0);
                     debugJson.put("quality", quality);
                 } catch (Exception e) { SafeLogger.d(TAG, "debug_json build: " + e.getMessage()); }
             }
-            storageManager.saveAudit(
-                    auditResult,
-                    "SUCCESS".equals(auditResult) ? topTwo.bestProfile != null ? topTwo.bestProfile.userId : bestId : null,
-                    finalScore,
-                    debugJson != null ? debugJson.toString() : null);
+            String auditUserId = "SUCCESS".equals(auditResult)
+                    ? topTwo.bestProfile != null ? topTwo.bestProfile.userId : bestId : null;
+            String auditJson = debugJson != null ? debugJson.toString() : null;
+            String auditStatus = auditResult;
+            float auditScore = finalScore;
+            auditExecutor.execute(() -> saveAudit(auditStatus, auditUserId, auditScore, auditJson));
 
             if ("SUCCESS".equals(auditResult)) {
-                authDone = true;
+                if (!markDone()) return;
                 deliverResult(AuthResult.success(
                         topTwo.bestProfile != null ? topTwo.bestProfile.userId : bestId, finalScore));
             } else if ("LOW_MARGIN".equals(auditResult)) {
-                authDone = true;
+                if (!markDone()) return;
                 deliverResult(AuthResult.failure(
                         FailureReason.FAIL_LOW_MARGIN, finalScore, "다시 시도해 주세요."));
             } else {
                 long elapsedMs = System.currentTimeMillis() - runStartTimeMs;
                 if (elapsedMs < AUTH_RUN_MAX_MS) {
-                    stableFrames = 0;
-                    lastTrackingId = null;
+                    stabilityResetPending.set(true);   // stableFrames/lastTrackingId는 분석기 스레드에서 초기화
+                    fusion.reset();
                     gateEmbeddingComputedThisRun = false;
                     postVerificationState(VerificationState.IDLE);
                     SafeLogger.i(TAG, String.format("{\"event\":\"auth_no_match_retry\",\"authRunId\":%d,\"elapsedMs\":%d,\"maxMs\":%d,\"bestScore\":%.4f,\"threshold\":%.4f}",
@@ -504,7 +692,7 @@ public final class AuthenticationActivity extends AppCompatActivity {
                     try {
                         JSONObject o = new JSONObject();
                         o.put("hypothesisId", "H2");
-                        o.put("location", "AuthenticationActivity.analyzeFrame NO_MATCH");
+                        o.put("location", "AuthenticationActivity.embedAndMatch NO_MATCH");
                         o.put("message", "auth_no_match_retry");
                         o.put("timestamp", System.currentTimeMillis());
                         o.put("data", new JSONObject().put("authRunId", currentAuthRunId).put("elapsedMs", elapsedMs).put("maxMs", AUTH_RUN_MAX_MS).put("bestScore", bestScore).put("threshold", threshold).put("willRetry", true));
@@ -512,30 +700,153 @@ public final class AuthenticationActivity extends AppCompatActivity {
                     } catch (Exception e) { /* ignore */ }
                     return;
                 }
-                authDone = true;
+                if (!markDone()) return;
                 deliverResult(AuthResult.failure(
                         FailureReason.FAIL_MATCH, finalScore,
                         "얼굴 인식에 실패했습니다. 다른 방법으로 로그인해 주세요."));
             }
 
         } catch (Exception e) {
-            Map<String, Object> ctx = new LinkedHashMap<>();
-            ctx.put("screen", "authentication");
-            AuthErrorLogger.log(e, "AuthenticationActivity.analyzeFrame", ctx);
-            SafeLogger.e(TAG, "인증 프레임 처리 오류", e);
+            failInternal(e, "embedAndMatch");
+        }
+    }
+
+    /** 감사 로그 기록 (auditExecutor, 순서 보존·유실 없음). */
+    private void saveAudit(String result, String userId, float score, String debugJson) {
+        try {
+            storageManager.saveAudit(result, userId, score, debugJson);
+        } catch (Exception e) {
+            SafeLogger.e(TAG, "감사 로그 저장 실패", e);
+        }
+    }
+
+    /** 단계 공통 내부 오류 처리: 로그 후 최초 1회만 FAIL_INTERNAL 전달. */
+    private void failInternal(Exception e, String where) {
+        Map<String, Object> ctx = new LinkedHashMap<>();
+        ctx.put("screen", "authentication");
+        AuthErrorLogger.log(e, "AuthenticationActivity." + where, ctx);
+        SafeLogger.e(TAG, "인증 프레임 처리 오류", e);
+        SafeLogger.i(TAG, String.format(
+                "{\"event\":\"auth_fail_internal\",\"authRunId\":%d,\"where\":\"%s\",\"exceptionMessage\":\"%s\"}",
+                currentAuthRunId, where, e.getMessage() != null ? e.getMessage().replace("\"", "'") : ""));
+        if (markDone()) {
+            deliverResult(AuthResult.failure(
+                    FailureReason.FAIL_INTERNAL, 0f, "인증 실패"));
+        }
+    }
+
+    /** 분석기·임베딩 단계가 동시에 종료를 시도할 수 있으므로 최초 1회만 true. */
+    private synchronized boolean markDone() {
+        if (authDone) return false;
+        authDone = true;
+        return true;
+    }
+
+    private void recycleTensor(float[] tensor) {
+        tensorPool.offer(tensor);   // 가득 차면 버림 (GC)
+    }
+
+    /**
+     * 사용자 단위 Top-1/Top-2 + 행별 점수 (1회 스캔). 대형 갤러리 + ANN 활성 시 IVF 후보만 정확 스코어로 재정렬하고,
+     * annRecallSampleEvery회마다 exact 스캔과 비교해 auth_ann_recall 로그.
+     */
+    private GalleryScores matchScores(float[] liveEmb, GalleryService.Snapshot snap, IvfIndex ann) {
+        List<ProfileRecord> all = snap.profiles;
+        if (ann == null || all == null || all.size() < config.annMinGallerySize
+                || ann.coveredCount() != all.size()) {   // 인덱스 재구축 중 → 정확 스캔
+            return exactScores(liveEmb, snap);
+        }
+        List<ProfileRecord> shortlist = ann.candidates(liveEmb, config.annCandidateUsers);
+        GalleryScores approxScores = EmbeddingMatcher.scoreGallery(liveEmb, PackedGallery.build(shortlist, liveEmb.length));
+        EmbeddingMatcher.TopTwoResult approx = approxScores.topTwo;
+        annAttempts++;
+        if (config.annRecallSampleEvery > 0 && annAttempts % config.annRecallSampleEvery == 0) {
+            EmbeddingMatcher.TopTwoResult exact = exactScores(liveEmb, snap).topTwo;
+            float recall = ann.recordRecallSample(approx.top1UserId, exact.top1UserId);
             SafeLogger.i(TAG, String.format(
-                    "{\"event\":\"auth_fail_internal\",\"authRunId\":%d,\"where\":\"analyzeFrame\",\"exceptionMessage\":\"%s\"}",
-                    currentAuthRunId, e.getMessage() != null ? e.getMessage().replace("\"", "'") : ""));
-            if (!authDone) {
-                authDone = true;
-                deliverResult(AuthResult.failure(
-                        FailureReason.FAIL_INTERNAL, 0f, "인증 실패"));
-            }
-        } finally {
-            proxy.close();
+                    "{\"event\":\"auth_ann_recall\",\"authRunId\":%d,\"top1Agree\":%s,\"recallAt1\":%.4f,\"samples\":%d,\"shortlist\":%d,\"gallery\":%d}",
+                    currentAuthRunId, exact.top1UserId != null && exact.top1UserId.equals(approx.top1UserId),
+                    recall, ann.recallSampleCount(), shortlist.size(), all.size()));
+        }
+        return approxScores;
+    }
+
+    /** 전체 갤러리 정확 스코어링. quantizedTemplates면 int8 스캔 + 후보 float 재점수화, 아니면 float 병렬 스캔. */
+    private GalleryScores exactScores(float[] liveEmb, GalleryService.Snapshot snap) {
+        QuantizedGallery q = snap.templateCache != null ? snap.templateCache.getQuantizedGallery() : null;
+        if (q != null) return q.scoreGallery(liveEmb);
+        return parallelMatcher.scoreGallery(liveEmb, snap.packed);
+    }
+
+    /**
+     * 분석기 → 임베딩 단계 전달 단위. 텐서는 원시 0..255 RGB (정규화는 FaceEmbedder가 요청하는 scale/offset으로 기록 시 적용).
+     * 갤러리 스냅샷을 함께 넘겨 매칭 단계가 분석기 스레드 필드를 읽지 않게 함.
+     */
+    private static final class FaceJob implements FaceEmbedder.InputWriter {
+        final float[]                 tensor;
+        final GalleryService.Snapshot gallery;
+        final IvfIndex                annIndex;
+        final Integer                 trackingId;
+        final float                   usedYaw;
+        final float                   pitch;
+        final float                   bboxAreaRatio;
+        final float                   blurScore;
+        final int                     stableFrames;
+        final long                    frameTimeMs;
+
+        FaceJob(float[] tensor, GalleryService.Snapshot gallery, IvfIndex annIndex, Integer trackingId,
+                float usedYaw, float pitch, float bboxAreaRatio, float blurScore,
+                int stableFrames, long frameTimeMs) {
+            this.tensor        = tensor;
+            this.gallery       = gallery;
+            this.annIndex      = annIndex;
+            this.trackingId    = trackingId;
+            this.usedYaw       = usedYaw;
+            this.pitch         = pitch;
+            this.bboxAreaRatio = bboxAreaRatio;
+            this.blurScore     = blurScore;
+            this.stableFrames  = stableFrames;
+            this.frameTimeMs   = frameTimeMs;
+        }
+
+        @Override public boolean write(FloatBuffer dst, float scale, float offset) {
+            for (int i = 0; i < tensor.length; i++) dst.put(i, tensor[i] * scale + offset);
+            return true;
         }
     }
 
+    /** 스냅샷을 세션 필드에 반영. cameraExecutor에서만 호출. */
+    private void applyGallerySnapshot(GalleryService.Snapshot snap) {
+        gallerySnapshot = snap;
+        candidates      = snap.profiles;
+        templateCache   = snap.templateCache;
+        gallery         = snap.packed;
+        prepareAnnIndex();
+    }
+
+    /** 등록·삭제로 공용 갤러리가 바뀌었으면 새 스냅샷으로 교체 (DB 접근 없음). 빈 갤러리로는 교체하지 않음. */
+    private void refreshGallerySnapshot() {
+        GalleryService.Snapshot snap = galleryService != null ? galleryService.peek() : null;
+        if (snap == null || snap == gallerySnapshot || snap.isEmpty()) return;
+        applyGallerySnapshot(snap);
+        SafeLogger.d(TAG, "gallery snapshot refreshed, version=" + snap.version + " count=" + snap.profiles.size());
+    }
+
+    /**
+     * 프로세스 공용 IVF 인덱스가 현재 후보와 어긋나 있으면 백그라운드 재구축 예약 (이후는 StorageManager 통지로 증분 갱신).
+     * 재구축이 게시될 때까지 matchScores는 크기 불일치로 정확 스캔을 사용.
+     * 비교는 coveredCount() 기준 (색인 불가 행 포함) → 0 norm·차원 불일치 행이 있어도 매번 재구축하지 않음.
+     */
+    private void prepareAnnIndex() {
+        IvfIndex ann = FaceAuthSdk.getAnnIndex();
+        if (ann == null || candidates == null || candidates.size() < config.annMinGallerySize) {
+            annIndex = null;
+            return;
+        }
+        if (ann.coveredCount() != candidates.size() && !ann.isRebuilding()) ann.rebuild(candidates);
+        annIndex = ann;
+    }
+
     /**
      * 검증 상태 반영. 상태 메시지 영역은 가이드 오버레이(원 아래) 한 곳만 사용하므로,
      * IDLE/STABILIZING 제외 시 해당 메시지를 가이드에 표시.
@@ -748,15 +1059,8 @@ public final class AuthenticationActivity extends AppCompatActivity {
     @Override
     protected void onResume() {
         super.onResume();
-        if (cameraExecutor != null && storageManager != null && templateCache != null && !authDone) {
-            cameraExecutor.execute(() -> {
-                List<ProfileRecord> fresh = storageManager.loadAllActiveProfiles();
-                if (fresh != null && !fresh.isEmpty()) {
-                    candidates = fresh;
-                    templateCache.setProfiles(candidates);
-                    SafeLogger.d(TAG, "template cache refreshed on resume, count=" + fresh.size());
-                }
-            });
+        if (cameraExecutor != null && galleryService != null && templateCache != null && !authDone) {
+            cameraExecutor.execute(this::refreshGallerySnapshot);
         }
     }
 
@@ -773,6 +1077,9 @@ public final class AuthenticationActivity extends AppCompatActivity {
             try { cameraProvider.unbindAll(); } catch (Exception e) { SafeLogger.d(TAG, "unbindAll: " + e.getMessage()); }
             cameraProvider = null;
         }
+        FaceDetector.Request pending = detection;
+        if (pending != null) pending.cancel();
+        cameraExecutor.execute(roiSampler::release);
         cameraExecutor.shutdown();
         try {
             if (!cameraExecutor.awaitTermination(2, TimeUnit.SECONDS)) cameraExecutor.shutdownNow();
@@ -780,7 +1087,15 @@ public final class AuthenticationActivity extends AppCompatActivity {
             Thread.currentThread().interrupt();
             cameraExecutor.shutdownNow();
         }
-        if (faceDetector != null) faceDetector.close();
-        if (faceEmbedder != null) faceEmbedder.close();
+        embedStage.shutdown(2_000L);
+        SafeLogger.i(TAG, String.format("{\"event\":\"auth_frame_schedule\",\"authRunId\":%d,\"detected\":%d,\"skipped\":%d,\"presenceFrames\":%d,\"fullFrames\":%d,\"tierSwitches\":%d,\"embedReused\":%d,\"embedComputed\":%d}",
+                currentAuthRunId, frameScheduler.detectedCount(), frameScheduler.skippedCount(),
+                faceDetector != null ? faceDetector.presenceFrames() : 0L,
+                faceDetector != null ? faceDetector.fullFrames() : 0L,
+                faceDetector != null ? faceDetector.tierSwitches() : 0L,
+                embedCache.hits(), embedCache.misses()));
+        auditExecutor.shutdown();   // 남은 감사 로그는 기록 후 종료
+        if (parallelMatcher != null) parallelMatcher.close();
+        // faceDetector / faceEmbedder: EnginePool 공용 — ON_DESTROY에서 자동 반납
     }
 }
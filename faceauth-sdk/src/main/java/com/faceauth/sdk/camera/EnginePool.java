@@ -0,0 +1,148 @@
+package com.faceauth.sdk.camera;
+
+import android.content.Context;
+import android.graphics.Bitmap;
+
+import androidx.annotation.NonNull;
+import androidx.lifecycle.DefaultLifecycleObserver;
+import androidx.lifecycle.LifecycleOwner;
+
+import com.faceauth.sdk.api.FaceAuthConfig;
+import com.faceauth.sdk.detection.DetectionException;
+import com.faceauth.sdk.detection.FaceAligner;
+import com.faceauth.sdk.detection.FaceDetector;
+import com.faceauth.sdk.detection.TieredFaceDetector;
+import com.faceauth.sdk.embedding.AcceleratorSelector;
+import com.faceauth.sdk.embedding.EmbeddingException;
+import com.faceauth.sdk.embedding.FaceEmbedder;
+import com.faceauth.sdk.logging.SafeLogger;
+import com.faceauth.sdk.util.SharedEngine;
+
+import java.io.IOException;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+
+/**
+ * 화면 간 공용 FaceDetector / FaceEmbedder (FaceAuthSdk 소유, 프로세스당 1개).
+ *
+ * Activity마다 TFLite interpreter·ML Kit 클라이언트를 새로 만들지 않고 참조 카운트로 공유.
+ *  - acquire*(owner): 없으면 생성 후 참조 +1, owner ON_DESTROY 시 자동 release
+ *  - 참조 0 → config.engineIdleReleaseMs 후 닫음 (화면 전환 사이에는 그대로 재사용)
+ *  - calibrateAsync(): 백그라운드에서 실행 구성 측정 (기기별 최초 1회, 저장 후 다음 생성부터 적용)
+ *    공용 엔진 잠금 밖에서 돌기 때문에 측정 중 화면이 acquire해도 기다리지 않음 (저장값 없으면 CPU 기본)
+ *  - prewarmAsync(): initialize 직후 백그라운드에서 측정 → 생성 + 더미 추론 1회
+ *    (XNNPACK 가중치 패킹, delegate 준비, ML Kit 모델 로드를 첫 프레임 전에 끝냄)
+ *
+ * 검출기는 전체(랜드마크·Classification)와 경량(존재·위치만) 두 클라이언트를 따로 공유하고,
+ * 화면별 TieredFaceDetector가 둘 사이를 전환 (config.detectorTiering=false면 전체만 사용).
+ *
+ * 공유 FaceEmbedder의 embed*는 인스턴스 단위 synchronized → 화면 전환 중 겹쳐도 안전.
+ */
+public final class EnginePool {
+
+    private static final String TAG = "EnginePool";
+    /** 검출기 워밍업용 빈 프레임 크기 (ML Kit 최소 32px 이상) */
+    private static final int PREWARM_FRAME_SIZE = 160;
+
+    private final Context                  appContext;
+    private final FaceAuthConfig           config;
+    private final ScheduledExecutorService worker;   // 실행 구성 측정 + 사전 워밍업 + 유휴 닫기
+    private final SharedEngine<FaceEmbedder, EmbeddingException> embedders;
+    private final SharedEngine<FaceDetector, RuntimeException>   detectors;
+    private final SharedEngine<FaceDetector, RuntimeException>   presenceDetectors;
+    private final boolean detectorTiering;
+
+    public EnginePool(Context appContext, FaceAuthConfig config) {
+        this.appContext = appContext;
+        this.config     = config;
+        this.worker = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread t = new Thread(r, "faceauth-engine");
+            t.setDaemon(true);
+            t.setPriority(Thread.MIN_PRIORITY);
+            return t;
+        });
+        this.embedders = new SharedEngine<>(() -> new FaceEmbedder(appContext, config),
+                FaceEmbedder::close, config.engineIdleReleaseMs, worker);
+        this.detectors = new SharedEngine<>(FaceDetector::new,
+                FaceDetector::close, config.engineIdleReleaseMs, worker);
+        this.presenceDetectors = new SharedEngine<>(() -> new FaceDetector(false),
+                FaceDetector::close, config.engineIdleReleaseMs, worker);
+        this.detectorTiering = config.detectorTiering;
+    }
+
+    /** 공용 FaceEmbedder. owner가 DESTROYED 되면 자동 반납. */
+    public FaceEmbedder acquireEmbedder(LifecycleOwner owner) throws EmbeddingException {
+        FaceEmbedder embedder = embedders.acquire();
+        releaseOnDestroy(owner, embedders);
+        return embedder;
+    }
+
+    /** 공용 FaceDetector. owner가 DESTROYED 되면 자동 반납. */
+    public FaceDetector acquireDetector(LifecycleOwner owner) {
+        FaceDetector detector = detectors.acquire();
+        releaseOnDestroy(owner, detectors);
+        return detector;
+    }
+
+    /**
+     * 화면용 2단계 검출기 (경량 → 전체). 두 공용 클라이언트 모두 owner가 DESTROYED 되면 자동 반납.
+     * 랜드마크·눈 뜸 확률이 매 프레임 필요한 화면(라이브니스)은 acquireDetector 사용.
+     */
+    public TieredFaceDetector acquireTieredDetector(LifecycleOwner owner) {
+        FaceDetector full = acquireDetector(owner);
+        if (!detectorTiering) return new TieredFaceDetector(full, full);
+        FaceDetector presence = presenceDetectors.acquire();
+        releaseOnDestroy(owner, presenceDetectors);
+        return new TieredFaceDetector(presence, full);
+    }
+
+    /**
+     * 백그라운드 실행 구성 측정만 (prewarm 비활성 시). 저장값이 있으면 즉시 끝남.
+     */
+    public void calibrateAsync() {
+        worker.execute(this::calibrate);
+    }
+
+    /**
+     * 백그라운드 측정 → 생성 + 더미 추론. 실패해도 무시 (화면 진입 시 acquire에서 다시 생성·보고).
+     * 측정 중 화면이 먼저 acquire했다면 그 인스턴스는 CPU 기본 구성 — 측정 결과는 다음 생성부터 적용.
+     */
+    public void prewarmAsync() {
+        worker.execute(() -> {
+            calibrate();
+            long t0 = System.currentTimeMillis();
+            try {
+                FaceEmbedder embedder = embedders.warm();
+                embedder.embed(new int[FaceAligner.OUTPUT_SIZE * FaceAligner.OUTPUT_SIZE], 0, null);
+                long embedMs = System.currentTimeMillis() - t0;
+
+                Bitmap blank = Bitmap.createBitmap(PREWARM_FRAME_SIZE, PREWARM_FRAME_SIZE, Bitmap.Config.ARGB_8888);
+                detectors.warm().detectSync(blank);
+                if (detectorTiering) presenceDetectors.warm().detectSync(blank);
+                SafeLogger.i(TAG, String.format(
+                        "{\"event\":\"auth_engine_prewarm\",\"embedderMs\":%d,\"totalMs\":%d}",
+                        embedMs, System.currentTimeMillis() - t0));
+            } catch (EmbeddingException | DetectionException | RuntimeException | LinkageError e) {
+                SafeLogger.w(TAG, "엔진 사전 워밍업 실패 (화면 진입 시 재시도): " + e.getMessage());
+            }
+        });
+    }
+
+    /** 공용 엔진 잠금 밖에서 측정 (별도 interpreter). 실패 시 CPU 기본 유지. */
+    private void calibrate() {
+        try {
+            AcceleratorSelector.calibrate(appContext, config);
+        } catch (IOException | RuntimeException | LinkageError e) {
+            SafeLogger.w(TAG, "실행 구성 측정 실패 (CPU 기본 유지): " + e.getMessage());
+        }
+    }
+
+    private static void releaseOnDestroy(LifecycleOwner owner, SharedEngine<?, ?> engine) {
+        owner.getLifecycle().addObserver(new DefaultLifecycleObserver() {
+            @Override public void onDestroy(@NonNull LifecycleOwner o) {
+                o.getLifecycle().removeObserver(this);
+                engine.release();
+            }
+        });
+    }
+}
@@ -3,7 +3,6 @@ package com.faceauth.sdk.camera;
 import android.Manifest;
 import android.content.Intent;
 import android.content.pm.PackageManager;
-import android.graphics.Bitmap;
 import android.media.Image;
 import android.os.Bundle;
 import android.os.Handler;
@@ -27,8 +26,9 @@ import com.faceauth.sdk.R;
 import com.faceauth.sdk.api.EnrollmentResult;
 import com.faceauth.sdk.api.FaceAuthConfig;
 import com.faceauth.sdk.api.FaceAuthSdk;
-import com.faceauth.sdk.detection.FaceAligner;
+import com.faceauth.sdk.detection.DetectionException;
 import com.faceauth.sdk.detection.FaceDetector;
+import com.faceauth.sdk.detection.TieredFaceDetector;
 import com.faceauth.sdk.embedding.EmbeddingException;
 import com.faceauth.sdk.embedding.FaceEmbedder;
 import com.faceauth.sdk.logging.AuthErrorLogger;
@@ -68,7 +68,7 @@ public final class EnrollmentActivity extends AppCompatActivity {
 
     enum RegState { IDLE, ARMED, CAPTURING, COMMITTING, SUCCESS, FAILED }
 
-    private FaceDetector   faceDetector;
+    private TieredFaceDetector faceDetector;
     private FaceEmbedder   faceEmbedder;
     private StorageManager storageManager;
     private FaceAuthConfig config;
@@ -99,6 +99,10 @@ public final class EnrollmentActivity extends AppCompatActivity {
 
     private final Runnable guideMetricsLogger = this::logGuideMetricsOnce;
     private ExecutorService cameraExecutor;
+    /** 진행 중 검출 (onDestroy에서 취소 → 결과 대신 프레임만 닫힘) */
+    private volatile FaceDetector.Request detection;
+    /** 프레임 YUV → 얼굴 ROI 입력 텐서 (버퍼 재사용, cameraExecutor 전용). */
+    private final FaceRoiSampler roiSampler = new FaceRoiSampler();
     private final Handler   mainHandler = new Handler(Looper.getMainLooper());
 
     @Override
@@ -122,8 +126,9 @@ public final class EnrollmentActivity extends AppCompatActivity {
         cameraExecutor = Executors.newSingleThreadExecutor();
 
         try {
-            faceDetector = new FaceDetector();
-            faceEmbedder = new FaceEmbedder(this, config);
+            EnginePool engines = FaceAuthSdk.getEnginePool();
+            faceDetector = engines.acquireTieredDetector(this);
+            faceEmbedder = engines.acquireEmbedder(this);
         } catch (Exception e) {
             SafeLogger.e(TAG, "컴포넌트 초기화 실패", e);
             deliverFailure("초기화 오류가 발생했습니다.");
@@ -250,43 +255,61 @@ public final class EnrollmentActivity extends AppCompatActivity {
             return;
         }
 
-        boolean handedOffToCommit = false;
+        FaceDetector.Request previous = detection;
+        if (previous != null) previous.cancel();   // 이전 프레임 결과가 아직이면 버림 (최신 프레임 우선)
         try {
             Image mediaImage = imageProxy.getImage();
-            if (mediaImage == null) return;
-            int rotation = imageProxy.getImageInfo().getRotationDegrees();
-            InputImage inputImage = InputImage.fromMediaImage(mediaImage, rotation);
-            List<Face> faces = faceDetector.detectSync(inputImage);
+            if (mediaImage == null) { imageProxy.close(); return; }
+            InputImage inputImage = InputImage.fromMediaImage(
+                    mediaImage, imageProxy.getImageInfo().getRotationDegrees());
+            detection = faceDetector.detectAsync(inputImage, cameraExecutor, new FaceDetector.Callback() {
+                @Override public void onFaces(List<Face> faces) {
+                    onFacesDetected(imageProxy, faces);
+                }
+
+                @Override public void onError(DetectionException e) {
+                    try {
+                        onAnalyzeError(e);
+                    } finally {
+                        imageProxy.close();
+                    }
+                }
+
+                @Override public void onCancelled() {
+                    imageProxy.close();
+                }
+            });
+        } catch (Exception e) {
+            onAnalyzeError(e);
+            imageProxy.close();
+        }
+    }
+
+    /** 검출 이후 상태 갱신 (cameraExecutor). COMMITTING 전이 시 프레임은 startCommit이 닫음. */
+    private void onFacesDetected(ImageProxy imageProxy, List<Face> faces) {
+        boolean handedOffToCommit = false;
+        try {
             int w = imageProxy.getWidth();
             int h = imageProxy.getHeight();
             EnrollmentFrameSnapshot snapshot = EnrollmentFrameSnapshot.fromFaces(
                     faces, w, h,
                     lastGuideViewW, lastGuideViewH, lastGuideCx, lastGuideCy, lastGuideR,
-                    config.guideInnerMarginRatio, config.guideCircleRadiusRatio);
+                    config.guideInnerMarginRatio, config.guideCircleRadiusRatio,
+                    faceDetector::trackingId);
+            faceDetector.onGuideState(snapshot.isInsideGuide);
 
             lastSnapshot = snapshot;
             onFrameUpdate(snapshot);
-            if (regState == RegState.COMMITTING && snapshot.selectedFace != null && commitGuard.compareAndSet(false, true)) {
+            // 커밋은 랜드마크가 있는 전체 검출 프레임에서만 (눈 정렬 임베딩)
+            if (regState == RegState.COMMITTING && snapshot.selectedFace != null
+                    && faceDetector.lastResultHasLandmarks() && commitGuard.compareAndSet(false, true)) {
                 startCommit(imageProxy, snapshot.selectedFace);
                 handedOffToCommit = true;
             }
             mainHandler.post(this::updateUI);
 
         } catch (Exception e) {
-            Map<String, Object> ctx = new LinkedHashMap<>();
-            ctx.put("screen", "enrollment");
-            ctx.put("state", regState != null ? regState.name() : null);
-            if (lastSnapshot != null) {
-                ctx.put("trackingId", lastSnapshot.selectedTrackingId);
-                ctx.put("facesCount", lastSnapshot.facesCount);
-                ctx.put("roiCandidateCount", lastSnapshot.roiCandidateCount);
-                ctx.put("bboxAreaRatio", lastSnapshot.bboxAreaRatio);
-                ctx.put("usedYaw", lastSnapshot.usedYaw);
-            }
-            AuthErrorLogger.log(e, "EnrollmentActivity.analyzeFrame", ctx);
-            SafeLogger.e(TAG, "프레임 분석 오류", e);
-            mainHandler.post(() -> android.widget.Toast.makeText(EnrollmentActivity.this,
-                    "오류가 발생했습니다. 다시 시도해 주세요.", android.widget.Toast.LENGTH_LONG).show());
+            onAnalyzeError(e);
         } finally {
             if (!handedOffToCommit) {
                 imageProxy.close();
@@ -294,6 +317,23 @@ public final class EnrollmentActivity extends AppCompatActivity {
         }
     }
 
+    private void onAnalyzeError(Exception e) {
+        Map<String, Object> ctx = new LinkedHashMap<>();
+        ctx.put("screen", "enrollment");
+        ctx.put("state", regState != null ? regState.name() : null);
+        if (lastSnapshot != null) {
+            ctx.put("trackingId", lastSnapshot.selectedTrackingId);
+            ctx.put("facesCount", lastSnapshot.facesCount);
+            ctx.put("roiCandidateCount", lastSnapshot.roiCandidateCount);
+            ctx.put("bboxAreaRatio", lastSnapshot.bboxAreaRatio);
+            ctx.put("usedYaw", lastSnapshot.usedYaw);
+        }
+        AuthErrorLogger.log(e, "EnrollmentActivity.analyzeFrame", ctx);
+        SafeLogger.e(TAG, "프레임 분석 오류", e);
+        mainHandler.post(() -> android.widget.Toast.makeText(EnrollmentActivity.this,
+                "오류가 발생했습니다. 다시 시도해 주세요.", android.widget.Toast.LENGTH_LONG).show());
+    }
+
     private void onFrameUpdate(EnrollmentFrameSnapshot s) {
         if (regState == RegState.ARMED) {
             if (s.roiCandidateCount >= 1 && s.isInsideGuide && s.selectedTrackingId != null
@@ -357,10 +397,8 @@ public final class EnrollmentActivity extends AppCompatActivity {
     private void startCommit(ImageProxy imageProxy, Face face) {
         final long commitStartTimeMs = System.currentTimeMillis();
         cameraExecutor.execute(() -> {
-            Bitmap frame = null;
             try {
-                frame = ImageUtils.toBitmapFromYuvNoJpeg(imageProxy);
-                if (frame == null) {
+                if (!FaceRoiSampler.isSupported(imageProxy)) {
                     mainHandler.post(() -> {
                         failedReason = "EXTRACT_FAIL";
                         regState = RegState.FAILED;
@@ -371,11 +409,9 @@ public final class EnrollmentActivity extends AppCompatActivity {
                     });
                     return;
                 }
-                Bitmap aligned = FaceAligner.align(frame, face);
-                float[] embedding = faceEmbedder.embed(aligned, commitStartTimeMs);
-                aligned.recycle();
-                frame.recycle();
-                frame = null;
+                float[] embedding = faceEmbedder.embed(
+                        (dst, scale, offset) -> roiSampler.sample(imageProxy, face, dst, scale, offset),
+                        commitStartTimeMs);
 
                 long id = storageManager.saveProfile(currentEnrollId, "NORMAL", embedding, 1.0f);
                 if (id >= 0) {
@@ -408,7 +444,6 @@ public final class EnrollmentActivity extends AppCompatActivity {
                 ctx.put("errorCode", code);
                 AuthErrorLogger.log(e, "EnrollmentActivity.startCommit", ctx);
                 SafeLogger.e(TAG, "commit 실패: " + code, e);
-                if (frame != null) frame.recycle();
                 final String failMsg = "등록 실패: TFLite 추론 실패 (" + code + ")";
                 mainHandler.post(() -> {
                     regState = RegState.FAILED;
@@ -425,7 +460,6 @@ public final class EnrollmentActivity extends AppCompatActivity {
                 SafeLogger.e(TAG, "commit 실패", e);
                 failedReason = "EXTRACT_FAIL";
                 logEvent("auth_register_failed", "reason", failedReason);
-                if (frame != null) frame.recycle();
                 final String failMsg = e.getMessage() != null ? e.getMessage() : "등록 실패";
                 mainHandler.post(() -> {
                     regState = RegState.FAILED;
@@ -534,8 +568,10 @@ public final class EnrollmentActivity extends AppCompatActivity {
     protected void onDestroy() {
         super.onDestroy();
         mainHandler.removeCallbacks(guideMetricsLogger);
+        FaceDetector.Request pending = detection;
+        if (pending != null) pending.cancel();
+        cameraExecutor.execute(roiSampler::release);
         cameraExecutor.shutdown();
-        if (faceDetector != null) faceDetector.close();
-        if (faceEmbedder != null) faceEmbedder.close();
+        // faceDetector / faceEmbedder: EnginePool 공용 — ON_DESTROY에서 자동 반납
     }
 }
\ No newline at end of file
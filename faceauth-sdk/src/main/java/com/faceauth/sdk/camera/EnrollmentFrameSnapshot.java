@@ -6,6 +6,7 @@ import com.faceauth.sdk.overlay.GuideGeometry;
 import com.google.mlkit.vision.face.Face;
 
 import java.util.List;
+import java.util.function.Function;
 
 /**
  * Single-frame snapshot for enrollment state machine (FACEAUTH_REGISTRATION_STATE_MACHINE §3.3).
@@ -46,6 +47,20 @@ public final class EnrollmentFrameSnapshot {
                                                      float viewCx, float viewCy, float viewR,
                                                      float innerMarginRatio,
                                                      float legacyGuideRatio) {
+        return fromFaces(faces, imageWidth, imageHeight, viewWidth, viewHeight, viewCx, viewCy, viewR,
+                innerMarginRatio, legacyGuideRatio, Face::getTrackingId);
+    }
+
+    /**
+     * Same as above, with trackingId taken from trackingIds
+     * (e.g. TieredFaceDetector::trackingId to keep ids stable across detector tiers).
+     */
+    public static EnrollmentFrameSnapshot fromFaces(List<Face> faces, int imageWidth, int imageHeight,
+                                                     int viewWidth, int viewHeight,
+                                                     float viewCx, float viewCy, float viewR,
+                                                     float innerMarginRatio,
+                                                     float legacyGuideRatio,
+                                                     Function<Face, Integer> trackingIds) {
         if (faces == null || faces.isEmpty()) {
             return new EnrollmentFrameSnapshot(0, 0, null, 0f, 0f, false, null);
         }
@@ -78,7 +93,7 @@ public final class EnrollmentFrameSnapshot {
 
         float ratio = frameArea > 0 ? (bestArea / frameArea) : 0f;
         float yaw = best.getHeadEulerAngleY(); // usedYaw SSoT
-        Integer trackingId = best.getTrackingId() != null ? best.getTrackingId() : null;
+        Integer trackingId = trackingIds.apply(best);
 
         return new EnrollmentFrameSnapshot(
                 faces.size(),
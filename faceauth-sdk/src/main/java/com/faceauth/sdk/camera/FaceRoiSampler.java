@@ -0,0 +1,277 @@
+package com.faceauth.sdk.camera;
+
+import android.graphics.ImageFormat;
+
+import androidx.camera.core.ImageProxy;
+
+import com.faceauth.sdk.detection.FaceAligner;
+import com.faceauth.sdk.logging.SafeLogger;
+import com.google.mlkit.vision.face.Face;
+
+import java.nio.ByteBuffer;
+import java.nio.FloatBuffer;
+
+/**
+ * YUV_420_888 프레임 → 정렬된 112×112 얼굴 입력 텐서 (얼굴 ROI만 읽음, 전체 프레임 Bitmap 없음).
+ *
+ * FaceAligner.align(전체 프레임 RGB 변환 결과, face)와 같은 영역을 쓰도록
+ * 센서 회전(90/180/270) + 좌우 반전 + bbox 크롭 + 눈 각도 보정 + 112 리사이즈를
+ * 출력 픽셀 → 원본 YUV 좌표 affine 하나로 합성해 한 번의 패스로 샘플링한다.
+ *  - 평면은 ROI 외곽(+보간 여유 1px) 행만 bulk 읽기
+ *  - Y는 bilinear, 색차는 변환기와 같이 2×2 블록 최근접, 계수도 변환기와 동일 (BT.601 full range)
+ *  - 프레임 밖 샘플은 기존 경로(회전 Bitmap의 투명 영역)와 같이 검정
+ *  - 결과는 정규화 float로 FaceEmbedder 입력 버퍼에 직접 기록
+ *
+ * 품질 게이트용 blur·밝기는 readLuma()로 Y 평면에서 직접 읽는다 (RGB 변환 없음).
+ * ROI 창·행 버퍼는 재사용. 단일 스레드(분석기 executor) 전용.
+ * 전체 프레임 변환 기준 구현(YuvToRgbConverter)은 테스트 소스에만 있다.
+ */
+final class FaceRoiSampler {
+
+    private static final String TAG = "FaceRoiSampler";
+
+    // BT.601 full range — YuvToRgbConverter와 같은 계수
+    private static final float R_V = 1.370705f;
+    private static final float G_U = 0.337633f;
+    private static final float G_V = 0.698001f;
+    private static final float B_U = 1.732446f;
+
+    private final double[] align = new double[6];
+
+    private byte[] row  = new byte[0];
+    private byte[] yWin = new byte[0];
+    private byte[] uWin = new byte[0];
+    private byte[] vWin = new byte[0];
+
+    private byte[] luma = new byte[0];
+    private int    lumaW;
+    private int    lumaH;
+    private int    frameW;
+    private int    frameH;
+
+    static boolean isSupported(ImageProxy proxy) {
+        return proxy.getFormat() == ImageFormat.YUV_420_888;
+    }
+
+    /**
+     * 얼굴 ROI → dst (FaceEmbedder.InputWriter 규약). 포맷 미지원이면 false.
+     */
+    boolean sample(ImageProxy proxy, Face face, FloatBuffer dst, float scale, float offset) {
+        if (!isSupported(proxy)) {
+            SafeLogger.w(TAG, "지원하지 않는 이미지 포맷: " + proxy.getFormat());
+            return false;
+        }
+        int w = proxy.getWidth(), h = proxy.getHeight();
+        int rotation = proxy.getImageInfo().getRotationDegrees();
+        boolean swap = rotation == 90 || rotation == 270;
+        FaceAligner.alignTransform(face, swap ? h : w, swap ? w : h, align);
+
+        ImageProxy.PlaneProxy[] planes = proxy.getPlanes();
+        sampleToTensor(planes[0].getBuffer(), planes[0].getRowStride(), planes[0].getPixelStride(),
+                planes[1].getBuffer(), planes[1].getRowStride(), planes[1].getPixelStride(),
+                planes[2].getBuffer(), planes[2].getRowStride(), planes[2].getPixelStride(),
+                w, h, rotation, align, FaceAligner.OUTPUT_SIZE, dst, scale, offset);
+        return true;
+    }
+
+    /**
+     * 출력 프레임(회전·미러 적용) 좌상단 maxW×maxH 영역의 Y 값 → luma(). 포맷 미지원이면 false.
+     */
+    boolean readLuma(ImageProxy proxy, int maxW, int maxH) {
+        if (!isSupported(proxy)) {
+            SafeLogger.w(TAG, "지원하지 않는 이미지 포맷: " + proxy.getFormat());
+            return false;
+        }
+        ImageProxy.PlaneProxy y = proxy.getPlanes()[0];
+        readLuma(y.getBuffer(), y.getRowStride(), y.getPixelStride(),
+                proxy.getWidth(), proxy.getHeight(), proxy.getImageInfo().getRotationDegrees(), maxW, maxH);
+        return true;
+    }
+
+    /** 마지막 readLuma 결과 (lumaWidth × lumaHeight, row-major). */
+    byte[] luma() { return luma; }
+
+    int lumaWidth() { return lumaW; }
+
+    int lumaHeight() { return lumaH; }
+
+    /** 마지막 readLuma 프레임의 회전 후 크기. */
+    int frameWidth() { return frameW; }
+
+    int frameHeight() { return frameH; }
+
+    /** 보유 버퍼 해제 (Activity 종료 시). */
+    void release() {
+        row = yWin = uWin = vWin = luma = new byte[0];
+    }
+
+    /**
+     * 평면 → dst[size·size·3]. 버퍼 position은 호출 전 상태로 복원.
+     *
+     * @param m      FaceAligner.alignTransform 결과 (출력 픽셀 중심 → 회전·미러 적용 프레임 연속 좌표)
+     * @param scale  정규화 배율 (1 / std)
+     * @param offset 정규화 오프셋 (-mean / std)
+     */
+    void sampleToTensor(ByteBuffer yBuf, int yRowStride, int yPixelStride,
+                        ByteBuffer uBuf, int uRowStride, int uPixelStride,
+                        ByteBuffer vBuf, int vRowStride, int vPixelStride,
+                        int w, int h, int rotation, double[] m, int size,
+                        FloatBuffer dst, float scale, float offset) {
+        // 출력 (u, v) → 출력 프레임 픽셀 인덱스 좌표: m·(u + 0.5, v + 0.5) - 0.5
+        double fa = m[0], fb = m[1], fc = m[2] + 0.5 * (m[0] + m[1]) - 0.5;
+        double fd = m[3], fe = m[4], ff = m[5] + 0.5 * (m[3] + m[4]) - 0.5;
+
+        // 출력 프레임 → 원본 (x, y): YuvToRgbConverter 회전·미러의 역변환
+        double ax, bx, cx, ay, by, cy;
+        switch (rotation) {
+            case 90:    // x = fy, y = fx
+                ax = fd;  bx = fe;  cx = ff;          ay = fa;  by = fb;  cy = fc;          break;
+            case 180:   // x = fx, y = h-1-fy
+                ax = fa;  bx = fb;  cx = fc;          ay = -fd; by = -fe; cy = h - 1 - ff; break;
+            case 270:   // x = w-1-fy, y = h-1-fx
+                ax = -fd; bx = -fe; cx = w - 1 - ff; ay = -fa; by = -fb; cy = h - 1 - fc; break;
+            default:
+                ax = fa;  bx = fb;  cx = fc;          ay = fd;  by = fe;  cy = ff;          break;
+        }
+
+        // ROI 외곽 = 출력 네 모서리의 원본 좌표 + 보간 여유 1px, 프레임으로 클리핑
+        int last = size - 1;
+        double xMin = cx, xMax = cx, yMin = cy, yMax = cy;
+        for (int i = 1; i < 4; i++) {
+            double u = (i & 1) * last, v = (i >> 1) * last;
+            double px = cx + ax * u + bx * v;
+            double py = cy + ay * u + by * v;
+            xMin = Math.min(xMin, px); xMax = Math.max(xMax, px);
+            yMin = Math.min(yMin, py); yMax = Math.max(yMax, py);
+        }
+        int x0 = Math.max(0, (int) Math.floor(xMin) - 1);
+        int x1 = Math.min(w - 1, (int) Math.ceil(xMax) + 1);
+        int y0 = Math.max(0, (int) Math.floor(yMin) - 1);
+        int y1 = Math.min(h - 1, (int) Math.ceil(yMax) + 1);
+        boolean inFrame = x0 <= x1 && y0 <= y1;
+
+        int winW = x1 - x0 + 1;
+        int cx0 = x0 >> 1, cy0 = y0 >> 1;
+        int cWinW = (x1 >> 1) - cx0 + 1;
+        if (inFrame) {
+            int yPos0 = yBuf.position(), uPos0 = uBuf.position(), vPos0 = vBuf.position();
+            try {
+                yWin = readWindow(yBuf, yPos0, yRowStride, yPixelStride, x0, y0, winW, y1 - y0 + 1, yWin);
+                int cRows = (y1 >> 1) - cy0 + 1;
+                uWin = readWindow(uBuf, uPos0, uRowStride, uPixelStride, cx0, cy0, cWinW, cRows, uWin);
+                vWin = readWindow(vBuf, vPos0, vRowStride, vPixelStride, cx0, cy0, cWinW, cRows, vWin);
+            } finally {
+                yBuf.position(yPos0);
+                uBuf.position(uPos0);
+                vBuf.position(vPos0);
+            }
+        }
+
+        float black = offset;
+        byte[] yw = yWin, uw = uWin, vw = vWin;
+        int o = 0;
+        for (int v = 0; v < size; v++) {
+            double sx = cx + bx * v;
+            double sy = cy + by * v;
+            for (int u = 0; u < size; u++, sx += ax, sy += ay) {
+                if (!inFrame || sx < -0.5 || sy < -0.5 || sx > w - 0.5 || sy > h - 0.5) {
+                    dst.put(o++, black);
+                    dst.put(o++, black);
+                    dst.put(o++, black);
+                    continue;
+                }
+                double xx = sx < 0 ? 0 : (sx > w - 1 ? w - 1 : sx);
+                double yy = sy < 0 ? 0 : (sy > h - 1 ? h - 1 : sy);
+                int xi = (int) xx, yi = (int) yy;
+                float tx = (float) (xx - xi), ty = (float) (yy - yi);
+                int xj = xi < w - 1 ? xi + 1 : xi;
+                int yj = yi < h - 1 ? yi + 1 : yi;
+                int r0 = (yi - y0) * winW, r1 = (yj - y0) * winW;
+                int c0 = xi - x0, c1 = xj - x0;
+                float top = (yw[r0 + c0] & 0xff) + tx * ((yw[r0 + c1] & 0xff) - (yw[r0 + c0] & 0xff));
+                float bot = (yw[r1 + c0] & 0xff) + tx * ((yw[r1 + c1] & 0xff) - (yw[r1 + c0] & 0xff));
+                float lum = top + ty * (bot - top);
+
+                int ci = (((int) (yy + 0.5) >> 1) - cy0) * cWinW + ((int) (xx + 0.5) >> 1) - cx0;
+                float cu = (uw[ci] & 0xff) - 128;
+                float cv = (vw[ci] & 0xff) - 128;
+                dst.put(o++, clamp(lum + R_V * cv) * scale + offset);
+                dst.put(o++, clamp(lum - G_U * cu - G_V * cv) * scale + offset);
+                dst.put(o++, clamp(lum + B_U * cu) * scale + offset);
+            }
+        }
+    }
+
+    /**
+     * Y 평면 → 출력 프레임 좌상단 min(outW, maxW) × min(outH, maxH) 영역. 버퍼 position 복원.
+     * 회전 의미는 YuvToRgbConverter.convertToArgb와 동일.
+     */
+    void readLuma(ByteBuffer yBuf, int yRowStride, int yPixelStride,
+                  int w, int h, int rotation, int maxW, int maxH) {
+        boolean swap = rotation == 90 || rotation == 270;
+        frameW = swap ? h : w;
+        frameH = swap ? w : h;
+        int rw = Math.min(frameW, maxW);
+        int rh = Math.min(frameH, maxH);
+        lumaW = rw;
+        lumaH = rh;
+        if (luma.length < rw * rh) luma = new byte[rw * rh];
+        if (rw <= 0 || rh <= 0) return;
+
+        // 출력 인덱스 = base + x * sx + y * sy,  원본 영역 [sx0, sx0 + srcW) × [sy0, sy0 + srcH)
+        int base, sx, sy, sx0, sy0;
+        switch (rotation) {
+            case 90:  base = 0;                       sx = rw;  sy = 1;   sx0 = 0;      sy0 = 0;      break;
+            case 180: base = (h - 1) * rw;            sx = 1;   sy = -rw; sx0 = 0;      sy0 = h - rh; break;
+            case 270: base = (w - 1) * rw + h - 1;    sx = -rw; sy = -1;  sx0 = w - rh; sy0 = h - rw; break;
+            default:  base = 0;                       sx = 1;   sy = rw;  sx0 = 0;      sy0 = 0;      break;
+        }
+        int srcW = swap ? rh : rw;
+        int srcH = swap ? rw : rh;
+
+        int span = (srcW - 1) * yPixelStride + 1;
+        if (row.length < span) row = new byte[span];
+        int pos0 = yBuf.position();
+        try {
+            for (int y = sy0; y < sy0 + srcH; y++) {
+                readRow(yBuf, pos0 + y * yRowStride + sx0 * yPixelStride, row, span);
+                int d = base + y * sy + sx0 * sx;
+                for (int i = 0, s = 0; i < srcW; i++, s += yPixelStride, d += sx) {
+                    luma[d] = row[s];
+                }
+            }
+        } finally {
+            yBuf.position(pos0);
+        }
+    }
+
+    /** 평면의 [col0, col0+cols) × [row0, row0+rows) → 밀집 byte[] (pixelStride 제거). */
+    private byte[] readWindow(ByteBuffer buf, int pos0, int rowStride, int pixelStride,
+                              int col0, int row0, int cols, int rows, byte[] win) {
+        if (win.length < cols * rows) win = new byte[cols * rows];
+        int span = (cols - 1) * pixelStride + 1;
+        if (row.length < span) row = new byte[span];
+        for (int r = 0; r < rows; r++) {
+            readRow(buf, pos0 + (row0 + r) * rowStride + col0 * pixelStride, row, span);
+            int d = r * cols;
+            if (pixelStride == 1) {
+                System.arraycopy(row, 0, win, d, cols);
+            } else {
+                for (int c = 0, s = 0; c < cols; c++, s += pixelStride) win[d + c] = row[s];
+            }
+        }
+        return win;
+    }
+
+    private static float clamp(float c) {
+        return c < 0f ? 0f : (c > 255f ? 255f : c);
+    }
+
+    /** buf[pos, pos+len) → dst (마지막 행이 rowStride보다 짧은 경우 남은 만큼만). */
+    private static void readRow(ByteBuffer buf, int pos, byte[] dst, int len) {
+        int n = Math.min(len, buf.limit() - pos);
+        if (n <= 0) return;
+        buf.position(pos);
+        buf.get(dst, 0, n);
+    }
+}
@@ -0,0 +1,138 @@
+package com.faceauth.sdk.camera;
+
+/**
+ * 추적 안정도 기반 검출 주기 조절 (분석기 스레드 전용).
+ *
+ * 같은 trackingId가 MIN_STABLE_DETECTIONS회 이상 거의 움직이지 않고 검출되면
+ * detectEvery 프레임마다 1회만 ML Kit 검출을 돌리고, 건너뛴 프레임은 최근 두 검출의
+ * bbox 이동으로 위치를 예측한다 (등속 가정). 예측 이동이 motionRatio × STILL_FRACTION 이하인
+ * 건너뛴 프레임만 호출측이 안정 프레임으로 인정한다 (skippedFrameStill) — 검출 없이 안정도를 쌓지 않음.
+ * 다음 경우 즉시 매 프레임 검출로 복귀:
+ *  - 검출 간 이동·크기 변화가 motionRatio(bbox 폭 대비) 초과
+ *  - 예측 위치가 마지막 검출에서 motionRatio 이상 벗어남
+ *  - 얼굴 소실 / trackingId 변경 (onLost, onDetected)
+ */
+final class FrameScheduler {
+
+    /** 안정으로 보기 위한 연속 검출 수 */
+    static final int MIN_STABLE_DETECTIONS = 2;
+    /** 건너뛴 프레임을 안정으로 인정하는 예측 이동 상한 (motionRatio 대비) */
+    static final float STILL_FRACTION = 0.5f;
+
+    private final int   detectEvery;
+    private final float motionRatio;
+
+    private Integer trackingId;
+    private int     stableDetections;
+    private int     framesSinceDetect;
+
+    // 최근 두 검출 bbox (left, top, right, bottom) + 프레임 시각
+    private final float[] last = new float[4];
+    private final float[] prev = new float[4];
+    private long    lastMs;
+    private long    prevMs;
+    private boolean hasPrev;
+    private final float[] predicted = new float[4];
+    private float   lastSkipMotion;
+
+    private long detected;
+    private long skipped;
+
+    /**
+     * @param detectEvery 안정 시 검출 간격 (프레임). 1 이하 = 매 프레임 검출
+     * @param motionRatio bbox 폭 대비 허용 이동·크기 변화
+     */
+    FrameScheduler(int detectEvery, float motionRatio) {
+        this.detectEvery = detectEvery;
+        this.motionRatio = motionRatio;
+    }
+
+    /** 이 프레임을 검출할지. false면 건너뛴 프레임으로 집계. */
+    boolean shouldDetect(long frameMs) {
+        return shouldDetect(frameMs, false);
+    }
+
+    /** @param force true면 간격과 무관하게 검출 (호출측이 실제 얼굴이 필요한 프레임). 검출로 집계. */
+    boolean shouldDetect(long frameMs, boolean force) {
+        float motion = 0f;
+        if (force || detectEvery <= 1 || !isStable() || framesSinceDetect + 1 >= detectEvery
+                || (motion = predictedMotion(frameMs)) > motionRatio) {
+            detected++;
+            return true;
+        }
+        lastSkipMotion = motion;
+        framesSinceDetect++;
+        skipped++;
+        return false;
+    }
+
+    /** 직전 건너뛴 프레임의 예측 bbox가 마지막 검출에서 거의 움직이지 않았는지 (안정 프레임 인정 여부). */
+    boolean skippedFrameStill() {
+        return lastSkipMotion <= motionRatio * STILL_FRACTION;
+    }
+
+    /** 선택된 얼굴 검출 결과 반영. */
+    void onDetected(Integer tid, float left, float top, float right, float bottom, long frameMs) {
+        framesSinceDetect = 0;
+        if (tid == null || !tid.equals(trackingId) || stableDetections == 0) {
+            trackingId       = tid;
+            stableDetections = tid != null ? 1 : 0;
+            hasPrev          = false;
+        } else {
+            float motion = motion(last[0], last[1], last[2], last[3], left, top, right, bottom);
+            System.arraycopy(last, 0, prev, 0, 4);
+            prevMs  = lastMs;
+            hasPrev = true;
+            stableDetections = motion > motionRatio ? 1 : stableDetections + 1;
+        }
+        last[0] = left;
+        last[1] = top;
+        last[2] = right;
+        last[3] = bottom;
+        lastMs  = frameMs;
+    }
+
+    /** 얼굴 없음·후보 없음 → 매 프레임 검출로 복귀. */
+    void onLost() {
+        framesSinceDetect = 0;
+        trackingId        = null;
+        stableDetections  = 0;
+        hasPrev           = false;
+    }
+
+    boolean isStable() {
+        return trackingId != null && stableDetections >= MIN_STABLE_DETECTIONS;
+    }
+
+    /**
+     * frameMs 시점 bbox 예측 → out[left, top, right, bottom]. 검출 이력이 없으면 false.
+     * 이력이 1회뿐이면 마지막 검출 위치 그대로.
+     */
+    boolean predict(long frameMs, float[] out) {
+        if (stableDetections == 0) return false;
+        System.arraycopy(last, 0, out, 0, 4);
+        long span = lastMs - prevMs;
+        if (!hasPrev || span <= 0) return true;
+        float k = (float) (frameMs - lastMs) / span;
+        for (int i = 0; i < 4; i++) out[i] += (last[i] - prev[i]) * k;
+        return true;
+    }
+
+    long detectedCount() { return detected; }
+
+    long skippedCount() { return skipped; }
+
+    private float predictedMotion(long frameMs) {
+        if (!predict(frameMs, predicted)) return 0f;
+        return motion(last[0], last[1], last[2], last[3], predicted[0], predicted[1], predicted[2], predicted[3]);
+    }
+
+    /** 중심 이동(큰 축) + 폭 변화, 이전 bbox 폭 대비. */
+    static float motion(float l0, float t0, float r0, float b0, float l1, float t1, float r1, float b1) {
+        float w = Math.max(1f, r0 - l0);
+        float dx = Math.abs((l1 + r1) - (l0 + r0)) * 0.5f;
+        float dy = Math.abs((t1 + b1) - (t0 + b0)) * 0.5f;
+        float dw = Math.abs((r1 - l1) - (r0 - l0));
+        return (Math.max(dx, dy) + dw) / w;
+    }
+}
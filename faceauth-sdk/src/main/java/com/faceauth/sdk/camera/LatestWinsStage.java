@@ -0,0 +1,106 @@
+package com.faceauth.sdk.camera;
+
+import com.faceauth.sdk.logging.SafeLogger;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+
+/**
+ * 파이프라인 단계 1개: 전용 스레드 + 1칸 대기열 (latest-wins).
+ *
+ * 처리 중에 새 항목이 들어오면 대기 항목을 교체하고 밀려난 항목은 onDrop으로 반납
+ * (풀 버퍼 회수 등). 앞 단계는 절대 막히지 않고, 메모리는 처리 중 1 + 대기 1 로 고정.
+ */
+final class LatestWinsStage<T> {
+
+    private static final String TAG = "LatestWinsStage";
+
+    private final String          name;
+    private final Consumer<T>     handler;
+    private final Consumer<T>     onDrop;
+    private final ExecutorService worker;
+
+    private T       pending;
+    private boolean running;
+    private boolean closed;
+    private long    dropped;
+
+    LatestWinsStage(String name, Consumer<T> handler, Consumer<T> onDrop) {
+        this.name    = name;
+        this.handler = handler;
+        this.onDrop  = onDrop;
+        this.worker  = Executors.newSingleThreadExecutor(r -> new Thread(r, "faceauth-" + name));
+    }
+
+    /** 대기 항목을 item으로 교체. 종료 후에는 바로 onDrop. */
+    void offer(T item) {
+        T old;
+        synchronized (this) {
+            if (closed) {
+                old = item;
+            } else {
+                old = pending;
+                pending = item;
+                if (old != null) dropped++;
+                if (!running) {
+                    running = true;
+                    worker.execute(this::drain);
+                }
+            }
+        }
+        if (old != null) onDrop.accept(old);
+    }
+
+    /** 교체로 버려진 항목 수. */
+    synchronized long droppedCount() { return dropped; }
+
+    /** 대기 항목 폐기 후 스레드 종료. 처리 중 항목은 timeoutMs까지 기다림. */
+    void shutdown(long timeoutMs) {
+        T old;
+        synchronized (this) {
+            closed  = true;
+            old     = pending;
+            pending = null;
+        }
+        if (old != null) onDrop.accept(old);
+        worker.shutdown();
+        try {
+            if (!worker.awaitTermination(timeoutMs, TimeUnit.MILLISECONDS)) worker.shutdownNow();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            worker.shutdownNow();
+        }
+    }
+
+    private void drain() {
+        boolean idle = false;
+        try {
+            while (true) {
+                T item;
+                synchronized (this) {
+                    item    = pending;
+                    pending = null;
+                    if (item == null) {
+                        running = false;
+                        idle    = true;
+                        return;
+                    }
+                }
+                try {
+                    handler.accept(item);
+                } catch (RuntimeException e) {
+                    SafeLogger.e(TAG, name + " 단계 처리 오류", e);
+                }
+            }
+        } finally {
+            if (!idle) {
+                // Error(OOM 등)로 빠져나감 → 다음 offer가 새 drain을 시작하도록 해제 후 Error 전파
+                synchronized (this) {
+                    running = false;
+                }
+            }
+        }
+    }
+}
@@ -24,7 +24,10 @@ import androidx.core.content.ContextCompat;
 import com.faceauth.sdk.R;
 import com.faceauth.sdk.api.FaceAuthConfig;
 import com.faceauth.sdk.api.FaceAuthSdk;
+import com.faceauth.sdk.detection.DetectionException;
 import com.faceauth.sdk.detection.FaceDetector;
+import com.faceauth.sdk.logging.EventJournal;
+import com.faceauth.sdk.logging.EventSchema;
 import com.faceauth.sdk.logging.SafeLogger;
 import com.faceauth.sdk.overlay.FaceGuideOverlay;
 import com.google.common.util.concurrent.ListenableFuture;
@@ -65,6 +68,8 @@ public final class LivenessActivity extends AppCompatActivity {
     private final Deque<Float> yawHistory = new ArrayDeque<>(YAW_SMOOTHING_FRAMES);
 
     private ExecutorService cameraExecutor;
+    /** 진행 중 검출 (onDestroy에서 취소 → 결과 대신 프레임만 닫힘) */
+    private volatile FaceDetector.Request detection;
     private final Handler mainHandler = new Handler(Looper.getMainLooper());
 
     @Override
@@ -96,7 +101,7 @@ public final class LivenessActivity extends AppCompatActivity {
         btnBackToList.setOnClickListener(v -> onBackToListClicked());
 
         try {
-            faceDetector = new FaceDetector();
+            faceDetector = FaceAuthSdk.getEnginePool().acquireDetector(this);
         } catch (Exception e) {
             SafeLogger.e(TAG, "FaceDetector 초기화 실패", e);
             showFailed("YAW_UNAVAILABLE");
@@ -147,11 +152,39 @@ public final class LivenessActivity extends AppCompatActivity {
             mainHandler.post(() -> showFailed("TIMEOUT"));
             return;
         }
+        FaceDetector.Request previous = detection;
+        if (previous != null) previous.cancel();   // 이전 프레임 결과가 아직이면 버림 (최신 프레임 우선)
         try {
-            if (proxy.getImage() == null) return;
+            if (proxy.getImage() == null) { proxy.close(); return; }
             InputImage inputImage = InputImage.fromMediaImage(
                     proxy.getImage(), proxy.getImageInfo().getRotationDegrees());
-            List<Face> faces = faceDetector.detectSync(inputImage);
+            detection = faceDetector.detectAsync(inputImage, cameraExecutor, new FaceDetector.Callback() {
+                @Override public void onFaces(List<Face> faces) {
+                    onFacesDetected(proxy, faces);
+                }
+
+                @Override public void onError(DetectionException e) {
+                    SafeLogger.e(TAG, "라이브니스 프레임 오류", e);
+                    proxy.close();
+                }
+
+                @Override public void onCancelled() {
+                    proxy.close();
+                }
+            });
+        } catch (Exception e) {
+            SafeLogger.e(TAG, "라이브니스 프레임 오류", e);
+            proxy.close();
+        }
+    }
+
+    /** 검출 이후 yaw 챌린지 진행 (cameraExecutor). */
+    private void onFacesDetected(ImageProxy proxy, List<Face> faces) {
+        if (state == LivenessState.PASSED || state == LivenessState.FAILED) {
+            proxy.close();
+            return;
+        }
+        try {
             if (faces.isEmpty()) {
                 mainHandler.post(() -> guideOverlay.update(FaceGuideOverlay.GuideState.IDLE, "얼굴을 가이드에 맞춰 주세요."));
                 proxy.close();
@@ -170,9 +203,9 @@ public final class LivenessActivity extends AppCompatActivity {
             boolean inCenter = Math.abs(smoothed) <= config.yawCenterMaxAbsDeg;
             boolean turnOk = challengeLeft ? smoothed <= config.yawLeftMinDeg : smoothed >= config.yawRightMinDeg;
 
-            SafeLogger.i(TAG, String.format(
-                    "{\"event\":\"auth_liveness_progress\",\"yaw\":%.1f,\"state\":\"%s\",\"streaks\":%d,\"selectedTrackingId\":%s,\"roiCandidateCount\":1}",
-                    smoothed, state.name(), consecutiveFrames, tid != null ? tid : "null"));
+            EventJournal.begin(EventSchema.AUTH_LIVENESS_PROGRESS)
+                    .f(smoothed).s(state.name()).i(consecutiveFrames).n(tid).i(1)
+                    .commit();
 
             if (state == LivenessState.WAIT_CENTER) {
                 if (inCenter) {
@@ -240,7 +273,9 @@ public final class LivenessActivity extends AppCompatActivity {
     @Override
     protected void onDestroy() {
         super.onDestroy();
+        FaceDetector.Request pending = detection;
+        if (pending != null) pending.cancel();
         if (cameraExecutor != null) cameraExecutor.shutdown();
-        if (faceDetector != null) faceDetector.close();
+        // faceDetector: EnginePool 공용 — ON_DESTROY에서 자동 반납
     }
 }
@@ -0,0 +1,75 @@
+package com.faceauth.sdk.camera;
+
+/**
+ * trackingId별 최근 임베딩 재사용 (인증 embedStage 전용, 트랙 1개만 보관).
+ *
+ * 같은 트랙에서 자세·크기·선명도가 거의 같은 프레임은 재추론해도 같은 임베딩이 나오므로
+ * 캐시된 임베딩을 돌려준다. 다음 경우에는 새로 임베딩:
+ *  - 다른 trackingId / trackingId 없음 / ttlMs 경과
+ *  - yaw·pitch가 MAX_ANGLE_DELTA_DEG 이상 변함 (다른 자세 = 새 증거)
+ *  - bbox 면적 비율이 MAX_AREA_DELTA(상대) 이상 변함
+ *  - blur 점수가 SHARPER_RATIO배 이상 (의미 있게 더 선명한 프레임)
+ */
+final class TrackEmbeddingCache {
+
+    static final float MAX_ANGLE_DELTA_DEG = 3f;
+    static final float MAX_AREA_DELTA      = 0.08f;
+    static final float SHARPER_RATIO       = 1.25f;
+
+    private final long ttlMs;
+
+    private Integer trackingId;
+    private float   yaw;
+    private float   pitch;
+    private float   areaRatio;
+    private float   blurScore;
+    private long    timeMs;
+    private float[] embedding;
+
+    private long hits;
+    private long misses;
+
+    /** @param ttlMs 캐시 유효 시간. 0 이하 = 사용 안 함 */
+    TrackEmbeddingCache(long ttlMs) {
+        this.ttlMs = ttlMs;
+    }
+
+    /** 재사용 가능한 임베딩 (없으면 null). 결과는 캐시 내부 배열이므로 수정하지 말 것. */
+    float[] lookup(Integer trackingId, float yaw, float pitch, float areaRatio, float blurScore, long nowMs) {
+        boolean hit = ttlMs > 0 && embedding != null && trackingId != null
+                && trackingId.equals(this.trackingId)
+                && nowMs - timeMs <= ttlMs
+                && Math.abs(yaw - this.yaw) < MAX_ANGLE_DELTA_DEG
+                && Math.abs(pitch - this.pitch) < MAX_ANGLE_DELTA_DEG
+                && Math.abs(areaRatio - this.areaRatio) < MAX_AREA_DELTA * this.areaRatio
+                && !(blurScore >= this.blurScore * SHARPER_RATIO);
+        if (hit) {
+            hits++;
+            return embedding;
+        }
+        misses++;
+        return null;
+    }
+
+    /** 새로 계산한 임베딩 저장 (같은 트랙의 이전 항목 교체). */
+    void put(Integer trackingId, float yaw, float pitch, float areaRatio, float blurScore,
+             long nowMs, float[] embedding) {
+        if (ttlMs <= 0 || trackingId == null) return;
+        this.trackingId = trackingId;
+        this.yaw        = yaw;
+        this.pitch      = pitch;
+        this.areaRatio  = areaRatio;
+        this.blurScore  = blurScore;
+        this.timeMs     = nowMs;
+        this.embedding  = embedding;
+    }
+
+    void clear() {
+        trackingId = null;
+        embedding  = null;
+    }
+
+    long hits() { return hits; }
+
+    long misses() { return misses; }
+}
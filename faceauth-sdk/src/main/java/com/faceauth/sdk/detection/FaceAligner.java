@@ -55,6 +55,88 @@ public final class FaceAligner {
         return resized;
     }
 
+    /**
+     * align()과 같은 크롭·눈 기준 회전을 Bitmap 없이 affine 으로 계산.
+     * 출력 픽셀 중심 (u+0.5, v+0.5) → 프레임 연속 좌표:
+     *   fx = m[0]·u' + m[1]·v' + m[2],  fy = m[3]·u' + m[4]·v' + m[5]
+     *
+     * @param frameW 프레임 너비 (align()에 넘기는 Bitmap 기준 — 회전·미러 적용 후)
+     * @param frameH 프레임 높이
+     * @param m      출력 double[6]
+     */
+    public static void alignTransform(Face face, int frameW, int frameH, double[] m) {
+        Rect bbox = face.getBoundingBox();
+        FaceLandmark leftEye  = face.getLandmark(FaceLandmark.LEFT_EYE);
+        FaceLandmark rightEye = face.getLandmark(FaceLandmark.RIGHT_EYE);
+        boolean eyes = leftEye != null && rightEye != null;
+        alignTransform(bbox.left, bbox.top, bbox.right, bbox.bottom, eyes,
+                eyes ? leftEye.getPosition().x : 0f, eyes ? leftEye.getPosition().y : 0f,
+                eyes ? rightEye.getPosition().x : 0f, eyes ? rightEye.getPosition().y : 0f,
+                frameW, frameH, m);
+    }
+
+    /**
+     * alignTransform 원시값 버전.
+     * 기존 align() 결과와 같은 영역을 쓰기 위해 Bitmap.createBitmap(matrix)의 동작까지 재현:
+     * 회전 Bitmap은 변환된 프레임 외곽 사각형 크기(반올림)이고 좌상단이 (0, 0)으로 이동한 뒤 bbox로 재크롭.
+     */
+    public static void alignTransform(int l, int t, int r, int b, boolean hasEyes,
+                                      float lx, float ly, float rx, float ry,
+                                      int frameW, int frameH, double[] m) {
+        int left   = Math.max(0, l);
+        int top    = Math.max(0, t);
+        int right  = Math.min(frameW, r);
+        int bottom = Math.min(frameH, b);
+
+        if (right <= left || bottom <= top) {
+            // bbox가 프레임 밖이면 전체 리사이즈로 폴백
+            crop(m, 0, 0, frameW, frameH);
+            return;
+        }
+        if (hasEyes) {
+            float angle = (float) Math.toDegrees(Math.atan2(ry - ly, rx - lx));
+            double cx = (lx + rx) / 2f;
+            double cy = (ly + ry) / 2f;
+            double rad = Math.toRadians(angle);
+            double cos = Math.cos(rad), sin = Math.sin(rad);
+
+            // 프레임 네 모서리를 -angle 회전 → 회전 Bitmap 외곽
+            double minX = Double.MAX_VALUE, minY = Double.MAX_VALUE;
+            double maxX = -Double.MAX_VALUE, maxY = -Double.MAX_VALUE;
+            for (int i = 0; i < 4; i++) {
+                double px = ((i & 1) == 0 ? 0 : frameW) - cx;
+                double py = ((i & 2) == 0 ? 0 : frameH) - cy;
+                double qx =  cos * px + sin * py + cx;
+                double qy = -sin * px + cos * py + cy;
+                minX = Math.min(minX, qx); maxX = Math.max(maxX, qx);
+                minY = Math.min(minY, qy); maxY = Math.max(maxY, qy);
+            }
+            int rotW = Math.round((float) (maxX - minX));
+            int rotH = Math.round((float) (maxY - minY));
+
+            int rl = Math.max(0, l);
+            int rt = Math.max(0, t);
+            int rr = Math.min(rotW, r);
+            int rb = Math.min(rotH, b);
+            if (rr > rl && rb > rt) {
+                // 출력 → 회전 Bitmap (rl + u'·sx, rt + v'·sy) → 회전 평면 (+minX, +minY) → 프레임 (+angle 회전)
+                double sx = (rr - rl) / (double) OUTPUT_SIZE;
+                double sy = (rb - rt) / (double) OUTPUT_SIZE;
+                double ox = rl + minX - cx;
+                double oy = rt + minY - cy;
+                m[0] = cos * sx;  m[1] = -sin * sy;  m[2] = cos * ox - sin * oy + cx;
+                m[3] = sin * sx;  m[4] =  cos * sy;  m[5] = sin * ox + cos * oy + cy;
+                return;
+            }
+        }
+        crop(m, left, top, right, bottom);
+    }
+
+    private static void crop(double[] m, int left, int top, int right, int bottom) {
+        m[0] = (right - left) / (double) OUTPUT_SIZE;  m[1] = 0;  m[2] = left;
+        m[3] = 0;  m[4] = (bottom - top) / (double) OUTPUT_SIZE;  m[5] = top;
+    }
+
     /** 눈 랜드마크가 있으면 회전 정렬 적용 */
     private static Bitmap tryEyeAlign(Bitmap src, Face face, Bitmap fallback) {
         FaceLandmark leftEye  = face.getLandmark(FaceLandmark.LEFT_EYE);
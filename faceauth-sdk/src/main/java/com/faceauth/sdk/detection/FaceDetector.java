@@ -2,6 +2,7 @@ package com.faceauth.sdk.detection;
 
 import android.graphics.Bitmap;
 
+import com.google.android.gms.tasks.Task;
 import com.google.mlkit.vision.common.InputImage;
 import com.google.mlkit.vision.face.Face;
 import com.google.mlkit.vision.face.FaceDetection;
@@ -9,44 +10,131 @@ import com.google.mlkit.vision.face.FaceDetectorOptions;
 
 import java.util.List;
 import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.concurrent.atomic.AtomicReference;
 
 /**
  * ML Kit Face Detection 래퍼.
- * - 랜드마크 + Euler Angle + Classification 활성화 (EAR 계산용)
- * - 동기식 호출을 지원하기 위해 CountDownLatch 사용
- *   (Camera Analyzer는 이미 백그라운드 스레드에서 실행됨)
+ * - 기본: 랜드마크 + Euler Angle + Classification 활성화 (정렬·EAR 계산용)
+ * - FaceDetector(false): 존재·위치·Euler Angle만 (가이드 진입 전 저비용 검출, TieredFaceDetector)
+ * - 분석기 경로는 detectAsync: ML Kit 완료 후 호출자 executor에서 콜백 (스레드를 막지 않음)
+ * - detectSync는 백그라운드 단발 호출용 (워밍업 등)
  */
 public final class FaceDetector {
 
+    /**
+     * 검출 결과 콜백. 요청당 정확히 하나가 1회 호출되며, 항상 ML Kit가 입력 이미지 처리를 끝낸 뒤다
+     * (onCancelled에서도 ImageProxy를 바로 닫아도 됨).
+     */
+    public interface Callback {
+        /** @param faces 검출된 얼굴 목록 (빈 리스트 = 얼굴 없음) */
+        void onFaces(List<Face> faces);
+
+        void onError(DetectionException e);
+
+        /** cancel() 되었거나 호출자 executor가 종료됨. executor 종료 시에는 ML Kit 스레드에서 호출. */
+        default void onCancelled() {}
+    }
+
+    /** 진행 중 검출 요청. cancel() 후에는 결과 대신 onCancelled. */
+    public static final class Request {
+        private final AtomicBoolean cancelled = new AtomicBoolean();
+        private final AtomicBoolean done      = new AtomicBoolean();
+
+        /** 결과 전달 전이면 취소 (ML Kit 처리 자체는 중단되지 않음 — 결과만 버림). */
+        public void cancel() { cancelled.set(true); }
+
+        public boolean isCancelled() { return cancelled.get(); }
+
+        /** 콜백 전달 완료 여부. */
+        public boolean isDone() { return done.get(); }
+
+        void finish(List<Face> faces, Exception error, boolean taskCancelled, Callback callback) {
+            if (!done.compareAndSet(false, true)) return;
+            if (cancelled.get() || taskCancelled) {
+                callback.onCancelled();
+            } else if (error != null) {
+                callback.onError(error instanceof DetectionException
+                        ? (DetectionException) error : new DetectionException("얼굴 검출 실패", error));
+            } else {
+                callback.onFaces(faces);
+            }
+        }
+    }
+
     private final com.google.mlkit.vision.face.FaceDetector detector;
+    private final boolean landmarks;
 
     public FaceDetector() {
+        this(true);
+    }
+
+    /**
+     * @param landmarks false면 랜드마크·Classification 없이 생성 (눈 정렬·눈 뜸 확률 없음, 검출 비용 절감)
+     */
+    public FaceDetector(boolean landmarks) {
+        this.landmarks = landmarks;
         FaceDetectorOptions options = new FaceDetectorOptions.Builder()
                 .setPerformanceMode(FaceDetectorOptions.PERFORMANCE_MODE_FAST)
-                .setLandmarkMode(FaceDetectorOptions.LANDMARK_MODE_ALL)
-                .setClassificationMode(FaceDetectorOptions.CLASSIFICATION_MODE_ALL)
+                .setLandmarkMode(landmarks
+                        ? FaceDetectorOptions.LANDMARK_MODE_ALL : FaceDetectorOptions.LANDMARK_MODE_NONE)
+                .setClassificationMode(landmarks
+                        ? FaceDetectorOptions.CLASSIFICATION_MODE_ALL : FaceDetectorOptions.CLASSIFICATION_MODE_NONE)
                 .setMinFaceSize(0.15f)
                 .enableTracking()
                 .build();
         detector = FaceDetection.getClient(options);
     }
 
+    /** 랜드마크·Classification 결과를 내는 클라이언트인지. */
+    public boolean hasLandmarks() {
+        return landmarks;
+    }
+
     /**
-     * 동기식 얼굴 검출 (SSoT: 분석기 경로용). MediaImage 기반 InputImage 사용.
+     * 비동기 얼굴 검출 (SSoT: 분석기 경로용). 호출 스레드는 바로 반환.
      *
      * @param inputImage InputImage.fromMediaImage(mediaImage, rotation) 로 생성한 이미지
-     * @return 검출된 얼굴 목록 (빈 리스트 = 얼굴 없음)
+     *                   (콜백 전까지 원본 ImageProxy를 닫지 말 것)
+     * @param executor   콜백 실행 executor (분석기 executor 권장 → 프레임 상태를 같은 스레드에서 처리)
+     * @return 취소용 핸들
+     */
+    public Request detectAsync(InputImage inputImage, Executor executor, Callback callback) {
+        Request request = new Request();
+        Task<List<Face>> task;
+        try {
+            task = detector.process(inputImage);
+        } catch (RuntimeException e) {
+            deliver(request, null, e, false, executor, callback);
+            return request;
+        }
+        task.addOnCompleteListener(Runnable::run, t -> deliver(request,
+                t.isSuccessful() ? t.getResult() : null,
+                t.isSuccessful() || t.isCanceled() ? null : t.getException(),
+                t.isCanceled(), executor, callback));
+        return request;
+    }
+
+    /**
+     * 동기식 얼굴 검출. 완료까지 호출 스레드를 막으므로 분석기 경로에서는 detectAsync 사용.
+     *
      * @throws DetectionException 처리 실패 시
      */
     public List<Face> detectSync(InputImage inputImage) throws DetectionException {
         CountDownLatch latch = new CountDownLatch(1);
-        AtomicReference<List<Face>>  result = new AtomicReference<>();
-        AtomicReference<Exception>   error  = new AtomicReference<>();
-
-        detector.process(inputImage)
-                .addOnSuccessListener(faces -> { result.set(faces); latch.countDown(); })
-                .addOnFailureListener(e     -> { error.set(e);      latch.countDown(); });
+        AtomicReference<List<Face>>         result = new AtomicReference<>();
+        AtomicReference<DetectionException> error  = new AtomicReference<>();
+
+        detectAsync(inputImage, Runnable::run, new Callback() {
+            @Override public void onFaces(List<Face> faces)      { result.set(faces); latch.countDown(); }
+            @Override public void onError(DetectionException e)  { error.set(e);      latch.countDown(); }
+            @Override public void onCancelled() {
+                error.set(new DetectionException("얼굴 검출 취소"));
+                latch.countDown();
+            }
+        });
 
         try {
             latch.await();
@@ -55,44 +143,31 @@ public final class FaceDetector {
             throw new DetectionException("얼굴 검출 인터럽트", e);
         }
 
-        if (error.get() != null) {
-            throw new DetectionException("얼굴 검출 실패", error.get());
-        }
+        if (error.get() != null) throw error.get();
         return result.get();
     }
 
     /**
-     * 동기식 얼굴 검출 (Bitmap). COMMITTING/품질·정렬 등 Bitmap 필요 시에만 사용.
+     * 동기식 얼굴 검출 (Bitmap). 워밍업 등 Bitmap 필요 시에만 사용.
      *
      * @param bitmap 분석할 Bitmap (회전 보정 완료 상태)
-     * @return 검출된 얼굴 목록 (빈 리스트 = 얼굴 없음)
-     * @throws DetectionException 처리 실패 시
      */
     public List<Face> detectSync(Bitmap bitmap) throws DetectionException {
-        InputImage image = InputImage.fromBitmap(bitmap, 0);
-
-        CountDownLatch latch = new CountDownLatch(1);
-        AtomicReference<List<Face>>  result = new AtomicReference<>();
-        AtomicReference<Exception>   error  = new AtomicReference<>();
-
-        detector.process(image)
-                .addOnSuccessListener(faces -> { result.set(faces); latch.countDown(); })
-                .addOnFailureListener(e     -> { error.set(e);      latch.countDown(); });
-
-        try {
-            latch.await();
-        } catch (InterruptedException e) {
-            Thread.currentThread().interrupt();
-            throw new DetectionException("얼굴 검출 인터럽트", e);
-        }
-
-        if (error.get() != null) {
-            throw new DetectionException("얼굴 검출 실패", error.get());
-        }
-        return result.get();
+        return detectSync(InputImage.fromBitmap(bitmap, 0));
     }
 
     public void close() {
         detector.close();
     }
+
+    /** executor에 결과 전달. executor가 종료돼 거절하면 취소로 간주하고 현재 스레드에서 onCancelled. */
+    static void deliver(Request request, List<Face> faces, Exception error, boolean taskCancelled,
+                        Executor executor, Callback callback) {
+        try {
+            executor.execute(() -> request.finish(faces, error, taskCancelled, callback));
+        } catch (RejectedExecutionException e) {
+            request.cancel();
+            request.finish(null, null, true, callback);
+        }
+    }
 }
@@ -0,0 +1,126 @@
+package com.faceauth.sdk.detection;
+
+import com.google.mlkit.vision.common.InputImage;
+import com.google.mlkit.vision.face.Face;
+
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Executor;
+
+/**
+ * 2단계 검출기 (화면당 1개, 분석기 executor 전용).
+ *
+ * 얼굴이 가이드 밖에 있는 동안은 랜드마크·Classification 없는 경량 클라이언트로 존재·위치·yaw만 보고,
+ * 호출자가 onGuideState(true)로 가이드 안 후보를 알리면 다음 프레임부터 전체 클라이언트로 전환.
+ * RELEASE_FRAMES 연속 가이드 밖이면 경량으로 복귀.
+ *
+ * 전환은 프레임 사이에서 투명하게 처리:
+ *  - 진행 중 요청은 시작한 클라이언트 결과 그대로 전달
+ *  - trackingId는 TrackingIdBridge로 클라이언트 간 연결 → trackingId(face) 사용
+ *  - 정렬·임베딩 전에는 lastResultHasLandmarks()로 전체 클라이언트 결과인지 확인
+ *
+ * 두 FaceDetector는 EnginePool 공용 인스턴스 (닫지 않음).
+ */
+public final class TieredFaceDetector {
+
+    /** 가이드 밖 판정이 이만큼 연속되면 경량 검출로 복귀 (경계에서 프레임마다 전환 방지) */
+    static final int RELEASE_FRAMES = 15;
+
+    private final FaceDetector presence;
+    private final FaceDetector full;
+    private final TrackingIdBridge bridge = new TrackingIdBridge();
+    /** 마지막 결과의 얼굴별 연결 trackingId */
+    private final Map<Face, Integer> resolvedIds = new IdentityHashMap<>();
+
+    private boolean fullTier;
+    private int     outsideFrames;
+    private boolean lastHasLandmarks;
+
+    private long presenceFrames;
+    private long fullFrames;
+    private long tierSwitches;
+
+    /**
+     * @param presence 경량 클라이언트 (FaceDetector(false)). full과 같은 인스턴스면 항상 전체 검출
+     * @param full     랜드마크·Classification 클라이언트
+     */
+    public TieredFaceDetector(FaceDetector presence, FaceDetector full) {
+        this.presence = presence;
+        this.full     = full;
+        this.fullTier = presence == full;
+    }
+
+    /** 현재 티어 클라이언트로 비동기 검출. 규약은 FaceDetector.detectAsync와 같음. */
+    public FaceDetector.Request detectAsync(InputImage inputImage, Executor executor,
+                                            FaceDetector.Callback callback) {
+        FaceDetector tier = fullTier ? full : presence;
+        if (tier == full) fullFrames++;
+        else presenceFrames++;
+        return tier.detectAsync(inputImage, executor, new FaceDetector.Callback() {
+            @Override public void onFaces(List<Face> faces) {
+                resolveIds(tier, faces);
+                lastHasLandmarks = tier.hasLandmarks();
+                callback.onFaces(faces);
+            }
+
+            @Override public void onError(DetectionException e) { callback.onError(e); }
+
+            @Override public void onCancelled() { callback.onCancelled(); }
+        });
+    }
+
+    /**
+     * 프레임 처리 후 호출. candidateInside = EnrollmentFrameSnapshot.isInsideGuide.
+     * true면 즉시 전체 클라이언트로, false가 RELEASE_FRAMES 연속이면 경량으로.
+     */
+    public void onGuideState(boolean candidateInside) {
+        if (presence == full) return;
+        if (candidateInside) {
+            outsideFrames = 0;
+            if (!fullTier) {
+                fullTier = true;
+                tierSwitches++;
+            }
+        } else if (fullTier && ++outsideFrames >= RELEASE_FRAMES) {
+            fullTier = false;
+            outsideFrames = 0;
+            tierSwitches++;
+        }
+    }
+
+    /** 마지막으로 전달된 결과가 랜드마크를 포함하는지 (false면 정렬·임베딩·EAR에 쓰지 말 것). */
+    public boolean lastResultHasLandmarks() {
+        return lastHasLandmarks;
+    }
+
+    /** 마지막 결과 얼굴의 클라이언트 간 연결 trackingId (추적 없음·다른 프레임 얼굴이면 null). */
+    public Integer trackingId(Face face) {
+        return resolvedIds.get(face);
+    }
+
+    public boolean isFullTier() { return fullTier; }
+
+    public long presenceFrames() { return presenceFrames; }
+
+    public long fullFrames() { return fullFrames; }
+
+    public long tierSwitches() { return tierSwitches; }
+
+    private void resolveIds(FaceDetector tier, List<Face> faces) {
+        int n = faces.size();
+        Integer[] raw = new Integer[n];
+        float[] boxes = new float[n * 4];
+        for (int i = 0; i < n; i++) {
+            Face face = faces.get(i);
+            raw[i] = face.getTrackingId();
+            boxes[i * 4]     = face.getBoundingBox().left;
+            boxes[i * 4 + 1] = face.getBoundingBox().top;
+            boxes[i * 4 + 2] = face.getBoundingBox().right;
+            boxes[i * 4 + 3] = face.getBoundingBox().bottom;
+        }
+        Integer[] ids = bridge.resolve(tier == full ? 1 : 0, raw, boxes);
+        resolvedIds.clear();
+        for (int i = 0; i < n; i++) resolvedIds.put(faces.get(i), ids[i]);
+    }
+}
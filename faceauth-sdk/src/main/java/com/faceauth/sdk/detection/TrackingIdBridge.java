@@ -0,0 +1,85 @@
+package com.faceauth.sdk.detection;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * ML Kit 클라이언트 간 trackingId 연결 (TieredFaceDetector 결과 스레드 전용).
+ *
+ * 클라이언트마다 추적기가 따로라 티어가 바뀌면 같은 얼굴도 새 trackingId를 받는다.
+ * 원시 ID를 자체 발급 ID로 바꿔 주고, 티어 전환 직후 프레임에서는 직전 프레임 bbox와
+ * IoU가 MIN_IOU 이상인 얼굴에 이전 ID를 이어 붙인다 → 호출자의 안정 프레임 카운트가 끊기지 않음.
+ */
+final class TrackingIdBridge {
+
+    /** 전환 시 같은 얼굴로 볼 최소 IoU */
+    static final float MIN_IOU = 0.3f;
+
+    /** 현재 티어 원시 ID → 발급 ID */
+    private final Map<Integer, Integer> ids = new HashMap<>();
+    private int     tier = -1;
+    private int     nextId = 1;
+
+    // 직전 프레임 bbox (left, top, right, bottom 반복) + 발급 ID
+    private float[]   lastBoxes = new float[0];
+    private Integer[] lastIds   = new Integer[0];
+
+    /**
+     * @param tier   결과를 낸 클라이언트 구분값
+     * @param rawIds 얼굴별 원시 trackingId (null 허용)
+     * @param boxes  얼굴별 bbox, 4개씩 (left, top, right, bottom)
+     * @return 얼굴별 발급 ID (원시 ID가 null이면 null)
+     */
+    Integer[] resolve(int tier, Integer[] rawIds, float[] boxes) {
+        boolean switched = tier != this.tier;
+        if (switched) {
+            ids.clear();
+            this.tier = tier;
+        }
+        Integer[] out = new Integer[rawIds.length];
+        for (int i = 0; i < rawIds.length; i++) {
+            Integer raw = rawIds[i];
+            if (raw == null) continue;
+            Integer id = ids.get(raw);
+            if (id == null) {
+                id = switched ? inherit(boxes, i, out) : null;
+                if (id == null) id = nextId++;
+                ids.put(raw, id);
+            }
+            out[i] = id;
+        }
+        lastBoxes = boxes.clone();
+        lastIds   = out;
+        return out;
+    }
+
+    /** 직전 프레임에서 IoU 최대(MIN_IOU 이상) 얼굴의 ID. 이번 프레임에 이미 준 ID는 제외. */
+    private Integer inherit(float[] boxes, int face, Integer[] assigned) {
+        Integer best = null;
+        float bestIou = MIN_IOU;
+        for (int j = 0; j < lastIds.length; j++) {
+            if (lastIds[j] == null || contains(assigned, lastIds[j])) continue;
+            float iou = iou(boxes, face * 4, lastBoxes, j * 4);
+            if (iou >= bestIou) {
+                bestIou = iou;
+                best = lastIds[j];
+            }
+        }
+        return best;
+    }
+
+    private static boolean contains(Integer[] ids, Integer id) {
+        for (Integer i : ids) if (id.equals(i)) return true;
+        return false;
+    }
+
+    static float iou(float[] a, int ai, float[] b, int bi) {
+        float w = Math.min(a[ai + 2], b[bi + 2]) - Math.max(a[ai], b[bi]);
+        float h = Math.min(a[ai + 3], b[bi + 3]) - Math.max(a[ai + 1], b[bi + 1]);
+        if (w <= 0 || h <= 0) return 0f;
+        float inter = w * h;
+        float areaA = (a[ai + 2] - a[ai]) * (a[ai + 3] - a[ai + 1]);
+        float areaB = (b[bi + 2] - b[bi]) * (b[bi + 3] - b[bi + 1]);
+        return inter / (areaA + areaB - inter);
+    }
+}
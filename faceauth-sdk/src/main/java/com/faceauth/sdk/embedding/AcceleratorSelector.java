@@ -0,0 +1,388 @@
+package com.faceauth.sdk.embedding;
+
+import android.content.Context;
+import android.content.SharedPreferences;
+import android.os.Build;
+
+import com.faceauth.sdk.api.FaceAuthConfig;
+import com.faceauth.sdk.logging.SafeLogger;
+
+import org.tensorflow.lite.Delegate;
+import org.tensorflow.lite.Interpreter;
+import org.tensorflow.lite.Tensor;
+import org.tensorflow.lite.gpu.CompatibilityList;
+import org.tensorflow.lite.gpu.GpuDelegate;
+import org.tensorflow.lite.nnapi.NnApiDelegate;
+import org.tensorflow.lite.support.common.FileUtil;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.FloatBuffer;
+import java.nio.MappedByteBuffer;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * TFLite 실행 구성 자동 선택 (CPU 스레드 수 · XNNPACK · NNAPI · GPU).
+ *
+ * calibrate(): 기기 모델 + modelVersion 별 1회, 후보 구성마다 interpreter를 열어
+ * 합성 112×112 입력으로 워밍업 후 추론 시간(중앙값)을 재고, 가장 빠른 구성을 SharedPreferences에 저장.
+ * 공용 엔진 생성(openBest)과 분리 — EnginePool 백그라운드 스레드에서 실행되며, 측정 전에 열린
+ * interpreter는 CPU_DEFAULT로 동작하고 저장된 구성은 다음 생성부터 적용.
+ *
+ * 정밀도:
+ *  - 등록 템플릿과 matchThreshold/grayT*는 CPU FP32(CPU_DEFAULT) 출력 기준
+ *  - 측정과 같은 합성 입력에 대한 후보 출력이 CPU_DEFAULT 출력과 코사인 PARITY_MIN_COSINE 미만이면 제외
+ *  - NNAPI/GPU 후보는 config.acceleratorAllowDelegates=true일 때만, FP16 완화 없이 생성
+ *
+ * 폴백:
+ *  - 가속기 생성·추론이 실패하거나 출력이 어긋난 후보는 건너뜀 (GPU 없는 CI/에뮬레이터 포함)
+ *  - 전부 실패하면 CPU_DEFAULT (기존 setNumThreads(2))
+ *  - 저장 구성이 열리지 않으면 CPU_DEFAULT로 열고 저장값 삭제 → 다음 calibrate()에서 재측정
+ */
+public final class AcceleratorSelector {
+
+    private static final String TAG   = "AcceleratorSelector";
+    private static final String PREFS = "faceauth_accelerator";
+
+    private static final int  WARMUP_RUNS     = 2;
+    /** 벤치마크 전체 예산. 초과 시 남은 후보 생략. */
+    private static final long BENCH_BUDGET_MS = 3_000L;
+    /** CPU_DEFAULT 출력 대비 후보 출력의 최소 코사인 유사도. 미만이면 후보 제외. */
+    static final double PARITY_MIN_COSINE = 0.999;
+
+    /** 실행 구성. id()로 직렬화해 저장. */
+    public static final class Choice {
+        public enum Kind { CPU, NNAPI, GPU }
+
+        /** 기존 FaceEmbedder 구성 (CPU 2 threads, XNNPACK 기본값). */
+        public static final Choice CPU_DEFAULT = new Choice(Kind.CPU, 2, true);
+
+        public final Kind    kind;
+        public final int     threads;
+        public final boolean xnnpack;
+
+        public Choice(Kind kind, int threads, boolean xnnpack) {
+            this.kind    = kind;
+            this.threads = threads;
+            this.xnnpack = xnnpack;
+        }
+
+        /** "cpu:2:xnn" | "cpu:4:noxnn" | "nnapi:2" | "gpu:2" */
+        public String id() {
+            switch (kind) {
+                case NNAPI: return "nnapi:" + threads;
+                case GPU:   return "gpu:" + threads;
+                default:    return "cpu:" + threads + (xnnpack ? ":xnn" : ":noxnn");
+            }
+        }
+
+        /** id() 역변환. 형식 오류면 null. */
+        public static Choice parse(String id) {
+            if (id == null) return null;
+            String[] p = id.split(":");
+            try {
+                switch (p[0]) {
+                    case "cpu":
+                        if (p.length != 3) return null;
+                        return new Choice(Kind.CPU, Integer.parseInt(p[1]), "xnn".equals(p[2]));
+                    case "nnapi":
+                        return p.length == 2 ? new Choice(Kind.NNAPI, Integer.parseInt(p[1]), false) : null;
+                    case "gpu":
+                        return p.length == 2 ? new Choice(Kind.GPU, Integer.parseInt(p[1]), false) : null;
+                    default:
+                        return null;
+                }
+            } catch (NumberFormatException e) {
+                return null;
+            }
+        }
+
+        @Override public boolean equals(Object o) {
+            return o instanceof Choice && ((Choice) o).id().equals(id());
+        }
+
+        @Override public int hashCode() { return id().hashCode(); }
+
+        @Override public String toString() { return id(); }
+    }
+
+    /** 열린 interpreter + 소유 delegate. close() 시 함께 해제. */
+    static final class Engine implements AutoCloseable {
+        final Interpreter interpreter;
+        final Delegate    delegate;    // CPU면 null
+        final Choice      choice;
+
+        Engine(Interpreter interpreter, Delegate delegate, Choice choice) {
+            this.interpreter = interpreter;
+            this.delegate    = delegate;
+            this.choice      = choice;
+        }
+
+        @Override public void close() {
+            interpreter.close();
+            closeQuietly(delegate);
+        }
+    }
+
+    /** 선택 결과 저장소 (SharedPreferences; 테스트는 메모리 구현). */
+    interface Store {
+        String get(String key);
+        void put(String key, String value);
+        void remove(String key);
+    }
+
+    /** 후보 1개 측정 결과: 추론 1회 시간 (ms, 중앙값) + 합성 입력에 대한 출력. */
+    static final class Measurement {
+        final double  ms;
+        final float[] output;
+
+        Measurement(double ms, float[] output) {
+            this.ms     = ms;
+            this.output = output;
+        }
+    }
+
+    /** 후보 1개 측정. 생성·추론 실패 시 예외. */
+    interface Trial {
+        Measurement measure(Choice choice) throws Exception;
+    }
+
+    private AcceleratorSelector() {}
+
+    // ─────────────────────────────────────────────────────────────────────
+    // FaceEmbedder 진입점
+    // ─────────────────────────────────────────────────────────────────────
+
+    /**
+     * 저장된 구성(없으면 CPU_DEFAULT)으로 interpreter 열기. 측정은 하지 않음 — calibrate() 참고.
+     * 어떤 경우에도 CPU_DEFAULT까지 폴백.
+     */
+    static Engine openBest(Context context, ByteBuffer model, FaceAuthConfig config) {
+        if (!config.acceleratorAutoSelect) return openOrDefault(model, Choice.CPU_DEFAULT, null, null);
+
+        Store store = prefsStore(context);
+        String key = deviceKey(Build.MANUFACTURER + " " + Build.MODEL, config.modelVersion);
+        return openOrDefault(model, saved(key, candidates(config), store), store, key);
+    }
+
+    /**
+     * 저장된 구성이 없으면 후보 전체를 측정해 저장. 후보 수 × (생성 + 워밍업 + 측정) 시간이 걸리므로
+     * 백그라운드 스레드에서, 공용 엔진 잠금 밖에서 호출 (EnginePool).
+     *
+     * @return 저장된(또는 새로 선택된) 구성. 자동 선택 off면 CPU_DEFAULT
+     */
+    public static Choice calibrate(Context context, FaceAuthConfig config) throws IOException {
+        if (!config.acceleratorAutoSelect) return Choice.CPU_DEFAULT;
+
+        Store store = prefsStore(context);
+        String key = deviceKey(Build.MANUFACTURER + " " + Build.MODEL, config.modelVersion);
+        List<Choice> candidates = candidates(config);
+        Choice saved = Choice.parse(store.get(key));
+        if (saved != null && candidates.contains(saved)) return saved;
+
+        MappedByteBuffer model = FileUtil.loadMappedFile(context, config.tfliteModelAsset);
+        return select(key, candidates, store, c -> benchmark(model, c, config.acceleratorBenchmarkRuns));
+    }
+
+    static String deviceKey(String deviceModel, String modelVersion) {
+        return deviceModel + "|" + modelVersion;
+    }
+
+    /** 저장된 선택이 후보에 있으면 그것, 아니면 CPU_DEFAULT (측정 없음). */
+    static Choice saved(String key, List<Choice> candidates, Store store) {
+        Choice saved = Choice.parse(store.get(key));
+        return saved != null && candidates.contains(saved) ? saved : Choice.CPU_DEFAULT;
+    }
+
+    /**
+     * 저장된 선택이 후보에 있으면 그대로, 없으면 후보 전체 측정 후 최속 구성 저장.
+     * 출력이 CPU_DEFAULT 기준과 어긋나는 후보(코사인 < PARITY_MIN_COSINE)는 제외.
+     * 기준 출력이 없으면(CPU_DEFAULT 측정 실패) 어떤 후보도 채택하지 않고 CPU_DEFAULT.
+     */
+    static Choice select(String key, List<Choice> candidates, Store store, Trial trial) {
+        Choice saved = Choice.parse(store.get(key));
+        if (saved != null && candidates.contains(saved)) return saved;
+
+        long start = System.currentTimeMillis();
+        Choice best = null;
+        double bestMs = Double.MAX_VALUE;
+        float[] reference = null;
+        StringBuilder results = new StringBuilder("[");
+        for (Choice c : candidates) {
+            if (best != null && System.currentTimeMillis() - start > BENCH_BUDGET_MS) break;
+            String r;
+            double cos = Double.NaN;
+            try {
+                Measurement m = trial.measure(c);
+                if (c.equals(Choice.CPU_DEFAULT)) reference = m.output;
+                cos = reference != null ? cosine(reference, m.output) : Double.NaN;
+                if (cos >= PARITY_MIN_COSINE) {
+                    r = String.format("%.2f", m.ms);
+                    if (m.ms < bestMs) {
+                        bestMs = m.ms;
+                        best   = c;
+                    }
+                } else {
+                    r = "\"drift\"";
+                    SafeLogger.w(TAG, "후보 " + c.id() + " 출력 불일치 (cos=" + cos + "), 건너뜀");
+                }
+            } catch (Exception | LinkageError e) {
+                r = "\"fail\"";
+                SafeLogger.w(TAG, "후보 " + c.id() + " 측정 실패, 건너뜀: " + e.getMessage());
+            }
+            if (results.length() > 1) results.append(",");
+            results.append("{\"id\":\"").append(c.id()).append("\",\"ms\":").append(r)
+                    .append(",\"cos\":").append(Double.isNaN(cos) ? "null" : String.format("%.5f", cos))
+                    .append("}");
+        }
+        results.append("]");
+        if (best == null) best = Choice.CPU_DEFAULT;
+        store.put(key, best.id());
+        SafeLogger.i(TAG, String.format(
+                "{\"event\":\"auth_accelerator_selected\",\"key\":\"%s\",\"choice\":\"%s\",\"ms\":%.2f,\"elapsedMs\":%d,\"results\":%s}",
+                key.replace("\"", "'"), best.id(), bestMs == Double.MAX_VALUE ? -1.0 : bestMs,
+                System.currentTimeMillis() - start, results));
+        return best;
+    }
+
+    private static List<Choice> candidates(FaceAuthConfig config) {
+        boolean delegates = config.acceleratorAllowDelegates;
+        return candidates(Runtime.getRuntime().availableProcessors(), delegates,
+                delegates && gpuAvailable());
+    }
+
+    /**
+     * CPU 1/2/4 스레드 × XNNPACK on/off (기본 구성 먼저), delegates=true면 NNAPI, GPU(지원 기기만).
+     */
+    static List<Choice> candidates(int cores, boolean delegates, boolean gpuAvailable) {
+        List<Choice> list = new ArrayList<>();
+        list.add(Choice.CPU_DEFAULT);
+        for (int threads : new int[] { 1, 2, 4 }) {
+            if (threads > 1 && threads > cores) continue;
+            for (boolean xnn : new boolean[] { true, false }) {
+                Choice c = new Choice(Choice.Kind.CPU, threads, xnn);
+                if (!list.contains(c)) list.add(c);
+            }
+        }
+        if (!delegates) return list;
+        list.add(new Choice(Choice.Kind.NNAPI, Choice.CPU_DEFAULT.threads, false));
+        if (gpuAvailable) list.add(new Choice(Choice.Kind.GPU, Choice.CPU_DEFAULT.threads, false));
+        return list;
+    }
+
+    // ─────────────────────────────────────────────────────────────────────
+    // interpreter 생성 · 측정
+    // ─────────────────────────────────────────────────────────────────────
+
+    static Engine open(ByteBuffer model, Choice choice) {
+        Interpreter.Options options = new Interpreter.Options();
+        options.setNumThreads(choice.threads);
+        Delegate delegate = null;
+        try {
+            switch (choice.kind) {
+                case NNAPI:
+                    // FP32 유지 (FP16 완화 시 등록 템플릿·임계값과 다른 수치 경로)
+                    delegate = new NnApiDelegate(new NnApiDelegate.Options().setAllowFp16(false));
+                    options.addDelegate(delegate);
+                    break;
+                case GPU:
+                    delegate = new GpuDelegate(new GpuDelegate.Options().setPrecisionLossAllowed(false));
+                    options.addDelegate(delegate);
+                    break;
+                default:
+                    options.setUseXNNPACK(choice.xnnpack);
+                    break;
+            }
+            return new Engine(new Interpreter(model, options), delegate, choice);
+        } catch (RuntimeException | LinkageError e) {
+            closeQuietly(delegate);
+            throw e;
+        }
+    }
+
+    private static Engine openOrDefault(ByteBuffer model, Choice choice, Store store, String key) {
+        if (!choice.equals(Choice.CPU_DEFAULT)) {
+            try {
+                return open(model, choice);
+            } catch (RuntimeException | LinkageError e) {
+                SafeLogger.w(TAG, "구성 " + choice.id() + " 열기 실패, CPU 기본으로 폴백: " + e.getMessage());
+                if (store != null) store.remove(key);
+            }
+        }
+        return open(model, Choice.CPU_DEFAULT);
+    }
+
+    /** 합성 입력으로 워밍업 WARMUP_RUNS회 후 runs회 측정, 중앙값 ms + 마지막 출력. */
+    static Measurement benchmark(ByteBuffer model, Choice choice, int runs) {
+        try (Engine engine = open(model, choice)) {
+            Interpreter interpreter = engine.interpreter;
+            Tensor in = interpreter.getInputTensor(0);
+            ByteBuffer input = ByteBuffer.allocateDirect(in.numBytes()).order(ByteOrder.nativeOrder());
+            FloatBuffer f = input.asFloatBuffer();
+            for (int i = 0; i < f.capacity(); i++) f.put(i, ((i * 37) % 256) / 127.5f - 1f);
+            int[] outShape = interpreter.getOutputTensor(0).shape();
+            float[][] output = new float[1][outShape[outShape.length - 1]];
+
+            for (int i = 0; i < WARMUP_RUNS; i++) {
+                input.rewind();
+                interpreter.run(input, output);
+            }
+            int n = Math.max(1, runs);
+            double[] ms = new double[n];
+            for (int i = 0; i < n; i++) {
+                input.rewind();
+                long t0 = System.nanoTime();
+                interpreter.run(input, output);
+                ms[i] = (System.nanoTime() - t0) / 1e6;
+            }
+            Arrays.sort(ms);
+            return new Measurement(ms[n / 2], output[0].clone());
+        }
+    }
+
+    static double cosine(float[] a, float[] b) {
+        if (a == null || b == null || a.length != b.length) return Double.NaN;
+        double dot = 0, na = 0, nb = 0;
+        for (int i = 0; i < a.length; i++) {
+            dot += (double) a[i] * b[i];
+            na  += (double) a[i] * a[i];
+            nb  += (double) b[i] * b[i];
+        }
+        if (na == 0 || nb == 0) return Double.NaN;
+        return dot / Math.sqrt(na * nb);
+    }
+
+    private static boolean gpuAvailable() {
+        CompatibilityList list = null;
+        try {
+            list = new CompatibilityList();
+            return list.isDelegateSupportedOnThisDevice();
+        } catch (Exception | LinkageError e) {
+            return false;
+        } finally {
+            if (list != null) list.close();
+        }
+    }
+
+    private static Store prefsStore(Context context) {
+        SharedPreferences prefs = context.getApplicationContext()
+                .getSharedPreferences(PREFS, Context.MODE_PRIVATE);
+        return new Store() {
+            @Override public String get(String key)             { return prefs.getString(key, null); }
+            @Override public void put(String key, String value) { prefs.edit().putString(key, value).apply(); }
+            @Override public void remove(String key)            { prefs.edit().remove(key).apply(); }
+        };
+    }
+
+    private static void closeQuietly(Delegate delegate) {
+        if (delegate == null) return;
+        try {
+            delegate.close();
+        } catch (Exception e) {
+            SafeLogger.w(TAG, "delegate close 실패: " + e.getMessage());
+        }
+    }
+}
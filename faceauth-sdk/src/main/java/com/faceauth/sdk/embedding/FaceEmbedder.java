@@ -3,10 +3,11 @@ package com.faceauth.sdk.embedding;
 import android.content.Context;
 import android.graphics.Bitmap;
 
+import com.faceauth.sdk.logging.EventJournal;
+import com.faceauth.sdk.logging.EventSchema;
 import com.faceauth.sdk.logging.SafeLogger;
 import com.faceauth.sdk.api.FaceAuthConfig;
 
-import org.tensorflow.lite.DataType;
 import org.tensorflow.lite.Interpreter;
 import org.tensorflow.lite.Tensor;
 import org.tensorflow.lite.support.common.FileUtil;
@@ -14,6 +15,7 @@ import org.tensorflow.lite.support.common.FileUtil;
 import java.io.IOException;
 import java.nio.ByteBuffer;
 import java.nio.ByteOrder;
+import java.nio.FloatBuffer;
 import java.nio.MappedByteBuffer;
 import java.util.Arrays;
 
@@ -35,49 +37,144 @@ import java.util.Arrays;
  */
 public final class FaceEmbedder {
 
-    private static final String TAG        = "FaceEmbedder";
-    private static final int    INPUT_SIZE = 112;   // face_embedder 고정 입력 크기
+    private static final String TAG          = "FaceEmbedder";
+    private static final int    INPUT_SIZE   = 112;   // face_embedder 고정 입력 크기
+    private static final int    INPUT_PIXELS = INPUT_SIZE * INPUT_SIZE;
+    private static final int    INPUT_BYTES  = INPUT_PIXELS * 3 * Float.BYTES;
+    /** 한 번의 invoke 당 최대 얼굴 수. 초과분은 나눠서 실행. */
+    public static final int     MAX_BATCH    = 8;
 
     private final FaceAuthConfig config;
-    private final Interpreter  interpreter;
+    private final AcceleratorSelector.Engine engine;   // interpreter + delegate (close 시 함께 해제). 테스트 생성자면 null
+    private final Runner       runner;              // interpreter 호출 경계
     private volatile boolean   closed;
     private final int         embeddingDim;
     private final float        inputMean;           // face_embedder: 127.5
     private final float        inputStd;             // face_embedder: 128.0
+    private final float        inputScale;          // 1 / std
+    private final float        inputOffset;         // -mean / std  → 정규화 = pixel · scale + offset
     private final boolean      outputIsNormalized;   // face_embedder: true
-    private final ByteBuffer   inputBuffer;         // 재사용 (스레드 비안전 — 호출자가 직렬화)
+
+    // ── 재사용 버퍼 (EnginePool 공용 인스턴스 — 공개 embed*/close는 synchronized로 직렬화) ──
+    private final ByteBuffer   inputBuffer;         // direct, native order
+    private final FloatBuffer  inputFloats;         // inputBuffer float 뷰 (절대 인덱스 기록)
+    private final int[]        pixelScratch = new int[INPUT_PIXELS];   // Bitmap.getPixels 대상
+    private final float[][]    outputBuffer;        // [1][outputDim]
+    private final BatchBuffers[] batchPool = new BatchBuffers[MAX_BATCH + 1];   // 배치 크기별 (2..MAX_BATCH)
+    private int                currentBatch = 1;    // 현재 interpreter 입력 shape의 N
+    private boolean            batchSupported = true;   // resizeInput 실패 모델 → 순차 실행
+
+    // ── 생성 시 1회 조회한 텐서 메타데이터 ────────────────────────────────
+    private final String       inputShape;          // "?" = 조회 실패
+    private final String       inputDtype;
+    private final int          inputNumBytes;       // -1 = 조회 실패 → 사전검사 생략
+    private final int          outputDim;
+
+    /**
+     * 입력 텐서 직접 기록 (Bitmap 없이 YUV ROI 샘플링 등).
+     * dst: float[112·112·3] NHWC RGB, position 0. 정규화 pixel · scale + offset 까지 적용해 절대 인덱스로 기록.
+     */
+    public interface InputWriter {
+        /** @return false면 입력을 만들 수 없음 (포맷 미지원 등) */
+        boolean write(FloatBuffer dst, float scale, float offset);
+    }
+
+    /** interpreter 호출 경계 (run · 배치 resize). 단위 테스트는 스텁을 주입. */
+    interface Runner {
+        void run(ByteBuffer input, float[][] output);
+        /** 입력 shape을 [batch,112,112,3]으로 바꾸고 텐서 재할당. 미지원 모델이면 예외. */
+        void resizeInput(int batch);
+    }
 
     public FaceEmbedder(Context context, FaceAuthConfig config) throws EmbeddingException {
         this.config             = config;
         this.embeddingDim       = config.embeddingDim;
         this.inputMean          = config.inputMean;
         this.inputStd           = config.inputStd;
+        this.inputScale         = 1f / config.inputStd;
+        this.inputOffset        = -config.inputMean / config.inputStd;
         this.outputIsNormalized = config.modelOutputIsNormalized;
 
         try {
             MappedByteBuffer modelFile = FileUtil.loadMappedFile(context, config.tfliteModelAsset);
-            Interpreter.Options options = new Interpreter.Options();
-            options.setNumThreads(2);
-            // GPU delegate (선택): options.addDelegate(new GpuDelegate());
-            this.interpreter = new Interpreter(modelFile, options);
+            // 실행 구성: 저장된 기기별 최속 구성, 없거나 실패 시 CPU 2 threads (측정은 AcceleratorSelector.calibrate)
+            this.engine = AcceleratorSelector.openBest(context, modelFile, config);
+            Interpreter interpreter = engine.interpreter;
+            this.runner = new Runner() {
+                @Override public void run(ByteBuffer input, float[][] output) {
+                    interpreter.run(input, output);
+                }
+
+                @Override public void resizeInput(int batch) {
+                    interpreter.resizeInput(0, new int[] { batch, INPUT_SIZE, INPUT_SIZE, 3 });
+                    interpreter.allocateTensors();
+                }
+            };
 
             // 입력 버퍼 사전 할당: 1 × 112 × 112 × 3 × 4bytes (float32)
-            int bufSize = INPUT_SIZE * INPUT_SIZE * 3 * Float.BYTES;
-            this.inputBuffer = ByteBuffer.allocateDirect(bufSize);
+            this.inputBuffer = ByteBuffer.allocateDirect(INPUT_BYTES);
             this.inputBuffer.order(ByteOrder.nativeOrder());
-
-            // 실제 모델 입출력 스펙 로그 (POC 검증용)
-            SafeLogger.i(TAG, "face_embedder 로드 완료"
-                    + " | 입력=" + INPUT_SIZE + "×" + INPUT_SIZE
-                    + " | 출력=" + embeddingDim + "-d"
-                    + " | 정규화=(" + inputMean + ", " + inputStd + ")"
-                    + " | L2정규화출력=" + outputIsNormalized);
+            this.inputFloats = inputBuffer.asFloatBuffer();
 
         } catch (IOException e) {
             throw new EmbeddingException(
                     "TFLite 모델 로드 실패: " + config.tfliteModelAsset
                     + " (assets/ 폴더에 face_embedder.tflite 배치 여부 확인)", e);
         }
+
+        Tensor inputTensor = null;
+        try {
+            inputTensor = engine.interpreter.getInputTensor(0);
+        } catch (Exception e) {
+            SafeLogger.w(TAG, "getInputTensor(0) 미지원 또는 실패, 사전검사 생략: " + e.getMessage());
+        }
+        int[] inShape = inputTensor != null ? inputTensor.shape() : null;
+        this.inputShape    = inShape != null ? Arrays.toString(inShape) : "?";
+        this.inputDtype    = inputTensor != null && inputTensor.dataType() != null ? inputTensor.dataType().name() : "?";
+        this.inputNumBytes = inputTensor != null ? inputTensor.numBytes() : -1;
+
+        // 모델 실제 출력 shape 사용 (mobileFaceNet [1,512], face_embedder [1,192] 등)
+        int outDim = embeddingDim;
+        try {
+            Tensor outputTensor = engine.interpreter.getOutputTensor(0);
+            if (outputTensor != null) {
+                int[] outShape = outputTensor.shape();
+                if (outShape != null && outShape.length >= 2) outDim = outShape[1];
+                else if (outShape != null && outShape.length == 1) outDim = outShape[0];
+            }
+        } catch (Exception e) {
+            SafeLogger.w(TAG, "getOutputTensor(0) 실패, config.embeddingDim 사용: " + e.getMessage());
+        }
+        this.outputDim    = outDim;
+        this.outputBuffer = new float[1][outDim];
+
+        // 실제 모델 입출력 스펙 로그 (POC 검증용)
+        SafeLogger.i(TAG, "face_embedder 로드 완료"
+                + " | 입력=" + INPUT_SIZE + "×" + INPUT_SIZE + " " + inputShape + " " + inputDtype
+                + " | 출력=" + outputDim + "-d"
+                + " | 정규화=(" + inputMean + ", " + inputStd + ")"
+                + " | L2정규화출력=" + outputIsNormalized
+                + " | 실행구성=" + engine.choice.id());
+    }
+
+    /** 단위 테스트용: 모델 없이 runner 스텁으로 생성 (텐서 메타데이터 사전검사 생략). */
+    FaceEmbedder(FaceAuthConfig config, Runner runner, int outputDim) {
+        this.config             = config;
+        this.embeddingDim       = config.embeddingDim;
+        this.inputMean          = config.inputMean;
+        this.inputStd           = config.inputStd;
+        this.inputScale         = 1f / config.inputStd;
+        this.inputOffset        = -config.inputMean / config.inputStd;
+        this.outputIsNormalized = config.modelOutputIsNormalized;
+        this.engine             = null;
+        this.runner             = runner;
+        this.inputBuffer        = ByteBuffer.allocateDirect(INPUT_BYTES).order(ByteOrder.nativeOrder());
+        this.inputFloats        = inputBuffer.asFloatBuffer();
+        this.inputShape         = "?";
+        this.inputDtype         = "?";
+        this.inputNumBytes      = -1;
+        this.outputDim          = outputDim;
+        this.outputBuffer       = new float[1][outputDim];
     }
 
     /**
@@ -93,13 +190,12 @@ public final class FaceEmbedder {
     /**
      * commit 시작 시각 전달 시 auth_tflite_infer_start에 elapsedMsFromCommitStart 로깅.
      */
-    public float[] embed(Bitmap alignedFace, Long commitStartTimeMs) throws EmbeddingException {
-        if (closed) throw new EmbeddingException("EMBEDDER_CLOSED", "FaceEmbedder already closed", null);
+    public synchronized float[] embed(Bitmap alignedFace, Long commitStartTimeMs) throws EmbeddingException {
+        ensureOpen();
         long t0 = System.currentTimeMillis();
         int bitmapW = alignedFace != null ? alignedFace.getWidth() : 0;
         int bitmapH = alignedFace != null ? alignedFace.getHeight() : 0;
         String bitmapConfig = alignedFace != null ? String.valueOf(alignedFace.getConfig()) : "null";
-        String threadName = Thread.currentThread().getName();
 
         if (alignedFace == null) {
             logTfliteFailPrecheck("TFLITE_PRECHECK_FAIL", "alignedFace is null", null);
@@ -112,69 +208,125 @@ public final class FaceEmbedder {
                     "입력 크기 오류: " + bitmapW + "×" + bitmapH + " (필요: " + INPUT_SIZE + "×" + INPUT_SIZE + ")");
         }
 
-        Tensor inputTensor = null;
-        try {
-            inputTensor = interpreter.getInputTensor(0);
-        } catch (Exception e) {
-            SafeLogger.w(TAG, "getInputTensor(0) 미지원 또는 실패, 사전검사 생략: " + e.getMessage());
+        precheck(bitmapW, bitmapH, bitmapConfig, t0, commitStartTimeMs);
+        alignedFace.getPixels(pixelScratch, 0, INPUT_SIZE, 0, 0, INPUT_SIZE, INPUT_SIZE);
+        fillArgb(pixelScratch, 0);
+        return infer(bitmapW, bitmapH, t0);
+    }
+
+    /**
+     * 전처리된 112×112 ARGB 픽셀 (row-major, Bitmap.getPixels 형식) → 임베딩. 중간 Bitmap 없음.
+     *
+     * @param argb   최소 offset + 112·112 길이
+     * @param offset 첫 픽셀 인덱스
+     */
+    public synchronized float[] embed(int[] argb, int offset, Long commitStartTimeMs) throws EmbeddingException {
+        ensureOpen();
+        long t0 = System.currentTimeMillis();
+        if (argb == null || offset < 0 || argb.length - offset < INPUT_PIXELS) {
+            String details = argb == null ? "argb is null" : "argb length " + argb.length + " offset " + offset;
+            logTfliteFailPrecheck("TFLITE_INPUT_SHAPE_MISMATCH", details, null);
+            throw new EmbeddingException("TFLITE_INPUT_SHAPE_MISMATCH", "입력 픽셀 수 오류: " + details);
         }
-        int[] inputShape = inputTensor != null ? inputTensor.shape() : null;
-        String inputDtype = inputTensor != null && inputTensor.dataType() != null ? inputTensor.dataType().name() : "?";
-        int inputNumBytes = inputTensor != null ? inputTensor.numBytes() : 0;
-        int expectedBytes = INPUT_SIZE * INPUT_SIZE * 3 * Float.BYTES;
-        if (inputTensor != null && inputNumBytes != expectedBytes) {
+        precheck(INPUT_SIZE, INPUT_SIZE, "ARGB_INT", t0, commitStartTimeMs);
+        fillArgb(argb, offset);
+        return infer(INPUT_SIZE, INPUT_SIZE, t0);
+    }
+
+    /**
+     * 전처리된 112×112 packed RGB 바이트 (R,G,B 순 3바이트/픽셀, position부터) → 임베딩.
+     * 버퍼 position은 변경하지 않음.
+     */
+    public synchronized float[] embed(ByteBuffer rgb, Long commitStartTimeMs) throws EmbeddingException {
+        ensureOpen();
+        long t0 = System.currentTimeMillis();
+        if (rgb == null || rgb.remaining() < INPUT_PIXELS * 3) {
+            String details = rgb == null ? "rgb is null" : "rgb remaining " + rgb.remaining();
+            logTfliteFailPrecheck("TFLITE_INPUT_SHAPE_MISMATCH", details, null);
+            throw new EmbeddingException("TFLITE_INPUT_SHAPE_MISMATCH", "입력 바이트 수 오류: " + details);
+        }
+        precheck(INPUT_SIZE, INPUT_SIZE, "RGB_888", t0, commitStartTimeMs);
+        fillRgb(rgb);
+        return infer(INPUT_SIZE, INPUT_SIZE, t0);
+    }
+
+    /**
+     * 입력 텐서를 writer가 직접 채우는 경로 (중간 Bitmap 없음).
+     * 예: YUV 프레임의 얼굴 ROI만 회전·미러·눈 각도 보정과 함께 샘플링해 기록.
+     *
+     * @throws EmbeddingException writer가 false 반환(TFLITE_PRECHECK_FAIL) 또는 추론 실패 시
+     */
+    public synchronized float[] embed(InputWriter writer, Long commitStartTimeMs) throws EmbeddingException {
+        ensureOpen();
+        long t0 = System.currentTimeMillis();
+        precheck(INPUT_SIZE, INPUT_SIZE, "TENSOR", t0, commitStartTimeMs);
+        inputFloats.clear();
+        if (!writer.write(inputFloats, inputScale, inputOffset)) {
+            logTfliteFailPrecheck("TFLITE_PRECHECK_FAIL", "input writer produced no input", null);
+            throw new EmbeddingException("TFLITE_PRECHECK_FAIL", "입력 텐서 생성 실패");
+        }
+        return infer(INPUT_SIZE, INPUT_SIZE, t0);
+    }
+
+    private void ensureOpen() throws EmbeddingException {
+        if (closed) throw new EmbeddingException("EMBEDDER_CLOSED", "FaceEmbedder already closed", null);
+    }
+
+    /** 캐시된 입력 텐서 크기 검사 + precheck/infer_start 로그. */
+    private void precheck(int bitmapW, int bitmapH, String bitmapConfig,
+                          long t0, Long commitStartTimeMs) throws EmbeddingException {
+        String threadName = Thread.currentThread().getName();
+        if (inputNumBytes >= 0 && inputNumBytes != INPUT_BYTES) {
             logEvent("auth_tflite_precheck",
                     "modelName", config.tfliteModelAsset,
-                    "inputShape", inputShape != null ? Arrays.toString(inputShape) : "?",
+                    "inputShape", inputShape,
                     "inputDtype", inputDtype,
-                    "inputNumBytes", inputNumBytes, "expectedBytes", expectedBytes,
+                    "inputNumBytes", inputNumBytes, "expectedBytes", INPUT_BYTES,
                     "bitmapW", bitmapW, "bitmapH", bitmapH, "bitmapConfig", bitmapConfig,
                     "threadName", threadName);
             logTfliteFailPrecheck("TFLITE_INPUT_SHAPE_MISMATCH",
-                    "input tensor bytes " + inputNumBytes + " != expected " + expectedBytes, null);
+                    "input tensor bytes " + inputNumBytes + " != expected " + INPUT_BYTES, null);
             throw new EmbeddingException("TFLITE_INPUT_SHAPE_MISMATCH",
-                    "모델 입력 버퍼 크기 불일치: " + inputNumBytes + " != " + expectedBytes);
+                    "모델 입력 버퍼 크기 불일치: " + inputNumBytes + " != " + INPUT_BYTES);
         }
 
-        logEvent("auth_tflite_precheck",
-                "modelName", config.tfliteModelAsset,
-                "inputShape", inputShape != null ? Arrays.toString(inputShape) : "?",
-                "inputDtype", inputDtype,
-                "bitmapW", bitmapW, "bitmapH", bitmapH, "bitmapConfig", bitmapConfig,
-                "threadName", threadName);
+        EventJournal.begin(EventSchema.AUTH_TFLITE_PRECHECK)
+                .s(config.tfliteModelAsset).s(inputShape).s(inputDtype)
+                .i(bitmapW).i(bitmapH).s(bitmapConfig).s(threadName)
+                .commit();
 
         long elapsedFromCommit = commitStartTimeMs != null ? t0 - commitStartTimeMs : -1L;
-        logEvent("auth_tflite_infer_start", "elapsedMsFromCommitStart", elapsedFromCommit);
+        EventJournal.begin(EventSchema.AUTH_TFLITE_INFER_START).l(elapsedFromCommit).commit();
+    }
 
-        inputBuffer.rewind();
-        int[] pixels = new int[INPUT_SIZE * INPUT_SIZE];
-        alignedFace.getPixels(pixels, 0, INPUT_SIZE, 0, 0, INPUT_SIZE, INPUT_SIZE);
-        for (int px : pixels) {
-            float r = (((px >> 16) & 0xFF) - inputMean) / inputStd;
-            float g = (((px >>  8) & 0xFF) - inputMean) / inputStd;
-            float b = (( px        & 0xFF) - inputMean) / inputStd;
-            inputBuffer.putFloat(r);
-            inputBuffer.putFloat(g);
-            inputBuffer.putFloat(b);
+    /** ARGB int → 정규화 RGB float (FloatBuffer 절대 인덱스, 나눗셈 없음). */
+    private void fillArgb(int[] argb, int offset) {
+        FloatBuffer dst = inputFloats;
+        float scale = inputScale, bias = inputOffset;
+        for (int i = 0, o = 0; i < INPUT_PIXELS; i++, o += 3) {
+            int px = argb[offset + i];
+            dst.put(o,     ((px >> 16) & 0xFF) * scale + bias);
+            dst.put(o + 1, ((px >>  8) & 0xFF) * scale + bias);
+            dst.put(o + 2, ( px        & 0xFF) * scale + bias);
         }
-        inputBuffer.rewind();
+    }
 
-        // 모델 실제 출력 shape 사용 (mobileFaceNet [1,512], face_embedder [1,192] 등)
-        int outputDim = embeddingDim;
-        try {
-            Tensor outputTensor = interpreter.getOutputTensor(0);
-            if (outputTensor != null) {
-                int[] outShape = outputTensor.shape();
-                if (outShape != null && outShape.length >= 2) outputDim = outShape[1];
-                else if (outShape != null && outShape.length == 1) outputDim = outShape[0];
-            }
-        } catch (Exception e) {
-            SafeLogger.w(TAG, "getOutputTensor(0) 실패, config.embeddingDim 사용: " + e.getMessage());
+    /** packed RGB byte → 정규화 RGB float. */
+    private void fillRgb(ByteBuffer rgb) {
+        FloatBuffer dst = inputFloats;
+        float scale = inputScale, bias = inputOffset;
+        int base = rgb.position();
+        for (int i = 0; i < INPUT_PIXELS * 3; i++) {
+            dst.put(i, (rgb.get(base + i) & 0xFF) * scale + bias);
         }
-        float[][] outputBuffer = new float[1][outputDim];
+    }
 
+    /** inputBuffer(채워진 상태) → 추론. 결과 배열 외 할당 없음 (출력 버퍼 재사용). */
+    private float[] infer(int bitmapW, int bitmapH, long t0) throws EmbeddingException {
+        inputBuffer.rewind();
         try {
-            interpreter.run(inputBuffer, outputBuffer);
+            resizeBatch(1);
+            runner.run(inputBuffer, outputBuffer);
         } catch (Exception e) {
             String msg = e.getMessage() != null ? e.getMessage() : e.getClass().getName();
             String messageTrunc = msg.length() > 200 ? msg.substring(0, 200) : msg;
@@ -186,7 +338,7 @@ public final class FaceEmbedder {
                     "messageTrunc", messageTrunc,
                     "stackHash", stackHash,
                     "bitmapW", bitmapW, "bitmapH", bitmapH,
-                    "inputShape", inputShape != null ? Arrays.toString(inputShape) : "?",
+                    "inputShape", inputShape,
                     "inputDtype", inputDtype,
                     "outputDimExpected", outputDim);
             SafeLogger.e(TAG, "TFLite 추론 실패", e);
@@ -194,16 +346,136 @@ public final class FaceEmbedder {
         }
 
         long elapsedMs = System.currentTimeMillis() - t0;
-        float[] embedding = outputBuffer[0];
+        float[] raw = outputBuffer[0];
         double norm = 0;
-        for (float x : embedding) norm += (double) x * x;
+        for (float x : raw) norm += (double) x * x;
         norm = Math.sqrt(norm);
-        logEvent("auth_tflite_infer_success",
-                "elapsedMs", elapsedMs, "embeddingDim", embedding.length, "embeddingNorm", (float) norm);
+        EventJournal.begin(EventSchema.AUTH_TFLITE_INFER_SUCCESS)
+                .l(elapsedMs).i(raw.length).f((float) norm)
+                .commit();
 
+        // 출력 버퍼는 다음 호출에서 덮어쓰므로 항상 복사본 반환
+        float[] embedding = raw.clone();
         return outputIsNormalized ? embedding : l2Normalize(embedding);
     }
 
+    // ─────────────────────────────────────────────────────────────────────
+    // 배치 추론 — 입력 [N,112,112,3], invoke 1회로 N개 임베딩
+    // ─────────────────────────────────────────────────────────────────────
+
+    /** 배치 크기 N 전용 재사용 버퍼. slots[i] = i번째 얼굴의 입력 float 뷰 (position 0부터). */
+    private static final class BatchBuffers {
+        final ByteBuffer    input;
+        final FloatBuffer[] slots;
+        final float[][]     output;
+
+        BatchBuffers(int n, int outputDim) {
+            input = ByteBuffer.allocateDirect(n * INPUT_BYTES).order(ByteOrder.nativeOrder());
+            FloatBuffer all = input.asFloatBuffer();
+            int perFace = INPUT_PIXELS * 3;
+            slots = new FloatBuffer[n];
+            for (int i = 0; i < n; i++) {
+                all.limit((i + 1) * perFace).position(i * perFace);
+                slots[i] = all.slice();
+            }
+            output = new float[n][outputDim];
+        }
+    }
+
+    /**
+     * 여러 얼굴을 한 번에 임베딩 (개찰구 대기열 등 프레임 내 다수 얼굴, 등록 시 여러 크롭).
+     * 공개 API — 현재 SDK 화면은 얼굴 1개씩 embed()를 사용.
+     * MAX_BATCH 단위로 입력을 [N,112,112,3]으로 resize 후 invoke 1회. 버퍼는 배치 크기별로 재사용.
+     * 모델이 배치 resize를 지원하지 않으면 얼굴별 순차 실행으로 폴백 (결과 동일).
+     *
+     * @param writers 얼굴별 입력 writer (InputWriter 규약, 각자 자기 슬롯만 기록)
+     * @return writers와 같은 순서의 임베딩 (각각 새 배열)
+     * @throws EmbeddingException writer 실패(TFLITE_PRECHECK_FAIL) 또는 추론 실패 시
+     */
+    public synchronized float[][] embedBatch(InputWriter[] writers, Long commitStartTimeMs) throws EmbeddingException {
+        ensureOpen();
+        float[][] result = new float[writers.length][];
+        for (int start = 0; start < writers.length; start += MAX_BATCH) {
+            int n = Math.min(MAX_BATCH, writers.length - start);
+            if (n == 1 || !batchSupported) {
+                for (int i = 0; i < n; i++) result[start + i] = embed(writers[start + i], commitStartTimeMs);
+            } else {
+                runBatch(writers, start, n, commitStartTimeMs, result);
+            }
+        }
+        return result;
+    }
+
+    private void runBatch(InputWriter[] writers, int start, int n, Long commitStartTimeMs,
+                          float[][] result) throws EmbeddingException {
+        long t0 = System.currentTimeMillis();
+        precheck(INPUT_SIZE, INPUT_SIZE, "TENSOR_BATCH_" + n, t0, commitStartTimeMs);
+        BatchBuffers buf = batchPool[n];
+        if (buf == null) {
+            buf = new BatchBuffers(n, outputDim);
+            batchPool[n] = buf;
+        }
+        for (int i = 0; i < n; i++) {
+            FloatBuffer slot = buf.slots[i];
+            slot.clear();
+            if (!writers[start + i].write(slot, inputScale, inputOffset)) {
+                logTfliteFailPrecheck("TFLITE_PRECHECK_FAIL", "input writer " + (start + i) + " produced no input", null);
+                throw new EmbeddingException("TFLITE_PRECHECK_FAIL", "입력 텐서 생성 실패 (batch index " + (start + i) + ")");
+            }
+        }
+
+        try {
+            resizeBatch(n);
+        } catch (Exception e) {
+            // 고정 배치 모델: 이후 배치 요청은 순차 실행
+            batchSupported = false;
+            SafeLogger.w(TAG, "배치 입력 resize 미지원, 순차 실행으로 폴백: " + e.getMessage());
+            restoreSingleBatch();
+            for (int i = 0; i < n; i++) result[start + i] = embed(writers[start + i], commitStartTimeMs);
+            return;
+        }
+
+        buf.input.rewind();
+        try {
+            runner.run(buf.input, buf.output);
+        } catch (Exception e) {
+            String msg = e.getMessage() != null ? e.getMessage() : e.getClass().getName();
+            logEvent("auth_tflite_infer_fail",
+                    "errorCode", "TFLITE_INFER_FAIL",
+                    "exceptionType", e.getClass().getName(),
+                    "messageTrunc", msg.length() > 200 ? msg.substring(0, 200) : msg,
+                    "batchSize", n,
+                    "inputShape", "[" + n + ", " + INPUT_SIZE + ", " + INPUT_SIZE + ", 3]",
+                    "outputDimExpected", outputDim);
+            SafeLogger.e(TAG, "TFLite 배치 추론 실패", e);
+            throw new EmbeddingException("TFLITE_INFER_FAIL", "TFLite 배치 추론 실패", e);
+        }
+
+        for (int i = 0; i < n; i++) {
+            float[] embedding = buf.output[i].clone();
+            result[start + i] = outputIsNormalized ? embedding : l2Normalize(embedding);
+        }
+        EventJournal.begin(EventSchema.AUTH_TFLITE_BATCH_INFER_SUCCESS)
+                .l(System.currentTimeMillis() - t0).i(outputDim).i(n)
+                .commit();
+    }
+
+    /** interpreter 입력 N 변경 (같으면 no-op). 변경 시 텐서 재할당. */
+    private void resizeBatch(int n) {
+        if (currentBatch == n) return;
+        runner.resizeInput(n);
+        currentBatch = n;
+    }
+
+    private void restoreSingleBatch() {
+        try {
+            currentBatch = -1;
+            resizeBatch(1);
+        } catch (Exception e) {
+            SafeLogger.w(TAG, "입력 shape 복원 실패: " + e.getMessage());
+        }
+    }
+
     private void logTfliteFailPrecheck(String reason, String details, String extra) {
         logEvent("auth_register_failed", "reason", reason, "details", details != null ? details : "");
     }
@@ -236,8 +508,8 @@ public final class FaceEmbedder {
         return result;
     }
 
-    public void close() {
+    public synchronized void close() {
         closed = true;
-        if (interpreter != null) interpreter.close();
+        if (engine != null) engine.close();
     }
 }
@@ -0,0 +1,368 @@
+package com.faceauth.sdk.logging;
+
+import android.content.Context;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.text.SimpleDateFormat;
+import java.util.Arrays;
+import java.util.Date;
+import java.util.Locale;
+
+/**
+ * 타입 지정 바이너리 이벤트 저널. 프레임 경로의 고빈도 이벤트(EventSchema 등록분)를
+ * String.format / SafeLogger.sanitize 정규식 없이 메모리 맵 파일에 기록.
+ *
+ * 사용: EventJournal.begin(EventSchema.AUTH_GATE_STATUS).i(runId).b(faceReady)...commit();
+ *  - 값은 스키마 필드 순서·타입대로 호출 (불일치 시 IllegalStateException = 코드 버그)
+ *  - 스레드별 재사용 버퍼에 인코딩 후 commit()에서 매핑 영역으로 복사
+ *    (버퍼 뷰도 스레드별 재사용 → 저널 기록 경로는 할당 없음, JSON 출력·디버그 미러링 제외)
+ *  - 숫자·boolean·짧은 id만 기록하므로 임베딩 배열 마스킹(sanitize) 불필요
+ *  - commit()은 스키마별 샘플링·속도 제한(EventSampler)을 먼저 적용
+ *
+ * 파일: logs/faceauth_events_yyyyMMdd_HHmmss_N.bin, SEGMENT_BYTES 미리 할당 후 가득 차면 다음 세그먼트.
+ *  - 헤더: magic, version, headerBytes, 스키마 사전 (디코더가 단독으로 해석)
+ *  - 레코드: u16 schemaId, u16 payloadBytes, i64 tsMs, payload (little-endian)
+ *  - schemaId를 마지막에 기록 → 기록 중 종료된 레코드는 0(끝 표시)으로 남음
+ * JSON 변환은 오프라인에서 EventJournalDecoder로 수행.
+ *
+ * 저널 미초기화 시 기존과 같이 JSON으로 렌더링해 SafeLogger.i로 출력 (동작 호환),
+ * 디버그 로깅이 켜져 있으면 logcat(SafeLogger.d)에도 미러링.
+ */
+public final class EventJournal {
+
+    private static final String TAG = "EventJournal";
+
+    static final int MAGIC   = 0x3141_4A46;   // 파일 첫 4바이트 "FJA1"
+    static final int VERSION = 1;
+    static final int RECORD_HEADER_BYTES = 12;
+    static final String FILE_PREFIX = "faceauth_events_";
+    static final String FILE_SUFFIX = ".bin";
+
+    private static final String LOG_DIR = "logs";
+    private static final int SEGMENT_BYTES = 4 * 1024 * 1024;
+    private static final int KEEP_FILES = 10;
+    private static final int MAX_PAYLOAD_BYTES = 4096;
+    private static final int MAX_STRING_CHARS = 128;
+
+    private static volatile EventJournal INSTANCE;
+    private static final ThreadLocal<Record> RECORDS = ThreadLocal.withInitial(Record::new);
+
+    /** 레코드 1건 인코더 (스레드별 재사용). begin()으로 얻고 commit()으로 기록. */
+    public static final class Record {
+        private final ByteBuffer buf = ByteBuffer.allocate(MAX_PAYLOAD_BYTES).order(ByteOrder.LITTLE_ENDIAN);
+        // buf의 재사용 읽기 뷰: 샘플링·JSON용, append(소비)용
+        private final ByteBuffer view = buf.duplicate().order(ByteOrder.LITTLE_ENDIAN);
+        private final ByteBuffer journalView = buf.duplicate().order(ByteOrder.LITTLE_ENDIAN);
+        private EventSchema schema;
+        private int field;
+        private long timeMs;
+
+        Record start(EventSchema s, long nowMs) {
+            buf.clear();
+            schema = s;
+            field  = 0;
+            timeMs = nowMs;
+            return this;
+        }
+
+        public Record b(boolean v) {
+            next(EventSchema.BOOL).put((byte) (v ? 1 : 0));
+            return this;
+        }
+
+        public Record i(int v) {
+            next(EventSchema.INT).putInt(v);
+            return this;
+        }
+
+        public Record l(long v) {
+            next(EventSchema.LONG).putLong(v);
+            return this;
+        }
+
+        public Record f(float v) {
+            next(EventSchema.FLOAT).putFloat(v);
+            return this;
+        }
+
+        /** null은 빈 문자열로 기록. MAX_STRING_CHARS 초과분은 잘림. */
+        public Record s(String v) {
+            next(EventSchema.STRING);
+            String str = v != null ? v : "";
+            if (str.length() > MAX_STRING_CHARS) str = str.substring(0, MAX_STRING_CHARS);
+            int lenPos = buf.position();
+            buf.putShort((short) 0);
+            boolean ascii = true;
+            for (int k = 0; k < str.length(); k++) {
+                if (str.charAt(k) >= 0x80) { ascii = false; break; }
+            }
+            if (ascii) {
+                for (int k = 0; k < str.length(); k++) buf.put((byte) str.charAt(k));
+            } else {
+                buf.put(str.getBytes(StandardCharsets.UTF_8));
+            }
+            buf.putShort(lenPos, (short) (buf.position() - lenPos - 2));
+            return this;
+        }
+
+        public Record n(Integer v) {
+            ByteBuffer b = next(EventSchema.NULLABLE_INT);
+            if (v == null) {
+                b.put((byte) 0);
+            } else {
+                b.put((byte) 1).putInt(v);
+            }
+            return this;
+        }
+
+        /** 샘플링(EventSampler) 통과 시 저널에 기록 (미초기화 시 JSON으로 SafeLogger 출력). */
+        public void commit() {
+            checkComplete();
+            ByteBuffer payload = payload(view);
+            if (!EventSampler.admit(schema, payload, timeMs)) return;
+            write(payload);
+        }
+
+        /** EventSampler.admitBatch로 이미 허용된 레코드 기록 (샘플링 재판정 없음). */
+        public void commitAdmitted() {
+            checkComplete();
+            write(payload(view));
+        }
+
+        private void write(ByteBuffer payload) {
+            EventJournal j = INSTANCE;
+            if (j != null) j.append(timeMs, schema.id, payload(journalView));
+            if (j == null || SafeLogger.isDebugEnabled()) {
+                StringBuilder sb = new StringBuilder(256);
+                EventJournalDecoder.appendJson(sb, schema, payload);
+                if (j == null) SafeLogger.i(TAG, sb.toString());
+                else SafeLogger.d(TAG, sb.toString());
+            }
+        }
+
+        /** 샘플링 없이 j에 기록. */
+        void commitTo(EventJournal j) {
+            checkComplete();
+            if (j == null) return;
+            j.append(timeMs, schema.id, payload(journalView));
+        }
+
+        /** v를 인코딩된 payload 구간 [0, buf.position())으로 재설정. */
+        private ByteBuffer payload(ByteBuffer v) {
+            v.clear();
+            v.limit(buf.position());
+            return v;
+        }
+
+        private void checkComplete() {
+            if (field != schema.fieldCount()) {
+                throw new IllegalStateException(schema.event + ": " + field + "/" + schema.fieldCount() + " fields");
+            }
+        }
+
+        private ByteBuffer next(byte type) {
+            if (schema == null || field >= schema.fieldTypes.length || schema.fieldTypes[field] != type) {
+                throw new IllegalStateException((schema != null ? schema.event : "(no schema)")
+                        + ": unexpected field type '" + (char) type + "' at " + field);
+            }
+            field++;
+            return buf;
+        }
+    }
+
+    private final File dir;
+    private final int segmentBytes;
+    private final byte[] header;
+    private final String sessionName;
+
+    // 아래는 this로 보호
+    private RandomAccessFile file;
+    private MappedByteBuffer map;
+    private int segmentIndex;
+    private long recordCount;
+    private long droppedCount;
+
+    private EventJournal(File dir, int segmentBytes) {
+        this.dir          = dir;
+        this.segmentBytes = segmentBytes;
+        this.header       = buildHeader();
+        this.sessionName  = new SimpleDateFormat("yyyyMMdd_HHmmss", Locale.US).format(new Date());
+    }
+
+    /**
+     * 저널 초기화. FileLogger와 같은 logs 디렉터리 사용 (MTP / adb pull 동일 경로).
+     * 실패 시 미초기화 상태로 남아 이벤트는 SafeLogger JSON으로 출력.
+     */
+    public static void init(Context context) {
+        if (INSTANCE != null) return;
+        synchronized (EventJournal.class) {
+            if (INSTANCE != null) return;
+            File dir = context.getExternalFilesDir(LOG_DIR);
+            if (dir == null) return;
+            try {
+                INSTANCE = open(dir, SEGMENT_BYTES);
+                SafeLogger.i(TAG, "EventJournal initialized, segment=" + INSTANCE.segmentName(0));
+            } catch (IOException e) {
+                SafeLogger.w(TAG, "EventJournal 초기화 실패: " + e.getMessage());
+            }
+        }
+    }
+
+    static EventJournal open(File dir, int segmentBytes) throws IOException {
+        if (!dir.exists()) dir.mkdirs();
+        EventJournal j = new EventJournal(dir, segmentBytes);
+        if (j.header.length + RECORD_HEADER_BYTES > segmentBytes) {
+            throw new IllegalArgumentException("segment too small: " + segmentBytes);
+        }
+        j.deleteOldFilesKeeping(KEEP_FILES - 1);
+        synchronized (j) {
+            j.openSegment();
+        }
+        return j;
+    }
+
+    public static boolean isInitialized() {
+        return INSTANCE != null;
+    }
+
+    /** 스키마 레코드 시작 (현재 스레드의 재사용 인코더). */
+    public static Record begin(EventSchema schema) {
+        return RECORDS.get().start(schema, System.currentTimeMillis());
+    }
+
+    /** 세그먼트를 디스크에 동기화하고 닫는다. 이후 이벤트는 SafeLogger JSON으로 출력. */
+    public static void close() {
+        EventJournal j;
+        synchronized (EventJournal.class) {
+            j = INSTANCE;
+            INSTANCE = null;
+        }
+        if (j != null) j.shutdown();
+        EventSampler.flushStats();
+    }
+
+    /** 기록된 레코드 수. */
+    public static long recordCount() {
+        EventJournal j = INSTANCE;
+        if (j == null) return 0L;
+        synchronized (j) {
+            return j.recordCount;
+        }
+    }
+
+    /** 공간 부족·I/O 실패로 버린 레코드 수. */
+    public static long droppedCount() {
+        EventJournal j = INSTANCE;
+        if (j == null) return 0L;
+        synchronized (j) {
+            return j.droppedCount;
+        }
+    }
+
+    synchronized void append(long timeMs, int schemaId, ByteBuffer payload) {
+        int need = RECORD_HEADER_BYTES + payload.remaining();
+        if (map == null || map.remaining() < need) {
+            if (map == null || !rotate()) {
+                droppedCount++;
+                return;
+            }
+        }
+        int start = map.position();
+        map.position(start + 2);
+        map.putShort((short) payload.remaining());
+        map.putLong(timeMs);
+        map.put(payload);
+        map.putShort(start, (short) schemaId);   // 마지막에 게시
+        recordCount++;
+    }
+
+    synchronized void shutdown() {
+        closeSegment();
+    }
+
+    File segmentFile(int index) {
+        return new File(dir, segmentName(index));
+    }
+
+    private String segmentName(int index) {
+        return FILE_PREFIX + sessionName + "_" + index + FILE_SUFFIX;
+    }
+
+    private boolean rotate() {
+        closeSegment();
+        segmentIndex++;
+        try {
+            deleteOldFilesKeeping(KEEP_FILES - 1);
+            openSegment();
+            return true;
+        } catch (IOException e) {
+            android.util.Log.w("FaceAuth/" + TAG, "segment rotate failed", e);
+            return false;
+        }
+    }
+
+    private void openSegment() throws IOException {
+        file = new RandomAccessFile(segmentFile(segmentIndex), "rw");
+        try {
+            map = file.getChannel().map(FileChannel.MapMode.READ_WRITE, 0, segmentBytes);
+        } catch (IOException e) {
+            file.close();
+            file = null;
+            throw e;
+        }
+        map.order(ByteOrder.LITTLE_ENDIAN);
+        map.put(header);
+    }
+
+    private void closeSegment() {
+        if (map != null) {
+            map.force();
+            map = null;
+        }
+        if (file != null) {
+            try {
+                file.close();
+            } catch (IOException e) {
+                android.util.Log.w("FaceAuth/" + TAG, "segment close failed", e);
+            }
+            file = null;
+        }
+    }
+
+    private void deleteOldFilesKeeping(int keep) {
+        File[] files = dir.listFiles((d, name) -> name.startsWith(FILE_PREFIX) && name.endsWith(FILE_SUFFIX));
+        if (files == null || files.length <= keep) return;
+        Arrays.sort(files, (a, b) -> Long.compare(b.lastModified(), a.lastModified()));
+        for (int i = keep; i < files.length; i++) files[i].delete();
+    }
+
+    /** magic, version, headerBytes, 스키마 수, (id, 이벤트명, 필드 수, (타입, 필드명)*)*. */
+    private static byte[] buildHeader() {
+        ByteBuffer b = ByteBuffer.allocate(64 * 1024).order(ByteOrder.LITTLE_ENDIAN);
+        b.putInt(MAGIC).putInt(VERSION).putInt(0);
+        b.putShort((short) EventSchema.all().size());
+        for (EventSchema s : EventSchema.all()) {
+            b.putShort((short) s.id);
+            putString(b, s.event);
+            b.putShort((short) s.fieldCount());
+            for (int i = 0; i < s.fieldCount(); i++) {
+                b.put(s.fieldTypes[i]);
+                putString(b, s.fieldNames[i]);
+            }
+        }
+        b.putInt(8, b.position());
+        return Arrays.copyOf(b.array(), b.position());
+    }
+
+    private static void putString(ByteBuffer b, String s) {
+        byte[] bytes = s.getBytes(StandardCharsets.UTF_8);
+        b.putShort((short) bytes.length).put(bytes);
+    }
+}
@@ -0,0 +1,153 @@
+package com.faceauth.sdk.logging;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.RandomAccessFile;
+import java.io.Writer;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.util.HashMap;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * EventJournal 바이너리 세그먼트 → JSONL 변환 (오프라인 도구, 앱 런타임에서는 폴백 렌더링에만 사용).
+ *
+ * 줄 형식: {"ts":..., "event":"auth_gate_status", ...필드} — 기존 SafeLogger JSON 이벤트와 같은 키.
+ * float는 소수 4자리, 유한하지 않은 값은 null.
+ *
+ * 사용: java -cp faceauth-sdk.jar com.faceauth.sdk.logging.EventJournalDecoder faceauth_events_*.bin &gt; events.jsonl
+ */
+public final class EventJournalDecoder {
+
+    private EventJournalDecoder() {}
+
+    public static void main(String[] args) throws IOException {
+        Writer out = new OutputStreamWriter(System.out, StandardCharsets.UTF_8);
+        for (String path : args) decode(new File(path), out);
+        out.flush();
+    }
+
+    /**
+     * 세그먼트 파일 1개 디코딩.
+     *
+     * @return 출력한 레코드 수
+     */
+    public static int decode(File file, Appendable out) throws IOException {
+        try (RandomAccessFile raf = new RandomAccessFile(file, "r")) {
+            ByteBuffer in = raf.getChannel().map(FileChannel.MapMode.READ_ONLY, 0, raf.length());
+            return decode(in, out);
+        }
+    }
+
+    static int decode(ByteBuffer in, Appendable out) throws IOException {
+        in.order(ByteOrder.LITTLE_ENDIAN);
+        Map<Integer, EventSchema> schemas = readDictionary(in);
+        StringBuilder sb = new StringBuilder(256);
+        int count = 0;
+        while (in.remaining() >= EventJournal.RECORD_HEADER_BYTES) {
+            int schemaId = in.getShort() & 0xFFFF;
+            int length   = in.getShort() & 0xFFFF;
+            long ts      = in.getLong();
+            EventSchema schema = schemas.get(schemaId);
+            if (schemaId == 0 || schema == null || length > in.remaining()) break;   // 끝 또는 기록 중 종료
+            ByteBuffer payload = in.slice().order(ByteOrder.LITTLE_ENDIAN);
+            payload.limit(length);
+            in.position(in.position() + length);
+
+            sb.setLength(0);
+            sb.append("{\"ts\":").append(ts).append(',');
+            appendFields(sb, schema, payload);
+            sb.append('}');
+            out.append(sb).append('\n');
+            count++;
+        }
+        return count;
+    }
+
+    /** 파일 헤더의 스키마 사전 읽기. 읽은 뒤 in은 첫 레코드 위치. */
+    static Map<Integer, EventSchema> readDictionary(ByteBuffer in) throws IOException {
+        if (in.remaining() < 14 || in.getInt() != EventJournal.MAGIC) throw new IOException("not an event journal");
+        int version = in.getInt();
+        if (version != EventJournal.VERSION) throw new IOException("unsupported journal version: " + version);
+        int headerBytes = in.getInt();
+        int count = in.getShort() & 0xFFFF;
+        Map<Integer, EventSchema> schemas = new HashMap<>(count * 2);
+        for (int s = 0; s < count; s++) {
+            int id = in.getShort() & 0xFFFF;
+            String event = getString(in);
+            int fields = in.getShort() & 0xFFFF;
+            String[] names = new String[fields];
+            byte[]   types = new byte[fields];
+            for (int f = 0; f < fields; f++) {
+                types[f] = in.get();
+                names[f] = getString(in);
+            }
+            schemas.put(id, new EventSchema(id, event, names, types));
+        }
+        in.position(headerBytes);
+        return schemas;
+    }
+
+    /** {"event":"...", 필드...} 를 sb에 추가. payload는 스키마 순서로 인코딩된 값. */
+    static void appendJson(StringBuilder sb, EventSchema schema, ByteBuffer payload) {
+        sb.append('{');
+        appendFields(sb, schema, payload);
+        sb.append('}');
+    }
+
+    private static void appendFields(StringBuilder sb, EventSchema schema, ByteBuffer payload) {
+        sb.append("\"event\":\"").append(schema.event).append('"');
+        for (int i = 0; i < schema.fieldCount(); i++) {
+            sb.append(",\"").append(schema.fieldNames[i]).append("\":");
+            switch (schema.fieldTypes[i]) {
+                case EventSchema.BOOL:
+                    sb.append(payload.get() != 0);
+                    break;
+                case EventSchema.INT:
+                    sb.append(payload.getInt());
+                    break;
+                case EventSchema.LONG:
+                    sb.append(payload.getLong());
+                    break;
+                case EventSchema.FLOAT: {
+                    float v = payload.getFloat();
+                    if (Float.isNaN(v) || Float.isInfinite(v)) sb.append("null");
+                    else sb.append(String.format(Locale.US, "%.4f", v));
+                    break;
+                }
+                case EventSchema.STRING: {
+                    sb.append('"');
+                    escape(sb, getString(payload));
+                    sb.append('"');
+                    break;
+                }
+                case EventSchema.NULLABLE_INT:
+                    if (payload.get() != 0) sb.append(payload.getInt());
+                    else sb.append("null");
+                    break;
+                default:
+                    throw new IllegalStateException("unknown field type: " + schema.fieldTypes[i]);
+            }
+        }
+    }
+
+    private static String getString(ByteBuffer in) {
+        int len = in.getShort() & 0xFFFF;
+        byte[] bytes = new byte[len];
+        in.get(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    private static void escape(StringBuilder sb, String s) {
+        for (int i = 0; i < s.length(); i++) {
+            char c = s.charAt(i);
+            if (c == '"' || c == '\\') sb.append('\\').append(c);
+            else if (c < 0x20) sb.append(String.format(Locale.US, "\\u%04x", (int) c));
+            else sb.append(c);
+        }
+    }
+}
@@ -0,0 +1,226 @@
+package com.faceauth.sdk.logging;
+
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+
+/**
+ * EventJournal 레코드의 스키마별 샘플링·속도 제한 (SamplingPolicy 적용).
+ *
+ * 정책이 없는 스키마는 전부 기록. 정책 스키마는 seen/logged를 집계해 statsIntervalMs마다
+ * log_sampling_stats 이벤트 1줄로 출력 (별도 스레드 없이 commit 시점에 만기 확인).
+ * HEAD 창은 startWindow() (인증 run 시작), startWindow(schema) (스키마별, 예: 매칭 시도마다) 또는 통계 출력 시 새로 시작.
+ *
+ * 스레드 안전: 스키마별 Limiter 단위 동기화 (커밋 스레드 간 경합은 같은 이벤트끼리만).
+ */
+public final class EventSampler {
+
+    private static final String TAG = "EventSampler";
+
+    private static volatile Limiter[] limiters = new Limiter[0];
+    private static volatile long statsIntervalMs = 10_000L;
+    private static volatile long lastStatsMs = System.currentTimeMillis();
+
+    private EventSampler() {}
+
+    /** 스키마 정책 설정 (ALL이면 제거). 초기화 시 호출. */
+    public static synchronized void configure(EventSchema schema, SamplingPolicy policy) {
+        Limiter[] next = limiters.length > schema.id ? limiters.clone() : Arrays.copyOf(limiters, schema.id + 1);
+        next[schema.id] = policy == null || policy.mode == SamplingPolicy.Mode.ALL ? null : new Limiter(schema, policy);
+        limiters = next;
+    }
+
+    /** 집계 카운터 출력 주기. 0 이하 = 출력 안 함. */
+    public static void setStatsIntervalMs(long intervalMs) {
+        statsIntervalMs = intervalMs;
+    }
+
+    /** 새 HEAD 창 시작 (인증 시도 시작 등). */
+    public static void startWindow() {
+        for (Limiter l : limiters) {
+            if (l != null) l.startWindow();
+        }
+    }
+
+    /** schema만 새 HEAD 창 시작 (매칭 시도마다 probe 예산을 새로 주는 경우). */
+    public static void startWindow(EventSchema schema) {
+        Limiter[] ls = limiters;
+        Limiter l = schema.id < ls.length ? ls[schema.id] : null;
+        if (l != null) l.startWindow();
+    }
+
+    /** 집계 카운터를 지금 출력. */
+    public static synchronized void flushStats() {
+        lastStatsMs = System.currentTimeMillis();
+        StringBuilder sb = null;
+        for (Limiter l : limiters) {
+            if (l == null) continue;
+            long seen, logged;
+            synchronized (l) {
+                seen   = l.seen;
+                logged = l.logged;
+                l.seen   = 0;
+                l.logged = 0;
+                l.startWindow();
+            }
+            if (seen == 0) continue;
+            if (sb == null) sb = new StringBuilder(256).append("{\"event\":\"log_sampling_stats\",\"events\":{");
+            else sb.append(',');
+            sb.append('"').append(l.schema.event).append("\":{\"policy\":\"").append(l.policy)
+                    .append("\",\"seen\":").append(seen).append(",\"logged\":").append(logged).append('}');
+        }
+        if (sb != null) SafeLogger.i(TAG, sb.append("}}").toString());
+    }
+
+    /**
+     * 기록 여부 결정 + 집계.
+     *
+     * @param payload 스키마 순서로 인코딩된 값 (position 0 ~ limit, 읽기만 함)
+     */
+    static boolean admit(EventSchema schema, ByteBuffer payload, long nowMs) {
+        long interval = statsIntervalMs;
+        if (interval > 0 && nowMs - lastStatsMs >= interval) flushStatsIfDue(nowMs, interval);
+        Limiter[] ls = limiters;
+        Limiter l = schema.id < ls.length ? ls[schema.id] : null;
+        return l == null || l.admit(payload, nowMs);
+    }
+
+    /**
+     * 같은 스키마 이벤트 count건을 한 번에 판정 + 집계 (건별 admit 잠금 없음).
+     * 호출자는 자체 우선순위 순서로 앞에서부터 반환값만큼만 만들어 Record.commitAdmitted()로 기록.
+     * ON_CHANGE는 묶음 단위 직전 상태가 없으므로 전부 허용.
+     *
+     * @return 기록 가능한 건수 (0 ~ count)
+     */
+    public static int admitBatch(EventSchema schema, int count, long nowMs) {
+        if (count <= 0) return 0;
+        long interval = statsIntervalMs;
+        if (interval > 0 && nowMs - lastStatsMs >= interval) flushStatsIfDue(nowMs, interval);
+        Limiter[] ls = limiters;
+        Limiter l = schema.id < ls.length ? ls[schema.id] : null;
+        return l == null ? count : l.admitBatch(count, nowMs);
+    }
+
+    private static synchronized void flushStatsIfDue(long nowMs, long interval) {
+        if (nowMs - lastStatsMs >= interval) flushStats();
+    }
+
+    /** 스키마 1개의 정책 상태. */
+    static final class Limiter {
+        final EventSchema    schema;
+        final SamplingPolicy policy;
+
+        long seen;
+        long logged;
+        private int    windowCount;
+        private long   everyCount;
+        private double tokens;
+        private long   refillMs = -1;
+        private byte[] lastState;
+        private byte[] scratch;
+
+        Limiter(EventSchema schema, SamplingPolicy policy) {
+            this.schema = schema;
+            this.policy = policy;
+            this.tokens = policy.burst;
+        }
+
+        synchronized void startWindow() {
+            windowCount = 0;
+        }
+
+        synchronized boolean admit(ByteBuffer payload, long nowMs) {
+            seen++;
+            boolean ok;
+            switch (policy.mode) {
+                case OFF:
+                    ok = false;
+                    break;
+                case HEAD:
+                    ok = windowCount < policy.n;
+                    if (ok) windowCount++;
+                    break;
+                case EVERY_N:
+                    ok = everyCount++ % policy.n == 0;
+                    break;
+                case TOKEN_BUCKET:
+                    if (refillMs >= 0 && nowMs > refillMs) {
+                        tokens = Math.min(policy.burst, tokens + (nowMs - refillMs) * policy.ratePerSec / 1000.0);
+                    }
+                    refillMs = nowMs;
+                    ok = tokens >= 1.0;
+                    if (ok) tokens -= 1.0;
+                    break;
+                case ON_CHANGE:
+                    ok = stateChanged(payload);
+                    break;
+                default:
+                    ok = true;
+            }
+            if (ok) logged++;
+            return ok;
+        }
+
+        synchronized int admitBatch(int count, long nowMs) {
+            seen += count;
+            int ok;
+            switch (policy.mode) {
+                case OFF:
+                    ok = 0;
+                    break;
+                case HEAD:
+                    ok = Math.max(0, Math.min(count, policy.n - windowCount));
+                    windowCount += ok;
+                    break;
+                case EVERY_N: {
+                    // [everyCount, everyCount + count) 중 n의 배수 개수 (건별 admit과 같은 순번 규칙)
+                    long end = everyCount + count;
+                    ok = (int) ((end + policy.n - 1) / policy.n - (everyCount + policy.n - 1) / policy.n);
+                    everyCount = end;
+                    break;
+                }
+                case TOKEN_BUCKET:
+                    if (refillMs >= 0 && nowMs > refillMs) {
+                        tokens = Math.min(policy.burst, tokens + (nowMs - refillMs) * policy.ratePerSec / 1000.0);
+                    }
+                    refillMs = nowMs;
+                    ok = (int) Math.min(count, Math.floor(tokens));
+                    tokens -= ok;
+                    break;
+                default:
+                    ok = count;
+            }
+            logged += ok;
+            return ok;
+        }
+
+        /** float 필드를 뺀 값 바이트가 직전 기록과 다르면 true (기록 상태 갱신). */
+        private boolean stateChanged(ByteBuffer payload) {
+            // 절대 인덱스로 읽음 (duplicate 할당 없음, payload 위치 불변)
+            int pos = payload.position();
+            if (scratch == null || scratch.length < payload.remaining()) scratch = new byte[Math.max(64, payload.remaining())];
+            int len = 0;
+            for (int f = 0; f < schema.fieldCount(); f++) {
+                int size;
+                switch (schema.fieldTypes[f]) {
+                    case EventSchema.BOOL:         size = 1; break;
+                    case EventSchema.INT:          size = 4; break;
+                    case EventSchema.LONG:         size = 8; break;
+                    case EventSchema.FLOAT:        pos += 4; continue;
+                    case EventSchema.STRING:
+                        size = 2 + ((payload.get(pos) & 0xFF) | (payload.get(pos + 1) & 0xFF) << 8);   // u16 LE
+                        break;
+                    case EventSchema.NULLABLE_INT: size = payload.get(pos) != 0 ? 5 : 1; break;
+                    default: throw new IllegalStateException("unknown field type: " + schema.fieldTypes[f]);
+                }
+                for (int k = 0; k < size; k++) scratch[len++] = payload.get(pos++);
+            }
+            if (lastState != null && lastState.length == len) {
+                boolean same = true;
+                for (int i = 0; i < len && same; i++) same = lastState[i] == scratch[i];
+                if (same) return false;
+            }
+            lastState = Arrays.copyOf(scratch, len);
+            return true;
+        }
+    }
+}
@@ -0,0 +1,101 @@
+package com.faceauth.sdk.logging;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * 이벤트 저널(EventJournal) 레코드 스키마. 필드 이름·타입을 미리 등록해 두고
+ * 레코드에는 스키마 id와 값만 바이너리로 기록 → 프레임 경로에서 JSON 포맷팅 없음.
+ *
+ * 필드 정의는 "이름:타입" 문자열. 타입:
+ *  b = boolean, i = int, l = long, f = float (디코딩 시 소수 4자리),
+ *  s = 문자열 (UTF-8, 짧은 id·enum 이름 용도), n = null 가능 int (trackingId 등)
+ *
+ * 같은 이벤트 이름을 필드 구성이 다른 여러 스키마가 공유할 수 있다 (id는 고유).
+ * 저널 파일 헤더에 전체 스키마 사전이 들어가므로 디코더는 이 클래스 없이도 해석 가능.
+ */
+public final class EventSchema {
+
+    public static final byte BOOL   = 'b';
+    public static final byte INT    = 'i';
+    public static final byte LONG   = 'l';
+    public static final byte FLOAT  = 'f';
+    public static final byte STRING = 's';
+    public static final byte NULLABLE_INT = 'n';
+
+    private static final List<EventSchema> REGISTRY = new ArrayList<>();
+
+    // ── 등록 스키마 (id는 저널 파일에 기록되므로 바꾸거나 재사용하지 말 것) ──
+
+    public static final EventSchema AUTH_GATE_STATUS = register(1, "auth_gate_status",
+            "authRunId:i", "gate_face_ready:b", "gate_stable_ready:b", "gate_embedding_computed:b",
+            "gate_db_loaded:b", "gate_compared_all:b", "stableFrames:i", "requiredFrames:i",
+            "tid:n", "roiCandidateCount:i", "bboxRatio:f");
+
+    public static final EventSchema AUTH_MATCH_RESULT = register(2, "auth_match_result",
+            "authRunId:i", "bestId:s", "bestScore:f", "top2Id:s", "top2Score:f", "margin:f",
+            "decision:s", "triggerSecondary:b", "fusedFrames:i", "frameToDecisionMs:l");
+
+    public static final EventSchema AUTH_TFLITE_INFER_SUCCESS = register(3, "auth_tflite_infer_success",
+            "elapsedMs:l", "embeddingDim:i", "embeddingNorm:f");
+
+    public static final EventSchema AUTH_TFLITE_BATCH_INFER_SUCCESS = register(4, "auth_tflite_infer_success",
+            "elapsedMs:l", "embeddingDim:i", "batchSize:i");
+
+    public static final EventSchema AUTH_MATCH_PROBE = register(5, "auth_match_probe",
+            "enrolledId:s", "distanceOrScore:f", "rankCandidate:b");
+
+    public static final EventSchema AUTH_LIVENESS_PROGRESS = register(6, "auth_liveness_progress",
+            "yaw:f", "state:s", "streaks:i", "selectedTrackingId:n", "roiCandidateCount:i");
+
+    public static final EventSchema AUTH_TFLITE_PRECHECK = register(7, "auth_tflite_precheck",
+            "modelName:s", "inputShape:s", "inputDtype:s", "bitmapW:i", "bitmapH:i", "bitmapConfig:s",
+            "threadName:s");
+
+    public static final EventSchema AUTH_TFLITE_INFER_START = register(8, "auth_tflite_infer_start",
+            "elapsedMsFromCommitStart:l");
+
+    public final int      id;
+    public final String   event;
+    final String[] fieldNames;
+    final byte[]   fieldTypes;
+
+    EventSchema(int id, String event, String[] fieldNames, byte[] fieldTypes) {
+        this.id         = id;
+        this.event      = event;
+        this.fieldNames = fieldNames;
+        this.fieldTypes = fieldTypes;
+    }
+
+    public int fieldCount() {
+        return fieldNames.length;
+    }
+
+    /** 등록된 전체 스키마 (id 순). */
+    public static List<EventSchema> all() {
+        return Collections.unmodifiableList(REGISTRY);
+    }
+
+    private static EventSchema register(int id, String event, String... fields) {
+        if (id <= 0 || id > 0xFFFF) throw new IllegalArgumentException("schema id out of range: " + id);
+        for (EventSchema s : REGISTRY) {
+            if (s.id == id) throw new IllegalArgumentException("duplicate schema id: " + id);
+        }
+        String[] names = new String[fields.length];
+        byte[]   types = new byte[fields.length];
+        for (int i = 0; i < fields.length; i++) {
+            int sep = fields[i].lastIndexOf(':');
+            names[i] = fields[i].substring(0, sep);
+            types[i] = (byte) fields[i].charAt(sep + 1);
+            if (!isValidType(types[i])) throw new IllegalArgumentException("bad field type: " + fields[i]);
+        }
+        EventSchema s = new EventSchema(id, event, names, types);
+        REGISTRY.add(s);
+        return s;
+    }
+
+    static boolean isValidType(byte t) {
+        return t == BOOL || t == INT || t == LONG || t == FLOAT || t == STRING || t == NULLABLE_INT;
+    }
+}
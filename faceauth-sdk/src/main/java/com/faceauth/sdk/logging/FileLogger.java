@@ -3,19 +3,13 @@ package com.faceauth.sdk.logging;
 import android.content.Context;
 
 import java.io.File;
-import java.io.FileOutputStream;
 import java.io.IOException;
-import java.nio.charset.StandardCharsets;
 import java.text.SimpleDateFormat;
-import java.util.ArrayList;
 import java.util.Date;
-import java.util.List;
 import java.util.Locale;
-import java.util.concurrent.ConcurrentLinkedQueue;
-import java.util.concurrent.ExecutorService;
-import java.util.concurrent.Executors;
 import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.locks.LockSupport;
 
 /**
  * Persistent file logger for FaceAuth pipeline. Writes JSONL to app-private external storage
@@ -24,6 +18,17 @@ import java.util.concurrent.atomic.AtomicBoolean;
  * Retrieve logs:
  * - MTP: Android/data/&lt;package&gt;/files/logs/
  * - ADB: adb pull /sdcard/Android/data/&lt;package&gt;/files/logs/ ./logs
+ * <p>
+ * Callers only claim a slot in a preallocated lock-free ring (LogRing) and store raw fields;
+ * JSON formatting, encoding and file I/O happen on a single writer thread, which wakes every
+ * FLUSH_INTERVAL_MS or once FLUSH_BATCH lines are pending. On overflow lines are dropped
+ * (I first, W/E keep a reserved 1/8 of the ring) and the writer logs a filelogger_dropped line
+ * with the count, so the frame thread never blocks on logging.
+ * <p>
+ * Each log file is a preallocated MAX_FILE_BYTES memory-mapped segment (MappedSegmentWriter):
+ * lines are encoded straight into the mapping, the segment is msynced every SYNC_INTERVAL_MS,
+ * and it is truncated to its written length when it rotates or the logger closes. A file pulled
+ * while the logger is running may therefore end in NUL padding.
  */
 public final class FileLogger {
 
@@ -33,31 +38,34 @@ public final class FileLogger {
     private static final String FILE_SUFFIX = ".log";
     private static final long MAX_FILE_BYTES = 5L * 1024 * 1024; // 5MB
     private static final int KEEP_FILES = 10;
-    private static final int BATCH_SIZE = 25;
+    private static final int RING_CAPACITY = 4096;
+    /** Pending lines that wake the writer before the flush interval. */
+    private static final int FLUSH_BATCH = 256;
     private static final long FLUSH_INTERVAL_MS = 2000L;
+    /** msync interval; an unclean power-off loses at most this much of the current segment. */
+    private static final long SYNC_INTERVAL_MS = FLUSH_INTERVAL_MS;
 
     private static volatile FileLogger INSTANCE;
     private static final AtomicBoolean INITIALIZED = new AtomicBoolean(false);
 
     private final File logDir;
-    private final ConcurrentLinkedQueue<String> queue = new ConcurrentLinkedQueue<>();
-    private final ExecutorService writer = Executors.newSingleThreadExecutor(r -> {
-        Thread t = new Thread(r, "FileLogger-Writer");
-        t.setDaemon(true);
-        return t;
-    });
+    private final LogRing ring = new LogRing(RING_CAPACITY);
+    private final Thread writer;
     private final AtomicBoolean closed = new AtomicBoolean(false);
-    private final Object flushSignal = new Object();
+    private volatile boolean flushRequested;
 
-    private volatile File currentFile;
-    private volatile long currentFileLength;
-    private volatile int currentDayIndex; // for same-day rotation (_0, _1, ...)
-    private volatile long lastFlushMs;
+    // Writer thread only
+    private final StringBuilder line = new StringBuilder(512);
+    private final MappedSegmentWriter segment = new MappedSegmentWriter((int) MAX_FILE_BYTES);
+    private int currentDayIndex; // for same-day rotation (_0, _1, ...)
+    private long reportedDropped;
+    private long lastSyncMs;
 
     private FileLogger(File dir) {
         this.logDir = dir;
         if (!dir.exists()) dir.mkdirs();
-        lastFlushMs = System.currentTimeMillis();
+        writer = new Thread(this::writerLoop, "FileLogger-Writer");
+        writer.setDaemon(true);
     }
 
     /**
@@ -72,8 +80,10 @@ public final class FileLogger {
             if (dir == null) return;
             INSTANCE = new FileLogger(dir);
             INSTANCE.deleteOldFilesKeeping(KEEP_FILES);
+            INSTANCE.trimPaddedFiles();
+            INSTANCE.writer.start();
             INITIALIZED.set(true);
-            INSTANCE.logInternal(TAG_PREFIX + "FileLogger", "I", "FileLogger initialized, dir=" + dir.getAbsolutePath());
+            INSTANCE.enqueue(TAG_PREFIX + "FileLogger", "I", "FileLogger initialized, dir=" + dir.getAbsolutePath());
         }
     }
 
@@ -82,26 +92,35 @@ public final class FileLogger {
     }
 
     /**
-     * Enqueue a log line. Written asynchronously by background thread (non-blocking for analyzer).
+     * Enqueue a log line. Lock-free and allocation-free for the caller; dropped if the ring is full.
      */
     public static void log(String tag, String level, String message) {
-        if (!isInitialized() || message == null) return;
-        INSTANCE.enqueue(tag != null ? tag : "", level != null ? level : "I", message);
+        FileLogger logger = INSTANCE;
+        if (logger == null || logger.closed.get() || message == null) return;
+        logger.enqueue(tag != null ? tag : "", level != null ? level : "I", message);
     }
 
+    /** Asks the writer to write pending lines now (does not wait). */
     public static void flush() {
-        if (!isInitialized()) return;
-        INSTANCE.flushInternal();
+        FileLogger logger = INSTANCE;
+        if (logger == null || logger.closed.get()) return;
+        logger.flushRequested = true;
+        LockSupport.unpark(logger.writer);
+    }
+
+    /** Lines dropped on ring overflow since init. */
+    public static long getDroppedCount() {
+        FileLogger logger = INSTANCE;
+        return logger != null ? logger.ring.dropped() : 0L;
     }
 
     public static void close() {
         if (!INITIALIZED.get() || INSTANCE == null) return;
         synchronized (FileLogger.class) {
             if (INSTANCE.closed.getAndSet(true)) return;
-            INSTANCE.flushInternal();
-            INSTANCE.writer.shutdown();
+            LockSupport.unpark(INSTANCE.writer);
             try {
-                INSTANCE.writer.awaitTermination(3, TimeUnit.SECONDS);
+                INSTANCE.writer.join(TimeUnit.SECONDS.toMillis(3));
             } catch (InterruptedException e) {
                 Thread.currentThread().interrupt();
             }
@@ -111,32 +130,82 @@ public final class FileLogger {
     }
 
     private void enqueue(String tag, String level, String message) {
-        long ts = System.currentTimeMillis();
-        String threadName = Thread.currentThread().getName();
-        String line = jsonLine(ts, threadName, tag, level, message);
-        queue.offer(line);
-        scheduleFlush();
+        boolean priority = !"I".equals(level);
+        int pending = ring.offer(System.currentTimeMillis(), Thread.currentThread().getName(),
+                tag, level, message, priority);
+        if (pending > 0 && pending % FLUSH_BATCH == 0) LockSupport.unpark(writer);
+    }
+
+    // ── Writer thread ────────────────────────────────────────────────────
+
+    private void writerLoop() {
+        long intervalNs = TimeUnit.MILLISECONDS.toNanos(FLUSH_INTERVAL_MS);
+        while (true) {
+            boolean closing = closed.get();
+            if (!closing && !flushRequested && ring.size() < FLUSH_BATCH) {
+                LockSupport.parkNanos(this, intervalNs);
+                closing = closed.get();
+            }
+            boolean sync = flushRequested;
+            flushRequested = false;
+            writePending(sync);
+            if (closing && ring.size() == 0) break;
+        }
+        segment.close();
     }
 
-    private void logInternal(String tag, String level, String message) {
-        long ts = System.currentTimeMillis();
-        String threadName = Thread.currentThread().getName();
-        queue.offer(jsonLine(ts, threadName, tag, level, message));
+    private void writePending(boolean sync) {
+        try {
+            while (ring.drain(this::writeLine, FLUSH_BATCH) > 0) {
+                // until empty; rotation is checked per line
+            }
+            long dropped = ring.dropped();
+            if (dropped != reportedDropped) {
+                writeLine(System.currentTimeMillis(), writer.getName(), TAG_PREFIX + "FileLogger", "W",
+                        "{\"event\":\"filelogger_dropped\",\"dropped\":" + (dropped - reportedDropped)
+                                + ",\"totalDropped\":" + dropped + "}");
+                reportedDropped = dropped;
+            }
+            long now = System.currentTimeMillis();
+            if (sync || now - lastSyncMs >= SYNC_INTERVAL_MS) {
+                segment.force();
+                lastSyncMs = now;
+            }
+        } catch (RuntimeException e) {
+            android.util.Log.w(TAG_PREFIX + "FileLogger", "FileLogger write failed", e);
+            segment.close();
+        }
     }
 
-    private static String jsonLine(long ts, String threadName, String tag, String level, String message) {
-        StringBuilder sb = new StringBuilder();
-        sb.append("{\"ts\":").append(ts);
-        sb.append(",\"tn\":\"").append(escape(threadName)).append("\"");
-        sb.append(",\"tag\":\"").append(escape(tag)).append("\"");
-        sb.append(",\"lvl\":\"").append(escape(level)).append("\"");
-        sb.append(",\"msg\":\"").append(escape(message)).append("\"}");
-        return sb.toString();
+    private void writeLine(long ts, String threadName, String tag, String level, String message) {
+        line.setLength(0);
+        line.append("{\"ts\":").append(ts);
+        line.append(",\"tn\":\"");
+        escape(line, threadName);
+        line.append("\",\"tag\":\"");
+        escape(line, tag);
+        line.append("\",\"lvl\":\"");
+        escape(line, level);
+        line.append("\",\"msg\":\"");
+        escape(line, message);
+        line.append("\"}\n");
+        try {
+            if (!segment.isOpen()) openSegment();
+            if (segment.append(line)) return;
+            // Segment full: rotate. A line that does not fit an empty segment is dropped.
+            boolean wasEmpty = segment.length() == 0;
+            segment.close();
+            currentDayIndex++;
+            if (wasEmpty) return;
+            openSegment();
+            segment.append(line);
+        } catch (IOException e) {
+            throw new IllegalStateException(e);
+        }
     }
 
-    private static String escape(String s) {
-        if (s == null) return "";
-        StringBuilder sb = new StringBuilder(s.length() + 8);
+    private static void escape(StringBuilder sb, String s) {
+        if (s == null) return;
         for (int i = 0; i < s.length(); i++) {
             char c = s.charAt(i);
             switch (c) {
@@ -148,70 +217,33 @@ public final class FileLogger {
                 default:   sb.append(c); break;
             }
         }
-        return sb.toString();
     }
 
-    private void scheduleFlush() {
-        writer.execute(this::drainAndWrite);
-    }
-
-    private void flushInternal() {
-        synchronized (flushSignal) {
-            flushSignal.notifyAll();
+    private void openSegment() throws IOException {
+        SimpleDateFormat sdf = new SimpleDateFormat("yyyyMMdd", Locale.US);
+        String baseName = FILE_PREFIX + sdf.format(new Date());
+        File file;
+        while (true) {
+            file = currentDayIndex > 0
+                    ? new File(logDir, baseName + "_" + currentDayIndex + FILE_SUFFIX)
+                    : new File(logDir, baseName + FILE_SUFFIX);
+            if (!file.exists() || file.length() < MAX_FILE_BYTES) break;
+            currentDayIndex++;
         }
-        writer.execute(this::drainAndWrite);
+        segment.open(file);
     }
 
-    private void drainAndWrite() {
-        List<String> batch = new ArrayList<>(BATCH_SIZE);
-        long now = System.currentTimeMillis();
-        boolean forceFlush = (now - lastFlushMs >= FLUSH_INTERVAL_MS);
-
-        while (queue.peek() != null && batch.size() < BATCH_SIZE) {
-            String line = queue.poll();
-            if (line != null) batch.add(line);
-        }
-        if (batch.isEmpty() && !forceFlush) return;
-
-        lastFlushMs = now;
-        if (batch.isEmpty()) return;
-
-        try {
-            ensureCurrentFile();
-            if (currentFile == null) return;
-            try (FileOutputStream os = new FileOutputStream(currentFile, true)) {
-                byte[] utf8 = StandardCharsets.UTF_8;
-                for (String line : batch) {
-                    byte[] b = (line + "\n").getBytes(utf8);
-                    os.write(b);
-                    currentFileLength += b.length;
-                }
-            }
-            if (currentFileLength >= MAX_FILE_BYTES) {
-                currentFile = null;
-                currentFileLength = 0;
-                currentDayIndex++;
+    /** Truncates files left preallocated by a previous unclean exit. */
+    private void trimPaddedFiles() {
+        File[] files = logDir.listFiles((d, name) -> name.startsWith(FILE_PREFIX) && name.endsWith(FILE_SUFFIX));
+        if (files == null) return;
+        for (File f : files) {
+            if (f.length() != MAX_FILE_BYTES) continue;
+            try {
+                MappedSegmentWriter.trimPadding(f);
+            } catch (IOException e) {
+                android.util.Log.w(TAG_PREFIX + "FileLogger", "FileLogger trim failed", e);
             }
-        } catch (IOException e) {
-            android.util.Log.w(TAG_PREFIX + "FileLogger", "FileLogger write failed", e);
-        }
-    }
-
-    private void ensureCurrentFile() throws IOException {
-        if (currentFile != null && currentFile.exists()) return;
-        SimpleDateFormat sdf = new SimpleDateFormat("yyyyMMdd", Locale.US);
-        String dateStr = sdf.format(new Date());
-        String baseName = FILE_PREFIX + dateStr;
-        if (currentDayIndex > 0) {
-            currentFile = new File(logDir, baseName + "_" + currentDayIndex + FILE_SUFFIX);
-        } else {
-            currentFile = new File(logDir, baseName + FILE_SUFFIX);
-        }
-        currentFileLength = currentFile.exists() ? currentFile.length() : 0;
-        if (currentFileLength >= MAX_FILE_BYTES) {
-            currentFile = null;
-            currentDayIndex++;
-            ensureCurrentFile();
         }
     }
 
@@ -220,7 +252,7 @@ public final class FileLogger {
         if (files == null || files.length <= keep) return;
         java.util.Arrays.sort(files, (a, b) -> Long.compare(b.lastModified(), a.lastModified()));
         for (int i = keep; i < files.length; i++) {
-            if (files[i].equals(currentFile)) continue;
+            if (files[i].equals(segment.file())) continue;
             files[i].delete();
         }
     }
@@ -0,0 +1,117 @@
+package com.faceauth.sdk.logging;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * FileLogger용 고정 크기 링 버퍼 (다중 생산자 / 단일 소비자, 잠금 없음).
+ *
+ * 생산자는 슬롯 하나를 CAS로 예약하고 원시 필드(시각·스레드명·태그·레벨·메시지 참조)만 기록 →
+ * 노드 할당·JSON 포맷팅 없음. 포맷팅은 소비자(FileLogger 기록 스레드)가 drain 시 수행.
+ *
+ * 넘침 정책 (드롭 + 카운터, 생산자는 절대 대기하지 않음):
+ *  - 일반(I) 이벤트: 용량의 7/8 이상 차면 버림 → 남은 1/8은 W/E 전용
+ *  - 우선(W/E) 이벤트: 가득 찼을 때만 버림
+ */
+final class LogRing {
+
+    /** drain 대상. 소비자 스레드에서 호출. */
+    interface Sink {
+        void accept(long ts, String thread, String tag, String level, String message);
+    }
+
+    private final int  mask;
+    private final int  capacity;
+    private final int  normalLimit;
+
+    private final long[]   ts;
+    private final String[] thread;
+    private final String[] tag;
+    private final String[] level;
+    private final String[] message;
+    /** 슬롯별 게시 번호: pos 기록 완료 시 pos + 1 (release) */
+    private final AtomicLongArray published;
+
+    private final AtomicLong tail    = new AtomicLong();
+    private volatile long    head;   // 소비자만 기록
+    private final AtomicLong dropped = new AtomicLong();
+
+    /** @param capacity 2의 거듭제곱 */
+    LogRing(int capacity) {
+        if (capacity < 8 || Integer.bitCount(capacity) != 1) {
+            throw new IllegalArgumentException("capacity must be a power of two >= 8: " + capacity);
+        }
+        this.capacity    = capacity;
+        this.mask        = capacity - 1;
+        this.normalLimit = capacity - capacity / 8;
+        this.ts        = new long[capacity];
+        this.thread    = new String[capacity];
+        this.tag       = new String[capacity];
+        this.level     = new String[capacity];
+        this.message   = new String[capacity];
+        this.published = new AtomicLongArray(capacity);
+    }
+
+    /**
+     * 이벤트 1건 기록.
+     *
+     * @param priority true면 예약 영역까지 사용 (W/E)
+     * @return 기록 후 대기 건수, 버렸으면 -1
+     */
+    int offer(long timeMs, String threadName, String tagValue, String levelValue, String msg, boolean priority) {
+        int limit = priority ? capacity : normalLimit;
+        long pos;
+        do {
+            pos = tail.get();
+            if (pos - head >= limit) {
+                dropped.incrementAndGet();
+                return -1;
+            }
+        } while (!tail.compareAndSet(pos, pos + 1));
+
+        int i = (int) pos & mask;
+        ts[i]      = timeMs;
+        thread[i]  = threadName;
+        tag[i]     = tagValue;
+        level[i]   = levelValue;
+        message[i] = msg;
+        published.lazySet(i, pos + 1);
+        return (int) (pos + 1 - head);
+    }
+
+    /**
+     * 게시된 이벤트를 순서대로 최대 max건 sink로 전달 (단일 소비자 전용).
+     *
+     * @return 전달한 건수
+     */
+    int drain(Sink sink, int max) {
+        long h = head;
+        int n = 0;
+        while (n < max) {
+            int i = (int) h & mask;
+            if (published.get(i) != h + 1) break;   // 비었거나 아직 기록 중
+            sink.accept(ts[i], thread[i], tag[i], level[i], message[i]);
+            thread[i]  = null;
+            tag[i]     = null;
+            level[i]   = null;
+            message[i] = null;
+            head = ++h;
+            n++;
+        }
+        return n;
+    }
+
+    /** 예약된(기록 중 포함) 대기 건수 근사값. */
+    int size() {
+        return (int) (tail.get() - head);
+    }
+
+    int capacity() {
+        return capacity;
+    }
+
+    /** 누적 드롭 건수. */
+    long dropped() {
+        return dropped.get();
+    }
+}
@@ -0,0 +1,127 @@
+package com.faceauth.sdk.logging;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.CharBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.CharsetEncoder;
+import java.nio.charset.CoderResult;
+import java.nio.charset.CodingErrorAction;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * FileLogger 세그먼트 기록기 (기록 스레드 전용).
+ *
+ * 세그먼트 파일을 segmentBytes 크기로 미리 할당해 메모리 맵 → 줄 추가는 UTF-8 인코딩이
+ * 매핑 영역에 바로 쓰는 1회 복사, write 시스템 콜 없음. force()로 주기적 msync.
+ * 프로세스가 죽어도 기록분은 페이지 캐시에 남고, 기기 전원 차단 시 최대 msync 간격만큼 유실.
+ *
+ * 미리 할당한 꼬리는 0 바이트 → close()에서 기록 길이로 잘라냄. 비정상 종료로 남은 꼬리는
+ * open() / trimPadding()에서 마지막 0이 아닌 바이트 기준으로 정리.
+ */
+final class MappedSegmentWriter {
+
+    private final int segmentBytes;
+    private final CharsetEncoder encoder = StandardCharsets.UTF_8.newEncoder()
+            .onMalformedInput(CodingErrorAction.REPLACE)
+            .onUnmappableCharacter(CodingErrorAction.REPLACE);
+
+    private File             file;
+    private RandomAccessFile raf;
+    private MappedByteBuffer map;
+
+    MappedSegmentWriter(int segmentBytes) {
+        this.segmentBytes = segmentBytes;
+    }
+
+    /** f를 열어 기존 내용 뒤에 이어 쓰도록 매핑 (열려 있던 세그먼트는 닫음). */
+    void open(File f) throws IOException {
+        close();
+        RandomAccessFile r = new RandomAccessFile(f, "rw");
+        try {
+            long existing = r.length();
+            MappedByteBuffer m = r.getChannel().map(FileChannel.MapMode.READ_WRITE, 0, segmentBytes);
+            m.position(dataLength(m, (int) Math.min(existing, segmentBytes)));
+            file = f;
+            raf  = r;
+            map  = m;
+        } catch (IOException | RuntimeException e) {
+            r.close();
+            throw e;
+        }
+    }
+
+    boolean isOpen() {
+        return map != null;
+    }
+
+    File file() {
+        return file;
+    }
+
+    /** 기록된 바이트 수 (미리 할당한 꼬리 제외). */
+    int length() {
+        return map != null ? map.position() : 0;
+    }
+
+    /**
+     * 한 줄 추가. 남은 공간이 부족하면 아무것도 쓰지 않고 false (호출측이 회전).
+     */
+    boolean append(CharSequence line) {
+        int start = map.position();
+        encoder.reset();
+        CoderResult r = encoder.encode(CharBuffer.wrap(line), map, true);
+        if (!r.isOverflow()) r = encoder.flush(map);
+        if (r.isOverflow()) {
+            map.position(start);
+            return false;
+        }
+        return true;
+    }
+
+    /** msync. */
+    void force() {
+        if (map != null) map.force();
+    }
+
+    /** msync 후 기록 길이로 잘라내고 닫음. */
+    void close() {
+        if (map == null) return;
+        int written = map.position();
+        try {
+            map.force();
+            map = null;
+            raf.setLength(written);
+        } catch (IOException e) {
+            android.util.Log.w("FaceAuth/FileLogger", "segment truncate failed", e);
+        } finally {
+            try {
+                raf.close();
+            } catch (IOException e) {
+                android.util.Log.w("FaceAuth/FileLogger", "segment close failed", e);
+            }
+            raf  = null;
+            file = null;
+        }
+    }
+
+    /** 비정상 종료로 미리 할당된 꼬리가 남은 파일을 기록 길이로 잘라냄. */
+    static void trimPadding(File f) throws IOException {
+        try (RandomAccessFile r = new RandomAccessFile(f, "rw")) {
+            long len = r.length();
+            if (len == 0 || len > Integer.MAX_VALUE) return;
+            MappedByteBuffer m = r.getChannel().map(FileChannel.MapMode.READ_ONLY, 0, len);
+            int data = dataLength(m, (int) len);
+            if (data < len) r.setLength(data);
+        }
+    }
+
+    /** [0, limit) 중 마지막 0이 아닌 바이트 다음 위치. */
+    private static int dataLength(MappedByteBuffer m, int limit) {
+        int end = limit;
+        while (end > 0 && m.get(end - 1) == 0) end--;
+        return end;
+    }
+}
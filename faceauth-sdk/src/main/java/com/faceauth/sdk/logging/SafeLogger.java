@@ -18,6 +18,10 @@ public final class SafeLogger {
         debugEnabled = enabled;
     }
 
+    public static boolean isDebugEnabled() {
+        return debugEnabled;
+    }
+
     public static void v(String tag, String msg) {
         if (debugEnabled) Log.v(SDK_TAG_PREFIX + tag, sanitize(msg));
     }
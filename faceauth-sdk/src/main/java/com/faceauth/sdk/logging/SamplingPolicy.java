@@ -0,0 +1,81 @@
+package com.faceauth.sdk.logging;
+
+import java.util.Locale;
+
+/**
+ * 이벤트 종류별 샘플링·속도 제한 정책 (EventSampler가 적용).
+ *
+ * 설정 문자열 (FaceAuthConfig.log*Sampling):
+ *  - "all"        전부 기록
+ *  - "off"        기록 안 함 (집계 카운터만)
+ *  - "head:N"     창(window)마다 처음 N건
+ *  - "every:N"    N건 중 1건 (첫 건 포함)
+ *  - "rate:R/B"   토큰 버킷, 초당 R건·최대 B건 연속 ("rate:R" = B도 R)
+ *  - "change"     상태 변화 시에만: float 필드를 제외한 값이 직전 기록과 다를 때
+ */
+public final class SamplingPolicy {
+
+    public enum Mode { ALL, OFF, HEAD, EVERY_N, TOKEN_BUCKET, ON_CHANGE }
+
+    public static final SamplingPolicy ALL = new SamplingPolicy(Mode.ALL, 0, 0f, 0);
+
+    public final Mode  mode;
+    /** HEAD: 창당 건수, EVERY_N: N */
+    public final int   n;
+    /** TOKEN_BUCKET: 초당 토큰 */
+    public final float ratePerSec;
+    /** TOKEN_BUCKET: 버킷 크기 */
+    public final int   burst;
+
+    private SamplingPolicy(Mode mode, int n, float ratePerSec, int burst) {
+        this.mode       = mode;
+        this.n          = n;
+        this.ratePerSec = ratePerSec;
+        this.burst      = burst;
+    }
+
+    /**
+     * 설정 문자열 해석.
+     *
+     * @throws IllegalArgumentException 형식 오류
+     */
+    public static SamplingPolicy parse(String spec) {
+        if (spec == null) return ALL;
+        String s = spec.trim().toLowerCase(Locale.US);
+        try {
+            if (s.equals("all"))    return ALL;
+            if (s.equals("off"))    return new SamplingPolicy(Mode.OFF, 0, 0f, 0);
+            if (s.equals("change")) return new SamplingPolicy(Mode.ON_CHANGE, 0, 0f, 0);
+            if (s.startsWith("head:"))  return new SamplingPolicy(Mode.HEAD, positive(s.substring(5)), 0f, 0);
+            if (s.startsWith("every:")) return new SamplingPolicy(Mode.EVERY_N, positive(s.substring(6)), 0f, 0);
+            if (s.startsWith("rate:")) {
+                String[] parts = s.substring(5).split("/");
+                float rate = Float.parseFloat(parts[0]);
+                int burst = parts.length > 1 ? positive(parts[1]) : Math.max(1, (int) Math.ceil(rate));
+                if (!(rate > 0f) || parts.length > 2) throw new IllegalArgumentException();
+                return new SamplingPolicy(Mode.TOKEN_BUCKET, 0, rate, burst);
+            }
+        } catch (IllegalArgumentException e) {
+            // 아래에서 공통 메시지로 보고
+        }
+        throw new IllegalArgumentException("invalid sampling policy: " + spec);
+    }
+
+    private static int positive(String v) {
+        int n = Integer.parseInt(v);
+        if (n <= 0) throw new IllegalArgumentException();
+        return n;
+    }
+
+    @Override
+    public String toString() {
+        switch (mode) {
+            case HEAD:         return "head:" + n;
+            case EVERY_N:      return "every:" + n;
+            case TOKEN_BUCKET: return "rate:" + ratePerSec + "/" + burst;
+            case ON_CHANGE:    return "change";
+            case OFF:          return "off";
+            default:           return "all";
+        }
+    }
+}
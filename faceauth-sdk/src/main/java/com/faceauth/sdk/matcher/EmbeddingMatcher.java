@@ -1,12 +1,8 @@
 package com.faceauth.sdk.matcher;
 
-import com.faceauth.sdk.logging.SafeLogger;
 import com.faceauth.sdk.storage.ProfileRecord;
 
-import java.util.ArrayList;
-import java.util.LinkedHashMap;
 import java.util.List;
-import java.util.Map;
 
 /**
  * 코사인 유사도 기반 Top-1 매처.
@@ -55,111 +51,97 @@ public final class EmbeddingMatcher {
 
     /**
      * 사용자별 최고 점수 계산 후 Top-1/Top-2 사용자와 margin 반환.
-     * 모든 템플릿을 고려 (multi-template).
+     * 모든 템플릿을 고려 (multi-template). 목록을 PackedGallery로 패킹 후 스캔.
+     * 프레임마다 호출하는 경로는 갤러리를 한 번 만들어 두고 PackedGallery 오버로드 사용.
      */
     public static TopTwoResult findTopTwoUsersWithMargin(float[] liveEmbedding,
                                                           List<ProfileRecord> candidates) {
         if (candidates == null || candidates.isEmpty()) {
             return new TopTwoResult(null, 0f, null, 0f, 0f, null);
         }
-        Map<String, Float> byUser = new LinkedHashMap<>();
-        for (ProfileRecord c : candidates) {
-            if (c.embedding == null || c.embedding.length != liveEmbedding.length) continue;
-            float score = cosineSimilarityNorm(liveEmbedding, c.embedding);
-            Float cur = byUser.get(c.userId);
-            if (cur == null || score > cur) byUser.put(c.userId, score);
-        }
-        List<Map.Entry<String, Float>> sorted = new ArrayList<>(byUser.entrySet());
-        sorted.sort((a, b) -> Float.compare(b.getValue(), a.getValue()));
-        String top1Id = sorted.isEmpty() ? null : sorted.get(0).getKey();
-        float top1Score = sorted.isEmpty() ? 0f : sorted.get(0).getValue();
-        String top2Id = sorted.size() < 2 ? null : sorted.get(1).getKey();
-        float top2Score = sorted.size() < 2 ? 0f : sorted.get(1).getValue();
-        float margin = top1Score - top2Score;
-        ProfileRecord top1Profile = null;
-        if (top1Id != null) {
-            for (ProfileRecord c : candidates) {
-                if (top1Id.equals(c.userId) && c.embedding != null && c.embedding.length == liveEmbedding.length) {
-                    float s = cosineSimilarityNorm(liveEmbedding, c.embedding);
-                    if (Math.abs(s - top1Score) < 1e-5f) { top1Profile = c; break; }
-                }
-            }
-        }
-        return new TopTwoResult(top1Id, top1Score, top2Id, top2Score, margin, top1Profile);
+        return findTopTwoUsersWithMargin(liveEmbedding,
+                PackedGallery.build(candidates, liveEmbedding.length));
     }
 
     /**
-     * findTopMatch + 구조화 로그 (auth_match_probe, auth_match_best, auth_match_embedding_stats).
-     * 매칭 진단용. threshold는 로그의 decision 계산에만 사용.
+     * PackedGallery 단일 패스 Top-1/Top-2. 스캔 중 할당 없음.
+     * 순위: 점수 내림차순, 동점이면 먼저 등장한 사용자 우선.
+     * bestProfile: top1 사용자 템플릿 중 최고 점수를 처음 낸 행.
      */
-    public static MatchResult findTopMatchWithLogging(float[] liveEmbedding,
-                                                       List<ProfileRecord> candidates,
-                                                       float threshold,
-                                                       String tag) {
-        if (tag == null) tag = "EmbeddingMatcher";
-        MatchResult result = findTopMatch(liveEmbedding, candidates);
-
-        if (candidates == null || candidates.isEmpty()) {
-            return result;
+    public static TopTwoResult findTopTwoUsersWithMargin(float[] liveEmbedding,
+                                                          PackedGallery gallery) {
+        if (gallery == null || gallery.size() == 0 || liveEmbedding.length != gallery.dim()) {
+            return new TopTwoResult(null, 0f, null, 0f, 0f, null);
         }
+        UserTopTwo acc = new UserTopTwo();
+        gallery.scan(liveEmbedding, PackedGallery.invNorm(liveEmbedding), 0, gallery.size(), acc);
+        return acc.toResult(gallery);
+    }
 
-        int dim = liveEmbedding.length;
-        double queryNorm = l2Norm(liveEmbedding);
-        double enrolledNormMin = Double.POSITIVE_INFINITY;
-        double enrolledNormMax = Double.NEGATIVE_INFINITY;
-
-        for (ProfileRecord c : candidates) {
-            double n = l2Norm(c.embedding);
-            if (n < enrolledNormMin) enrolledNormMin = n;
-            if (n > enrolledNormMax) enrolledNormMax = n;
+    /**
+     * 사용자 단위 Top-1/Top-2 누적기. offer()는 할당 없음.
+     * 순서: 점수 내림차순 → 사용자 인덱스 오름차순 (List 매처의 안정 정렬과 동일).
+     */
+    static final class UserTopTwo {
+        int   top1User = -1;
+        float top1Score;
+        int   top1Row  = -1;
+        int   top2User = -1;
+        float top2Score;
+        int   top2Row  = -1;
+
+        void offer(float score, int user, int row) {
+            if (user < 0) return;
+            if (user == top1User) {
+                if (score > top1Score) { top1Score = score; top1Row = row; }
+            } else if (ranksAbove(score, user, top1Score, top1User)) {
+                top2User = top1User; top2Score = top1Score; top2Row = top1Row;
+                top1User = user;     top1Score = score;     top1Row = row;
+            } else if (user == top2User) {
+                if (score > top2Score) { top2Score = score; top2Row = row; }
+            } else if (ranksAbove(score, user, top2Score, top2User)) {
+                top2User = user; top2Score = score; top2Row = row;
+            }
         }
 
-        SafeLogger.i(tag, String.format(
-                "{\"event\":\"auth_match_embedding_stats\",\"queryNorm\":%.4f,\"enrolledNormMin\":%.4f,\"enrolledNormMax\":%.4f,\"dim\":%d}",
-                queryNorm, enrolledNormMin, enrolledNormMax, dim));
+        /** 다른 누적기(샤드) 결과 병합. */
+        void merge(UserTopTwo other) {
+            offer(other.top1Score, other.top1User, other.top1Row);
+            offer(other.top2Score, other.top2User, other.top2Row);
+        }
 
-        float bestSoFar = -1f;
-        for (ProfileRecord candidate : candidates) {
-            float score = cosineSimilarityNorm(liveEmbedding, candidate.embedding);
-            boolean rankCandidate = score > bestSoFar;
-            if (rankCandidate) bestSoFar = score;
-            SafeLogger.i(tag, String.format(
-                    "{\"event\":\"auth_match_probe\",\"enrolledId\":\"%s\",\"distanceOrScore\":%.4f,\"rankCandidate\":%s}",
-                    candidate.userId, score, rankCandidate));
+        private static boolean ranksAbove(float score, int user, float curScore, int curUser) {
+            return curUser < 0 || score > curScore || (score == curScore && user < curUser);
         }
 
-        String bestId = result.bestProfile != null ? result.bestProfile.userId : "";
-        String decision = (result.bestProfile != null && result.matchScore >= threshold) ? "MATCH" : "NO_MATCH";
-        SafeLogger.i(tag, String.format(
-                "{\"event\":\"auth_match_best\",\"bestId\":\"%s\",\"bestScore\":%.4f,\"threshold\":%.4f,\"decision\":\"%s\"}",
-                bestId, result.matchScore, threshold, decision));
-
-        if (dim >= 5) {
-            StringBuilder sb = new StringBuilder();
-            sb.append("{\"event\":\"auth_match_embedding_sample\",\"queryFirst5\":[");
-            for (int i = 0; i < 5; i++) { if (i > 0) sb.append(","); sb.append(String.format("%.4f", liveEmbedding[i])); }
-            sb.append("],\"enrolledFirst5\":{");
-            for (int u = 0; u < Math.min(2, candidates.size()); u++) {
-                ProfileRecord c = candidates.get(u);
-                if (u > 0) sb.append(",");
-                sb.append("\"").append(c.userId).append("\":[");
-                for (int i = 0; i < Math.min(5, c.embedding.length); i++) {
-                    if (i > 0) sb.append(",");
-                    sb.append(String.format("%.4f", c.embedding[i]));
-                }
-                sb.append("]");
-            }
-            sb.append("}}");
-            SafeLogger.i(tag, sb.toString());
+        TopTwoResult toResult(PackedGallery gallery) {
+            return toResult(top1User >= 0 ? gallery.userId(top1User) : null,
+                    top2User >= 0 ? gallery.userId(top2User) : null,
+                    top1Row >= 0 ? gallery.profileAt(top1Row) : null);
         }
 
-        return result;
+        /** 사용자 인덱스 → user_id, top1Row → 프로파일 변환은 호출측 갤러리가 수행. */
+        TopTwoResult toResult(String top1Id, String top2Id, ProfileRecord best) {
+            if (top1User < 0) return new TopTwoResult(null, 0f, null, 0f, 0f, null);
+            float s2 = top2User >= 0 ? top2Score : 0f;
+            return new TopTwoResult(top1Id, top1Score, top2Id, s2, top1Score - s2, best);
+        }
     }
 
-    private static double l2Norm(float[] a) {
-        double sum = 0;
-        for (float v : a) sum += (double) v * v;
-        return Math.sqrt(sum);
+    /**
+     * 갤러리 1회 스캔으로 행별 점수 + 사용자 단위 Top-1/Top-2 + norm 통계 (GalleryScores).
+     * topTwo는 findTopTwoUsersWithMargin(float[], PackedGallery)와 동일. 진단 로그는 GalleryScores.log.
+     */
+    public static GalleryScores scoreGallery(float[] liveEmbedding, PackedGallery gallery) {
+        if (gallery == null || gallery.size() == 0 || liveEmbedding.length != gallery.dim()) {
+            return GalleryScores.empty(liveEmbedding);
+        }
+        int rows = gallery.size();
+        float[] scores = new float[rows];
+        UserTopTwo acc = new UserTopTwo();
+        gallery.scan(liveEmbedding, PackedGallery.invNorm(liveEmbedding), 0, rows, acc, scores);
+        return new GalleryScores(acc.toResult(gallery), gallery.dim(), GalleryScores.queryNorm(liveEmbedding),
+                scores, gallery.norms(), gallery.rows(), rows, rows);
     }
 
     /**
@@ -0,0 +1,158 @@
+package com.faceauth.sdk.matcher;
+
+import com.faceauth.sdk.logging.EventJournal;
+import com.faceauth.sdk.logging.EventSampler;
+import com.faceauth.sdk.logging.EventSchema;
+import com.faceauth.sdk.logging.SafeLogger;
+import com.faceauth.sdk.storage.ProfileRecord;
+
+import java.util.Arrays;
+
+/**
+ * 갤러리 1회 스코어링 결과 (불변). 판정과 진단 로그가 모두 이 결과에서 파생 → 갤러리 재스캔 없음.
+ *
+ *  - topTwo: 사용자 단위 Top-1/Top-2/margin (findTopTwoUsersWithMargin과 동일)
+ *  - 행별 match_score 벡터: 스캔이 정확 점수를 낸 행만 값, 나머지(양자화 스캔에서 제외된 사용자)는 NaN
+ *  - norm 통계: 쿼리 norm + 갤러리 빌드 시 저장한 템플릿 norm의 최소·최대 (재계산 없음)
+ *
+ * 생성: EmbeddingMatcher.scoreGallery, ParallelGalleryMatcher.scoreGallery, QuantizedGallery.scoreGallery.
+ */
+public final class GalleryScores {
+
+    public final EmbeddingMatcher.TopTwoResult topTwo;
+    /** 임베딩 차원 */
+    public final int   dim;
+    /** 쿼리 임베딩 L2 norm */
+    public final float queryNorm;
+    /** 템플릿 원본 L2 norm 최소·최대. 갤러리가 비었으면 NaN */
+    public final float enrolledNormMin;
+    public final float enrolledNormMax;
+    /** 정확 점수를 계산한 행 수 */
+    public final int   scoredRows;
+
+    private final float[]         scores;
+    private final ProfileRecord[] rows;
+    private final int             size;
+
+    GalleryScores(EmbeddingMatcher.TopTwoResult topTwo, int dim, float queryNorm, float[] scores,
+                  float[] norms, ProfileRecord[] rows, int size, int scoredRows) {
+        this.topTwo     = topTwo;
+        this.dim        = dim;
+        this.queryNorm  = queryNorm;
+        this.scores     = scores;
+        this.rows       = rows;
+        this.size       = size;
+        this.scoredRows = scoredRows;
+        float min = Float.NaN, max = Float.NaN;
+        for (int i = 0; i < size; i++) {
+            float n = norms[i];
+            if (i == 0 || n < min) min = n;
+            if (i == 0 || n > max) max = n;
+        }
+        this.enrolledNormMin = min;
+        this.enrolledNormMax = max;
+    }
+
+    static GalleryScores empty(float[] query) {
+        return new GalleryScores(new EmbeddingMatcher.TopTwoResult(null, 0f, null, 0f, 0f, null),
+                query != null ? query.length : 0, queryNorm(query),
+                new float[0], new float[0], new ProfileRecord[0], 0, 0);
+    }
+
+    static float queryNorm(float[] query) {
+        if (query == null) return 0f;
+        double sq = 0;
+        for (float v : query) sq += (double) v * v;
+        return (float) Math.sqrt(sq);
+    }
+
+    /** 스코어링한 갤러리 행 수. */
+    public int size() {
+        return size;
+    }
+
+    /** 행의 match_score. 정확 점수를 계산하지 않은 행은 NaN. */
+    public float scoreAt(int row) {
+        return scores[row];
+    }
+
+    public ProfileRecord profileAt(int row) {
+        return rows[row];
+    }
+
+    /** top1 점수가 threshold 이상이면 "MATCH". */
+    public String decision(float threshold) {
+        return topTwo.top1UserId != null && topTwo.top1Score >= threshold ? "MATCH" : "NO_MATCH";
+    }
+
+    /**
+     * 매칭 진단 로그 (auth_match_embedding_stats, auth_match_probe, auth_match_best).
+     * probe는 시도마다 HEAD 창을 새로 시작하고 한 번의 EventSampler 판정(기본 head:64 → 시도당 64건)으로
+     * 허용 건수 K를 정한 뒤 점수 상위 K행을 점수 내림차순으로 기록 (rankCandidate = Top-1/Top-2 사용자 행).
+     */
+    public void log(String tag, float threshold) {
+        SafeLogger.i(tag, String.format(
+                "{\"event\":\"auth_match_embedding_stats\",\"queryNorm\":%.4f,\"enrolledNormMin\":%.4f,\"enrolledNormMax\":%.4f,\"dim\":%d,\"rows\":%d,\"scoredRows\":%d}",
+                queryNorm, enrolledNormMin, enrolledNormMax, dim, size, scoredRows));
+
+        EventSampler.startWindow(EventSchema.AUTH_MATCH_PROBE);
+        int granted = EventSampler.admitBatch(EventSchema.AUTH_MATCH_PROBE, scoredRows, System.currentTimeMillis());
+        if (granted > 0) {
+            for (int row : topRows(granted)) {
+                String userId = rows[row].userId;
+                boolean rankCandidate = userId != null
+                        && (userId.equals(topTwo.top1UserId) || userId.equals(topTwo.top2UserId));
+                EventJournal.begin(EventSchema.AUTH_MATCH_PROBE)
+                        .s(userId).f(scores[row]).b(rankCandidate)
+                        .commitAdmitted();
+            }
+        }
+
+        SafeLogger.i(tag, String.format(
+                "{\"event\":\"auth_match_best\",\"bestId\":\"%s\",\"bestScore\":%.4f,\"threshold\":%.4f,\"decision\":\"%s\"}",
+                topTwo.top1UserId != null ? topTwo.top1UserId : "", topTwo.top1Score, threshold, decision(threshold)));
+    }
+
+    /** 점수 상위 k행 (NaN 제외), 점수 내림차순. 크기 k 최소 힙 → 전체 정렬 없음. */
+    int[] topRows(int k) {
+        int[] heap = new int[Math.min(k, size)];
+        int n = 0;
+        for (int row = 0; row < size; row++) {
+            float score = scores[row];
+            if (Float.isNaN(score)) continue;
+            if (n < heap.length) {
+                heap[n] = row;
+                siftUp(heap, n++);
+            } else if (n > 0 && score > scores[heap[0]]) {
+                heap[0] = row;
+                siftDown(heap, 0, n);
+            }
+        }
+        // 최소값을 뒤로 보내며 힙 정렬 → 앞이 최고점
+        for (int end = n - 1; end > 0; end--) {
+            int t = heap[0]; heap[0] = heap[end]; heap[end] = t;
+            siftDown(heap, 0, end);
+        }
+        return n == heap.length ? heap : Arrays.copyOf(heap, n);
+    }
+
+    private void siftUp(int[] heap, int i) {
+        while (i > 0) {
+            int parent = (i - 1) >>> 1;
+            if (scores[heap[i]] >= scores[heap[parent]]) return;
+            int t = heap[i]; heap[i] = heap[parent]; heap[parent] = t;
+            i = parent;
+        }
+    }
+
+    private void siftDown(int[] heap, int i, int n) {
+        while (true) {
+            int l = 2 * i + 1;
+            if (l >= n) return;
+            int c = l + 1 < n && scores[heap[l + 1]] < scores[heap[l]] ? l + 1 : l;
+            if (scores[heap[i]] <= scores[heap[c]]) return;
+            int t = heap[i]; heap[i] = heap[c]; heap[c] = t;
+            i = c;
+        }
+    }
+}
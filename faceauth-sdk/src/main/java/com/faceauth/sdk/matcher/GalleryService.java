@@ -0,0 +1,162 @@
+package com.faceauth.sdk.matcher;
+
+import com.faceauth.sdk.logging.SafeLogger;
+import com.faceauth.sdk.storage.ProfileRecord;
+import com.faceauth.sdk.storage.StorageManager;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * 프로세스 공용 인메모리 갤러리 (FaceAuthSdk 소유).
+ *
+ * 활성 프로파일을 DB에서 한 번만 로드·복호화하고, 이후에는 StorageManager.ProfileChangeListener
+ * 통지(saveProfile / deleteUser / resetAll)로 메모리에서만 갱신한다.
+ * 인증 세션은 get()으로 현재 스냅샷을 받아 DB 접근 없이 바로 매칭을 시작한다.
+ *
+ * 스냅샷은 불변이며 갱신 시 새 스냅샷으로 교체 (copy-on-write). 세션은 version 비교로 교체 여부 판단.
+ */
+public final class GalleryService implements StorageManager.ProfileChangeListener {
+
+    private static final String TAG = "GalleryService";
+
+    /** 전체 활성 프로파일 스트리밍 로더 (보통 StorageManager::loadAllActiveProfiles 일괄 로드 경로). */
+    public interface Loader {
+        void loadAll(StorageManager.ProfileBatchSink sink);
+    }
+
+    /** 갤러리 스냅샷 (불변). profiles 순서 = DB 삽입 순서. */
+    public static final class Snapshot {
+        public final long                version;
+        public final List<ProfileRecord> profiles;        // 수정 불가
+        public final TemplateCache       templateCache;   // 스냅샷 전용 (이후 갱신은 copy()에 패치)
+        /** float 패킹 갤러리. quantize 모드면 null (templateCache.getQuantizedGallery() 사용). */
+        public final PackedGallery       packed;
+
+        Snapshot(long version, List<ProfileRecord> profiles, TemplateCache templateCache, PackedGallery packed) {
+            this.version       = version;
+            this.profiles      = profiles;
+            this.templateCache = templateCache;
+            this.packed        = packed;
+        }
+
+        public boolean isEmpty() { return profiles.isEmpty(); }
+    }
+
+    private final Loader  loader;
+    private final int     embeddingDim;
+    private final boolean quantize;
+
+    private volatile Snapshot snapshot;   // null = 아직 로드 전
+    private long nextVersion = 1;
+
+    /**
+     * @param quantize true면 스냅샷 TemplateCache에 int8 양자화 갤러리 생성 (config.quantizedTemplates)
+     */
+    public GalleryService(Loader loader, int embeddingDim, boolean quantize) {
+        this.loader       = loader;
+        this.embeddingDim = embeddingDim;
+        this.quantize     = quantize;
+    }
+
+    /**
+     * 현재 스냅샷. 최초 호출 시에만 DB 로드 (I/O → 백그라운드 스레드에서 호출).
+     * 로더가 예외로 중단되면(인터럽트 → CancellationException 등) 모은 부분 목록은 버리고
+     * 스냅샷을 게시하지 않는다 → 다음 get()이 다시 로드.
+     */
+    public Snapshot get() {
+        Snapshot s = snapshot;
+        if (s != null) return s;
+        synchronized (this) {
+            if (snapshot == null) {
+                long t0 = System.currentTimeMillis();
+                List<ProfileRecord> loaded = new ArrayList<>();
+                loader.loadAll(loaded::addAll);   // 복호화된 윈도가 준비되는 대로 누적
+                publish(loaded);
+                SafeLogger.i(TAG, String.format(
+                        "{\"event\":\"gallery_loaded\",\"count\":%d,\"elapsedMs\":%d}",
+                        snapshot.profiles.size(), System.currentTimeMillis() - t0));
+            }
+            return snapshot;
+        }
+    }
+
+    /** 로드 없이 현재 스냅샷 (로드 전이면 null). */
+    public Snapshot peek() {
+        return snapshot;
+    }
+
+    public boolean isLoaded() {
+        return snapshot != null;
+    }
+
+    /** 백그라운드 데몬 스레드에서 미리 로드. */
+    public void preloadAsync() {
+        Thread t = new Thread(() -> {
+            try {
+                get();
+            } catch (RuntimeException e) {
+                SafeLogger.e(TAG, "갤러리 사전 로드 실패", e);
+            }
+        }, "FaceAuth-GalleryLoad");
+        t.setDaemon(true);
+        t.start();
+    }
+
+    /** 다음 get()에서 DB를 다시 읽도록 스냅샷 폐기 (외부에서 DB를 직접 변경한 경우). */
+    public synchronized void invalidate() {
+        snapshot = null;
+    }
+
+    // ─────────────────────────────────────────────────────────────────────
+    // 증분 갱신 (StorageManager 통지). 로드 전이면 무시 — 첫 get()이 DB에서 최신 상태를 읽음.
+    // ─────────────────────────────────────────────────────────────────────
+
+    @Override
+    public synchronized void onProfileSaved(ProfileRecord record) {
+        Snapshot s = snapshot;
+        if (s == null || record == null) return;
+        for (ProfileRecord p : s.profiles) {
+            if (p.profileId == record.profileId) return;   // 로드와 통지가 겹친 경우
+        }
+        List<ProfileRecord> next = new ArrayList<>(s.profiles.size() + 1);
+        next.addAll(s.profiles);
+        next.add(record);
+        TemplateCache cache = s.templateCache.copy();   // 해당 사용자 센트로이드만 갱신
+        cache.addProfile(record);
+        publish(next, cache);
+    }
+
+    @Override
+    public synchronized void onUserDeleted(String userId) {
+        Snapshot s = snapshot;
+        if (s == null) return;
+        List<ProfileRecord> next = new ArrayList<>(s.profiles.size());
+        for (ProfileRecord p : s.profiles) {
+            if (userId == null || !userId.equals(p.userId)) next.add(p);
+        }
+        if (next.size() == s.profiles.size()) return;
+        TemplateCache cache = s.templateCache.copy();
+        cache.removeUser(userId);
+        publish(next, cache);
+    }
+
+    @Override
+    public synchronized void onAllProfilesCleared() {
+        if (snapshot == null) return;
+        publish(new ArrayList<>());
+    }
+
+    private void publish(List<ProfileRecord> profiles) {
+        TemplateCache cache = new TemplateCache(embeddingDim, quantize);
+        cache.setProfiles(profiles);
+        publish(profiles, cache);
+    }
+
+    private void publish(List<ProfileRecord> profiles, TemplateCache cache) {
+        if (quantize) cache.getQuantizedGallery();   // 인증 첫 프레임 전에 생성
+        PackedGallery packed = quantize ? null : PackedGallery.build(profiles, embeddingDim);
+        snapshot = new Snapshot(nextVersion++, Collections.unmodifiableList(profiles), cache, packed);
+    }
+}
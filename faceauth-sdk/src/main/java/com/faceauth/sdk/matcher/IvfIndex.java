@@ -0,0 +1,570 @@
+package com.faceauth.sdk.matcher;
+
+import com.faceauth.sdk.logging.SafeLogger;
+import com.faceauth.sdk.storage.ProfileRecord;
+import com.faceauth.sdk.storage.StorageManager;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.Executor;
+
+/**
+ * 대형 갤러리용 근사 최근접 이웃 인덱스 (IVF, inverted file).
+ *
+ * 정규화된 템플릿을 spherical k-means 센트로이드(리스트)에 배정해 두고,
+ * 검색 시 쿼리와 가까운 probeLists개 리스트만 스캔해 후보 사용자 Top-K를 고른다.
+ * 후보 사용자의 전체 템플릿을 반환하므로, 최종 점수·margin은 EmbeddingMatcher(정확 스코어)와
+ * SecondaryVerifier가 후보 안에서 다시 계산한다. 임계값 판단은 항상 정확 점수 기준.
+ *
+ * 증분 갱신: StorageManager.ProfileChangeListener로 등록하면 saveProfile 시 가장 가까운
+ * 리스트에 바로 추가되고, 학습 시점 대비 2배 이상 커지면 백그라운드 재학습을 예약한다.
+ *
+ * 학습(k-means + 전 행 배정)과 rebuild는 trainer 실행기에서 락 밖으로 실행 — 검색 경로에서는 학습하지 않는다.
+ * 새 인덱스가 게시될 때까지 검색은 이전 센트로이드(학습 전이면 전 행 스캔)를 그대로 사용하고,
+ * 그 사이 추가·삭제는 기록해 두었다가 게시 직후 새 인덱스에 다시 적용한다.
+ * 모든 공개 메서드는 스레드 안전 (단일 락).
+ */
+public final class IvfIndex implements StorageManager.ProfileChangeListener {
+
+    private static final String TAG                 = "IvfIndex";
+    private static final int  KMEANS_ITERATIONS   = 10;
+    private static final int  TRAIN_POINTS_PER_LIST = 64;
+    private static final int  MIN_LISTS           = 8;
+    private static final int  MAX_LISTS           = 1024;
+    private static final long SEED                = 0x5EEDL;
+
+    private final int      dim;
+    private final int      requestedLists;   // 0 = sqrt(n)
+    private final int      probeLists;
+    private final Executor trainer;
+
+    // 행 저장소 (정규화 벡터, 삭제 시 records[row] = null). rowUsers[row] = users 인덱스
+    private float[]         vectors  = new float[0];
+    private ProfileRecord[] records  = new ProfileRecord[0];
+    private int[]           rowUsers = new int[0];
+    private int             rowCount;
+    private int             liveCount;
+    private List<String>         users     = new ArrayList<>();
+    private Map<String, Integer> userIndex = new HashMap<>();
+
+    private float[] centroids = new float[0];   // numLists × dim
+    private int     numLists;
+    private int[][] lists     = new int[0][];
+    private int[]   listSizes = new int[0];
+    private int     trainedCount;
+
+    private Map<String, List<ProfileRecord>> byUser = new LinkedHashMap<>();
+    // 색인 불가(0 norm·차원 불일치)로 제외한 프로파일. coveredCount()에 포함 → 갤러리 크기와 비교 가능
+    private Map<String, List<ProfileRecord>> rejected = new HashMap<>();
+    private int rejectedCount;
+
+    // 검색 스크래치 (락 안에서만 사용, 쿼리마다 재사용)
+    private float[] userBest  = new float[0];   // 사용자별 최고 근사 점수, 미방문 = -inf
+    private int[]   touched   = new int[0];     // 이번 쿼리에서 점수가 생긴 사용자
+    private int     touchedCount;
+    private float[] listScores = new float[0];
+    private int[]   probeOrder = new int[0];
+
+    // 백그라운드 학습 상태
+    private long         generation;   // rebuild 요청·clear마다 증가 → 이전 학습 결과 폐기
+    private List<Object> pendingOps;   // 학습 진행 중 추가(ProfileRecord)·삭제(String userId) 기록. null = 학습 없음
+
+    // 운영 중 exact 대비 recall 집계
+    private long recallSamples;
+    private long recallTop1Hits;
+
+    /** 학습을 호출 스레드에서 바로 실행 (테스트·오프라인 튜닝용). */
+    public IvfIndex(int dim, int numLists, int probeLists) {
+        this(dim, numLists, probeLists, Runnable::run);
+    }
+
+    /**
+     * @param dim        임베딩 차원
+     * @param numLists   IVF 리스트 수. 0 이하면 학습 시 sqrt(n) (8~1024)
+     * @param probeLists 검색 시 스캔할 리스트 수
+     * @param trainer    k-means 학습·rebuild 실행기 (단일 백그라운드 스레드 권장)
+     */
+    public IvfIndex(int dim, int numLists, int probeLists, Executor trainer) {
+        this.dim            = dim;
+        this.requestedLists = numLists;
+        this.probeLists     = Math.max(1, probeLists);
+        this.trainer        = trainer;
+    }
+
+    // ─────────────────────────────────────────────────────────────────────
+    // 구축 / 증분 갱신
+    // ─────────────────────────────────────────────────────────────────────
+
+    /**
+     * 전체 프로파일로 인덱스 재구축 (k-means 학습 + 배정)을 trainer에 예약.
+     * 게시 전까지 검색·size()는 기존 인덱스 기준. 진행 중이던 이전 학습 결과는 버린다.
+     */
+    public void rebuild(List<ProfileRecord> profiles) {
+        List<ProfileRecord> copy = profiles != null ? new ArrayList<>(profiles) : new ArrayList<>();
+        long gen;
+        synchronized (this) {
+            gen = ++generation;
+            pendingOps = new ArrayList<>();
+        }
+        trainer.execute(() -> buildAndPublish(copy, gen));
+    }
+
+    /** 프로파일 1건 추가. 학습 전이면 저장만 하고 게시될 학습 결과에 반영. */
+    public synchronized void add(ProfileRecord p) {
+        if (pendingOps != null) pendingOps.add(p);
+        int row = appendRow(p);
+        if (row < 0) return;
+        if (numLists > 0) assign(row);
+        scheduleTrainIfStale();
+    }
+
+    public synchronized void removeUser(String userId) {
+        if (pendingOps != null) pendingOps.add(userId);
+        removeRows(userId);
+    }
+
+    /** 즉시 비움 (학습 없음). 진행 중인 학습 결과는 버린다. */
+    public synchronized void clear() {
+        generation++;
+        pendingOps = null;
+        install(new Built());
+    }
+
+    @Override public void onProfileSaved(ProfileRecord record) { add(record); }
+    @Override public void onUserDeleted(String userId)         { removeUser(userId); }
+    @Override public void onAllProfilesCleared()               { clear(); }
+
+    /** 활성 템플릿 수. */
+    public synchronized int size() { return liveCount; }
+
+    /**
+     * 인덱스가 반영한 프로파일 수 = 활성 템플릿 + 색인 불가로 제외한 프로파일.
+     * 갤러리 크기와 같으면 인덱스가 최신 (size()는 제외 행 때문에 갤러리보다 작을 수 있음).
+     */
+    public synchronized int coveredCount() { return liveCount + rejectedCount; }
+
+    public synchronized boolean isTrained() { return numLists > 0; }
+
+    /** 백그라운드 학습·rebuild 진행 중 여부. */
+    public synchronized boolean isRebuilding() { return pendingOps != null; }
+
+    public synchronized int numLists() { return numLists; }
+
+    // ─────────────────────────────────────────────────────────────────────
+    // 검색
+    // ─────────────────────────────────────────────────────────────────────
+
+    /**
+     * 근사 검색으로 후보 사용자 Top-maxUsers를 고르고, 그 사용자들의 전체 템플릿을 반환.
+     * 반환 목록은 정확 매처(EmbeddingMatcher)로 재정렬해서 사용.
+     */
+    public synchronized List<ProfileRecord> candidates(float[] query, int maxUsers) {
+        List<String> users = searchUsers(query, maxUsers);
+        List<ProfileRecord> out = new ArrayList<>();
+        for (String u : users) {
+            List<ProfileRecord> t = byUser.get(u);
+            if (t != null) out.addAll(t);
+        }
+        return out;
+    }
+
+    /** 근사 Top-K 사용자 ID (근사 점수 내림차순). */
+    public synchronized List<String> searchUsers(float[] query, int k) {
+        if (query == null || query.length != dim || liveCount == 0 || k <= 0) return new ArrayList<>();
+        scheduleTrainIfStale();   // 예약만 — 학습은 trainer에서
+        float inv = PackedGallery.invNorm(query);
+        if (inv == 0f) return new ArrayList<>();
+
+        if (userBest.length < users.size()) {
+            userBest = new float[users.size()];
+            touched  = new int[users.size()];
+            Arrays.fill(userBest, Float.NEGATIVE_INFINITY);
+        }
+        touchedCount = 0;
+        if (numLists == 0) {
+            // 첫 학습 게시 전: 전 행 스캔
+            for (int row = 0; row < rowCount; row++) scoreRow(query, inv, row);
+        } else {
+            int probe = nearestLists(query, Math.min(probeLists, numLists));
+            for (int p = 0; p < probe; p++) {
+                int li = probeOrder[p];
+                int[] rows = lists[li];
+                for (int i = 0; i < listSizes[li]; i++) scoreRow(query, inv, rows[i]);
+            }
+        }
+        // 부분 선택 정렬: 앞 k개만 점수 내림차순으로 확정
+        int n = Math.min(k, touchedCount);
+        List<String> out = new ArrayList<>(n);
+        for (int i = 0; i < n; i++) {
+            int best = i;
+            for (int j = i + 1; j < touchedCount; j++) {
+                if (userBest[touched[j]] > userBest[touched[best]]) best = j;
+            }
+            int t = touched[i]; touched[i] = touched[best]; touched[best] = t;
+            out.add(users.get(touched[i]));
+        }
+        for (int i = 0; i < touchedCount; i++) userBest[touched[i]] = Float.NEGATIVE_INFINITY;
+        return out;
+    }
+
+    // ─────────────────────────────────────────────────────────────────────
+    // Recall (exact 대비)
+    // ─────────────────────────────────────────────────────────────────────
+
+    /**
+     * 운영 중 샘플링한 exact 비교 결과 누적. annTop1 == exactTop1 이면 hit.
+     * @return 누적 recall@1 (0~1)
+     */
+    public synchronized float recordRecallSample(String annTop1, String exactTop1) {
+        recallSamples++;
+        if (exactTop1 == null ? annTop1 == null : exactTop1.equals(annTop1)) recallTop1Hits++;
+        return (float) recallTop1Hits / recallSamples;
+    }
+
+    public synchronized long recallSampleCount() { return recallSamples; }
+
+    /**
+     * 오프라인 튜닝용 recall@k. 각 쿼리마다 exact Top-k 사용자 중 근사 Top-k에 포함된 비율의 평균.
+     */
+    public synchronized float measureRecall(List<float[]> queries, int k) {
+        if (queries == null || queries.isEmpty() || liveCount == 0) return 1f;
+        List<ProfileRecord> all = new ArrayList<>(liveCount);
+        for (int row = 0; row < rowCount; row++) if (records[row] != null) all.add(records[row]);
+        PackedGallery exact = PackedGallery.build(all, dim);
+        float[] userBest = new float[exact.userCount()];
+        double sum = 0;
+        for (float[] q : queries) {
+            List<String> approx = searchUsers(q, k);
+            List<String> truth  = exactTopUsers(exact, q, k, userBest);
+            int hit = 0;
+            for (String u : truth) if (approx.contains(u)) hit++;
+            sum += truth.isEmpty() ? 1.0 : (double) hit / truth.size();
+        }
+        return (float) (sum / queries.size());
+    }
+
+    private static List<String> exactTopUsers(PackedGallery g, float[] q, int k, float[] userBest) {
+        Arrays.fill(userBest, Float.NEGATIVE_INFINITY);
+        float inv = PackedGallery.invNorm(q);
+        for (int row = 0; row < g.size(); row++) {
+            int u = g.userIndexAt(row);
+            float s = g.scoreRow(q, inv, row);
+            if (s > userBest[u]) userBest[u] = s;
+        }
+        Integer[] order = new Integer[userBest.length];
+        for (int i = 0; i < order.length; i++) order[i] = i;
+        Arrays.sort(order, (a, b) -> Float.compare(userBest[b], userBest[a]));
+        List<String> out = new ArrayList<>();
+        for (int i = 0; i < order.length && i < k; i++) out.add(g.userId(order[i]));
+        return out;
+    }
+
+    private void scoreRow(float[] query, float inv, int row) {
+        if (records[row] == null) return;
+        float s = dot(query, vectors, row * dim) * inv;
+        int u = rowUsers[row];
+        if (userBest[u] == Float.NEGATIVE_INFINITY) {
+            touched[touchedCount++] = u;
+            userBest[u] = s;
+        } else if (s > userBest[u]) {
+            userBest[u] = s;
+        }
+    }
+
+    // ─────────────────────────────────────────────────────────────────────
+    // 내부: 백그라운드 학습
+    // ─────────────────────────────────────────────────────────────────────
+
+    /** 학습 결과 (게시 전까지 trainer 스레드 전용). 필드 구성은 IvfIndex 저장소·리스트와 동일. */
+    private static final class Built {
+        float[]         vectors   = new float[0];
+        ProfileRecord[] records   = new ProfileRecord[0];
+        int[]           rowUsers  = new int[0];
+        int             rowCount;
+        int             liveCount;
+        final List<String>         users     = new ArrayList<>();
+        final Map<String, Integer> userIndex = new HashMap<>();
+        final Map<String, List<ProfileRecord>> rejected = new HashMap<>();
+        int             rejectedCount;
+        float[]         centroids = new float[0];
+        int             numLists;
+        int[][]         lists     = new int[0][];
+        int[]           listSizes = new int[0];
+        final Map<String, List<ProfileRecord>> byUser = new LinkedHashMap<>();
+    }
+
+    /** 아직 학습 전이거나 학습 시점 대비 2배 이상 커졌으면 현재 활성 행으로 재학습 예약 (중복 예약 없음). */
+    private void scheduleTrainIfStale() {
+        if (pendingOps != null || liveCount == 0) return;
+        if (numLists > 0 && trainedCount * 2 > liveCount) return;
+        List<ProfileRecord> live = new ArrayList<>(liveCount);
+        for (int row = 0; row < rowCount; row++) if (records[row] != null) live.add(records[row]);
+        for (List<ProfileRecord> t : rejected.values()) live.addAll(t);   // coveredCount 유지
+        long gen = ++generation;
+        pendingOps = new ArrayList<>();
+        trainer.execute(() -> buildAndPublish(live, gen));
+    }
+
+    /** trainer 스레드: 락 밖에서 구축·학습 후, 그 사이 요청이 바뀌지 않았으면 게시 + 기록된 변경 재적용. */
+    private void buildAndPublish(List<ProfileRecord> profiles, long gen) {
+        long t0 = System.currentTimeMillis();
+        Built b;
+        try {
+            b = build(profiles);
+        } catch (RuntimeException e) {
+            synchronized (this) {
+                if (gen == generation) pendingOps = null;   // 기존 인덱스 유지, 다음 검색·추가 때 재예약
+            }
+            SafeLogger.e(TAG, "IVF 학습 실패, 기존 인덱스 유지", e);
+            return;
+        }
+        synchronized (this) {
+            if (gen != generation) return;   // 더 새 rebuild/clear가 있음
+            List<Object> ops = pendingOps;
+            pendingOps = null;
+            install(b);
+            for (Object op : ops) {
+                if (op instanceof ProfileRecord) {
+                    if (contains((ProfileRecord) op)) continue;   // 구축 목록에 이미 포함
+                    int row = appendRow((ProfileRecord) op);
+                    if (row >= 0 && numLists > 0) assign(row);
+                } else {
+                    removeRows((String) op);
+                }
+            }
+            SafeLogger.i(TAG, String.format(
+                    "{\"event\":\"auth_ann_index_built\",\"size\":%d,\"lists\":%d,\"replayed\":%d,\"elapsedMs\":%d}",
+                    liveCount, numLists, ops.size(), System.currentTimeMillis() - t0));
+            scheduleTrainIfStale();
+        }
+    }
+
+    private void install(Built b) {
+        vectors       = b.vectors;
+        records       = b.records;
+        rowUsers      = b.rowUsers;
+        rowCount      = b.rowCount;
+        liveCount     = b.liveCount;
+        users         = b.users;
+        userIndex     = b.userIndex;
+        rejected      = b.rejected;
+        rejectedCount = b.rejectedCount;
+        centroids     = b.centroids;
+        numLists      = b.numLists;
+        lists         = b.lists;
+        listSizes     = b.listSizes;
+        byUser        = b.byUser;
+        trainedCount  = b.liveCount;
+    }
+
+    /** 새 저장소 구축 + spherical k-means (k-means++ 초기화, 고정 시드) + 전 행 배정. 인스턴스 상태를 읽지 않음. */
+    private Built build(List<ProfileRecord> profiles) {
+        Built b = new Built();
+        b.records  = new ProfileRecord[Math.max(64, profiles.size())];
+        b.rowUsers = new int[b.records.length];
+        b.vectors  = new float[b.records.length * dim];
+        for (ProfileRecord p : profiles) {
+            if (p == null) continue;
+            float inv = indexableInvNorm(p);
+            if (inv == 0f) {
+                b.rejected.computeIfAbsent(p.userId, x -> new ArrayList<>()).add(p);
+                b.rejectedCount++;
+                continue;
+            }
+            int off = b.rowCount * dim;
+            for (int i = 0; i < dim; i++) b.vectors[off + i] = p.embedding[i] * inv;
+            b.rowUsers[b.rowCount] = userSlot(b.userIndex, b.users, p.userId);
+            b.records[b.rowCount++] = p;
+            b.byUser.computeIfAbsent(p.userId, x -> new ArrayList<>()).add(p);
+        }
+        b.liveCount = b.rowCount;
+        if (b.liveCount == 0) return b;
+
+        float[] vectors = b.vectors;
+        int liveCount = b.liveCount;
+        int k = requestedLists > 0 ? requestedLists : (int) Math.round(Math.sqrt(liveCount));
+        k = Math.max(1, Math.min(Math.min(Math.max(k, MIN_LISTS), MAX_LISTS), liveCount));
+        Random rnd = new Random(SEED);
+
+        // 학습 표본 (리스트당 최대 TRAIN_POINTS_PER_LIST)
+        int sampleSize = Math.min(liveCount, k * TRAIN_POINTS_PER_LIST);
+        int[] sample = new int[sampleSize];
+        for (int i = 0; i < sampleSize; i++) {
+            sample[i] = sampleSize == liveCount ? i : rnd.nextInt(liveCount);
+        }
+
+        float[] c = new float[k * dim];
+        // k-means++ 초기화: 거리(1 - cos)에 비례해 다음 센트로이드 선택
+        System.arraycopy(vectors, sample[rnd.nextInt(sampleSize)] * dim, c, 0, dim);
+        float[] dist = new float[sampleSize];
+        Arrays.fill(dist, Float.MAX_VALUE);
+        for (int ci = 1; ci < k; ci++) {
+            double total = 0;
+            for (int i = 0; i < sampleSize; i++) {
+                float d = 1f - dot(vectors, sample[i] * dim, c, (ci - 1) * dim);
+                if (d < dist[i]) dist[i] = d;
+                total += Math.max(0f, dist[i]);
+            }
+            int pick = sample[rnd.nextInt(sampleSize)];
+            if (total > 0) {
+                double r = rnd.nextDouble() * total;
+                for (int i = 0; i < sampleSize; i++) {
+                    r -= Math.max(0f, dist[i]);
+                    if (r <= 0) { pick = sample[i]; break; }
+                }
+            }
+            System.arraycopy(vectors, pick * dim, c, ci * dim, dim);
+        }
+
+        int[] assign = new int[sampleSize];
+        float[] sums = new float[k * dim];
+        for (int it = 0; it < KMEANS_ITERATIONS; it++) {
+            Arrays.fill(sums, 0f);
+            for (int i = 0; i < sampleSize; i++) {
+                int best = nearest(c, k, vectors, sample[i] * dim);
+                assign[i] = best;
+                int so = sample[i] * dim, co = best * dim;
+                for (int d = 0; d < dim; d++) sums[co + d] += vectors[so + d];
+            }
+            for (int ci = 0; ci < k; ci++) {
+                int co = ci * dim;
+                double sq = 0;
+                for (int d = 0; d < dim; d++) sq += (double) sums[co + d] * sums[co + d];
+                if (sq < 1e-20) continue;   // 빈 클러스터: 이전 센트로이드 유지
+                float inv = (float) (1.0 / Math.sqrt(sq));
+                for (int d = 0; d < dim; d++) c[co + d] = sums[co + d] * inv;
+            }
+        }
+
+        b.centroids = c;
+        b.numLists  = k;
+        b.lists     = new int[k][];
+        b.listSizes = new int[k];
+        for (int ci = 0; ci < k; ci++) b.lists[ci] = new int[8];
+        for (int row = 0; row < b.rowCount; row++) {
+            int li = nearest(c, k, vectors, row * dim);
+            if (b.listSizes[li] == b.lists[li].length) b.lists[li] = Arrays.copyOf(b.lists[li], b.lists[li].length * 2);
+            b.lists[li][b.listSizes[li]++] = row;
+        }
+        return b;
+    }
+
+    // ─────────────────────────────────────────────────────────────────────
+    // 내부: 저장소
+    // ─────────────────────────────────────────────────────────────────────
+
+    private int appendRow(ProfileRecord p) {
+        if (p == null) return -1;
+        float inv = indexableInvNorm(p);
+        if (inv == 0f) {
+            rejected.computeIfAbsent(p.userId, x -> new ArrayList<>()).add(p);
+            rejectedCount++;
+            return -1;
+        }
+        if (rowCount == records.length) {
+            int cap = Math.max(64, records.length * 2);
+            records  = Arrays.copyOf(records, cap);
+            rowUsers = Arrays.copyOf(rowUsers, cap);
+            vectors  = Arrays.copyOf(vectors, cap * dim);
+        }
+        int row = rowCount++;
+        int off = row * dim;
+        for (int i = 0; i < dim; i++) vectors[off + i] = p.embedding[i] * inv;
+        records[row]  = p;
+        rowUsers[row] = userSlot(userIndex, users, p.userId);
+        liveCount++;
+        byUser.computeIfAbsent(p.userId, x -> new ArrayList<>()).add(p);
+        return row;
+    }
+
+    /** 색인 가능하면 1/norm, 아니면 0 (null·차원 불일치·0 벡터). */
+    private float indexableInvNorm(ProfileRecord p) {
+        if (p.embedding == null || p.embedding.length != dim) return 0f;
+        return PackedGallery.invNorm(p.embedding);
+    }
+
+    /** 사용자 ID → users 인덱스 (처음 보면 추가). 삭제된 사용자 슬롯은 다음 학습 때 정리. */
+    private static int userSlot(Map<String, Integer> index, List<String> users, String userId) {
+        Integer u = index.get(userId);
+        if (u != null) return u;
+        index.put(userId, users.size());
+        users.add(userId);
+        return users.size() - 1;
+    }
+
+    /** 구축 목록에 이미 있는 프로파일인지 (색인 불가로 제외된 것 포함). */
+    private boolean contains(ProfileRecord p) {
+        return containsId(byUser.get(p.userId), p) || containsId(rejected.get(p.userId), p);
+    }
+
+    private static boolean containsId(List<ProfileRecord> t, ProfileRecord p) {
+        if (t == null) return false;
+        for (ProfileRecord r : t) if (r.profileId == p.profileId) return true;
+        return false;
+    }
+
+    /** 사용자 행 삭제 표시 (압축은 다음 학습에서 새 저장소를 만들 때). */
+    private void removeRows(String userId) {
+        List<ProfileRecord> skipped = rejected.remove(userId);
+        if (skipped != null) rejectedCount -= skipped.size();
+        if (byUser.remove(userId) == null) return;
+        for (int row = 0; row < rowCount; row++) {
+            if (records[row] != null && userId.equals(records[row].userId)) {
+                records[row] = null;
+                liveCount--;
+            }
+        }
+    }
+
+    private void assign(int row) {
+        int li = nearest(centroids, numLists, vectors, row * dim);
+        if (listSizes[li] == lists[li].length) lists[li] = Arrays.copyOf(lists[li], lists[li].length * 2);
+        lists[li][listSizes[li]++] = row;
+    }
+
+    /** 쿼리와 가까운 probe개 리스트를 probeOrder 앞쪽에 채움 (스크래치 재사용). @return probe */
+    private int nearestLists(float[] q, int probe) {
+        if (listScores.length < numLists) {
+            listScores = new float[numLists];
+            probeOrder = new int[numLists];
+        }
+        float[] s = listScores;
+        for (int ci = 0; ci < numLists; ci++) s[ci] = dot(q, centroids, ci * dim);
+        for (int p = 0; p < probe; p++) {
+            int best = -1;
+            for (int ci = 0; ci < numLists; ci++) {
+                if (s[ci] != Float.NEGATIVE_INFINITY && (best < 0 || s[ci] > s[best])) best = ci;
+            }
+            s[best] = Float.NEGATIVE_INFINITY;   // 선택 표시
+            probeOrder[p] = best;
+        }
+        return probe;
+    }
+
+    private int nearest(float[] c, int k, float[] v, int off) {
+        int best = 0;
+        float bestS = Float.NEGATIVE_INFINITY;
+        for (int ci = 0; ci < k; ci++) {
+            float s = dot(v, off, c, ci * dim);
+            if (s > bestS) { bestS = s; best = ci; }
+        }
+        return best;
+    }
+
+    private float dot(float[] q, float[] m, int off) {
+        float s = 0f;
+        for (int i = 0; i < dim; i++) s += q[i] * m[off + i];
+        return s;
+    }
+
+    private float dot(float[] a, int aOff, float[] b, int bOff) {
+        float s = 0f;
+        for (int i = 0; i < dim; i++) s += a[aOff + i] * b[bOff + i];
+        return s;
+    }
+}
@@ -0,0 +1,182 @@
+package com.faceauth.sdk.matcher;
+
+import com.faceauth.sdk.storage.ProfileRecord;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * 1:N 매칭용 패킹 갤러리 (불변).
+ *
+ * 템플릿을 L2 정규화한 뒤 row-major float[] 하나에 연속 배치하고,
+ * 행마다 사용자 인덱스(int[])를 둔다. 사용자 인덱스는 목록 내 첫 등장 순서로 부여되므로
+ * 동점 시 기존 List 기반 매처와 동일한 순위(먼저 등장한 사용자 우선)를 유지한다.
+ *
+ * 인증 후보 로드 시 한 번 생성하고, 프레임마다 재할당 없이 사용.
+ */
+public final class PackedGallery {
+
+    /** 이 값 미만의 norm은 0 벡터로 간주 (cosineSimilarityNorm과 동일 기준). */
+    static final double MIN_NORM = 1e-10;
+
+    private final int             dim;
+    private final int             size;
+    private final float[]         templates;   // size × dim, 정규화 완료
+    private final float[]         norms;       // 정규화 전 원본 L2 norm
+    private final int[]           userIndex;   // 행 → 사용자 인덱스
+    private final String[]        userIds;     // 사용자 인덱스 → user_id
+    private final ProfileRecord[] profiles;    // 행 → 원본 프로파일
+
+    private PackedGallery(int dim, int size, float[] templates, float[] norms,
+                          int[] userIndex, String[] userIds, ProfileRecord[] profiles) {
+        this.dim       = dim;
+        this.size      = size;
+        this.templates = templates;
+        this.norms     = norms;
+        this.userIndex = userIndex;
+        this.userIds   = userIds;
+        this.profiles  = profiles;
+    }
+
+    /**
+     * 프로파일 목록으로 갤러리 생성. embedding이 null이거나 차원이 dim과 다른 행은 제외.
+     *
+     * @param profiles DB에서 조회한 활성 프로파일 목록 (null 허용)
+     * @param dim      임베딩 차원 (config.embeddingDim)
+     */
+    public static PackedGallery build(List<ProfileRecord> profiles, int dim) {
+        int n = 0;
+        if (profiles != null) {
+            for (ProfileRecord p : profiles) {
+                if (p != null && p.embedding != null && p.embedding.length == dim) n++;
+            }
+        }
+        float[]         templates = new float[n * dim];
+        float[]         norms     = new float[n];
+        int[]           userIndex = new int[n];
+        ProfileRecord[] rows      = new ProfileRecord[n];
+        Map<String, Integer> indexByUser = new HashMap<>();
+        String[] ids = new String[n];
+
+        int row = 0;
+        if (profiles != null) {
+            for (ProfileRecord p : profiles) {
+                if (p == null || p.embedding == null || p.embedding.length != dim) continue;
+                Integer u = indexByUser.get(p.userId);
+                if (u == null) {
+                    u = indexByUser.size();
+                    indexByUser.put(p.userId, u);
+                    ids[u] = p.userId;
+                }
+                double sq = 0;
+                for (float v : p.embedding) sq += (double) v * v;
+                double norm = Math.sqrt(sq);
+                int off = row * dim;
+                if (norm >= MIN_NORM) {
+                    for (int i = 0; i < dim; i++) templates[off + i] = (float) (p.embedding[i] / norm);
+                }
+                norms[row]     = (float) norm;
+                userIndex[row] = u;
+                rows[row]      = p;
+                row++;
+            }
+        }
+        String[] userIds = new String[indexByUser.size()];
+        System.arraycopy(ids, 0, userIds, 0, userIds.length);
+        return new PackedGallery(dim, n, templates, norms, userIndex, userIds, rows);
+    }
+
+    /** 템플릿(행) 수. */
+    public int size() { return size; }
+
+    /** 임베딩 차원. */
+    public int dim() { return dim; }
+
+    /** 서로 다른 사용자 수. */
+    public int userCount() { return userIds.length; }
+
+    /** 행의 원본 프로파일. */
+    public ProfileRecord profileAt(int row) { return profiles[row]; }
+
+    /** 행의 user_id. */
+    public String userIdAt(int row) { return userIds[userIndex[row]]; }
+
+    /** 행의 사용자 인덱스 (첫 등장 순서). */
+    int userIndexAt(int row) { return userIndex[row]; }
+
+    /** 사용자 인덱스 → user_id. */
+    String userId(int userIdx) { return userIds[userIdx]; }
+
+    /** 행의 원본 L2 norm (정규화 전). */
+    public float normAt(int row) { return norms[row]; }
+
+    /** 행별 원본 L2 norm 배열 (공유, 수정 금지). */
+    float[] norms() { return norms; }
+
+    /** 행별 원본 프로파일 배열 (공유, 수정 금지). */
+    ProfileRecord[] rows() { return profiles; }
+
+    /**
+     * 쿼리와 행의 match_score. SSoT: (cosine_sim + 1) / 2.
+     * 템플릿은 정규화되어 있으므로 쿼리 norm만 역수로 곱한다 (쿼리 복사 없음).
+     * 0 벡터(쿼리 또는 템플릿)는 cosineSimilarityNorm과 동일하게 0 반환.
+     *
+     * @param query         라이브 임베딩 (길이 dim)
+     * @param invQueryNorm  1 / ||query|| (쿼리가 0 벡터면 0)
+     */
+    float scoreRow(float[] query, float invQueryNorm, int row) {
+        if (invQueryNorm == 0f || norms[row] < MIN_NORM) return 0f;
+        int off = row * dim;
+        float dot = 0f;
+        for (int i = 0; i < dim; i++) dot += query[i] * templates[off + i];
+        float cos = dot * invQueryNorm;
+        if (cos > 1f) cos = 1f;
+        else if (cos < -1f) cos = -1f;
+        return (cos + 1f) * 0.5f;
+    }
+
+    /**
+     * 패킹 없이 원본 템플릿으로 계산한 match_score. build + scoreRow와 연산 순서가 같아 결과가 비트 단위로 동일.
+     * 양자화 스캔 후 후보 행의 정확 재점수화에 사용.
+     */
+    static float scoreExact(float[] query, float invQueryNorm, float[] template) {
+        double sq = 0;
+        for (float v : template) sq += (double) v * v;
+        double norm = Math.sqrt(sq);
+        if (invQueryNorm == 0f || (float) norm < MIN_NORM) return 0f;
+        float dot = 0f;
+        if (norm >= MIN_NORM) {
+            for (int i = 0; i < template.length; i++) dot += query[i] * (float) (template[i] / norm);
+        }
+        float cos = dot * invQueryNorm;
+        if (cos > 1f) cos = 1f;
+        else if (cos < -1f) cos = -1f;
+        return (cos + 1f) * 0.5f;
+    }
+
+    /** scoreRow용 1 / ||query||. 0 벡터면 0. */
+    static float invNorm(float[] query) {
+        double sq = 0;
+        for (float v : query) sq += (double) v * v;
+        double norm = Math.sqrt(sq);
+        return norm < MIN_NORM ? 0f : (float) (1.0 / norm);
+    }
+
+    /**
+     * 행 구간 [from, to)를 스캔하여 사용자 단위 Top-1/Top-2를 acc에 누적. 할당 없음.
+     */
+    void scan(float[] query, float invQueryNorm, int from, int to, EmbeddingMatcher.UserTopTwo acc) {
+        scan(query, invQueryNorm, from, to, acc, null);
+    }
+
+    /** scan + 행별 점수를 scores[row]에 기록 (scores가 null이면 기록 안 함). */
+    void scan(float[] query, float invQueryNorm, int from, int to, EmbeddingMatcher.UserTopTwo acc,
+              float[] scores) {
+        for (int row = from; row < to; row++) {
+            float score = scoreRow(query, invQueryNorm, row);
+            if (scores != null) scores[row] = score;
+            acc.offer(score, userIndex[row], row);
+        }
+    }
+}
@@ -0,0 +1,127 @@
+package com.faceauth.sdk.matcher;
+
+import com.faceauth.sdk.logging.SafeLogger;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * PackedGallery 병렬 샤드 스캔.
+ *
+ * 갤러리 행을 연속 구간(샤드)으로 나눠 고정 크기 워커 풀에서 동시에 점수화하고,
+ * 샤드별 사용자 단위 Top-1/Top-2를 샤드 순서대로 병합한다.
+ * 사용자별 최고 점수는 어느 샤드에서든 해당 샤드의 Top-2 안에 들어가므로
+ * 병합 결과는 직렬 EmbeddingMatcher.findTopTwoUsersWithMargin과 항상 동일하다.
+ *
+ * 갤러리 크기가 minGallerySize 미만이면 스레드 전환 비용을 피하기 위해 호출 스레드에서 직렬 스캔.
+ * 인스턴스는 Activity 수명 동안 유지하고 종료 시 close() 호출.
+ */
+public final class ParallelGalleryMatcher {
+
+    private static final String TAG = "ParallelMatcher";
+    /** 샤드당 최소 행 수. 이보다 잘게 나누면 병합·스케줄링 비용이 스캔 비용을 넘는다. */
+    static final int MIN_ROWS_PER_SHARD = 256;
+
+    private final int             threads;
+    private final int             minGallerySize;
+    private final ExecutorService pool;
+    private volatile boolean      closed;
+
+    /**
+     * @param threads        워커 수. 0 이하면 min(코어 수, 4)
+     * @param minGallerySize 이 행 수 이상일 때만 병렬 스캔
+     */
+    public ParallelGalleryMatcher(int threads, int minGallerySize) {
+        int n = threads > 0 ? threads : Math.min(Runtime.getRuntime().availableProcessors(), 4);
+        this.threads        = Math.max(1, n);
+        this.minGallerySize = minGallerySize;
+        AtomicInteger seq = new AtomicInteger();
+        this.pool = this.threads > 1
+                ? Executors.newFixedThreadPool(this.threads, r -> {
+                    Thread t = new Thread(r, "FaceAuth-Match-" + seq.incrementAndGet());
+                    t.setDaemon(true);
+                    return t;
+                })
+                : null;
+    }
+
+    /** 이 갤러리를 병렬로 스캔할지 여부. */
+    public boolean isParallelFor(PackedGallery gallery) {
+        return pool != null && !closed && gallery != null
+                && gallery.size() >= minGallerySize
+                && gallery.size() >= 2 * MIN_ROWS_PER_SHARD;
+    }
+
+    /**
+     * 직렬 findTopTwoUsersWithMargin(float[], PackedGallery)과 동일한 결과를 반환.
+     */
+    public EmbeddingMatcher.TopTwoResult findTopTwoUsersWithMargin(float[] liveEmbedding,
+                                                                   PackedGallery gallery) {
+        if (!isParallelFor(gallery) || liveEmbedding.length != gallery.dim()) {
+            return EmbeddingMatcher.findTopTwoUsersWithMargin(liveEmbedding, gallery);
+        }
+        EmbeddingMatcher.UserTopTwo merged = scanShards(liveEmbedding, gallery, null);
+        return merged != null ? merged.toResult(gallery)
+                : EmbeddingMatcher.findTopTwoUsersWithMargin(liveEmbedding, gallery);
+    }
+
+    /**
+     * 직렬 EmbeddingMatcher.scoreGallery와 동일한 결과. 샤드가 점수 벡터의 서로 다른 구간을 채운다.
+     */
+    public GalleryScores scoreGallery(float[] liveEmbedding, PackedGallery gallery) {
+        if (!isParallelFor(gallery) || liveEmbedding.length != gallery.dim()) {
+            return EmbeddingMatcher.scoreGallery(liveEmbedding, gallery);
+        }
+        int rows = gallery.size();
+        float[] scores = new float[rows];
+        EmbeddingMatcher.UserTopTwo merged = scanShards(liveEmbedding, gallery, scores);
+        if (merged == null) return EmbeddingMatcher.scoreGallery(liveEmbedding, gallery);
+        return new GalleryScores(merged.toResult(gallery), gallery.dim(), GalleryScores.queryNorm(liveEmbedding),
+                scores, gallery.norms(), gallery.rows(), rows, rows);
+    }
+
+    /** 샤드 병렬 스캔 후 병합. 실패하면 null (호출측이 직렬로 대체). */
+    private EmbeddingMatcher.UserTopTwo scanShards(float[] liveEmbedding, PackedGallery gallery, float[] scores) {
+        int rows   = gallery.size();
+        int shards = Math.min(threads, rows / MIN_ROWS_PER_SHARD);
+        int per    = (rows + shards - 1) / shards;
+        float inv  = PackedGallery.invNorm(liveEmbedding);
+
+        List<Callable<EmbeddingMatcher.UserTopTwo>> tasks = new ArrayList<>(shards);
+        for (int s = 0; s < shards; s++) {
+            final int from = s * per;
+            final int to   = Math.min(rows, from + per);
+            tasks.add(() -> {
+                EmbeddingMatcher.UserTopTwo acc = new EmbeddingMatcher.UserTopTwo();
+                gallery.scan(liveEmbedding, inv, from, to, acc, scores);
+                return acc;
+            });
+        }
+
+        EmbeddingMatcher.UserTopTwo merged = new EmbeddingMatcher.UserTopTwo();
+        try {
+            for (Future<EmbeddingMatcher.UserTopTwo> f : pool.invokeAll(tasks)) {
+                merged.merge(f.get());
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return null;
+        } catch (ExecutionException | RejectedExecutionException e) {
+            SafeLogger.w(TAG, "병렬 스캔 실패, 직렬 스캔으로 대체: " + e.getMessage());
+            return null;
+        }
+        return merged;
+    }
+
+    public void close() {
+        closed = true;
+        if (pool != null) pool.shutdownNow();
+    }
+}
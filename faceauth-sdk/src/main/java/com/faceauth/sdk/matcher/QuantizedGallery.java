@@ -0,0 +1,216 @@
+package com.faceauth.sdk.matcher;
+
+import com.faceauth.sdk.storage.ProfileRecord;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * int8 양자화 갤러리 (불변). TemplateCache.setProfiles에서 생성.
+ *
+ * 정규화된 템플릿을 행별 대칭 스케일(scale = max|v| / 127)로 int8 양자화해 byte[] 하나에 보관한다.
+ * 스캔 메모리는 float 패킹(PackedGallery) 대비 1/4.
+ *
+ * 매칭은 2단계:
+ *   1) 정수 내적으로 모든 행의 근사 cos과 오차 상한 eps를 구해 사용자별 [하한, 상한] 구간을 만든다.
+ *   2) 상한이 "두 번째로 큰 사용자 하한" 이상인 사용자만 원본 float 임베딩으로 정확 재점수화.
+ * 제외된 사용자는 정확 점수로도 Top-2에 들 수 없으므로, 결과(top1/top2/점수/bestProfile)는
+ * EmbeddingMatcher.findTopTwoUsersWithMargin(PackedGallery)와 비트 단위로 같다.
+ * 따라서 grayTHigh/grayTLow 판정은 양자화 여부와 무관.
+ *
+ * 오차 상한 (단위 벡터 q, t, 스케일 sq, st, h = sqrt(dim) / 2):
+ *   |q·t − sq·st·ΣQiTi| ≤ h·st + h·sq·(1 + h·st)
+ */
+public final class QuantizedGallery {
+
+    /** float 누적 오차 여유 (cos 단위). */
+    private static final float FLOAT_SLACK = 1e-4f;
+
+    private final int             dim;
+    private final int             size;
+    private final byte[]          codes;       // size × dim, int8
+    private final float[]         scales;      // 행별 스케일. 0 = 0 벡터 템플릿
+    private final float[]         norms;       // 정규화 전 원본 L2 norm (진단용)
+    private final int[]           userIndex;   // 행 → 사용자 인덱스 (첫 등장 순서)
+    private final String[]        userIds;
+    private final ProfileRecord[] profiles;    // 정확 재점수화·bestProfile용 원본
+    private final float           halfSqrtDim;
+
+    private QuantizedGallery(int dim, int size, byte[] codes, float[] scales, float[] norms,
+                             int[] userIndex, String[] userIds, ProfileRecord[] profiles) {
+        this.dim         = dim;
+        this.size        = size;
+        this.codes       = codes;
+        this.scales      = scales;
+        this.norms       = norms;
+        this.userIndex   = userIndex;
+        this.userIds     = userIds;
+        this.profiles    = profiles;
+        this.halfSqrtDim = (float) (Math.sqrt(dim) * 0.5);
+    }
+
+    /**
+     * 프로파일 목록으로 양자화 갤러리 생성. 필터·사용자 순서는 PackedGallery.build와 동일.
+     */
+    public static QuantizedGallery build(List<ProfileRecord> profiles, int dim) {
+        int n = 0;
+        if (profiles != null) {
+            for (ProfileRecord p : profiles) {
+                if (p != null && p.embedding != null && p.embedding.length == dim) n++;
+            }
+        }
+        byte[]          codes     = new byte[n * dim];
+        float[]         scales    = new float[n];
+        float[]         norms     = new float[n];
+        int[]           userIndex = new int[n];
+        ProfileRecord[] rows      = new ProfileRecord[n];
+        Map<String, Integer> indexByUser = new HashMap<>();
+        String[] ids = new String[n];
+
+        int row = 0;
+        if (profiles != null) {
+            for (ProfileRecord p : profiles) {
+                if (p == null || p.embedding == null || p.embedding.length != dim) continue;
+                Integer u = indexByUser.get(p.userId);
+                if (u == null) {
+                    u = indexByUser.size();
+                    indexByUser.put(p.userId, u);
+                    ids[u] = p.userId;
+                }
+                double norm = Math.sqrt(sumSq(p.embedding));
+                if ((float) norm >= PackedGallery.MIN_NORM) {   // scoreExact와 같은 0 벡터 기준
+                    scales[row] = quantize(p.embedding, 1.0 / norm, codes, row * dim);
+                }
+                norms[row]     = (float) norm;
+                userIndex[row] = u;
+                rows[row]      = p;
+                row++;
+            }
+        }
+        String[] userIds = new String[indexByUser.size()];
+        System.arraycopy(ids, 0, userIds, 0, userIds.length);
+        return new QuantizedGallery(dim, n, codes, scales, norms, userIndex, userIds, rows);
+    }
+
+    public int size() { return size; }
+
+    public int dim() { return dim; }
+
+    public int userCount() { return userIds.length; }
+
+    /** 양자화 코드 바이트 수 (메모리 진단용). */
+    public int codeBytes() { return codes.length; }
+
+    /**
+     * 사용자 단위 Top-1/Top-2. 정수 근사 스캔 후 후보 사용자만 정확 재점수화.
+     * 결과는 findTopTwoUsersWithMargin(PackedGallery)와 동일.
+     */
+    public EmbeddingMatcher.TopTwoResult findTopTwoUsersWithMargin(float[] liveEmbedding) {
+        return findTopTwoUsersWithMargin(liveEmbedding, null, null);
+    }
+
+    /**
+     * findTopTwoUsersWithMargin과 같은 스캔으로 GalleryScores 생성.
+     * 정확 재점수화한 행만 점수가 있고, 근사 단계에서 제외된 사용자 행은 NaN.
+     */
+    public GalleryScores scoreGallery(float[] liveEmbedding) {
+        if (size == 0 || liveEmbedding == null || liveEmbedding.length != dim) {
+            return GalleryScores.empty(liveEmbedding);
+        }
+        float[] scores = new float[size];
+        int[] stats = new int[2];
+        EmbeddingMatcher.TopTwoResult topTwo = findTopTwoUsersWithMargin(liveEmbedding, stats, scores);
+        return new GalleryScores(topTwo, dim, GalleryScores.queryNorm(liveEmbedding),
+                scores, norms, profiles, size, stats[0]);
+    }
+
+    /**
+     * @param stats  null이 아니면 [0] = 정확 재점수화한 행 수, [1] = 후보 사용자 수
+     * @param scores null이 아니면 행별 정확 점수 기록 (재점수화하지 않은 행은 NaN)
+     */
+    EmbeddingMatcher.TopTwoResult findTopTwoUsersWithMargin(float[] liveEmbedding, int[] stats, float[] scores) {
+        if (size == 0 || liveEmbedding == null || liveEmbedding.length != dim) {
+            return new EmbeddingMatcher.TopTwoResult(null, 0f, null, 0f, 0f, null);
+        }
+        float inv = PackedGallery.invNorm(liveEmbedding);
+        int users = userIds.length;
+        float[] lower = new float[users];
+        float[] upper = new float[users];
+        Arrays.fill(lower, Float.NEGATIVE_INFINITY);
+        Arrays.fill(upper, Float.NEGATIVE_INFINITY);
+
+        float cut = Float.NEGATIVE_INFINITY;   // 두 번째로 큰 사용자 하한
+        if (inv != 0f) {
+            byte[] q  = new byte[dim];
+            float  sq = quantize(liveEmbedding, inv, q, 0);
+            float  hq = halfSqrtDim * sq;
+            for (int row = 0; row < size; row++) {
+                int   u  = userIndex[row];
+                float st = scales[row];
+                float lo, hi;
+                if (st == 0f) {
+                    lo = hi = -1f;   // 0 벡터 템플릿: 정확 점수 0 == cos −1
+                } else {
+                    int off = row * dim;
+                    int acc = 0;
+                    for (int i = 0; i < dim; i++) acc += q[i] * codes[off + i];
+                    float approx = acc * sq * st;
+                    float eps = halfSqrtDim * st + hq * (1f + halfSqrtDim * st) + FLOAT_SLACK;
+                    lo = approx - eps;
+                    hi = approx + eps;
+                }
+                if (lo > lower[u]) lower[u] = lo;
+                if (hi > upper[u]) upper[u] = hi;
+            }
+            float first = Float.NEGATIVE_INFINITY;
+            for (int u = 0; u < users; u++) {
+                float l = lower[u];
+                if (l > first) { cut = first; first = l; }
+                else if (l > cut) cut = l;
+            }
+        }
+
+        EmbeddingMatcher.UserTopTwo acc = new EmbeddingMatcher.UserTopTwo();
+        int rescored = 0, shortlisted = 0;
+        for (int u = 0; u < users; u++) if (upper[u] >= cut) shortlisted++;
+        for (int row = 0; row < size; row++) {
+            int u = userIndex[row];
+            if (upper[u] < cut) {
+                if (scores != null) scores[row] = Float.NaN;
+                continue;
+            }
+            float score = PackedGallery.scoreExact(liveEmbedding, inv, profiles[row].embedding);
+            if (scores != null) scores[row] = score;
+            acc.offer(score, u, row);
+            rescored++;
+        }
+        if (stats != null && stats.length >= 2) {
+            stats[0] = rescored;
+            stats[1] = shortlisted;
+        }
+        return acc.toResult(acc.top1User >= 0 ? userIds[acc.top1User] : null,
+                acc.top2User >= 0 ? userIds[acc.top2User] : null,
+                acc.top1Row >= 0 ? profiles[acc.top1Row] : null);
+    }
+
+    private static double sumSq(float[] v) {
+        double sq = 0;
+        for (float x : v) sq += (double) x * x;
+        return sq;
+    }
+
+    /** v × invNorm을 int8로 양자화해 out[off..]에 기록, 스케일 반환 (전부 0이면 0). */
+    private static float quantize(float[] v, double invNorm, byte[] out, int off) {
+        double maxAbs = 0;
+        for (float x : v) maxAbs = Math.max(maxAbs, Math.abs(x * invNorm));
+        if (maxAbs == 0) return 0f;
+        double scale = maxAbs / 127.0;
+        for (int i = 0; i < v.length; i++) {
+            long c = Math.round(v[i] * invNorm / scale);
+            out[off + i] = (byte) Math.max(-127, Math.min(127, c));
+        }
+        return (float) scale;
+    }
+}
@@ -3,67 +3,309 @@ package com.faceauth.sdk.matcher;
 import com.faceauth.sdk.storage.ProfileRecord;
 
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.Objects;
 
 /**
  * SSOT v1: (profile_type, user_id) 별 템플릿·센트로이드 인메모리 캐시.
- * 인증 시 후보 로드 후 한 번 설정하고, 프레임마다 재할당 없이 사용.
+ *
+ * 사용자별로 L2 정규화 템플릿의 합을 유지해 증분 갱신:
+ *  - addProfile / removeProfile / removeUser: 해당 사용자 센트로이드·통계만 O(dim)로 갱신
+ *  - 센트로이드는 정규화 평균 (미리 정규화 → 코사인 계산 시 재정규화 불필요)
+ *  - 사용자 내 분산 통계(Stats)도 같은 합에서 O(1)로 유도
+ *
+ * 동시성: 쓰기는 synchronized, 상태는 불변 객체를 통째로 교체 (copy-on-write) →
+ * 읽기는 잠금 없이 항상 일관된 상태를 본다.
+ * copy()는 상태를 공유하는 O(1) 복제 → GalleryService가 스냅샷마다 새 캐시를 만들지 않고 패치.
  */
 public final class TemplateCache {
 
-    private final Map<String, List<ProfileRecord>> templatesByKey = new HashMap<>();
-    private final Map<String, float[]> centroidByKey = new HashMap<>();
+    /** 사용자 내 분산 통계 (코사인 기준, 템플릿이 정규화되지 않았어도 정규화 후 값). */
+    public static final class Stats {
+        public final int   count;
+        /** 템플릿 ↔ 센트로이드 평균 코사인 (= |Σ t̂| / n). 1에 가까울수록 템플릿이 모여 있음 */
+        public final float meanCosToCentroid;
+        /** 템플릿 쌍 평균 코사인 (= (|Σ t̂|² - n) / (n(n-1))). 템플릿 1개면 1 */
+        public final float meanPairwiseCos;
+
+        Stats(int count, float meanCosToCentroid, float meanPairwiseCos) {
+            this.count             = count;
+            this.meanCosToCentroid = meanCosToCentroid;
+            this.meanPairwiseCos   = meanPairwiseCos;
+        }
+    }
+
+    /** (profileType, userId) 키. null은 빈 문자열과 같게 취급 (기존 문자열 키와 동일). */
+    private static final class Key {
+        final String profileType;
+        final String userId;
+
+        Key(String profileType, String userId) {
+            this.profileType = profileType != null ? profileType : "";
+            this.userId      = userId != null ? userId : "";
+        }
+
+        @Override public boolean equals(Object o) {
+            if (this == o) return true;
+            if (!(o instanceof Key)) return false;
+            Key k = (Key) o;
+            return profileType.equals(k.profileType) && userId.equals(k.userId);
+        }
+
+        @Override public int hashCode() {
+            return Objects.hash(profileType, userId);
+        }
+    }
+
+    /** 사용자 항목 (불변). */
+    private static final class UserEntry {
+        final List<ProfileRecord> templates;   // 수정 불가
+        final double[] sum;                     // Σ 정규화 템플릿 (double: 추가·삭제 반복 시 오차 누적 방지)
+        final float[]  centroid;                // sum 정규화, 합이 0이면 null
+        final Stats    stats;
+
+        UserEntry(List<ProfileRecord> templates, double[] sum) {
+            this.templates = Collections.unmodifiableList(templates);
+            this.sum       = sum;
+            double sq = 0;
+            for (double v : sum) sq += v * v;
+            double norm = Math.sqrt(sq);
+            int n = templates.size();
+            if (norm > 1e-12) {
+                centroid = new float[sum.length];
+                for (int i = 0; i < sum.length; i++) centroid[i] = (float) (sum[i] / norm);
+            } else {
+                centroid = null;
+            }
+            stats = new Stats(n, (float) (norm / n),
+                    n > 1 ? (float) ((sq - n) / ((double) n * (n - 1))) : 1f);
+        }
+
+        UserEntry plus(ProfileRecord p) {
+            List<ProfileRecord> next = new ArrayList<>(templates.size() + 1);
+            next.addAll(templates);
+            next.add(p);
+            return new UserEntry(next, accumulate(sum.clone(), p.embedding, 1));
+        }
+
+        /** p 위치 (같은 인스턴스, 없으면 같은 profileId 첫 항목). 없으면 -1. */
+        int indexOf(ProfileRecord p) {
+            for (int i = 0; i < templates.size(); i++) {
+                if (templates.get(i) == p) return i;
+            }
+            for (int i = 0; i < templates.size(); i++) {
+                if (templates.get(i).profileId == p.profileId) return i;
+            }
+            return -1;
+        }
+
+        /** idx 템플릿 제거. 비면 null. */
+        UserEntry minus(int idx) {
+            if (templates.size() == 1) return null;
+            ProfileRecord removed = templates.get(idx);
+            List<ProfileRecord> next = new ArrayList<>(templates);
+            next.remove(idx);
+            return new UserEntry(next, accumulate(sum.clone(), removed.embedding, -1));
+        }
+    }
+
+    /** 캐시 전체 상태 (불변). profiles = 추가 순서 (양자화 갤러리 재생성용). */
+    private static final class State {
+        final Map<Key, UserEntry>  users;
+        final List<ProfileRecord>  profiles;
+
+        State(Map<Key, UserEntry> users, List<ProfileRecord> profiles) {
+            this.users    = users;
+            this.profiles = profiles;
+        }
+    }
+
+    private static final State EMPTY = new State(Collections.emptyMap(), Collections.emptyList());
+
     private final int embeddingDim;
+    private final boolean quantize;
+    private volatile State state = EMPTY;
+    /** state와 짝이 맞는 양자화 갤러리. 갱신 시 null → 다음 getQuantizedGallery()에서 재생성 */
+    private volatile QuantizedGallery quantized;
 
     public TemplateCache(int embeddingDim) {
+        this(embeddingDim, false);
+    }
+
+    /**
+     * @param quantize true면 int8 양자화 갤러리(QuantizedGallery)도 유지
+     */
+    public TemplateCache(int embeddingDim, boolean quantize) {
         this.embeddingDim = embeddingDim;
+        this.quantize     = quantize;
     }
 
-    /** 캐시 키: profileType + ":" + userId */
-    private static String key(String profileType, String userId) {
-        return (profileType != null ? profileType : "") + ":" + (userId != null ? userId : "");
+    private TemplateCache(TemplateCache src) {
+        this.embeddingDim = src.embeddingDim;
+        this.quantize     = src.quantize;
+        this.state        = src.state;
+        this.quantized    = src.quantized;
+    }
+
+    /** 같은 내용의 독립 캐시 (사용자 항목 공유, O(1)). 이후 증분 갱신은 서로 영향 없음. */
+    public TemplateCache copy() {
+        return new TemplateCache(this);
     }
 
     /**
      * 전체 프로파일 목록으로 캐시 갱신. 기존 캐시 클리어 후 (profileType, userId)별로 그룹.
      */
-    public void setProfiles(List<ProfileRecord> profiles) {
-        templatesByKey.clear();
-        centroidByKey.clear();
-        if (profiles == null) return;
-        for (ProfileRecord p : profiles) {
-            if (p == null || p.embedding == null || p.embedding.length != embeddingDim) continue;
-            String k = key(p.profileType, p.userId);
-            templatesByKey.computeIfAbsent(k, x -> new ArrayList<>()).add(p);
+    public synchronized void setProfiles(List<ProfileRecord> profiles) {
+        Map<Key, List<ProfileRecord>> grouped = new HashMap<>();
+        List<ProfileRecord> valid = new ArrayList<>();
+        if (profiles != null) {
+            for (ProfileRecord p : profiles) {
+                if (!accepts(p)) continue;
+                grouped.computeIfAbsent(new Key(p.profileType, p.userId), x -> new ArrayList<>()).add(p);
+                valid.add(p);
+            }
+        }
+        Map<Key, UserEntry> users = new HashMap<>(grouped.size() * 2);
+        for (Map.Entry<Key, List<ProfileRecord>> e : grouped.entrySet()) {
+            double[] sum = new double[embeddingDim];
+            for (ProfileRecord p : e.getValue()) accumulate(sum, p.embedding, 1);
+            users.put(e.getKey(), new UserEntry(e.getValue(), sum));
+        }
+        state = new State(users, Collections.unmodifiableList(valid));
+        quantized = quantize ? QuantizedGallery.build(profiles, embeddingDim) : null;
+    }
+
+    /**
+     * 프로파일 1개 추가. 해당 사용자 센트로이드·통계만 O(dim) 갱신.
+     *
+     * @return 차원 불일치 등으로 무시하면 false
+     */
+    public synchronized boolean addProfile(ProfileRecord p) {
+        if (!accepts(p)) return false;
+        State s = state;
+        Key k = new Key(p.profileType, p.userId);
+        UserEntry old = s.users.get(k);
+        UserEntry next = old != null
+                ? old.plus(p)
+                : new UserEntry(Collections.singletonList(p), accumulate(new double[embeddingDim], p.embedding, 1));
+        Map<Key, UserEntry> users = new HashMap<>(s.users);
+        users.put(k, next);
+        List<ProfileRecord> profiles = new ArrayList<>(s.profiles.size() + 1);
+        profiles.addAll(s.profiles);
+        profiles.add(p);
+        publish(users, profiles);
+        return true;
+    }
+
+    /**
+     * 프로파일 1개 제거 (같은 인스턴스, 없으면 같은 (profileType, userId)의 같은 profileId).
+     *
+     * @return 제거했으면 true
+     */
+    public synchronized boolean removeProfile(ProfileRecord p) {
+        if (p == null) return false;
+        State s = state;
+        Key k = new Key(p.profileType, p.userId);
+        UserEntry old = s.users.get(k);
+        if (old == null) return false;
+        int idx = old.indexOf(p);
+        if (idx < 0) return false;
+        ProfileRecord removed = old.templates.get(idx);
+        UserEntry next = old.minus(idx);
+        Map<Key, UserEntry> users = new HashMap<>(s.users);
+        if (next == null) users.remove(k);
+        else users.put(k, next);
+        List<ProfileRecord> profiles = new ArrayList<>(s.profiles);
+        for (int i = 0; i < profiles.size(); i++) {
+            if (profiles.get(i) == removed) {   // 같은 인스턴스가 중복돼도 한 건만
+                profiles.remove(i);
+                break;
+            }
         }
+        publish(users, profiles);
+        return true;
     }
 
-    /** 해당 (profileType, userId)의 활성 템플릿 목록 (복사 없이 반환). */
+    /**
+     * 사용자의 모든 profileType 템플릿 제거.
+     *
+     * @return 제거한 템플릿 수
+     */
+    public synchronized int removeUser(String userId) {
+        State s = state;
+        String id = userId != null ? userId : "";
+        Map<Key, UserEntry> users = new HashMap<>(s.users);
+        int removed = 0;
+        for (Map.Entry<Key, UserEntry> e : s.users.entrySet()) {
+            if (!e.getKey().userId.equals(id)) continue;
+            users.remove(e.getKey());
+            removed += e.getValue().templates.size();
+        }
+        if (removed == 0) return 0;
+        List<ProfileRecord> profiles = new ArrayList<>(s.profiles.size() - removed);
+        for (ProfileRecord p : s.profiles) {
+            if (!id.equals(p.userId != null ? p.userId : "")) profiles.add(p);
+        }
+        publish(users, profiles);
+        return removed;
+    }
+
+    /** 캐시된 템플릿 수. */
+    public int size() {
+        return state.profiles.size();
+    }
+
+    /** 양자화 갤러리 (현재 상태 기준, 갱신 후 첫 호출 시 재생성). quantize == false면 null. */
+    public QuantizedGallery getQuantizedGallery() {
+        if (!quantize) return null;
+        QuantizedGallery q = quantized;
+        if (q != null) return q;
+        synchronized (this) {
+            if (quantized == null) quantized = QuantizedGallery.build(state.profiles, embeddingDim);
+            return quantized;
+        }
+    }
+
+    /** 해당 (profileType, userId)의 활성 템플릿 목록 (수정 불가, 복사 없이 반환). */
     public List<ProfileRecord> getTemplates(String profileType, String userId) {
-        List<ProfileRecord> list = templatesByKey.get(key(profileType, userId));
-        return list != null ? list : new ArrayList<>();
+        UserEntry e = state.users.get(new Key(profileType, userId));
+        return e != null ? e.templates : Collections.emptyList();
     }
 
     /**
-     * 해당 사용자의 센트로이드(요소별 평균) 반환. 없으면 null.
-     * 첫 호출 시 계산 후 캐시.
+     * 해당 사용자의 센트로이드 (정규화 템플릿의 평균을 L2 정규화). 없으면 null.
+     * 반환 배열은 공유되므로 수정하지 말 것.
      */
     public float[] getCentroid(String profileType, String userId) {
-        String k = key(profileType, userId);
-        float[] cached = centroidByKey.get(k);
-        if (cached != null) return cached;
-        List<ProfileRecord> list = templatesByKey.get(k);
-        if (list == null || list.isEmpty()) return null;
-        float[] sum = new float[embeddingDim];
-        for (ProfileRecord p : list) {
-            if (p.embedding == null || p.embedding.length != embeddingDim) continue;
-            for (int i = 0; i < embeddingDim; i++) sum[i] += p.embedding[i];
-        }
-        int n = list.size();
-        for (int i = 0; i < embeddingDim; i++) sum[i] /= n;
-        centroidByKey.put(k, sum);
+        UserEntry e = state.users.get(new Key(profileType, userId));
+        return e != null ? e.centroid : null;
+    }
+
+    /** 해당 사용자의 분산 통계. 없으면 null. */
+    public Stats getStats(String profileType, String userId) {
+        UserEntry e = state.users.get(new Key(profileType, userId));
+        return e != null ? e.stats : null;
+    }
+
+    private boolean accepts(ProfileRecord p) {
+        return p != null && p.embedding != null && p.embedding.length == embeddingDim;
+    }
+
+    private void publish(Map<Key, UserEntry> users, List<ProfileRecord> profiles) {
+        state = new State(users, Collections.unmodifiableList(profiles));
+        quantized = null;
+    }
+
+    /** sum += sign * v/|v|. */
+    private static double[] accumulate(double[] sum, float[] v, int sign) {
+        double sq = 0;
+        for (float x : v) sq += (double) x * x;
+        if (sq <= 0) return sum;
+        double inv = sign / Math.sqrt(sq);
+        for (int i = 0; i < sum.length; i++) sum[i] += v[i] * inv;
         return sum;
     }
 }
@@ -0,0 +1,95 @@
+package com.faceauth.sdk.matcher;
+
+/**
+ * 같은 trackingId의 연속 임베딩 융합 (단일 스레드 전용).
+ *
+ * 품질 통과 프레임마다 L2 정규화 임베딩을 누적하고, 정규화 평균을 융합 임베딩으로 사용.
+ * 1차 판정 구간(band):
+ *  - top1 >= T_HIGH && margin >= M_HIGH → ACCEPT (프레임 수와 무관하게 즉시)
+ *  - top1 <  T_LOW                      → REJECT (즉시)
+ *  - 그 사이(그레이존)                  → maxFrames 미만이면 COLLECT (다음 프레임 대기),
+ *                                         채웠으면 GRAY (SecondaryVerifier로 최종 판단)
+ * trackingId가 바뀌거나 null이면 새로 시작 (null은 융합하지 않음).
+ * 더 모아도 새 증거가 없으면(같은 프레임 반복) settle()로 바로 GRAY 판정.
+ */
+public final class TemporalFusion {
+
+    public enum Band {
+        ACCEPT,
+        REJECT,
+        COLLECT,   // 그레이존, 프레임 더 모음
+        GRAY       // 그레이존, 모을 만큼 모음 → 2차 검증
+    }
+
+    private final int maxFrames;
+
+    private float[] sum;
+    private Integer trackingId;
+    private int     count;
+    private boolean settled;
+
+    /** @param maxFrames 그레이존에서 모을 최대 프레임 수 (1 = 단일 프레임 판정) */
+    public TemporalFusion(int maxFrames) {
+        this.maxFrames = Math.max(1, maxFrames);
+    }
+
+    /**
+     * 프레임 임베딩 추가.
+     *
+     * @return 융합 임베딩 (L2 정규화, 새 배열)
+     */
+    public float[] add(Integer trackingId, float[] embedding) {
+        if (trackingId == null || !trackingId.equals(this.trackingId)
+                || sum == null || sum.length != embedding.length) {
+            reset();
+            this.trackingId = trackingId;
+            sum = new float[embedding.length];
+        }
+        float inv = PackedGallery.invNorm(embedding);
+        for (int i = 0; i < sum.length; i++) sum[i] += embedding[i] * inv;
+        count++;
+        return fused();
+    }
+
+    /** 이 트랙을 융합 중인지 (1프레임 이상 누적). */
+    public boolean isTracking(Integer trackingId) {
+        return count > 0 && trackingId != null && trackingId.equals(this.trackingId);
+    }
+
+    /**
+     * 누적 종료: 이후 그레이존은 GRAY. 새 프레임 없이 현재 융합 임베딩으로 다시 판정할 때 사용.
+     *
+     * @return 현재 융합 임베딩 (L2 정규화, 새 배열). 누적이 없으면 null
+     */
+    public float[] settle() {
+        if (sum == null) return null;
+        settled = true;
+        return fused();
+    }
+
+    /** 현재 트랙에 누적된 프레임 수. */
+    public int count() {
+        return count;
+    }
+
+    public void reset() {
+        sum        = null;
+        trackingId = null;
+        count      = 0;
+        settled    = false;
+    }
+
+    /** 융합 임베딩의 Top-1 점수·margin으로 판정 구간 결정. */
+    public Band band(float top1Score, float margin, float tHigh, float mHigh, float tLow) {
+        if (top1Score >= tHigh && margin >= mHigh) return Band.ACCEPT;
+        if (top1Score < tLow) return Band.REJECT;
+        return count >= maxFrames || settled || trackingId == null ? Band.GRAY : Band.COLLECT;
+    }
+
+    private float[] fused() {
+        float[] fused = new float[sum.length];
+        float invSum = PackedGallery.invNorm(sum);
+        for (int i = 0; i < sum.length; i++) fused[i] = sum[i] * invSum;
+        return fused;
+    }
+}
@@ -13,6 +13,10 @@ import com.google.mlkit.vision.face.FaceLandmark;
  */
 public final class QualityGate {
 
+    /** blur 검사 영역 (프레임 좌상단, px). 밝기는 그중 160×160. */
+    public static final int BLUR_WINDOW = 320;
+    private static final int BRIGHTNESS_WINDOW = 160;
+
     private final FaceAuthConfig config;
 
     public QualityGate(FaceAuthConfig config) {
@@ -22,10 +26,17 @@ public final class QualityGate {
     public static final class Result {
         public final boolean passed;
         public final String  guideMessage;  // 한국어 안내
+        /** Laplacian variance (blur 검사까지 간 경우), 아니면 NaN */
+        public final float   blurScore;
 
         Result(boolean passed, String guideMessage) {
+            this(passed, guideMessage, Float.NaN);
+        }
+
+        Result(boolean passed, String guideMessage, float blurScore) {
             this.passed       = passed;
             this.guideMessage = guideMessage;
+            this.blurScore    = blurScore;
         }
 
         public static Result ok() { return new Result(true, ""); }
@@ -40,6 +51,26 @@ public final class QualityGate {
      * @param frameH     프레임 높이 (px)
      */
     public Result check(Bitmap frame, Face face, int frameW, int frameH) {
+        Result geometry = checkFace(face, frameW, frameH);
+        if (geometry != null) return geometry;
+        return checkImage(computeBlurScore(frame), computeBrightness(frame));
+    }
+
+    /**
+     * Y 평면 기반 품질 검사 (프레임 Bitmap 없음).
+     * 회색조 = BT.601 luma 이므로 Bitmap 경로의 gray()와 같은 값 (변환 반올림 차이만).
+     *
+     * @param luma   프레임(회전·미러 적용) 좌상단 lumaW×lumaH 영역의 Y 값, stride = lumaW.
+     *               최소 min(frameW, BLUR_WINDOW) × min(frameH, BLUR_WINDOW) 필요.
+     */
+    public Result check(byte[] luma, int lumaW, int lumaH, Face face, int frameW, int frameH) {
+        Result geometry = checkFace(face, frameW, frameH);
+        if (geometry != null) return geometry;
+        return checkImage(computeBlurScore(luma, lumaW, lumaH), computeBrightness(luma, lumaW, lumaH));
+    }
+
+    /** 1~3단계 (검출·bbox 비율·자세). 통과 시 null. */
+    private Result checkFace(Face face, int frameW, int frameH) {
 
         // 1. 얼굴 검출 여부
         if (face == null) {
@@ -64,23 +95,26 @@ public final class QualityGate {
         if (pitch > config.qualityPitchMaxDeg) {
             return new Result(false, "정면을 바라봐 주세요. (상하 조정)");
         }
+        return null;
+    }
+
+    /** 4~5단계 (blur·밝기). */
+    private Result checkImage(float blurScore, float brightness) {
 
         // 4. Blur (Laplacian variance)
-        float blurScore = computeBlurScore(frame);
         if (blurScore < config.qualityBlurMin) {
-            return new Result(false, "흔들림 없이 카메라를 고정해 주세요.");
+            return new Result(false, "흔들림 없이 카메라를 고정해 주세요.", blurScore);
         }
 
         // 5. 밝기
-        float brightness = computeBrightness(frame);
         if (brightness < config.qualityBrightnessMin) {
-            return new Result(false, "더 밝은 곳으로 이동해 주세요.");
+            return new Result(false, "더 밝은 곳으로 이동해 주세요.", blurScore);
         }
         if (brightness > config.qualityBrightnessMax) {
-            return new Result(false, "직사광선을 피해 주세요.");
+            return new Result(false, "직사광선을 피해 주세요.", blurScore);
         }
 
-        return Result.ok();
+        return new Result(true, "", blurScore);
     }
 
     // ── 내부 계산 메서드 ──────────────────────────────────────────────────
@@ -94,8 +128,8 @@ public final class QualityGate {
         int bmpW = bmp.getWidth();
         int bmpH = bmp.getHeight();
         if (bmpW <= 0 || bmpH <= 0) return 0f;
-        int readW = Math.min(bmpW, 320);
-        int readH = Math.min(bmpH, 320);
+        int readW = Math.min(bmpW, BLUR_WINDOW);
+        int readH = Math.min(bmpH, BLUR_WINDOW);
         if (readW < 3 || readH < 3) return 0f;
         int stride = bmpW;
         int[] pixels = new int[stride * readH];
@@ -141,8 +175,8 @@ public final class QualityGate {
         int bmpW = bmp.getWidth();
         int bmpH = bmp.getHeight();
         if (bmpW <= 0 || bmpH <= 0) return 0f;
-        int readW = Math.min(bmpW, 160);
-        int readH = Math.min(bmpH, 160);
+        int readW = Math.min(bmpW, BRIGHTNESS_WINDOW);
+        int readH = Math.min(bmpH, BRIGHTNESS_WINDOW);
         int stride = bmpW;
         int[] pixels = new int[stride * readH];
         try {
@@ -160,4 +194,49 @@ public final class QualityGate {
         }
         return count > 0 ? (float)(sum / count) : 0f;
     }
+
+    /** computeBlurScore의 Y 평면 버전 (stride = lumaW). */
+    private static float computeBlurScore(byte[] luma, int lumaW, int lumaH) {
+        int readW = Math.min(lumaW, BLUR_WINDOW);
+        int readH = Math.min(lumaH, BLUR_WINDOW);
+        if (readW < 3 || readH < 3) return 0f;
+        int stride = lumaW;
+
+        double sum = 0, sumSq = 0;
+        int count = 0;
+
+        for (int y = 1; y < readH - 1; y++) {
+            for (int x = 1; x < readW - 1; x++) {
+                int idx = y * stride + x;
+                double lap = 4 * (luma[idx] & 0xFF)
+                        - (luma[idx - 1] & 0xFF)
+                        - (luma[idx + 1] & 0xFF)
+                        - (luma[idx - stride] & 0xFF)
+                        - (luma[idx + stride] & 0xFF);
+                sum   += lap;
+                sumSq += lap * lap;
+                count++;
+            }
+        }
+
+        if (count == 0) return 0f;
+        double mean = sum / count;
+        double var  = sumSq / count - mean * mean;
+        return (float) var;
+    }
+
+    /** computeBrightness의 Y 평면 버전 (stride = lumaW). */
+    private static float computeBrightness(byte[] luma, int lumaW, int lumaH) {
+        int readW = Math.min(lumaW, BRIGHTNESS_WINDOW);
+        int readH = Math.min(lumaH, BRIGHTNESS_WINDOW);
+        long sum = 0;
+        int count = 0;
+        for (int y = 0; y < readH; y++) {
+            for (int x = 0; x < readW; x++) {
+                sum += luma[y * lumaW + x] & 0xFF;
+                count++;
+            }
+        }
+        return count > 0 ? (float) ((double) sum / count) : 0f;
+    }
 }
@@ -20,8 +20,10 @@ import javax.crypto.spec.GCMParameterSpec;
  * BLOB 포맷: [IV(12 bytes)] + [ciphertext + GCM tag(16 bytes)]
  *
  * SSoT §6.2: embedding BLOB는 Android Keystore 기반 키로 암호화
+ *
+ * 갤러리 스냅샷 파일의 데이터 키도 같은 Keystore 키로 래핑 (동일 BLOB 포맷, envelope encryption).
  */
-public final class EmbeddingCrypto {
+public final class EmbeddingCrypto implements GallerySnapshotStore.KeyWrapper {
 
     private static final String TAG              = "EmbeddingCrypto";
     private static final String KEYSTORE_ALIAS   = "FaceAuthEmbeddingKey";
@@ -31,6 +33,8 @@ public final class EmbeddingCrypto {
     private static final int    TAG_LENGTH_BITS  = 128;   // 16 bytes
 
     private final SecretKey secretKey;
+    /** 스레드별 복호화 Cipher 재사용 (Cipher.getInstance 비용 제거). Cipher는 스레드 안전하지 않음. */
+    private final ThreadLocal<Cipher> decryptCipher = new ThreadLocal<>();
 
     public EmbeddingCrypto() throws CryptoException {
         try {
@@ -45,42 +49,71 @@ public final class EmbeddingCrypto {
      */
     public byte[] encrypt(float[] embedding) throws CryptoException {
         try {
-            Cipher cipher = Cipher.getInstance(TRANSFORM);
-            cipher.init(Cipher.ENCRYPT_MODE, secretKey);
-            byte[] iv         = cipher.getIV();
-            byte[] plainBytes = floatArrayToBytes(embedding);
-            byte[] cipherText = cipher.doFinal(plainBytes);
-
-            // [IV(12)] + [cipherText]
-            ByteBuffer buf = ByteBuffer.allocate(iv.length + cipherText.length);
-            buf.put(iv);
-            buf.put(cipherText);
-            return buf.array();
+            return seal(floatArrayToBytes(embedding));
         } catch (Exception e) {
             throw new CryptoException("임베딩 암호화 실패", e);
         }
     }
 
+    /** 스냅샷 데이터 키(raw AES 키)를 Keystore 키로 래핑. 포맷은 임베딩 BLOB과 동일. */
+    @Override
+    public byte[] wrapKey(byte[] rawKey) throws CryptoException {
+        try {
+            return seal(rawKey);
+        } catch (Exception e) {
+            throw new CryptoException("데이터 키 래핑 실패", e);
+        }
+    }
+
+    /** wrapKey 결과 → raw AES 키. */
+    @Override
+    public byte[] unwrapKey(byte[] wrapped) throws CryptoException {
+        if (wrapped == null || wrapped.length <= IV_LENGTH) {
+            throw new CryptoException("유효하지 않은 래핑 키 크기");
+        }
+        try {
+            Cipher cipher = Cipher.getInstance(TRANSFORM);
+            cipher.init(Cipher.DECRYPT_MODE, secretKey, new GCMParameterSpec(TAG_LENGTH_BITS, wrapped, 0, IV_LENGTH));
+            return cipher.doFinal(wrapped, IV_LENGTH, wrapped.length - IV_LENGTH);
+        } catch (Exception e) {
+            throw new CryptoException("데이터 키 언래핑 실패", e);
+        }
+    }
+
+    /** Keystore 키로 AES-GCM 암호화 → [IV(12)] + [cipherText]. */
+    private byte[] seal(byte[] plainBytes) throws Exception {
+        Cipher cipher = Cipher.getInstance(TRANSFORM);
+        cipher.init(Cipher.ENCRYPT_MODE, secretKey);
+        byte[] iv         = cipher.getIV();
+        byte[] cipherText = cipher.doFinal(plainBytes);
+
+        ByteBuffer buf = ByteBuffer.allocate(iv.length + cipherText.length);
+        buf.put(iv);
+        buf.put(cipherText);
+        return buf.array();
+    }
+
     /**
      * 암호화된 byte[] → float[].
+     * 호출 스레드의 Cipher를 재사용하고, IV·암호문을 BLOB에서 복사 없이 직접 읽는다.
+     * 여러 스레드에서 동시에 호출 가능 (일괄 로드 워커 풀).
      */
     public float[] decrypt(byte[] blob) throws CryptoException {
         if (blob == null || blob.length <= IV_LENGTH) {
             throw new CryptoException("유효하지 않은 BLOB 크기: " + (blob == null ? "null" : blob.length));
         }
         try {
-            ByteBuffer buf = ByteBuffer.wrap(blob);
-            byte[] iv         = new byte[IV_LENGTH];
-            buf.get(iv);
-            byte[] cipherText = new byte[buf.remaining()];
-            buf.get(cipherText);
-
-            Cipher cipher = Cipher.getInstance(TRANSFORM);
-            GCMParameterSpec spec = new GCMParameterSpec(TAG_LENGTH_BITS, iv);
+            Cipher cipher = decryptCipher.get();
+            if (cipher == null) {
+                cipher = Cipher.getInstance(TRANSFORM);
+                decryptCipher.set(cipher);
+            }
+            GCMParameterSpec spec = new GCMParameterSpec(TAG_LENGTH_BITS, blob, 0, IV_LENGTH);
             cipher.init(Cipher.DECRYPT_MODE, secretKey, spec);
-            byte[] plain = cipher.doFinal(cipherText);
+            byte[] plain = cipher.doFinal(blob, IV_LENGTH, blob.length - IV_LENGTH);
             return bytesToFloatArray(plain);
         } catch (Exception e) {
+            decryptCipher.remove();   // 상태가 불확실한 Cipher는 버림
             throw new CryptoException("임베딩 복호화 실패", e);
         }
     }
@@ -123,9 +156,8 @@ public final class EmbeddingCrypto {
     }
 
     private static float[] bytesToFloatArray(byte[] ba) {
-        ByteBuffer buf = ByteBuffer.wrap(ba).order(ByteOrder.LITTLE_ENDIAN);
         float[] result = new float[ba.length / 4];
-        for (int i = 0; i < result.length; i++) result[i] = buf.getFloat();
+        ByteBuffer.wrap(ba).order(ByteOrder.LITTLE_ENDIAN).asFloatBuffer().get(result);
         return result;
     }
 }
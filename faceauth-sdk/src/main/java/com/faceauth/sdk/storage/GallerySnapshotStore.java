@@ -0,0 +1,369 @@
+package com.faceauth.sdk.storage;
+
+import com.faceauth.sdk.logging.SafeLogger;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.security.SecureRandom;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.zip.CRC32;
+
+import javax.crypto.Cipher;
+import javax.crypto.spec.GCMParameterSpec;
+import javax.crypto.spec.SecretKeySpec;
+
+/**
+ * 봉인된 갤러리 스냅샷 파일 (envelope encryption).
+ *
+ * 무작위 AES-256 데이터 키 하나를 Keystore 키로 래핑해 헤더에 두고, 프로파일은 데이터 키로
+ * AES-GCM 봉인한 세그먼트에 컬럼 단위(profile_id[], created_at[], quality[], 템플릿 float[], 문자열)로 저장한다.
+ * 로드 = 언래핑 1회 + 파일 memory-map + 세그먼트별 복호화. 행마다 Keystore 복호화를 하지 않는다.
+ *
+ * SQLite가 원본(SSoT). 헤더의 DB 지문(활성 행 수·max/sum profile_id)이 현재 DB와 다르거나
+ * 포맷 버전·차원·모델 버전·세그먼트 CRC32가 맞지 않으면 load()는 null → 호출측이 DB에서 읽고 rebuild().
+ * 재작성 때 복호화 실패·차원 불일치로 빠진 행 수(skipped)도 헤더에 두고 로드 행 수 + skipped = 활성 행 수로 검증
+ * → 영구 불량 행 하나 때문에 매 콜드 스타트마다 전체 복호화·재작성하지 않는다.
+ * 쓰기 시: saveProfile → 레코드 세그먼트 추가, deleteUser → 삭제 세그먼트 추가, resetAll → 파일 삭제.
+ * 세그먼트가 MAX_SEGMENTS를 넘으면 다음 로드 시 stale 처리되어 한 세그먼트로 재작성된다.
+ *
+ * <pre>
+ * 헤더 (64B, LE): magic | formatVersion | dim | modelVersionHash | fpCount | segments | fpMaxId | fpSumId | wrappedKeyLen | skipped | reserved
+ * 래핑 키 (wrappedKeyLen B)
+ * 세그먼트*: type(1) pad(3) | rowCount | sealedLen | crc32(sealed) | iv(12) | sealed
+ * </pre>
+ */
+public final class GallerySnapshotStore {
+
+    private static final String TAG = "GallerySnapshot";
+
+    /** Keystore 키로 데이터 키 래핑 (EmbeddingCrypto). */
+    public interface KeyWrapper {
+        byte[] wrapKey(byte[] rawKey) throws CryptoException;
+        byte[] unwrapKey(byte[] wrapped) throws CryptoException;
+    }
+
+    /** DB 활성 행 지문. 스냅샷이 현재 DB와 같은 상태인지 판별. */
+    public static final class Fingerprint {
+        public final int  count;
+        public final long maxId;
+        public final long sumId;
+
+        public Fingerprint(int count, long maxId, long sumId) {
+            this.count = count;
+            this.maxId = maxId;
+            this.sumId = sumId;
+        }
+
+        boolean matches(int c, long max, long sum) {
+            return count == c && maxId == max && sumId == sum;
+        }
+    }
+
+    static final int  MAGIC          = 0x53474146;   // "FAGS"
+    static final int  FORMAT_VERSION = 2;
+    static final int  MAX_SEGMENTS   = 64;
+    private static final int HEADER_BYTES      = 64;
+    private static final int SEGMENT_HEADER    = 16 + 12;
+    private static final int OFF_FP_COUNT      = 16;
+    private static final int OFF_SEGMENTS      = 20;
+    private static final int OFF_FP_MAX        = 24;
+    private static final int OFF_FP_SUM        = 32;
+    private static final int OFF_WRAPPED_LEN   = 40;
+    private static final int OFF_SKIPPED       = 44;
+    private static final byte SEG_RECORDS      = 1;
+    private static final byte SEG_DELETE_USER  = 2;
+    private static final String TRANSFORM      = "AES/GCM/NoPadding";
+    private static final int IV_LENGTH         = 12;
+    private static final int TAG_LENGTH_BITS   = 128;
+
+    private final File         file;
+    private final KeyWrapper   wrapper;
+    private final int          dim;
+    private final int          modelVersionHash;
+    private final SecureRandom random = new SecureRandom();
+
+    private SecretKeySpec dataKey;   // 로드/재작성 후 메모리 보관 (세그먼트 추가용)
+    private int           segments;
+
+    public GallerySnapshotStore(File file, KeyWrapper wrapper, int dim, String modelVersion) {
+        this.file             = file;
+        this.wrapper          = wrapper;
+        this.dim              = dim;
+        this.modelVersionHash = modelVersion != null ? modelVersion.hashCode() : 0;
+    }
+
+    // ─────────────────────────────────────────────────────────────────────
+    // 로드
+    // ─────────────────────────────────────────────────────────────────────
+
+    /**
+     * 스냅샷 로드. 현재 DB 지문과 일치하고 무결하면 profile_id 순 목록, 아니면 null (stale/손상).
+     */
+    public synchronized List<ProfileRecord> load(Fingerprint expected) {
+        if (!file.isFile()) return null;
+        try (RandomAccessFile raf = new RandomAccessFile(file, "r");
+             FileChannel ch = raf.getChannel()) {
+            long size = ch.size();
+            if (size < HEADER_BYTES) return stale("header");
+            MappedByteBuffer map = ch.map(FileChannel.MapMode.READ_ONLY, 0, size);
+            map.order(ByteOrder.LITTLE_ENDIAN);
+
+            if (map.getInt(0) != MAGIC || map.getInt(4) != FORMAT_VERSION) return stale("format");
+            if (map.getInt(8) != dim || map.getInt(12) != modelVersionHash) return stale("model");
+            int segCount = map.getInt(OFF_SEGMENTS);
+            if (segCount > MAX_SEGMENTS) return stale("segments");
+            if (!expected.matches(map.getInt(OFF_FP_COUNT), map.getLong(OFF_FP_MAX), map.getLong(OFF_FP_SUM))) {
+                return stale("fingerprint");
+            }
+            int wrappedLen = map.getInt(OFF_WRAPPED_LEN);
+            if (wrappedLen <= 0 || HEADER_BYTES + (long) wrappedLen > size) return stale("key");
+            byte[] wrapped = new byte[wrappedLen];
+            map.position(HEADER_BYTES);
+            map.get(wrapped);
+            SecretKeySpec key = new SecretKeySpec(wrapper.unwrapKey(wrapped), "AES");
+
+            List<ProfileRecord> rows = new ArrayList<>(Math.max(0, expected.count));
+            Set<Long> seen = new HashSet<>();
+            Cipher cipher = Cipher.getInstance(TRANSFORM);
+            CRC32 crc = new CRC32();
+            int pos = HEADER_BYTES + wrappedLen;
+            for (int s = 0; s < segCount; s++) {
+                if (pos + (long) SEGMENT_HEADER > size) return stale("truncated");
+                byte type      = map.get(pos);
+                int  rowCount  = map.getInt(pos + 4);
+                int  sealedLen = map.getInt(pos + 8);
+                int  checksum  = map.getInt(pos + 12);
+                int  body      = pos + SEGMENT_HEADER;
+                if (sealedLen <= 0 || body + (long) sealedLen > size) return stale("truncated");
+
+                ByteBuffer sealed = map.duplicate();
+                sealed.position(body).limit(body + sealedLen);
+                crc.reset();
+                crc.update(sealed.duplicate());
+                if ((int) crc.getValue() != checksum) return stale("checksum");
+
+                byte[] iv = new byte[IV_LENGTH];
+                map.position(pos + 16);
+                map.get(iv);
+                cipher.init(Cipher.DECRYPT_MODE, key, new GCMParameterSpec(TAG_LENGTH_BITS, iv));
+                ByteBuffer plain = ByteBuffer.allocate(cipher.getOutputSize(sealedLen)).order(ByteOrder.LITTLE_ENDIAN);
+                cipher.doFinal(sealed, plain);
+                plain.flip();
+
+                if (type == SEG_RECORDS) {
+                    readRecords(plain, rowCount, rows, seen);
+                } else if (type == SEG_DELETE_USER) {
+                    String userId = readString(plain);
+                    rows.removeIf(r -> userId.equals(r.userId));
+                } else {
+                    return stale("segment type");
+                }
+                pos = body + sealedLen;
+            }
+            if (rows.size() + map.getInt(OFF_SKIPPED) != expected.count) return stale("count");
+            dataKey  = key;
+            segments = segCount;
+            return rows;
+        } catch (IOException | CryptoException | RuntimeException | GeneralSecurityException e) {
+            SafeLogger.w(TAG, "스냅샷 로드 실패, DB에서 재생성: " + e.getClass().getSimpleName());
+            return null;
+        }
+    }
+
+    private static List<ProfileRecord> stale(String reason) {
+        SafeLogger.i(TAG, "스냅샷 stale (" + reason + "), DB에서 재생성");
+        return null;
+    }
+
+    // ─────────────────────────────────────────────────────────────────────
+    // 쓰기
+    // ─────────────────────────────────────────────────────────────────────
+
+    /**
+     * DB에서 읽은 전체 목록으로 스냅샷 재작성 (새 데이터 키, 세그먼트 1개). 임시 파일 후 rename.
+     *
+     * @param fp      목록을 읽기 직전에 조회한 DB 지문
+     * @param skipped 지문에는 세었지만 목록에서 빠진 행 수 (복호화 실패·차원 불일치)
+     */
+    public synchronized boolean rebuild(List<ProfileRecord> profiles, Fingerprint fp, int skipped) {
+        for (ProfileRecord p : profiles) {
+            if (p.embedding == null || p.embedding.length != dim) {   // 다른 차원 행이 섞이면 스냅샷 미사용
+                delete();
+                return false;
+            }
+        }
+        File tmp = new File(file.getPath() + ".tmp");
+        try {
+            byte[] raw = new byte[32];
+            random.nextBytes(raw);
+            SecretKeySpec key = new SecretKeySpec(raw, "AES");
+            byte[] wrapped = wrapper.wrapKey(raw);
+
+            ByteBuffer header = ByteBuffer.allocate(HEADER_BYTES).order(ByteOrder.LITTLE_ENDIAN);
+            header.putInt(MAGIC).putInt(FORMAT_VERSION).putInt(dim).putInt(modelVersionHash)
+                    .putInt(fp.count).putInt(1).putLong(fp.maxId).putLong(fp.sumId).putInt(wrapped.length)
+                    .putInt(skipped);
+            header.position(HEADER_BYTES);
+            header.flip();
+
+            try (RandomAccessFile raf = new RandomAccessFile(tmp, "rw");
+                 FileChannel ch = raf.getChannel()) {
+                raf.setLength(0);
+                writeFully(ch, header);
+                writeFully(ch, ByteBuffer.wrap(wrapped));
+                writeFully(ch, sealSegment(key, SEG_RECORDS, profiles.size(), encodeRecords(profiles)));
+                ch.force(true);
+            }
+            if (!tmp.renameTo(file)) throw new IOException("rename 실패");
+            dataKey  = key;
+            segments = 1;
+            return true;
+        } catch (IOException | CryptoException | RuntimeException | GeneralSecurityException e) {
+            SafeLogger.w(TAG, "스냅샷 재작성 실패: " + e.getClass().getSimpleName());
+            tmp.delete();
+            return false;
+        }
+    }
+
+    /** 저장된 프로파일 1건을 세그먼트로 추가하고 헤더 지문 갱신. 스냅샷이 없거나 키를 모르면 무시. */
+    public synchronized void appendProfile(ProfileRecord record, Fingerprint fp) {
+        if (record.embedding == null || record.embedding.length != dim) {
+            delete();
+            return;
+        }
+        List<ProfileRecord> one = new ArrayList<>(1);
+        one.add(record);
+        append(SEG_RECORDS, 1, encodeRecords(one), fp);
+    }
+
+    /** 사용자 삭제 세그먼트 추가. */
+    public synchronized void appendUserDeleted(String userId, Fingerprint fp) {
+        byte[] id = userId.getBytes(StandardCharsets.UTF_8);
+        ByteBuffer b = ByteBuffer.allocate(4 + id.length).order(ByteOrder.LITTLE_ENDIAN);
+        b.putInt(id.length).put(id);
+        append(SEG_DELETE_USER, 0, b.array(), fp);
+    }
+
+    /** 스냅샷 파일 삭제 (resetAll). */
+    public synchronized void delete() {
+        dataKey  = null;
+        segments = 0;
+        if (file.exists() && !file.delete()) SafeLogger.w(TAG, "스냅샷 삭제 실패");
+    }
+
+    private void append(byte type, int rowCount, byte[] plain, Fingerprint fp) {
+        if (dataKey == null || !file.isFile()) return;   // 다음 로드 때 DB에서 재작성
+        if (segments >= MAX_SEGMENTS) {                   // 압축 대상: 다음 로드 때 재작성
+            delete();
+            return;
+        }
+        try (RandomAccessFile raf = new RandomAccessFile(file, "rw");
+             FileChannel ch = raf.getChannel()) {
+            ch.position(ch.size());
+            writeFully(ch, sealSegment(dataKey, type, rowCount, plain));
+            ByteBuffer h = ByteBuffer.allocate(24).order(ByteOrder.LITTLE_ENDIAN);
+            h.putInt(fp.count).putInt(segments + 1).putLong(fp.maxId).putLong(fp.sumId);
+            h.flip();
+            ch.position(OFF_FP_COUNT);
+            writeFully(ch, h);
+            ch.force(true);
+            segments++;
+        } catch (IOException | GeneralSecurityException e) {
+            SafeLogger.w(TAG, "스냅샷 세그먼트 추가 실패, 폐기: " + e.getClass().getSimpleName());
+            delete();
+        }
+    }
+
+    private ByteBuffer sealSegment(SecretKeySpec key, byte type, int rowCount, byte[] plain)
+            throws GeneralSecurityException {
+        byte[] iv = new byte[IV_LENGTH];
+        random.nextBytes(iv);
+        Cipher cipher = Cipher.getInstance(TRANSFORM);
+        cipher.init(Cipher.ENCRYPT_MODE, key, new GCMParameterSpec(TAG_LENGTH_BITS, iv));
+        byte[] sealed = cipher.doFinal(plain);
+        CRC32 crc = new CRC32();
+        crc.update(sealed);
+
+        ByteBuffer seg = ByteBuffer.allocate(SEGMENT_HEADER + sealed.length).order(ByteOrder.LITTLE_ENDIAN);
+        seg.put(type).put((byte) 0).put((byte) 0).put((byte) 0)
+                .putInt(rowCount).putInt(sealed.length).putInt((int) crc.getValue())
+                .put(iv).put(sealed);
+        seg.flip();
+        return seg;
+    }
+
+    private static void writeFully(FileChannel ch, ByteBuffer b) throws IOException {
+        while (b.hasRemaining()) ch.write(b);
+    }
+
+    // ─────────────────────────────────────────────────────────────────────
+    // 레코드 인코딩 (컬럼 단위)
+    // ─────────────────────────────────────────────────────────────────────
+
+    private byte[] encodeRecords(List<ProfileRecord> rows) {
+        int n = rows.size();
+        byte[][] strings = new byte[n * 3][];
+        int stringBytes = 0;
+        for (int i = 0; i < n; i++) {
+            ProfileRecord r = rows.get(i);
+            strings[i * 3]     = utf8(r.userId);
+            strings[i * 3 + 1] = utf8(r.profileType);
+            strings[i * 3 + 2] = utf8(r.modelVersion);
+            for (int k = 0; k < 3; k++) stringBytes += 4 + strings[i * 3 + k].length;
+        }
+        ByteBuffer b = ByteBuffer.allocate(n * (8 + 8 + 4 + dim * 4) + stringBytes).order(ByteOrder.LITTLE_ENDIAN);
+        for (ProfileRecord r : rows) b.putLong(r.profileId);
+        for (ProfileRecord r : rows) b.putLong(r.createdAt);
+        for (ProfileRecord r : rows) b.putFloat(r.qualityScore);
+        for (ProfileRecord r : rows) {
+            b.asFloatBuffer().put(r.embedding, 0, dim);
+            b.position(b.position() + dim * 4);
+        }
+        for (byte[] s : strings) b.putInt(s.length).put(s);
+        return b.array();
+    }
+
+    private void readRecords(ByteBuffer b, int n, List<ProfileRecord> out, Set<Long> seen) {
+        long[]  ids     = new long[n];
+        long[]  created = new long[n];
+        float[] quality = new float[n];
+        for (int i = 0; i < n; i++) ids[i] = b.getLong();
+        for (int i = 0; i < n; i++) created[i] = b.getLong();
+        for (int i = 0; i < n; i++) quality[i] = b.getFloat();
+        float[][] emb = new float[n][dim];
+        for (int i = 0; i < n; i++) {
+            b.asFloatBuffer().get(emb[i]);
+            b.position(b.position() + dim * 4);
+        }
+        for (int i = 0; i < n; i++) {
+            String userId = readString(b);
+            String type   = readString(b);
+            String model  = readString(b);
+            // 재작성과 추가가 겹친 경우 같은 profile_id가 두 번 들어갈 수 있음 → 첫 번째만
+            if (!seen.add(ids[i])) continue;
+            out.add(new ProfileRecord(ids[i], userId, type, emb[i], dim, quality[i], created[i], model));
+        }
+    }
+
+    private static String readString(ByteBuffer b) {
+        int len = b.getInt();
+        if (len < 0 || len > b.remaining()) throw new IllegalStateException("문자열 길이 오류");
+        byte[] s = new byte[len];
+        b.get(s);
+        return new String(s, StandardCharsets.UTF_8);
+    }
+
+    private static byte[] utf8(String s) {
+        return (s != null ? s : "").getBytes(StandardCharsets.UTF_8);
+    }
+}
@@ -9,6 +9,7 @@ import com.faceauth.sdk.api.FaceAuthConfig;
 import com.faceauth.sdk.logging.SafeLogger;
 import com.faceauth.sdk.util.EmbeddingDebugUtils;
 
+import java.io.File;
 import java.text.SimpleDateFormat;
 import java.util.ArrayList;
 import java.util.Date;
@@ -16,8 +17,14 @@ import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Locale;
 import java.util.Map;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutionException;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
 
 /**
  * SQLite + Keystore 암호화 통합 관리자.
@@ -33,6 +40,77 @@ public final class StorageManager {
     private final EmbeddingCrypto  crypto;
     private final FaceAuthConfig   config;
     private final ExecutorService  ioExecutor;  // 직렬 I/O
+    private final List<ProfileChangeListener> listeners = new CopyOnWriteArrayList<>();
+    /** 일괄 로드 커서 윈도 크기 (행). */
+    private static final int LOAD_WINDOW_ROWS = 256;
+    private static final String SNAPSHOT_FILE = "faceauth_gallery.snap";
+    private final int             decryptThreads = Math.min(Runtime.getRuntime().availableProcessors(), 4);
+    private ExecutorService       decryptExecutor;   // decryptPool()에서 지연 생성
+    private volatile LoadStats    lastLoadStats;
+    /** 봉인된 갤러리 스냅샷 (config.gallerySnapshotEnabled 일 때만). SQLite가 원본. */
+    private final GallerySnapshotStore snapshotStore;
+
+    /** loadAllActiveProfiles(ProfileBatchSink) 배치 수신. */
+    public interface ProfileBatchSink {
+        void onBatch(List<ProfileRecord> batch);
+    }
+
+    /** 일괄 로드 통계 (콜드 스타트 로드 시간 추적용). */
+    public static final class LoadStats {
+        public final int  loaded;
+        public final int  skipped;
+        public final int  windows;
+        public final int  threads;
+        public final long elapsedMs;
+        /** true면 스냅샷 파일에서 로드 (행별 Keystore 복호화 없음). */
+        public final boolean fromSnapshot;
+
+        LoadStats(int loaded, int skipped, int windows, int threads, long elapsedMs, boolean fromSnapshot) {
+            this.loaded       = loaded;
+            this.skipped      = skipped;
+            this.windows      = windows;
+            this.threads      = threads;
+            this.elapsedMs    = elapsedMs;
+            this.fromSnapshot = fromSnapshot;
+        }
+    }
+
+    /** 커서 윈도에서 읽은 암호화 행 (복호화 전). */
+    private static final class EncryptedRow {
+        final long   profileId;
+        final String userId;
+        final String profileType;
+        final byte[] blob;
+        final int    dim;
+        final float  qualityScore;
+        final long   createdAt;
+        final String modelVersion;
+
+        EncryptedRow(long profileId, String userId, String profileType, byte[] blob, int dim,
+                     float qualityScore, long createdAt, String modelVersion) {
+            this.profileId    = profileId;
+            this.userId       = userId;
+            this.profileType  = profileType;
+            this.blob         = blob;
+            this.dim          = dim;
+            this.qualityScore = qualityScore;
+            this.createdAt    = createdAt;
+            this.modelVersion = modelVersion;
+        }
+    }
+
+    /**
+     * face_profile 변경 통지. 인메모리 인덱스·갤러리를 DB 재조회 없이 갱신할 때 사용.
+     * 쓰기를 수행한 스레드에서 호출됨.
+     */
+    public interface ProfileChangeListener {
+        /** 활성 프로파일 1건 추가 (embedding은 복호화된 원본). */
+        void onProfileSaved(ProfileRecord record);
+        /** 해당 사용자의 모든 프로파일 비활성화. */
+        void onUserDeleted(String userId);
+        /** 전체 프로파일 삭제. */
+        void onAllProfilesCleared();
+    }
 
     private StorageManager(Context ctx, FaceAuthConfig config) throws CryptoException {
         this.config     = config;
@@ -43,6 +121,10 @@ public final class StorageManager {
             t.setDaemon(true);
             return t;
         });
+        this.snapshotStore = config.gallerySnapshotEnabled
+                ? new GallerySnapshotStore(new File(ctx.getNoBackupFilesDir(), SNAPSHOT_FILE),
+                        crypto, config.embeddingDim, config.modelVersion)
+                : null;
     }
 
     public static StorageManager getInstance(Context ctx, FaceAuthConfig config) {
@@ -60,6 +142,14 @@ public final class StorageManager {
         return INSTANCE;
     }
 
+    public void addProfileChangeListener(ProfileChangeListener l) {
+        if (l != null && !listeners.contains(l)) listeners.add(l);
+    }
+
+    public void removeProfileChangeListener(ProfileChangeListener l) {
+        listeners.remove(l);
+    }
+
     // ─────────────────────────────────────────────────────────────────────
     // 쓰기
     // ─────────────────────────────────────────────────────────────────────
@@ -77,18 +167,25 @@ public final class StorageManager {
                              float[] embedding, float qualityScore) {
         try {
             byte[] encBlob = crypto.encrypt(embedding);
+            long createdAt = System.currentTimeMillis();
             ContentValues cv = new ContentValues();
             cv.put(FaceAuthDatabase.COL_USER_ID,       userId);
             cv.put(FaceAuthDatabase.COL_PROFILE_TYPE,  profileType);
             cv.put(FaceAuthDatabase.COL_EMBEDDING,     encBlob);
             cv.put(FaceAuthDatabase.COL_EMBEDDING_DIM, embedding.length);
             cv.put(FaceAuthDatabase.COL_QUALITY_SCORE, qualityScore);
-            cv.put(FaceAuthDatabase.COL_CREATED_AT,    System.currentTimeMillis());
+            cv.put(FaceAuthDatabase.COL_CREATED_AT,    createdAt);
             cv.put(FaceAuthDatabase.COL_MODEL_VERSION, config.modelVersion);
             cv.put(FaceAuthDatabase.COL_IS_ACTIVE,     1);
 
             long id = db.getWritableDatabase().insert(FaceAuthDatabase.TABLE_PROFILE, null, cv);
             SafeLogger.d(TAG, "프로파일 저장 완료 (profileId=" + id + ", type=" + profileType + ")");
+            if (id >= 0 && (snapshotStore != null || !listeners.isEmpty())) {
+                ProfileRecord record = new ProfileRecord(id, userId, profileType,
+                        embedding.clone(), embedding.length, qualityScore, createdAt, config.modelVersion);
+                if (snapshotStore != null) snapshotStore.appendProfile(record, queryFingerprint());
+                for (ProfileChangeListener l : listeners) l.onProfileSaved(record);
+            }
             return id;
         } catch (CryptoException e) {
             SafeLogger.e(TAG, "프로파일 암호화 실패", e);
@@ -116,12 +213,54 @@ public final class StorageManager {
 
     /**
      * 모든 활성 프로파일 조회 (인증 시 사용).
-     * 임베딩을 복호화하여 ProfileRecord로 반환.
+     * 임베딩을 복호화하여 ProfileRecord로 반환. 일괄 로드 경로(스트리밍)를 모아서 반환.
      */
     public List<ProfileRecord> loadAllActiveProfiles() {
         List<ProfileRecord> list = new ArrayList<>();
-        SQLiteDatabase rdb = db.getReadableDatabase();
+        loadAllActiveProfiles(list::addAll);
+        return list;
+    }
+
+    /**
+     * 활성 프로파일 일괄 로드 (스트리밍).
+     *
+     * profile_id 순으로 LOAD_WINDOW_ROWS행씩 커서 윈도를 읽고, 윈도 안의 BLOB은 복호화 워커 풀에서
+     * 병렬 복호화한다 (워커마다 Cipher 재사용). 워커가 윈도 k를 복호화하는 동안 호출 스레드는
+     * 윈도 k+1을 읽는다. 복호화가 끝난 윈도는 profile_id 순서 그대로 sink에 전달된다.
+     * 소요 시간은 auth_profiles_loaded 이벤트로 기록되고 getLastLoadStats()로 조회 가능.
+     *
+     * @param sink 윈도 단위 배치 수신 (호출 스레드에서 호출, 배치 리스트는 수신측 소유)
+     * @return 로드 통계
+     * @throws CancellationException 호출 스레드가 인터럽트된 경우 (플래그 유지, 남은 복호화 취소).
+     *         이미 전달된 배치는 일부분이므로 수신측은 버려야 한다.
+     */
+    public LoadStats loadAllActiveProfiles(ProfileBatchSink sink) {
+        long t0 = System.nanoTime();
+        GallerySnapshotStore.Fingerprint fp = null;
+        if (snapshotStore != null) {
+            fp = queryFingerprint();
+            List<ProfileRecord> snap = snapshotStore.load(fp);
+            if (snap != null) {
+                if (!snap.isEmpty()) sink.onBatch(snap);
+                return recordLoadStats(new LoadStats(snap.size(), 0, 1, 1,
+                        (System.nanoTime() - t0) / 1_000_000L, true));
+            }
+            // stale·없음 → DB 로드하면서 모아 두었다가 재작성
+            List<ProfileRecord> all = new ArrayList<>();
+            ProfileBatchSink downstream = sink;
+            sink = batch -> {
+                all.addAll(batch);
+                downstream.onBatch(batch);
+            };
+            LoadStats stats = loadFromDatabase(sink, t0);   // 인터럽트면 예외 → 재작성 없음
+            snapshotStore.rebuild(all, fp, stats.skipped);
+            return stats;
+        }
+        return loadFromDatabase(sink, t0);
+    }
 
+    private LoadStats loadFromDatabase(ProfileBatchSink sink, long t0) {
+        SQLiteDatabase rdb = db.getReadableDatabase();
         String[] cols = {
                 FaceAuthDatabase.COL_PROFILE_ID,
                 FaceAuthDatabase.COL_USER_ID,
@@ -132,40 +271,131 @@ public final class StorageManager {
                 FaceAuthDatabase.COL_CREATED_AT,
                 FaceAuthDatabase.COL_MODEL_VERSION
         };
+        String selection = FaceAuthDatabase.COL_IS_ACTIVE + "=1 AND "
+                + FaceAuthDatabase.COL_PROFILE_ID + ">?";
+        ExecutorService pool = decryptPool();
 
-        try (Cursor c = rdb.query(
-                FaceAuthDatabase.TABLE_PROFILE, cols,
-                FaceAuthDatabase.COL_IS_ACTIVE + "=1", null,
-                null, null, null)) {
+        int loaded = 0, skipped = 0, windows = 0;
+        long lastId = -1;
+        List<Future<ProfileRecord>> pending = new ArrayList<>();
+        boolean more = true;
+        while (more) {
+            if (Thread.currentThread().isInterrupted()) throw loadInterrupted(pending);
+            // 윈도 k+1 읽기·제출 → 그동안 워커는 윈도 k 복호화
+            List<Future<ProfileRecord>> next = new ArrayList<>(LOAD_WINDOW_ROWS);
+            try (Cursor c = rdb.query(
+                    FaceAuthDatabase.TABLE_PROFILE, cols,
+                    selection, new String[]{String.valueOf(lastId)},
+                    null, null, FaceAuthDatabase.COL_PROFILE_ID,
+                    String.valueOf(LOAD_WINDOW_ROWS))) {
+                while (c.moveToNext()) {
+                    EncryptedRow r = new EncryptedRow(c.getLong(0), c.getString(1), c.getString(2),
+                            c.getBlob(3), c.getInt(4), c.getFloat(5), c.getLong(6), c.getString(7));
+                    lastId = r.profileId;
+                    next.add(pool != null
+                            ? pool.submit(() -> decryptRow(r))
+                            : CompletableFuture.completedFuture(decryptRow(r)));
+                }
+            }
+            more = next.size() == LOAD_WINDOW_ROWS;
+            if (!next.isEmpty()) windows++;
 
-            while (c.moveToNext()) {
-                try {
-                    byte[]  blob     = c.getBlob(3);
-                    float[] emb      = crypto.decrypt(blob);
-                    int     dim      = c.getInt(4);
-
-                    // 차원 검증
-                    if (emb.length != dim) {
-                        SafeLogger.w(TAG, "임베딩 차원 불일치, 스킵");
-                        continue;
-                    }
+            List<ProfileRecord> batch;
+            try {
+                batch = collect(pending);
+            } catch (CancellationException e) {
+                loadInterrupted(next);
+                throw e;
+            }
+            skipped += pending.size() - batch.size();
+            loaded  += batch.size();
+            if (!batch.isEmpty()) sink.onBatch(batch);
+            pending = next;
+        }
+        List<ProfileRecord> last = collect(pending);
+        skipped += pending.size() - last.size();
+        loaded  += last.size();
+        if (!last.isEmpty()) sink.onBatch(last);
 
-                    list.add(new ProfileRecord(
-                            c.getLong(0),   // profileId
-                            c.getString(1), // userId
-                            c.getString(2), // profileType
-                            emb,
-                            dim,
-                            c.getFloat(5),  // qualityScore
-                            c.getLong(6),   // createdAt
-                            c.getString(7)  // modelVersion
-                    ));
-                } catch (CryptoException e) {
-                    SafeLogger.e(TAG, "임베딩 복호화 실패, 스킵");
-                }
+        return recordLoadStats(new LoadStats(loaded, skipped, windows,
+                pool != null ? decryptThreads : 1, (System.nanoTime() - t0) / 1_000_000L, false));
+    }
+
+    private LoadStats recordLoadStats(LoadStats stats) {
+        lastLoadStats = stats;
+        SafeLogger.i(TAG, String.format(
+                "{\"event\":\"auth_profiles_loaded\",\"count\":%d,\"skipped\":%d,\"windows\":%d,\"threads\":%d,\"elapsedMs\":%d,\"fromSnapshot\":%s}",
+                stats.loaded, stats.skipped, stats.windows, stats.threads, stats.elapsedMs, stats.fromSnapshot));
+        return stats;
+    }
+
+    /** 활성 행 지문 (개수, max/sum profile_id). 스냅샷 stale 판별용. */
+    private GallerySnapshotStore.Fingerprint queryFingerprint() {
+        try (Cursor c = db.getReadableDatabase().rawQuery(
+                "SELECT COUNT(*), IFNULL(MAX(" + FaceAuthDatabase.COL_PROFILE_ID + "),0), IFNULL(SUM("
+                        + FaceAuthDatabase.COL_PROFILE_ID + "),0) FROM " + FaceAuthDatabase.TABLE_PROFILE
+                        + " WHERE " + FaceAuthDatabase.COL_IS_ACTIVE + "=1", null)) {
+            if (c.moveToFirst()) return new GallerySnapshotStore.Fingerprint(c.getInt(0), c.getLong(1), c.getLong(2));
+        }
+        return new GallerySnapshotStore.Fingerprint(0, 0, 0);
+    }
+
+    /** 마지막 일괄 로드 통계 (로드 전이면 null). */
+    public LoadStats getLastLoadStats() {
+        return lastLoadStats;
+    }
+
+    /** 복호화 실패·차원 불일치 행은 null (스킵). */
+    private ProfileRecord decryptRow(EncryptedRow r) {
+        try {
+            float[] emb = crypto.decrypt(r.blob);
+            if (emb.length != r.dim) {
+                SafeLogger.w(TAG, "임베딩 차원 불일치, 스킵");
+                return null;
             }
+            return new ProfileRecord(r.profileId, r.userId, r.profileType, emb, r.dim,
+                    r.qualityScore, r.createdAt, r.modelVersion);
+        } catch (CryptoException e) {
+            SafeLogger.e(TAG, "임베딩 복호화 실패, 스킵");
+            return null;
         }
-        return list;
+    }
+
+    /** 제출 순서대로 결과 수집. 실패한 행은 스킵, 인터럽트면 남은 작업 취소 후 CancellationException (부분 목록 반환 없음). */
+    static List<ProfileRecord> collect(List<Future<ProfileRecord>> futures) {
+        List<ProfileRecord> out = new ArrayList<>(futures.size());
+        for (Future<ProfileRecord> f : futures) {
+            try {
+                ProfileRecord r = f.get();
+                if (r != null) out.add(r);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw loadInterrupted(futures);
+            } catch (ExecutionException e) {
+                SafeLogger.e(TAG, "임베딩 복호화 작업 실패, 스킵");
+            }
+        }
+        return out;
+    }
+
+    /** 남은 복호화 작업 취소. 인터럽트 플래그는 그대로 둔다. */
+    private static CancellationException loadInterrupted(List<Future<ProfileRecord>> futures) {
+        for (Future<ProfileRecord> f : futures) f.cancel(true);
+        SafeLogger.w(TAG, "프로파일 로드 인터럽트, 중단");
+        return new CancellationException("프로파일 로드 인터럽트");
+    }
+
+    /** 복호화 워커 풀 (지연 생성, 프로세스 수명). 코어 1개면 null → 호출 스레드에서 복호화. */
+    private synchronized ExecutorService decryptPool() {
+        if (decryptExecutor == null && decryptThreads > 1) {
+            AtomicInteger seq = new AtomicInteger();
+            decryptExecutor = Executors.newFixedThreadPool(decryptThreads, r -> {
+                Thread t = new Thread(r, "FaceAuth-Decrypt-" + seq.incrementAndGet());
+                t.setDaemon(true);
+                return t;
+            });
+        }
+        return decryptExecutor;
     }
 
     /**
@@ -280,6 +510,8 @@ public final class StorageManager {
                 FaceAuthDatabase.TABLE_PROFILE, cv,
                 FaceAuthDatabase.COL_USER_ID + "=?",
                 new String[]{userId});
+        if (snapshotStore != null) snapshotStore.appendUserDeleted(userId, queryFingerprint());
+        for (ProfileChangeListener l : listeners) l.onUserDeleted(userId);
     }
 
     /** 전체 데이터 물리 삭제 */
@@ -287,5 +519,7 @@ public final class StorageManager {
         SQLiteDatabase wdb = db.getWritableDatabase();
         wdb.delete(FaceAuthDatabase.TABLE_PROFILE, null, null);
         wdb.delete(FaceAuthDatabase.TABLE_AUDIT,   null, null);
+        if (snapshotStore != null) snapshotStore.delete();
+        for (ProfileChangeListener l : listeners) l.onAllProfilesCleared();
     }
 }
@@ -0,0 +1,105 @@
+package com.faceauth.sdk.util;
+
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 생성 비용이 큰 엔진 1개를 참조 카운트로 공유 (FaceEmbedder, FaceDetector 등).
+ *
+ *  - acquire(): 인스턴스가 없으면 생성, 참조 +1. 대기 중인 유휴 닫기는 취소
+ *  - release(): 참조 -1. 0이 되면 idleCloseMs 후 닫음 (그 사이 acquire 시 그대로 재사용)
+ *      idleCloseMs == 0 → 즉시 닫음, 음수 → close() 전까지 유지
+ *  - warm():    참조 없이 미리 생성 (사전 워밍업). 첫 acquire/release 주기 전까지 유지
+ *  - close():   참조와 무관하게 닫음
+ *
+ * 생성·닫기는 모두 이 객체 잠금 안에서 실행 → 동시에 acquire해도 인스턴스는 1개.
+ *
+ * @param <T> 엔진 타입
+ * @param <E> 생성 실패 예외 타입
+ */
+public final class SharedEngine<T, E extends Exception> {
+
+    public interface Factory<T, E extends Exception> {
+        T create() throws E;
+    }
+
+    public interface Closer<T> {
+        void close(T instance);
+    }
+
+    private final Factory<T, E>            factory;
+    private final Closer<T>                closer;
+    private final long                     idleCloseMs;
+    private final ScheduledExecutorService timer;   // idleCloseMs > 0 일 때만 사용
+
+    private T                  instance;
+    private int                refs;
+    private ScheduledFuture<?> pendingClose;
+    private long               closeSeq;        // 예약마다 증가 → 취소 경합 시 이전 예약 무시
+
+    public SharedEngine(Factory<T, E> factory, Closer<T> closer,
+                        long idleCloseMs, ScheduledExecutorService timer) {
+        if (idleCloseMs > 0 && timer == null) {
+            throw new IllegalArgumentException("idleCloseMs > 0 requires a timer");
+        }
+        this.factory     = factory;
+        this.closer      = closer;
+        this.idleCloseMs = idleCloseMs;
+        this.timer       = timer;
+    }
+
+    public synchronized T acquire() throws E {
+        cancelPendingClose();
+        if (instance == null) instance = factory.create();
+        refs++;
+        return instance;
+    }
+
+    public synchronized void release() {
+        if (refs == 0) return;
+        if (--refs > 0 || instance == null) return;
+        if (idleCloseMs == 0) {
+            closeInstance();
+        } else if (idleCloseMs > 0) {
+            long seq = ++closeSeq;
+            pendingClose = timer.schedule(() -> closeIfIdle(seq), idleCloseMs, TimeUnit.MILLISECONDS);
+        }
+    }
+
+    /** 참조 없이 생성만. 이미 있으면 그대로 반환. */
+    public synchronized T warm() throws E {
+        if (instance == null) instance = factory.create();
+        return instance;
+    }
+
+    public synchronized void close() {
+        cancelPendingClose();
+        refs = 0;
+        closeInstance();
+    }
+
+    public synchronized boolean isOpen() { return instance != null; }
+
+    public synchronized int refCount() { return refs; }
+
+    private synchronized void closeIfIdle(long seq) {
+        if (seq != closeSeq || refs > 0) return;   // 예약 이후 재획득됨
+        pendingClose = null;
+        closeInstance();
+    }
+
+    private void cancelPendingClose() {
+        closeSeq++;
+        if (pendingClose != null) {
+            pendingClose.cancel(false);
+            pendingClose = null;
+        }
+    }
+
+    private void closeInstance() {
+        T t = instance;
+        instance = null;
+        if (t != null) closer.close(t);
+    }
+}
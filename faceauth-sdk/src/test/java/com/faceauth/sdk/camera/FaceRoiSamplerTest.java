@@ -0,0 +1,197 @@
+package com.faceauth.sdk.camera;
+
+import com.faceauth.sdk.detection.FaceAligner;
+
+import org.junit.Test;
+
+import java.nio.ByteBuffer;
+import java.nio.FloatBuffer;
+
+import static org.junit.Assert.*;
+
+/**
+ * FaceRoiSampler: 기존 경로(YuvToRgbConverter 전체 변환 → FaceAligner 영역 → bilinear 리사이즈)와
+ * 같은 affine 기하로 텐서를 만드는지 비교. 부드러운 합성 프레임이라 색차 최근접 차이는 몇 단계 이내.
+ */
+public class FaceRoiSamplerTest {
+
+    private static final int   SIZE = FaceAligner.OUTPUT_SIZE;
+    private static final float MEAN = 127.5f;
+    private static final float STD  = 128f;
+
+    @Test
+    public void bboxCrop_matchesFullFrameReference_allRotations() {
+        for (int rotation : new int[] { 0, 90, 180, 270 }) {
+            for (boolean nv21 : new boolean[] { false, true }) {
+                checkAgainstReference(96, 72, rotation, nv21, false);
+            }
+        }
+    }
+
+    @Test
+    public void eyeAligned_matchesFullFrameReference_allRotations() {
+        for (int rotation : new int[] { 0, 90, 180, 270 }) {
+            for (boolean nv21 : new boolean[] { false, true }) {
+                checkAgainstReference(96, 72, rotation, nv21, true);
+            }
+        }
+    }
+
+    @Test
+    public void eyeAlignedTransform_mapsOutputRowsOntoEyeLine() {
+        double[] m = new double[6];
+        float lx = 30, ly = 40, rx = 60, ry = 52;   // 오른쪽 눈이 아래로 기운 얼굴
+        FaceAligner.alignTransform(20, 20, 80, 90, true, lx, ly, rx, ry, 120, 160, m);
+        // 출력 u 축의 프레임 방향 (m[0], m[3])이 눈 벡터와 평행 → 정렬 후 눈이 수평
+        double cross = m[0] * (ry - ly) - m[3] * (rx - lx);
+        assertEquals(0.0, cross, 1e-5);   // 각도는 기존 경로처럼 float 도 단위를 거침
+        assertTrue(m[0] > 0);
+
+        FaceAligner.alignTransform(20, 20, 80, 90, false, 0, 0, 0, 0, 120, 160, m);
+        assertArrayEquals(new double[] { 60.0 / SIZE, 0, 20, 0, 70.0 / SIZE, 20 }, m, 1e-12);
+
+        // bbox가 프레임 밖이면 전체 프레임
+        FaceAligner.alignTransform(200, 200, 300, 300, false, 0, 0, 0, 0, 120, 160, m);
+        assertArrayEquals(new double[] { 120.0 / SIZE, 0, 0, 0, 160.0 / SIZE, 0 }, m, 1e-12);
+    }
+
+    @Test
+    public void samplesOutsideFrameAreBlack() {
+        Frame f = Frame.smooth(32, 24, false);
+        double[] m = { 1, 0, -500, 0, 1, -500 };
+        FloatBuffer dst = FloatBuffer.allocate(SIZE * SIZE * 3);
+        new FaceRoiSampler().sampleToTensor(f.y, f.yRowStride, 1, f.u, f.cRowStride, f.cPixelStride,
+                f.v, f.cRowStride, f.cPixelStride, 32, 24, 90, m, SIZE, dst, 1f / STD, -MEAN / STD);
+        for (int i = 0; i < dst.capacity(); i++) assertEquals(-MEAN / STD, dst.get(i), 1e-6f);
+    }
+
+    @Test
+    public void readLuma_followsConverterRotation() {
+        int w = 20, h = 14;
+        Frame f = Frame.smooth(w, h, true);
+        FaceRoiSampler s = new FaceRoiSampler();
+        for (int rotation : new int[] { 0, 90, 180, 270 }) {
+            s.readLuma(f.y, f.yRowStride, 1, w, h, rotation, 9, 11);
+            boolean swap = rotation == 90 || rotation == 270;
+            assertEquals(swap ? h : w, s.frameWidth());
+            assertEquals(9, s.lumaWidth());
+            assertEquals(11, s.lumaHeight());
+            for (int fy = 0; fy < 11; fy++) {
+                for (int fx = 0; fx < 9; fx++) {
+                    int x, y;   // YuvToRgbConverter 출력 (fx, fy) ← 원본 (x, y) 의 역
+                    switch (rotation) {
+                        case 90:  x = fy;         y = fx;         break;
+                        case 180: x = fx;         y = h - 1 - fy; break;
+                        case 270: x = w - 1 - fy; y = h - 1 - fx; break;
+                        default:  x = fx;         y = fy;         break;
+                    }
+                    assertEquals(f.yData[y * f.yRowStride + x], s.luma()[fy * 9 + fx]);
+                }
+            }
+        }
+        assertEquals(0, f.y.position());
+    }
+
+    private static void checkAgainstReference(int w, int h, int rotation, boolean nv21, boolean eyes) {
+        Frame f = Frame.smooth(w, h, nv21);
+        YuvToRgbConverter c = new YuvToRgbConverter();
+        c.convertToArgb(f.y, f.yRowStride, 1, f.u, f.cRowStride, f.cPixelStride,
+                f.v, f.cRowStride, f.cPixelStride, w, h, rotation);
+        int ow = c.outWidth(), oh = c.outHeight();
+
+        double[] m = new double[6];
+        FaceAligner.alignTransform(ow / 5, oh / 6, ow * 4 / 5, oh * 5 / 6, eyes,
+                ow * 0.35f, oh * 0.4f, ow * 0.65f, oh * 0.48f, ow, oh, m);
+
+        FloatBuffer dst = FloatBuffer.allocate(SIZE * SIZE * 3);
+        new FaceRoiSampler().sampleToTensor(f.y, f.yRowStride, 1, f.u, f.cRowStride, f.cPixelStride,
+                f.v, f.cRowStride, f.cPixelStride, w, h, rotation, m, SIZE, dst, 1f / STD, -MEAN / STD);
+
+        int[] argb = c.argb();
+        float maxDiff = 0;
+        for (int v = 0; v < SIZE; v++) {
+            for (int u = 0; u < SIZE; u++) {
+                double fx = m[0] * (u + 0.5) + m[1] * (v + 0.5) + m[2] - 0.5;
+                double fy = m[3] * (u + 0.5) + m[4] * (v + 0.5) + m[5] - 0.5;
+                for (int ch = 0; ch < 3; ch++) {
+                    float expected = (bilinear(argb, ow, oh, fx, fy, 16 - 8 * ch) - MEAN) / STD;
+                    float actual   = dst.get((v * SIZE + u) * 3 + ch);
+                    maxDiff = Math.max(maxDiff, Math.abs(expected - actual));
+                }
+            }
+        }
+        assertTrue("rotation=" + rotation + " nv21=" + nv21 + " eyes=" + eyes + " maxDiff=" + maxDiff,
+                maxDiff <= 6f / STD);
+    }
+
+    /** 회전·미러 적용 ARGB 프레임의 채널 bilinear (프레임 밖 = 0, 기존 회전 Bitmap 투명 영역). */
+    private static float bilinear(int[] argb, int ow, int oh, double fx, double fy, int shift) {
+        if (fx < -0.5 || fy < -0.5 || fx > ow - 0.5 || fy > oh - 0.5) return 0f;
+        double x = Math.min(Math.max(fx, 0), ow - 1), y = Math.min(Math.max(fy, 0), oh - 1);
+        int x0 = (int) x, y0 = (int) y;
+        int x1 = Math.min(x0 + 1, ow - 1), y1 = Math.min(y0 + 1, oh - 1);
+        double tx = x - x0, ty = y - y0;
+        double top = ch(argb[y0 * ow + x0], shift) * (1 - tx) + ch(argb[y0 * ow + x1], shift) * tx;
+        double bot = ch(argb[y1 * ow + x0], shift) * (1 - tx) + ch(argb[y1 * ow + x1], shift) * tx;
+        return (float) (top * (1 - ty) + bot * ty);
+    }
+
+    private static int ch(int px, int shift) {
+        return (px >> shift) & 0xff;
+    }
+
+    /** 부드러운 합성 YUV 평면. nv21이면 V/U 교차 배치 (pixelStride 2). */
+    private static final class Frame {
+        ByteBuffer y, u, v;
+        int yRowStride, cRowStride, cPixelStride;
+        byte[] yData;
+
+        static Frame smooth(int w, int h, boolean nv21) {
+            Frame f = new Frame();
+            int ch = (h + 1) / 2, cw = (w + 1) / 2;
+            f.yRowStride = w + 5;
+            f.yData = new byte[f.yRowStride * (h - 1) + w];
+            for (int y = 0; y < h; y++) {
+                for (int x = 0; x < w; x++) {
+                    f.yData[y * f.yRowStride + x] =
+                            (byte) (128 + 90 * Math.sin(x * 0.11) * Math.cos(y * 0.07));
+                }
+            }
+            f.y = ByteBuffer.wrap(f.yData);
+            if (nv21) {
+                f.cPixelStride = 2;
+                f.cRowStride   = cw * 2 + 2;
+                byte[] uv = new byte[f.cRowStride * ch];
+                for (int cy = 0; cy < ch; cy++) {
+                    for (int cx = 0; cx < cw; cx++) {
+                        uv[cy * f.cRowStride + cx * 2]     = chromaV(cx, cy);
+                        uv[cy * f.cRowStride + cx * 2 + 1] = chromaU(cx, cy);
+                    }
+                }
+                f.v = ByteBuffer.wrap(uv, 0, uv.length - 1).slice();
+                f.u = ByteBuffer.wrap(uv, 1, uv.length - 1).slice();
+            } else {
+                f.cPixelStride = 1;
+                f.cRowStride   = cw + 1;
+                byte[] us = new byte[f.cRowStride * ch], vs = new byte[f.cRowStride * ch];
+                for (int cy = 0; cy < ch; cy++) {
+                    for (int cx = 0; cx < cw; cx++) {
+                        us[cy * f.cRowStride + cx] = chromaU(cx, cy);
+                        vs[cy * f.cRowStride + cx] = chromaV(cx, cy);
+                    }
+                }
+                f.u = ByteBuffer.wrap(us);
+                f.v = ByteBuffer.wrap(vs);
+            }
+            return f;
+        }
+
+        private static byte chromaU(int cx, int cy) {
+            return (byte) (128 + 3 * Math.sin(cx * 0.05 + cy * 0.03));
+        }
+
+        private static byte chromaV(int cx, int cy) {
+            return (byte) (128 + 3 * Math.cos(cx * 0.04 - cy * 0.05));
+        }
+    }
+}
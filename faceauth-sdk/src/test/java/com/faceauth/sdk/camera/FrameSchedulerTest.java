@@ -0,0 +1,116 @@
+package com.faceauth.sdk.camera;
+
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+/**
+ * FrameScheduler: 안정 추적 시 검출 간격 확대, 움직임·소실 시 즉시 매 프레임 검출 복귀.
+ */
+public class FrameSchedulerTest {
+
+    private static final int FRAME_MS = 33;
+
+    /** 같은 위치에 얼굴이 계속 있을 때 n 프레임 중 검출한 프레임 수. */
+    private static int runStill(FrameScheduler s, int frames) {
+        int detects = 0;
+        for (int i = 0; i < frames; i++) {
+            long ms = i * FRAME_MS;
+            if (s.shouldDetect(ms)) {
+                detects++;
+                s.onDetected(1, 100, 100, 300, 300, ms);
+            }
+        }
+        return detects;
+    }
+
+    @Test
+    public void stableFace_detectsAtInterval() {
+        FrameScheduler s = new FrameScheduler(3, 0.04f);
+        int detects = runStill(s, 2 + 30);
+        // 처음 2프레임은 안정 판정 전이라 매 프레임, 이후 3프레임마다 1회
+        assertEquals(2 + 10, detects);
+        assertTrue(s.isStable());
+        assertEquals(20, s.skippedCount());
+        assertEquals(12, s.detectedCount());
+    }
+
+    @Test
+    public void intervalOne_neverSkips() {
+        FrameScheduler s = new FrameScheduler(1, 0.04f);
+        assertEquals(20, runStill(s, 20));
+        assertEquals(0, s.skippedCount());
+    }
+
+    @Test
+    public void movingFace_restoresFullRate() {
+        FrameScheduler s = new FrameScheduler(3, 0.04f);
+        runStill(s, 4);
+        assertTrue(s.isStable());
+        // 폭 200 대비 20px 이동 → 허용치 초과
+        s.shouldDetect(4 * FRAME_MS);
+        s.onDetected(1, 120, 100, 320, 300, 4 * FRAME_MS);
+        assertFalse(s.isStable());
+        assertTrue(s.shouldDetect(5 * FRAME_MS));
+    }
+
+    @Test
+    public void lostOrNewTrack_restoresFullRate() {
+        FrameScheduler s = new FrameScheduler(3, 0.04f);
+        runStill(s, 4);
+        s.onLost();
+        assertFalse(s.isStable());
+        assertTrue(s.shouldDetect(10 * FRAME_MS));
+
+        runStill(s, 4);
+        s.onDetected(2, 100, 100, 300, 300, 11 * FRAME_MS);   // trackingId 변경
+        assertFalse(s.isStable());
+        assertTrue(s.shouldDetect(12 * FRAME_MS));
+    }
+
+    @Test
+    public void skippedFrame_creditedAsStillOnlyWithoutPredictedMotion() {
+        FrameScheduler still = new FrameScheduler(3, 0.04f);
+        runStill(still, 2);
+        assertFalse(still.shouldDetect(2 * FRAME_MS));
+        assertTrue(still.skippedFrameStill());
+
+        FrameScheduler drift = new FrameScheduler(3, 0.04f);
+        drift.onDetected(1, 100, 100, 300, 300, 0);
+        drift.onDetected(1, 105, 100, 305, 300, FRAME_MS);   // 폭 대비 0.025 이동 → 추적 안정 유지
+        assertTrue(drift.isStable());
+        assertFalse(drift.shouldDetect(2 * FRAME_MS));        // 예측 이동 0.025 ≤ 0.04 → 건너뜀
+        assertFalse(drift.skippedFrameStill());               // 안정 프레임으로는 인정하지 않음
+    }
+
+    @Test
+    public void forcedDetect_countsAsDetected() {
+        FrameScheduler s = new FrameScheduler(3, 0.04f);
+        runStill(s, 2);
+        assertTrue(s.shouldDetect(2 * FRAME_MS, true));
+        assertEquals(3, s.detectedCount());
+        assertEquals(0, s.skippedCount());
+    }
+
+    @Test
+    public void predict_extrapolatesConstantVelocity() {
+        FrameScheduler s = new FrameScheduler(3, 0.5f);
+        float[] out = new float[4];
+        assertFalse(s.predict(0, out));
+
+        s.onDetected(1, 100, 100, 300, 300, 0);
+        assertTrue(s.predict(10, out));
+        assertArrayEquals(new float[]{100, 100, 300, 300}, out, 1e-4f);
+
+        s.onDetected(1, 104, 100, 304, 300, 40);
+        assertTrue(s.predict(80, out));
+        assertArrayEquals(new float[]{108, 100, 308, 300}, out, 1e-4f);
+    }
+
+    @Test
+    public void motion_isRelativeToPreviousWidth() {
+        assertEquals(0f, FrameScheduler.motion(0, 0, 100, 100, 0, 0, 100, 100), 1e-6f);
+        assertEquals(0.1f, FrameScheduler.motion(0, 0, 100, 100, 10, 0, 110, 100), 1e-6f);
+        assertEquals(0.1f + 0.05f, FrameScheduler.motion(0, 0, 100, 100, 0, 0, 110, 100), 1e-6f);
+    }
+}
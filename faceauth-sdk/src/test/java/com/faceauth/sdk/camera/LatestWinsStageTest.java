@@ -0,0 +1,97 @@
+package com.faceauth.sdk.camera;
+
+import org.junit.Test;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.Assert.*;
+
+/**
+ * LatestWinsStage: 처리 중 들어온 항목은 최신 1개만 남고, 밀려난 항목은 onDrop으로 반납.
+ */
+public class LatestWinsStageTest {
+
+    @Test
+    public void busyStage_keepsOnlyLatestPending() throws Exception {
+        CountDownLatch firstStarted = new CountDownLatch(1);
+        CountDownLatch releaseFirst = new CountDownLatch(1);
+        CountDownLatch lastHandled  = new CountDownLatch(1);
+        List<Integer> handled = new CopyOnWriteArrayList<>();
+        List<Integer> dropped = new CopyOnWriteArrayList<>();
+
+        LatestWinsStage<Integer> stage = new LatestWinsStage<>("test", item -> {
+            handled.add(item);
+            if (item == 0) {
+                firstStarted.countDown();
+                await(releaseFirst);
+            }
+            if (item == 3) lastHandled.countDown();
+        }, dropped::add);
+
+        stage.offer(0);
+        assertTrue(firstStarted.await(2, TimeUnit.SECONDS));
+        stage.offer(1);
+        stage.offer(2);
+        stage.offer(3);     // 0 처리 중 → 1, 2는 교체로 버려짐
+        releaseFirst.countDown();
+        assertTrue(lastHandled.await(2, TimeUnit.SECONDS));
+
+        assertEquals(List.of(0, 3), handled);
+        assertEquals(List.of(1, 2), dropped);
+        assertEquals(2, stage.droppedCount());
+        stage.shutdown(1_000L);
+    }
+
+    @Test
+    public void handlerFailure_doesNotStopStage() throws Exception {
+        CountDownLatch handled = new CountDownLatch(1);
+        LatestWinsStage<String> stage = new LatestWinsStage<>("test", item -> {
+            if (item.equals("bad")) throw new IllegalStateException("boom");
+            handled.countDown();
+        }, item -> { });
+        stage.offer("bad");
+        Thread.sleep(50);
+        stage.offer("good");
+        assertTrue(handled.await(2, TimeUnit.SECONDS));
+        stage.shutdown(1_000L);
+    }
+
+    @Test
+    public void handlerError_releasesStageForNextOffer() throws Exception {
+        CountDownLatch failed  = new CountDownLatch(1);
+        CountDownLatch handled = new CountDownLatch(1);
+        LatestWinsStage<String> stage = new LatestWinsStage<>("test", item -> {
+            if (item.equals("oom")) {
+                failed.countDown();
+                throw new OutOfMemoryError("simulated");
+            }
+            handled.countDown();
+        }, item -> { });
+        stage.offer("oom");
+        assertTrue(failed.await(2, TimeUnit.SECONDS));
+        Thread.sleep(50);
+        stage.offer("good");
+        assertTrue(handled.await(2, TimeUnit.SECONDS));
+        stage.shutdown(1_000L);
+    }
+
+    @Test
+    public void offerAfterShutdown_isDroppedImmediately() {
+        List<Integer> dropped = new CopyOnWriteArrayList<>();
+        LatestWinsStage<Integer> stage = new LatestWinsStage<>("test", item -> fail("must not run"), dropped::add);
+        stage.shutdown(1_000L);
+        stage.offer(7);
+        assertEquals(List.of(7), dropped);
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await(2, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
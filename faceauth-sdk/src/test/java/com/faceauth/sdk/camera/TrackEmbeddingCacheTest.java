@@ -0,0 +1,59 @@
+package com.faceauth.sdk.camera;
+
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+/**
+ * TrackEmbeddingCache: 같은 트랙 근사 중복 프레임만 재사용, 자세·크기·선명도·시간 변화 시 재계산.
+ */
+public class TrackEmbeddingCacheTest {
+
+    private static final float[] EMB = {0.6f, 0.8f};
+
+    private static TrackEmbeddingCache primed() {
+        TrackEmbeddingCache cache = new TrackEmbeddingCache(1_000L);
+        cache.put(5, 2f, 1f, 0.20f, 400f, 0L, EMB);
+        return cache;
+    }
+
+    @Test
+    public void nearDuplicate_reusesEmbedding() {
+        TrackEmbeddingCache cache = primed();
+        assertSame(EMB, cache.lookup(5, 3f, 0f, 0.21f, 420f, 300L));
+        assertEquals(1, cache.hits());
+    }
+
+    @Test
+    public void differentTrackOrExpired_misses() {
+        TrackEmbeddingCache cache = primed();
+        assertNull(cache.lookup(6, 2f, 1f, 0.20f, 400f, 100L));
+        assertNull(cache.lookup(null, 2f, 1f, 0.20f, 400f, 100L));
+        assertNull(cache.lookup(5, 2f, 1f, 0.20f, 400f, 1_001L));
+        assertEquals(3, cache.misses());
+    }
+
+    @Test
+    public void poseSizeOrSharpnessChange_misses() {
+        TrackEmbeddingCache cache = primed();
+        assertNull(cache.lookup(5, 2f + TrackEmbeddingCache.MAX_ANGLE_DELTA_DEG, 1f, 0.20f, 400f, 100L));
+        assertNull(cache.lookup(5, 2f, 1f - TrackEmbeddingCache.MAX_ANGLE_DELTA_DEG, 0.20f, 400f, 100L));
+        assertNull(cache.lookup(5, 2f, 1f, 0.22f, 400f, 100L));
+        assertNull(cache.lookup(5, 2f, 1f, 0.20f, 400f * TrackEmbeddingCache.SHARPER_RATIO, 100L));
+        assertNotNull(cache.lookup(5, 2f, 1f, 0.20f, 100f, 100L));   // 더 흐린 프레임은 재사용
+    }
+
+    @Test
+    public void zeroTtl_disablesCache() {
+        TrackEmbeddingCache cache = new TrackEmbeddingCache(0L);
+        cache.put(5, 0f, 0f, 0.2f, 400f, 0L, EMB);
+        assertNull(cache.lookup(5, 0f, 0f, 0.2f, 400f, 0L));
+    }
+
+    @Test
+    public void clear_dropsEntry() {
+        TrackEmbeddingCache cache = primed();
+        cache.clear();
+        assertNull(cache.lookup(5, 2f, 1f, 0.20f, 400f, 100L));
+    }
+}
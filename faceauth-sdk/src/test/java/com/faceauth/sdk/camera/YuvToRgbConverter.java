@@ -0,0 +1,152 @@
+package com.faceauth.sdk.camera;
+
+import java.nio.ByteBuffer;
+
+/**
+ * YUV_420_888 평면 → ARGB 기준 구현 (테스트 전용).
+ *
+ * 기존 double 변환 + Matrix 회전·미러와 같은 결과를 한 번의 패스로 만든다.
+ * 화면은 FaceRoiSampler로 얼굴 ROI만 샘플링하므로 SDK에는 포함하지 않고,
+ * FaceRoiSampler의 계수·회전 규약을 검증하는 비교 대상으로만 사용.
+ *  - 16.16 고정소수점 계수, 2×2 블록당 색차 항 1회 계산
+ *  - 회전(90/180/270) + 좌우 반전을 출력 인덱스 계산으로 직접 기록
+ *  - pixelStride == 1 (I420) 과 2 (NV21/NV12 interleaved) 모두 행 bulk 읽기
+ */
+final class YuvToRgbConverter {
+
+    // BT.601 full range 계수 × 65536
+    private static final int R_V = 89830;    // 1.370705
+    private static final int G_U = 22127;    // 0.337633
+    private static final int G_V = 45744;    // 0.698001
+    private static final int B_U = 113538;   // 1.732446
+
+    private int[]  argb = new int[0];
+    private byte[] yRow = new byte[0];
+    private byte[] uRow = new byte[0];
+    private byte[] vRow = new byte[0];
+    private int    outWidth;
+    private int    outHeight;
+
+    /** 마지막 변환 결과 (outWidth × outHeight, row-major). 다음 변환 시 덮어씀. */
+    int[] argb() { return argb; }
+
+    int outWidth() { return outWidth; }
+
+    int outHeight() { return outHeight; }
+
+    /**
+     * 평면 → argb[] (회전·미러 적용). 버퍼 position은 호출 전 상태로 복원.
+     *
+     * 회전 의미: rotation != 0 이면 시계 방향 회전 후 좌우 반전,
+     * rotation == 0 이면 변환 없음. 출력 (fx, fy) ← 원본 (x, y):
+     *   0:   (x, y)          90:  (y, x)
+     *   180: (x, h-1-y)      270: (h-1-y, w-1-x)
+     */
+    void convertToArgb(ByteBuffer yBuf, int yRowStride, int yPixelStride,
+                       ByteBuffer uBuf, int uRowStride, int uPixelStride,
+                       ByteBuffer vBuf, int vRowStride, int vPixelStride,
+                       int w, int h, int rotation) {
+        boolean swap = rotation == 90 || rotation == 270;
+        outWidth  = swap ? h : w;
+        outHeight = swap ? w : h;
+        if (argb.length != w * h) argb = new int[w * h];
+
+        // 출력 인덱스 = base + x * sx + y * sy
+        int base, sx, sy;
+        switch (rotation) {
+            case 90:  base = 0;                   sx = h;  sy = 1;  break;
+            case 180: base = (h - 1) * w;         sx = 1;  sy = -w; break;
+            case 270: base = (w - 1) * h + h - 1; sx = -h; sy = -1; break;
+            default:  base = 0;                   sx = 1;  sy = w;  break;
+        }
+
+        int cw   = (w + 1) >> 1;
+        int yLen = (w - 1) * yPixelStride + 1;
+        int uLen = (cw - 1) * uPixelStride + 1;
+        int vLen = (cw - 1) * vPixelStride + 1;
+        if (yRow.length < yLen) yRow = new byte[yLen];
+        if (uRow.length < uLen) uRow = new byte[uLen];
+        if (vRow.length < vLen) vRow = new byte[vLen];
+
+        int yPos0 = yBuf.position(), uPos0 = uBuf.position(), vPos0 = vBuf.position();
+        try {
+            for (int y = 0; y < h; y++) {
+                readRow(yBuf, yPos0 + y * yRowStride, yRow, yLen);
+                if ((y & 1) == 0) {
+                    int cy = y >> 1;
+                    readRow(uBuf, uPos0 + cy * uRowStride, uRow, uLen);
+                    readRow(vBuf, vPos0 + cy * vRowStride, vRow, vLen);
+                }
+                int rowBase = base + y * sy;
+                if (yPixelStride == 1 && uPixelStride == 1 && vPixelStride == 1) {
+                    convertRowPlanar(w, rowBase, sx);
+                } else {
+                    convertRowStrided(w, rowBase, sx, yPixelStride, uPixelStride, vPixelStride);
+                }
+            }
+        } finally {
+            yBuf.position(yPos0);
+            uBuf.position(uPos0);
+            vBuf.position(vPos0);
+        }
+    }
+
+    /** pixelStride == 1 (I420) 행. 색차 항은 2픽셀당 1회. */
+    private void convertRowPlanar(int w, int d, int sx) {
+        int[]  out = argb;
+        byte[] yr = yRow, ur = uRow, vr = vRow;
+        for (int x = 0; x < w; x += 2) {
+            int c  = x >> 1;
+            int u  = (ur[c] & 0xff) - 128;
+            int v  = (vr[c] & 0xff) - 128;
+            int rd = R_V * v;
+            int gd = -G_U * u - G_V * v;
+            int bd = B_U * u;
+            out[d] = pixel(yr[x] & 0xff, rd, gd, bd);
+            d += sx;
+            if (x + 1 < w) {
+                out[d] = pixel(yr[x + 1] & 0xff, rd, gd, bd);
+                d += sx;
+            }
+        }
+    }
+
+    /** 일반 pixelStride (NV21/NV12 interleaved 포함) 행. */
+    private void convertRowStrided(int w, int d, int sx, int yps, int ups, int vps) {
+        int[]  out = argb;
+        byte[] yr = yRow, ur = uRow, vr = vRow;
+        for (int x = 0; x < w; x += 2) {
+            int c  = x >> 1;
+            int u  = (ur[c * ups] & 0xff) - 128;
+            int v  = (vr[c * vps] & 0xff) - 128;
+            int rd = R_V * v;
+            int gd = -G_U * u - G_V * v;
+            int bd = B_U * u;
+            out[d] = pixel(yr[x * yps] & 0xff, rd, gd, bd);
+            d += sx;
+            if (x + 1 < w) {
+                out[d] = pixel(yr[(x + 1) * yps] & 0xff, rd, gd, bd);
+                d += sx;
+            }
+        }
+    }
+
+    private static int pixel(int y, int rd, int gd, int bd) {
+        int y16 = y << 16;
+        int r = (y16 + rd) >> 16;
+        int g = (y16 + gd) >> 16;
+        int b = (y16 + bd) >> 16;
+        r = r < 0 ? 0 : (r > 255 ? 255 : r);
+        g = g < 0 ? 0 : (g > 255 ? 255 : g);
+        b = b < 0 ? 0 : (b > 255 ? 255 : b);
+        return 0xff000000 | (r << 16) | (g << 8) | b;
+    }
+
+    /** buf[pos, pos+len) → dst (마지막 행이 rowStride보다 짧은 경우 남은 만큼만). */
+    private static void readRow(ByteBuffer buf, int pos, byte[] dst, int len) {
+        int n = Math.min(len, buf.limit() - pos);
+        if (n <= 0) return;
+        buf.position(pos);
+        buf.get(dst, 0, n);
+    }
+}
@@ -0,0 +1,124 @@
+package com.faceauth.sdk.camera;
+
+import org.junit.Test;
+
+import java.nio.ByteBuffer;
+import java.util.Random;
+
+import static org.junit.Assert.*;
+
+/**
+ * YuvToRgbConverter: 기존 double 변환 + Matrix 회전·미러 결과와 픽셀 단위 비교 (채널 오차 ±1).
+ * Bitmap 없이 convertToArgb만 검증.
+ */
+public class YuvToRgbConverterTest {
+
+    @Test
+    public void planarI420_allRotations() {
+        for (int rotation : new int[] { 0, 90, 180, 270 }) {
+            checkLayout(7, 5, rotation, false);
+            checkLayout(8, 6, rotation, false);
+        }
+    }
+
+    @Test
+    public void interleavedNv21_allRotations() {
+        for (int rotation : new int[] { 0, 90, 180, 270 }) {
+            checkLayout(7, 5, rotation, true);
+            checkLayout(8, 6, rotation, true);
+        }
+    }
+
+    @Test
+    public void bufferPositionsRestored() {
+        Frame f = Frame.random(new Random(1), 4, 4, 6, false);
+        f.u.position(1);
+        new YuvToRgbConverter().convertToArgb(f.y, f.yRowStride, 1, f.u, f.cRowStride, f.cPixelStride,
+                f.v, f.cRowStride, f.cPixelStride, 4, 4, 90);
+        assertEquals(0, f.y.position());
+        assertEquals(1, f.u.position());
+    }
+
+    private static void checkLayout(int w, int h, int rotation, boolean nv21) {
+        Frame f = Frame.random(new Random(w * 31 + h + rotation), w, h, w + 3, nv21);
+        YuvToRgbConverter c = new YuvToRgbConverter();
+        c.convertToArgb(f.y, f.yRowStride, 1, f.u, f.cRowStride, f.cPixelStride,
+                f.v, f.cRowStride, f.cPixelStride, w, h, rotation);
+        int ow = c.outWidth(), oh = c.outHeight();
+        assertEquals(rotation == 90 || rotation == 270 ? h : w, ow);
+        int[] out = c.argb();
+        for (int y = 0; y < h; y++) {
+            for (int x = 0; x < w; x++) {
+                int fx, fy;   // Matrix.postRotate(r) + postScale(-1, 1) 결과 좌표
+                switch (rotation) {
+                    case 90:  fx = y;         fy = x;         break;
+                    case 180: fx = x;         fy = h - 1 - y; break;
+                    case 270: fx = h - 1 - y; fy = w - 1 - x; break;
+                    default:  fx = x;         fy = y;         break;
+                }
+                assertPixelClose(f.reference(x, y), out[fy * ow + fx]);
+            }
+        }
+    }
+
+    private static void assertPixelClose(int expected, int actual) {
+        for (int shift = 0; shift <= 16; shift += 8) {
+            int e = (expected >> shift) & 0xff, a = (actual >> shift) & 0xff;
+            assertTrue("channel diff " + e + " vs " + a, Math.abs(e - a) <= 1);
+        }
+        assertEquals(0xff, actual >>> 24);
+    }
+
+    /** 테스트용 YUV 평면. nv21이면 V/U가 한 배열에 교차 배치 (pixelStride 2). */
+    private static final class Frame {
+        ByteBuffer y, u, v;
+        int yRowStride, cRowStride, cPixelStride;
+        byte[] yData, uvData;
+        int uOff, vOff;
+
+        static Frame random(Random rnd, int w, int h, int yRowStride, boolean nv21) {
+            Frame f = new Frame();
+            int ch = (h + 1) / 2, cw = (w + 1) / 2;
+            f.yRowStride = yRowStride;
+            f.yData = new byte[yRowStride * (h - 1) + w];
+            rnd.nextBytes(f.yData);
+            f.y = ByteBuffer.wrap(f.yData);
+            if (nv21) {
+                f.cPixelStride = 2;
+                f.cRowStride   = cw * 2 + 2;
+                f.uvData = new byte[f.cRowStride * ch];
+                rnd.nextBytes(f.uvData);
+                f.vOff = 0;
+                f.uOff = 1;
+                f.v = ByteBuffer.wrap(f.uvData, 0, f.uvData.length - 1).slice();
+                f.u = ByteBuffer.wrap(f.uvData, 1, f.uvData.length - 1).slice();
+            } else {
+                f.cPixelStride = 1;
+                f.cRowStride   = cw + 1;
+                f.uvData = new byte[f.cRowStride * ch * 2];
+                rnd.nextBytes(f.uvData);
+                f.uOff = 0;
+                f.vOff = f.cRowStride * ch;
+                f.u = ByteBuffer.wrap(f.uvData, 0, f.vOff).slice();
+                f.v = ByteBuffer.wrap(f.uvData, f.vOff, f.vOff).slice();
+            }
+            return f;
+        }
+
+        /** 기존 toBitmapFromYuvNoJpeg 색 변환 (double). */
+        int reference(int x, int y) {
+            int yy = yData[y * yRowStride + x] & 0xff;
+            int ci = (y >> 1) * cRowStride + (x >> 1) * cPixelStride;
+            int uu = uvData[uOff + ci] & 0xff;
+            int vv = uvData[vOff + ci] & 0xff;
+            int r = clamp((int) (yy + 1.370705 * (vv - 128)));
+            int g = clamp((int) (yy - 0.337633 * (uu - 128) - 0.698001 * (vv - 128)));
+            int b = clamp((int) (yy + 1.732446 * (uu - 128)));
+            return 0xff000000 | (r << 16) | (g << 8) | b;
+        }
+
+        private static int clamp(int value) {
+            return value < 0 ? 0 : (value > 255 ? 255 : value);
+        }
+    }
+}
@@ -0,0 +1,95 @@
+package com.faceauth.sdk.detection;
+
+import com.google.mlkit.vision.face.Face;
+
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.Assert.*;
+
+/**
+ * detectAsync 결과 전달 규약: 요청당 콜백 정확히 1회, 호출자 executor에서 실행, 취소·executor 종료 시 onCancelled.
+ */
+public class FaceDetectorTest {
+
+    /** 호출된 콜백 기록. */
+    private static final class Recorder implements FaceDetector.Callback {
+        final List<String> calls = Collections.synchronizedList(new ArrayList<>());
+        volatile Thread thread;
+
+        @Override public void onFaces(List<Face> faces) { record("faces:" + faces.size()); }
+        @Override public void onError(DetectionException e) { record("error:" + e.getCause().getMessage()); }
+        @Override public void onCancelled() { record("cancelled"); }
+
+        private void record(String call) {
+            thread = Thread.currentThread();
+            calls.add(call);
+        }
+    }
+
+    @Test
+    public void result_isDeliveredOnCallerExecutor() throws Exception {
+        ExecutorService executor = Executors.newSingleThreadExecutor();
+        Thread[] worker = new Thread[1];
+        executor.submit(() -> worker[0] = Thread.currentThread()).get();
+
+        Recorder r = new Recorder();
+        FaceDetector.Request req = new FaceDetector.Request();
+        FaceDetector.deliver(req, Collections.emptyList(), null, false, executor, r);
+        executor.shutdown();
+        assertTrue(executor.awaitTermination(2, TimeUnit.SECONDS));
+
+        assertEquals(List.of("faces:0"), r.calls);
+        assertSame(worker[0], r.thread);
+        assertTrue(req.isDone());
+    }
+
+    @Test
+    public void error_isWrappedInDetectionException() {
+        Recorder r = new Recorder();
+        FaceDetector.deliver(new FaceDetector.Request(), null,
+                new IllegalStateException("mlkit"), false, Runnable::run, r);
+        assertEquals(List.of("error:mlkit"), r.calls);
+    }
+
+    @Test
+    public void cancelledRequest_getsOnCancelledInsteadOfResult() {
+        Recorder r = new Recorder();
+        FaceDetector.Request req = new FaceDetector.Request();
+        req.cancel();
+        FaceDetector.deliver(req, Collections.emptyList(), null, false, Runnable::run, r);
+        assertEquals(List.of("cancelled"), r.calls);
+        assertTrue(req.isCancelled());
+
+        Recorder t = new Recorder();
+        FaceDetector.deliver(new FaceDetector.Request(), null, null, true, Runnable::run, t);
+        assertEquals(List.of("cancelled"), t.calls);   // ML Kit Task 자체 취소
+    }
+
+    @Test
+    public void rejectedExecutor_cancelsOnCurrentThread() {
+        Recorder r = new Recorder();
+        FaceDetector.Request req = new FaceDetector.Request();
+        FaceDetector.deliver(req, Collections.emptyList(), null, false,
+                command -> { throw new RejectedExecutionException("shutdown"); }, r);
+        assertEquals(List.of("cancelled"), r.calls);
+        assertSame(Thread.currentThread(), r.thread);
+        assertTrue(req.isCancelled());
+    }
+
+    @Test
+    public void callbackRunsAtMostOnce() {
+        Recorder r = new Recorder();
+        FaceDetector.Request req = new FaceDetector.Request();
+        FaceDetector.deliver(req, Collections.emptyList(), null, false, Runnable::run, r);
+        req.finish(null, null, true, r);
+        assertEquals(List.of("faces:0"), r.calls);
+    }
+}
@@ -0,0 +1,68 @@
+package com.faceauth.sdk.detection;
+
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+/**
+ * TrackingIdBridge: 같은 클라이언트 안에서는 원시 ID 일대일, 클라이언트 전환 시 IoU로 ID 승계.
+ */
+public class TrackingIdBridgeTest {
+
+    private static final float[] FACE_A = {100, 100, 300, 300};
+    private static final float[] FACE_B = {400, 100, 560, 260};
+
+    private static float[] boxes(float[]... faces) {
+        float[] out = new float[faces.length * 4];
+        for (int i = 0; i < faces.length; i++) System.arraycopy(faces[i], 0, out, i * 4, 4);
+        return out;
+    }
+
+    @Test
+    public void sameTier_keepsIdPerRawId() {
+        TrackingIdBridge bridge = new TrackingIdBridge();
+        Integer[] first  = bridge.resolve(0, new Integer[]{7, 9}, boxes(FACE_A, FACE_B));
+        Integer[] second = bridge.resolve(0, new Integer[]{9, 7}, boxes(FACE_B, FACE_A));
+        assertEquals(first[0], second[1]);
+        assertEquals(first[1], second[0]);
+        assertNotEquals(first[0], first[1]);
+    }
+
+    @Test
+    public void tierSwitch_inheritsIdByOverlap() {
+        TrackingIdBridge bridge = new TrackingIdBridge();
+        Integer[] light = bridge.resolve(0, new Integer[]{1, 2}, boxes(FACE_A, FACE_B));
+        // 전체 클라이언트는 다른 원시 ID·순서, 약간 이동한 bbox
+        Integer[] full = bridge.resolve(1, new Integer[]{5, 6},
+                boxes(new float[]{405, 105, 565, 265}, new float[]{110, 100, 310, 300}));
+        assertEquals(light[1], full[0]);
+        assertEquals(light[0], full[1]);
+
+        Integer[] next = bridge.resolve(1, new Integer[]{6}, boxes(FACE_A));
+        assertEquals(light[0], next[0]);
+    }
+
+    @Test
+    public void tierSwitch_withoutOverlap_getsNewId() {
+        TrackingIdBridge bridge = new TrackingIdBridge();
+        Integer[] light = bridge.resolve(0, new Integer[]{1}, boxes(FACE_A));
+        Integer[] full  = bridge.resolve(1, new Integer[]{1}, boxes(FACE_B));
+        assertNotEquals(light[0], full[0]);
+    }
+
+    @Test
+    public void nullRawId_staysNull() {
+        TrackingIdBridge bridge = new TrackingIdBridge();
+        Integer[] ids = bridge.resolve(0, new Integer[]{null, 4}, boxes(FACE_A, FACE_B));
+        assertNull(ids[0]);
+        assertNotNull(ids[1]);
+    }
+
+    @Test
+    public void iou_matchesGeometry() {
+        float[] a = {0, 0, 10, 10};
+        assertEquals(1f, TrackingIdBridge.iou(a, 0, a, 0), 1e-6f);
+        assertEquals(0f, TrackingIdBridge.iou(a, 0, new float[]{10, 0, 20, 10}, 0), 1e-6f);
+        assertEquals(50f / 150f, TrackingIdBridge.iou(a, 0, new float[]{5, 0, 15, 10}, 0), 1e-6f);
+    }
+}
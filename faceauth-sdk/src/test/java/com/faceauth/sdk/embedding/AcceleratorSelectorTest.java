@@ -0,0 +1,142 @@
+package com.faceauth.sdk.embedding;
+
+import com.faceauth.sdk.embedding.AcceleratorSelector.Choice;
+
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.Assert.*;
+
+/**
+ * AcceleratorSelector: 최속 후보 선택·저장, 저장값 재사용, 실패·출력 불일치 후보 건너뛰기, CPU 폴백.
+ * interpreter 없이 Trial/Store 메모리 구현으로 검증.
+ */
+public class AcceleratorSelectorTest {
+
+    private static final String KEY = AcceleratorSelector.deviceKey("acme X1", "face_embedder-v1.0");
+
+    @Test
+    public void selectsFastestAndPersists() {
+        MemoryStore store = new MemoryStore();
+        List<Choice> candidates = AcceleratorSelector.candidates(8, true, true);
+        List<String> measured = new ArrayList<>();
+        Choice chosen = AcceleratorSelector.select(KEY, candidates, store, c -> {
+            measured.add(c.id());
+            return result("cpu:4:xnn".equals(c.id()) ? 3.0 : 10.0);
+        });
+        assertEquals("cpu:4:xnn", chosen.id());
+        assertEquals("cpu:4:xnn", store.get(KEY));
+        assertEquals(candidates.size(), measured.size());
+
+        // 두 번째 초기화: 측정 없이 저장값
+        Choice again = AcceleratorSelector.select(KEY, candidates, store, c -> {
+            throw new AssertionError("must not benchmark again");
+        });
+        assertEquals(chosen, again);
+    }
+
+    @Test
+    public void failingAcceleratorsAreSkipped_allFailFallsBackToCpu() {
+        MemoryStore store = new MemoryStore();
+        List<Choice> candidates = AcceleratorSelector.candidates(4, true, true);
+        Choice chosen = AcceleratorSelector.select(KEY, candidates, store, c -> {
+            if (c.kind != Choice.Kind.CPU) throw new IllegalStateException("no accelerator");
+            return result(c.threads == 1 ? 4.0 : 6.0);
+        });
+        assertEquals(Choice.Kind.CPU, chosen.kind);
+        assertEquals(1, chosen.threads);
+
+        MemoryStore empty = new MemoryStore();
+        Choice fallback = AcceleratorSelector.select(KEY, candidates, empty, c -> {
+            throw new UnsatisfiedLinkError("no native lib");
+        });
+        assertEquals(Choice.CPU_DEFAULT, fallback);
+        assertEquals(Choice.CPU_DEFAULT.id(), empty.get(KEY));
+    }
+
+    @Test
+    public void storedChoiceNotInCandidates_isRebenchmarked() {
+        MemoryStore store = new MemoryStore();
+        store.put(KEY, "gpu:2");                                  // GPU 없는 기기로 복원된 설정 등
+        List<Choice> candidates = AcceleratorSelector.candidates(2, true, false);
+        assertEquals(Choice.CPU_DEFAULT, AcceleratorSelector.saved(KEY, candidates, store));
+        Choice chosen = AcceleratorSelector.select(KEY, candidates, store, c -> result(c.xnnpack ? 1.0 : 2.0));
+        assertEquals(Choice.Kind.CPU, chosen.kind);
+        assertTrue(chosen.xnnpack);
+        assertEquals(chosen, AcceleratorSelector.saved(KEY, candidates, store));
+
+        store.put(KEY, "garbage");
+        assertEquals(Choice.Kind.CPU,
+                AcceleratorSelector.select(KEY, candidates, store, c -> result(1.0)).kind);
+    }
+
+    @Test
+    public void candidatesWithDriftingOutput_areRejected() {
+        MemoryStore store = new MemoryStore();
+        List<Choice> candidates = AcceleratorSelector.candidates(8, true, true);
+        // GPU가 가장 빠르지만 FP16 등으로 출력이 기준과 어긋남 → CPU 중 최속
+        Choice chosen = AcceleratorSelector.select(KEY, candidates, store, c -> {
+            if (c.kind == Choice.Kind.GPU) return new AcceleratorSelector.Measurement(0.5, DRIFTED);
+            return result(c.threads == 4 ? 2.0 : 5.0);
+        });
+        assertEquals(Choice.Kind.CPU, chosen.kind);
+        assertEquals(4, chosen.threads);
+
+        // 기준(CPU_DEFAULT) 측정 실패 → 비교 불가, 어떤 후보도 채택하지 않음
+        MemoryStore empty = new MemoryStore();
+        Choice noReference = AcceleratorSelector.select(KEY, candidates, empty, c -> {
+            if (c.equals(Choice.CPU_DEFAULT)) throw new IllegalStateException("reference failed");
+            return result(1.0);
+        });
+        assertEquals(Choice.CPU_DEFAULT, noReference);
+    }
+
+    @Test
+    public void candidates_respectCoresAndGpuAvailability() {
+        List<Choice> noGpu = AcceleratorSelector.candidates(2, true, false);
+        assertEquals(Choice.CPU_DEFAULT, noGpu.get(0));
+        for (Choice c : noGpu) {
+            assertTrue(c.threads <= 2);
+            assertNotEquals(Choice.Kind.GPU, c.kind);
+        }
+        assertEquals(5, noGpu.size());   // cpu 1/2 × xnn on/off + nnapi
+
+        List<Choice> withGpu = AcceleratorSelector.candidates(8, true, true);
+        assertEquals(8, withGpu.size());
+        assertEquals(Choice.Kind.GPU, withGpu.get(withGpu.size() - 1).kind);
+
+        // delegate 미허용(기본): CPU 구성만
+        List<Choice> cpuOnly = AcceleratorSelector.candidates(8, false, true);
+        assertEquals(6, cpuOnly.size());
+        for (Choice c : cpuOnly) assertEquals(Choice.Kind.CPU, c.kind);
+    }
+
+    @Test
+    public void choiceIdRoundTrip() {
+        for (Choice c : AcceleratorSelector.candidates(8, true, true)) {
+            assertEquals(c, Choice.parse(c.id()));
+        }
+        assertNull(Choice.parse(null));
+        assertNull(Choice.parse("cpu:x:xnn"));
+        assertNull(Choice.parse("tpu:1"));
+    }
+
+    private static final float[] REFERENCE = { 0.6f, -0.2f, 0.5f, 0.1f, -0.58f };
+    private static final float[] DRIFTED   = { 0.55f, -0.1f, 0.6f, 0.2f, -0.5f };
+
+    /** 기준과 같은 출력의 측정 결과. */
+    private static AcceleratorSelector.Measurement result(double ms) {
+        return new AcceleratorSelector.Measurement(ms, REFERENCE.clone());
+    }
+
+    private static final class MemoryStore implements AcceleratorSelector.Store {
+        final Map<String, String> map = new HashMap<>();
+        @Override public String get(String key)             { return map.get(key); }
+        @Override public void put(String key, String value) { map.put(key, value); }
+        @Override public void remove(String key)            { map.remove(key); }
+    }
+}
@@ -0,0 +1,146 @@
+package com.faceauth.sdk.embedding;
+
+import com.faceauth.sdk.api.FaceAuthConfig;
+
+import org.junit.Test;
+
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.Assert.*;
+
+/**
+ * embedBatch: 순차 embed()와 결과 동일, 배치 크기별 버퍼 재사용, 단일 경로 N=1 복원, resize 미지원 시 순차 폴백.
+ * interpreter 대신 입력 shape을 검사하는 Runner 스텁으로 검증.
+ */
+public class FaceEmbedderTest {
+
+    private static final int DIM      = 16;
+    private static final int PER_FACE = 112 * 112 * 3;
+
+    /** 현재 입력 N과 출력 행 수가 다르면 실패하는 스텁. 출력 = 얼굴 입력의 고정 위치 값. */
+    private static final class StubRunner implements FaceEmbedder.Runner {
+        final boolean resizable;
+        int batch = 1;
+        int runs;
+        final List<Integer> resizes = new ArrayList<>();
+        final Map<Integer, Map<ByteBuffer, Boolean>> inputsBySize = new HashMap<>();
+
+        StubRunner(boolean resizable) { this.resizable = resizable; }
+
+        @Override public void run(ByteBuffer input, float[][] output) {
+            if (output.length != batch || input.capacity() != batch * PER_FACE * Float.BYTES) {
+                throw new IllegalArgumentException("shape mismatch: batch " + batch + " output " + output.length);
+            }
+            runs++;
+            inputsBySize.computeIfAbsent(batch, k -> new IdentityHashMap<>()).put(input, true);
+            for (int i = 0; i < batch; i++) {
+                for (int j = 0; j < DIM; j++) {
+                    output[i][j] = input.getFloat((i * PER_FACE + j * 997) * Float.BYTES);
+                }
+            }
+        }
+
+        @Override public void resizeInput(int n) {
+            resizes.add(n);
+            if (!resizable && n != 1) throw new IllegalArgumentException("fixed batch model");
+            batch = n;
+        }
+    }
+
+    @Test
+    public void batch_equalsSequential_andSinglePathRestoresBatchOfOne() throws Exception {
+        StubRunner stub = new StubRunner(true);
+        FaceEmbedder embedder = embedder(stub);
+        FaceEmbedder.InputWriter[] writers = writers(5);
+
+        float[][] sequential = sequential(embedder, writers);
+        float[][] batch = embedder.embedBatch(writers, null);
+        assertEquals(6, stub.runs);   // 순차 5회 + 배치 1회
+        assertEquals(5, stub.batch);
+        for (int i = 0; i < writers.length; i++) assertArrayEquals(sequential[i], batch[i], 0f);
+
+        // 배치 이후 단일 경로는 N=1로 되돌린 뒤 실행 (스텁이 shape 불일치면 예외)
+        assertArrayEquals(sequential[2], embedder.embed(writers[2], null), 0f);
+        assertEquals(1, stub.batch);
+        assertEquals(List.of(5, 1), stub.resizes);
+    }
+
+    @Test
+    public void largerThanMaxBatch_isSplit_andBuffersReusedPerSize() throws Exception {
+        StubRunner stub = new StubRunner(true);
+        FaceEmbedder embedder = embedder(stub);
+        FaceEmbedder.InputWriter[] writers = writers(FaceEmbedder.MAX_BATCH + 2);
+
+        float[][] first  = embedder.embedBatch(writers, null);
+        float[][] second = embedder.embedBatch(writers, null);
+        assertEquals(4, stub.runs);   // (8 + 2) × 2
+        assertEquals(1, stub.inputsBySize.get(FaceEmbedder.MAX_BATCH).size());
+        assertEquals(1, stub.inputsBySize.get(2).size());
+
+        float[][] sequential = sequential(embedder, writers);
+        for (int i = 0; i < writers.length; i++) {
+            assertArrayEquals(sequential[i], first[i], 0f);
+            assertArrayEquals(sequential[i], second[i], 0f);
+            assertNotSame(first[i], second[i]);
+        }
+    }
+
+    @Test
+    public void resizeUnsupported_fallsBackToSequential() throws Exception {
+        StubRunner stub = new StubRunner(false);
+        FaceEmbedder embedder = embedder(stub);
+        FaceEmbedder.InputWriter[] writers = writers(3);
+
+        float[][] batch = embedder.embedBatch(writers, null);
+        float[][] sequential = sequential(embedder, writers);
+        for (int i = 0; i < writers.length; i++) assertArrayEquals(sequential[i], batch[i], 0f);
+        assertEquals(1, stub.batch);
+
+        // 이후 배치 요청은 resize 재시도 없이 순차 실행
+        int resizesBefore = stub.resizes.size();
+        embedder.embedBatch(writers, null);
+        assertEquals(resizesBefore, stub.resizes.size());
+        assertEquals(List.of(3, 1), stub.resizes);
+    }
+
+    @Test
+    public void failingWriter_throwsPrecheckFail() {
+        FaceEmbedder embedder = embedder(new StubRunner(true));
+        FaceEmbedder.InputWriter[] writers = writers(3);
+        writers[1] = (dst, scale, offset) -> false;
+        try {
+            embedder.embedBatch(writers, null);
+            fail("expected EmbeddingException");
+        } catch (EmbeddingException e) {
+            assertEquals("TFLITE_PRECHECK_FAIL", e.errorCode);
+        }
+    }
+
+    private static FaceEmbedder embedder(StubRunner stub) {
+        return new FaceEmbedder(FaceAuthConfig.builder().build(), stub, DIM);
+    }
+
+    private static float[][] sequential(FaceEmbedder embedder, FaceEmbedder.InputWriter[] writers) throws Exception {
+        float[][] out = new float[writers.length][];
+        for (int i = 0; i < writers.length; i++) out[i] = embedder.embed(writers[i], null);
+        return out;
+    }
+
+    /** 얼굴마다 다른 합성 입력 (원시 0..255 → 정규화). */
+    private static FaceEmbedder.InputWriter[] writers(int n) {
+        FaceEmbedder.InputWriter[] w = new FaceEmbedder.InputWriter[n];
+        for (int k = 0; k < n; k++) {
+            int face = k;
+            w[k] = (dst, scale, offset) -> {
+                for (int i = 0; i < PER_FACE; i++) dst.put(i, ((i * (face + 3)) % 256) * scale + offset);
+                return true;
+            };
+        }
+        return w;
+    }
+}
@@ -0,0 +1,98 @@
+package com.faceauth.sdk.logging;
+
+import org.junit.Test;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+
+import static org.junit.Assert.*;
+
+/**
+ * EventJournal: 타입 레코드 → 메모리 맵 세그먼트 → EventJournalDecoder JSONL 왕복, 세그먼트 회전, 스키마 검증.
+ */
+public class EventJournalTest {
+
+    private static File tempDir() throws IOException {
+        return Files.createTempDirectory("journal").toFile();
+    }
+
+    private static String decodeAll(File dir) throws IOException {
+        File[] files = dir.listFiles((d, name) -> name.endsWith(EventJournal.FILE_SUFFIX));
+        assertNotNull(files);
+        java.util.Arrays.sort(files, (a, b) -> a.getName().compareTo(b.getName()));
+        StringBuilder out = new StringBuilder();
+        for (File f : files) EventJournalDecoder.decode(f, out);
+        return out.toString();
+    }
+
+    @Test
+    public void roundTrip_rendersSameKeysAsJsonEvents() throws IOException {
+        File dir = tempDir();
+        EventJournal j = EventJournal.open(dir, 64 * 1024);
+        EventJournal.begin(EventSchema.AUTH_GATE_STATUS)
+                .i(7).b(true).b(false).b(false).b(true).b(false).i(2).i(3)
+                .n(null).i(1).f(0.12345f)
+                .commitTo(j);
+        EventJournal.begin(EventSchema.AUTH_MATCH_RESULT)
+                .i(7).s("user\"1").f(0.9f).s(null).f(Float.NaN).f(0.9f)
+                .s("ACCEPT").b(false).i(3).l(42L)
+                .commitTo(j);
+        j.shutdown();
+
+        String[] lines = decodeAll(dir).split("\n");
+        assertEquals(2, lines.length);
+        assertTrue(lines[0].startsWith("{\"ts\":"));
+        assertTrue(lines[0].endsWith(",\"event\":\"auth_gate_status\",\"authRunId\":7,\"gate_face_ready\":true,"
+                + "\"gate_stable_ready\":false,\"gate_embedding_computed\":false,\"gate_db_loaded\":true,"
+                + "\"gate_compared_all\":false,\"stableFrames\":2,\"requiredFrames\":3,\"tid\":null,"
+                + "\"roiCandidateCount\":1,\"bboxRatio\":0.1235}"));
+        assertTrue(lines[1].endsWith(",\"event\":\"auth_match_result\",\"authRunId\":7,\"bestId\":\"user\\\"1\","
+                + "\"bestScore\":0.9000,\"top2Id\":\"\",\"top2Score\":null,\"margin\":0.9000,\"decision\":\"ACCEPT\","
+                + "\"triggerSecondary\":false,\"fusedFrames\":3,\"frameToDecisionMs\":42}"));
+    }
+
+    @Test
+    public void fullSegment_rotatesWithoutLoss() throws IOException {
+        File dir = tempDir();
+        EventJournal j = EventJournal.open(dir, 4 * 1024);
+        for (int i = 0; i < 300; i++) {
+            EventJournal.begin(EventSchema.AUTH_MATCH_PROBE).s("u" + i).f(i / 300f).b(i % 2 == 0).commitTo(j);
+        }
+        j.shutdown();
+
+        assertTrue(j.segmentFile(1).exists());
+        String[] lines = decodeAll(dir).split("\n");
+        assertEquals(300, lines.length);
+        for (int i = 0; i < 300; i++) {
+            assertTrue(lines[i], lines[i].contains("\"enrolledId\":\"u" + i + "\""));
+        }
+    }
+
+    @Test
+    public void fieldTypeMismatch_throws() {
+        try {
+            EventJournal.begin(EventSchema.AUTH_TFLITE_INFER_START).i(1);
+            fail("expected failure");
+        } catch (IllegalStateException expected) {
+            // ok
+        }
+    }
+
+    @Test
+    public void incompleteRecord_throwsOnCommit() {
+        try {
+            EventJournal.begin(EventSchema.AUTH_TFLITE_INFER_SUCCESS).l(5L).commitTo(null);
+            fail("expected failure");
+        } catch (IllegalStateException expected) {
+            // ok
+        }
+    }
+
+    @Test
+    public void registeredSchemaIds_areUnique() {
+        java.util.Set<Integer> ids = new java.util.HashSet<>();
+        for (EventSchema s : EventSchema.all()) assertTrue(ids.add(s.id));
+        assertTrue(ids.contains(EventSchema.AUTH_GATE_STATUS.id));
+    }
+}
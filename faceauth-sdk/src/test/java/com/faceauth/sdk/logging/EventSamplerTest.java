@@ -0,0 +1,138 @@
+package com.faceauth.sdk.logging;
+
+import org.junit.Test;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.charset.StandardCharsets;
+
+import static org.junit.Assert.*;
+
+/**
+ * SamplingPolicy 해석 + EventSampler.Limiter: head 창, 1-in-N, 토큰 버킷, 상태 변화(float 무시), 묶음 판정.
+ */
+public class EventSamplerTest {
+
+    private static final ByteBuffer EMPTY = ByteBuffer.allocate(0);
+
+    /** AUTH_LIVENESS_PROGRESS payload: yaw:f, state:s, streaks:i, selectedTrackingId:n, roiCandidateCount:i */
+    private static ByteBuffer liveness(float yaw, String state, int streaks) {
+        byte[] s = state.getBytes(StandardCharsets.UTF_8);
+        ByteBuffer b = ByteBuffer.allocate(64).order(ByteOrder.LITTLE_ENDIAN);
+        b.putFloat(yaw).putShort((short) s.length).put(s).putInt(streaks).put((byte) 0).putInt(1);
+        b.flip();
+        return b;
+    }
+
+    private static int admitted(EventSampler.Limiter l, int count, long stepMs) {
+        int n = 0;
+        for (int i = 0; i < count; i++) {
+            if (l.admit(EMPTY, i * stepMs)) n++;
+        }
+        return n;
+    }
+
+    @Test
+    public void parse_acceptsAllForms_andRejectsGarbage() {
+        assertEquals(SamplingPolicy.Mode.ALL, SamplingPolicy.parse("all").mode);
+        assertEquals(SamplingPolicy.Mode.OFF, SamplingPolicy.parse("off").mode);
+        assertEquals(SamplingPolicy.Mode.ON_CHANGE, SamplingPolicy.parse(" Change ").mode);
+        assertEquals(32, SamplingPolicy.parse("head:32").n);
+        assertEquals(10, SamplingPolicy.parse("every:10").n);
+        SamplingPolicy rate = SamplingPolicy.parse("rate:2.5/4");
+        assertEquals(2.5f, rate.ratePerSec, 0f);
+        assertEquals(4, rate.burst);
+        assertEquals(3, SamplingPolicy.parse("rate:3").burst);
+        for (String bad : new String[] { "head:0", "every:-1", "rate:0", "rate:1/2/3", "sometimes", "head:x" }) {
+            try {
+                SamplingPolicy.parse(bad);
+                fail("expected failure: " + bad);
+            } catch (IllegalArgumentException expected) {
+                // ok
+            }
+        }
+    }
+
+    @Test
+    public void head_limitsPerWindow() {
+        EventSampler.Limiter l = new EventSampler.Limiter(EventSchema.AUTH_MATCH_PROBE, SamplingPolicy.parse("head:5"));
+        assertEquals(5, admitted(l, 100, 0));
+        l.startWindow();
+        assertEquals(5, admitted(l, 100, 0));
+        assertEquals(200, l.seen);
+        assertEquals(10, l.logged);
+    }
+
+    @Test
+    public void everyN_keepsFirstAndEveryNth() {
+        EventSampler.Limiter l = new EventSampler.Limiter(EventSchema.AUTH_GATE_STATUS, SamplingPolicy.parse("every:10"));
+        assertTrue(l.admit(EMPTY, 0));
+        assertEquals(9, admitted(l, 90, 0));   // 2..91번째 중 11, 21, ..., 91
+    }
+
+    @Test
+    public void tokenBucket_allowsBurstThenRate() {
+        EventSampler.Limiter l = new EventSampler.Limiter(EventSchema.AUTH_LIVENESS_PROGRESS, SamplingPolicy.parse("rate:5/10"));
+        // 30fps로 2초: 버스트 10 + 초당 5 × 2초 ≈ 20
+        int n = admitted(l, 60, 33);
+        assertTrue("admitted " + n, n >= 19 && n <= 21);
+    }
+
+    @Test
+    public void onChange_ignoresFloatFields() {
+        EventSampler.Limiter l = new EventSampler.Limiter(EventSchema.AUTH_LIVENESS_PROGRESS, SamplingPolicy.parse("change"));
+        assertTrue(l.admit(liveness(1.0f, "WAIT_CENTER", 0), 0));
+        assertFalse(l.admit(liveness(2.5f, "WAIT_CENTER", 0), 1));   // yaw만 변함
+        assertTrue(l.admit(liveness(2.5f, "TURN", 0), 2));
+        assertTrue(l.admit(liveness(2.5f, "TURN", 1), 3));
+        assertFalse(l.admit(liveness(-7f, "TURN", 1), 4));
+    }
+
+    @Test
+    public void admitBatch_matchesPerEventAdmit() {
+        EventSampler.Limiter head = new EventSampler.Limiter(EventSchema.AUTH_MATCH_PROBE, SamplingPolicy.parse("head:5"));
+        assertEquals(3, head.admitBatch(3, 0));
+        assertEquals(2, head.admitBatch(10, 10));
+        assertEquals(0, head.admitBatch(4, 20));
+        assertEquals(17, head.seen);
+        assertEquals(5, head.logged);
+
+        EventSampler.Limiter every = new EventSampler.Limiter(EventSchema.AUTH_MATCH_PROBE, SamplingPolicy.parse("every:10"));
+        EventSampler.Limiter single = new EventSampler.Limiter(EventSchema.AUTH_MATCH_PROBE, SamplingPolicy.parse("every:10"));
+        int[] batches = {1, 7, 13, 9, 30, 2};
+        for (int count : batches) assertEquals(admitted(single, count, 0), every.admitBatch(count, 0));
+
+        EventSampler.Limiter rate = new EventSampler.Limiter(EventSchema.AUTH_MATCH_PROBE, SamplingPolicy.parse("rate:5/10"));
+        assertEquals(10, rate.admitBatch(25, 0));
+        assertEquals(5, rate.admitBatch(25, 1000));
+
+        EventSampler.Limiter off = new EventSampler.Limiter(EventSchema.AUTH_MATCH_PROBE, SamplingPolicy.parse("off"));
+        assertEquals(0, off.admitBatch(8, 0));
+        assertEquals(8, off.seen);
+    }
+
+    @Test
+    public void startWindowForSchema_resetsOnlyThatSchema() {
+        EventSampler.configure(EventSchema.AUTH_MATCH_PROBE, SamplingPolicy.parse("head:3"));
+        EventSampler.configure(EventSchema.AUTH_GATE_STATUS, SamplingPolicy.parse("head:3"));
+        try {
+            assertEquals(3, EventSampler.admitBatch(EventSchema.AUTH_MATCH_PROBE, 10, 0));
+            assertEquals(3, EventSampler.admitBatch(EventSchema.AUTH_GATE_STATUS, 10, 0));
+            assertEquals(0, EventSampler.admitBatch(EventSchema.AUTH_MATCH_PROBE, 10, 0));
+
+            EventSampler.startWindow(EventSchema.AUTH_MATCH_PROBE);   // 다음 매칭 시도
+            assertEquals(3, EventSampler.admitBatch(EventSchema.AUTH_MATCH_PROBE, 10, 0));
+            assertEquals(0, EventSampler.admitBatch(EventSchema.AUTH_GATE_STATUS, 10, 0));
+        } finally {
+            EventSampler.configure(EventSchema.AUTH_MATCH_PROBE, SamplingPolicy.ALL);
+            EventSampler.configure(EventSchema.AUTH_GATE_STATUS, SamplingPolicy.ALL);
+        }
+    }
+
+    @Test
+    public void off_dropsEverythingButCounts() {
+        EventSampler.Limiter l = new EventSampler.Limiter(EventSchema.AUTH_MATCH_PROBE, SamplingPolicy.parse("off"));
+        assertEquals(0, admitted(l, 10, 0));
+        assertEquals(10, l.seen);
+    }
+}
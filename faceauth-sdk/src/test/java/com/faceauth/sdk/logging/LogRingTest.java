@@ -0,0 +1,106 @@
+package com.faceauth.sdk.logging;
+
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+
+import static org.junit.Assert.*;
+
+/**
+ * LogRing: FIFO drain, 넘침 시 I 먼저 드롭(W/E는 예약 영역 사용), 다중 생산자에서 유실·중복 없음.
+ */
+public class LogRingTest {
+
+    private static List<String> drainAll(LogRing ring) {
+        List<String> out = new ArrayList<>();
+        ring.drain((ts, thread, tag, level, msg) -> out.add(level + ":" + msg), Integer.MAX_VALUE);
+        return out;
+    }
+
+    @Test
+    public void drain_isFifoAndClearsRing() {
+        LogRing ring = new LogRing(8);
+        assertEquals(1, ring.offer(1L, "t", "tag", "I", "a", false));
+        assertEquals(2, ring.offer(2L, "t", "tag", "W", "b", true));
+        assertEquals(List.of("I:a", "W:b"), drainAll(ring));
+        assertEquals(0, ring.size());
+        assertTrue(drainAll(ring).isEmpty());
+    }
+
+    @Test
+    public void overflow_dropsNormalBeforePriority() {
+        LogRing ring = new LogRing(8);           // 일반 한도 7, 우선 한도 8
+        for (int i = 0; i < 7; i++) assertTrue(ring.offer(i, "t", "tag", "I", "i" + i, false) > 0);
+        assertEquals(-1, ring.offer(7L, "t", "tag", "I", "dropped", false));
+        assertEquals(8, ring.offer(8L, "t", "tag", "E", "kept", true));
+        assertEquals(-1, ring.offer(9L, "t", "tag", "E", "full", true));
+        assertEquals(2, ring.dropped());
+
+        List<String> lines = drainAll(ring);
+        assertEquals(8, lines.size());
+        assertEquals("E:kept", lines.get(7));
+        assertTrue(ring.offer(10L, "t", "tag", "I", "again", false) > 0);   // 비운 뒤 재사용
+    }
+
+    @Test
+    public void drain_respectsMax() {
+        LogRing ring = new LogRing(8);
+        for (int i = 0; i < 5; i++) ring.offer(i, "t", "tag", "I", "m" + i, false);
+        List<String> out = new ArrayList<>();
+        assertEquals(2, ring.drain((ts, thread, tag, level, msg) -> out.add(msg), 2));
+        assertEquals(List.of("m0", "m1"), out);
+        assertEquals(3, ring.size());
+    }
+
+    @Test
+    public void concurrentProducers_loseNothingWithinCapacity() throws Exception {
+        int producers = 4, perProducer = 5_000;
+        LogRing ring = new LogRing(1024);
+        CountDownLatch start = new CountDownLatch(1);
+        List<Thread> threads = new ArrayList<>();
+        for (int p = 0; p < producers; p++) {
+            String name = "p" + p;
+            Thread t = new Thread(() -> {
+                await(start);
+                for (int i = 0; i < perProducer; i++) {
+                    while (ring.offer(i, name, "tag", "W", Integer.toString(i), true) < 0) Thread.yield();
+                }
+            });
+            threads.add(t);
+            t.start();
+        }
+        int[] next = new int[producers];
+        int[] total = {0};
+        start.countDown();
+        while (total[0] < producers * perProducer) {
+            ring.drain((ts, thread, tag, level, msg) -> {
+                int p = thread.charAt(1) - '0';
+                assertEquals(next[p]++, Integer.parseInt(msg));   // 생산자별 순서 보존
+                total[0]++;
+            }, 256);
+        }
+        for (Thread t : threads) t.join();
+        for (int n : next) assertEquals(perProducer, n);
+        assertEquals(0, ring.size());
+    }
+
+    @Test
+    public void capacity_mustBePowerOfTwo() {
+        try {
+            new LogRing(100);
+            fail("expected failure");
+        } catch (IllegalArgumentException expected) {
+            // ok
+        }
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
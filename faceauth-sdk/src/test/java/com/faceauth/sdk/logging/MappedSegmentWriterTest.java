@@ -0,0 +1,78 @@
+package com.faceauth.sdk.logging;
+
+import org.junit.Test;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+
+import static org.junit.Assert.*;
+
+/**
+ * MappedSegmentWriter: 미리 할당 후 close 시 기록 길이로 잘라냄, 넘침 시 false, 이어 쓰기, 꼬리 정리.
+ */
+public class MappedSegmentWriterTest {
+
+    private static File tempFile() throws IOException {
+        File f = File.createTempFile("segment", ".log");
+        f.delete();
+        return f;
+    }
+
+    private static String read(File f) throws IOException {
+        return new String(Files.readAllBytes(f.toPath()), StandardCharsets.UTF_8);
+    }
+
+    @Test
+    public void append_preallocatesThenTruncatesOnClose() throws IOException {
+        File f = tempFile();
+        MappedSegmentWriter w = new MappedSegmentWriter(1024);
+        w.open(f);
+        assertEquals(1024, f.length());
+        assertTrue(w.append("a\n"));
+        assertTrue(w.append("한글\n"));
+        assertEquals(2 + 7, w.length());
+        w.close();
+        assertFalse(w.isOpen());
+        assertEquals("a\n한글\n", read(f));
+    }
+
+    @Test
+    public void append_returnsFalseWhenFull_andKeepsPosition() throws IOException {
+        File f = tempFile();
+        MappedSegmentWriter w = new MappedSegmentWriter(16);
+        w.open(f);
+        assertTrue(w.append("0123456789\n"));
+        assertFalse(w.append("0123456789\n"));
+        assertEquals(11, w.length());
+        w.close();
+        assertEquals("0123456789\n", read(f));
+    }
+
+    @Test
+    public void open_appendsAfterExistingContent() throws IOException {
+        File f = tempFile();
+        MappedSegmentWriter w = new MappedSegmentWriter(256);
+        w.open(f);
+        w.append("first\n");
+        w.close();
+        w.open(f);
+        assertEquals(6, w.length());
+        w.append("second\n");
+        w.close();
+        assertEquals("first\nsecond\n", read(f));
+    }
+
+    @Test
+    public void trimPadding_removesPreallocatedTail() throws IOException {
+        File f = tempFile();
+        try (RandomAccessFile r = new RandomAccessFile(f, "rw")) {
+            r.write("line\n".getBytes(StandardCharsets.UTF_8));
+            r.setLength(4096);   // 비정상 종료로 남은 꼬리
+        }
+        MappedSegmentWriter.trimPadding(f);
+        assertEquals("line\n", read(f));
+    }
+}
@@ -8,6 +8,7 @@ import java.util.List;
 
 import com.faceauth.sdk.storage.ProfileRecord;
 
+import static com.faceauth.sdk.matcher.TestVectors.*;
 import static org.junit.Assert.*;
 
 /**
@@ -108,6 +109,136 @@ public class EmbeddingMatcherTest {
         assertNull(r.bestProfile);
     }
 
+    // ── PackedGallery: 사용자 단위 Top-1/Top-2 ───────────────────────
+    @Test
+    public void packedGallery_matchesPerUserMaxReference() {
+        java.util.Random rnd = new java.util.Random(42);
+        int dim = 16;
+        List<ProfileRecord> candidates = new java.util.ArrayList<>();
+        for (int i = 0; i < 300; i++) {
+            candidates.add(makeProfile("user_" + rnd.nextInt(60), randomVector(rnd, dim)));
+        }
+        PackedGallery gallery = PackedGallery.build(candidates, dim);
+        assertEquals(300, gallery.size());
+
+        for (int q = 0; q < 20; q++) {
+            float[] live = l2Normalize(randomVector(rnd, dim));
+            EmbeddingMatcher.TopTwoResult r = EmbeddingMatcher.findTopTwoUsersWithMargin(live, gallery);
+
+            java.util.Map<String, Float> byUser = new java.util.LinkedHashMap<>();
+            for (ProfileRecord c : candidates) {
+                float s = EmbeddingMatcher.cosineSimilarityNorm(live, c.embedding);
+                Float cur = byUser.get(c.userId);
+                if (cur == null || s > cur) byUser.put(c.userId, s);
+            }
+            List<java.util.Map.Entry<String, Float>> sorted = new java.util.ArrayList<>(byUser.entrySet());
+            sorted.sort((a, b) -> Float.compare(b.getValue(), a.getValue()));
+
+            assertEquals(sorted.get(0).getKey(), r.top1UserId);
+            assertEquals(sorted.get(1).getKey(), r.top2UserId);
+            assertEquals(sorted.get(0).getValue(), r.top1Score, 1e-5f);
+            assertEquals(sorted.get(1).getValue(), r.top2Score, 1e-5f);
+            assertEquals(r.top1UserId, r.bestProfile.userId);
+            assertEquals(r.top1Score, EmbeddingMatcher.cosineSimilarityNorm(live, r.bestProfile.embedding), 1e-5f);
+        }
+    }
+
+    @Test
+    public void packedGallery_tie_prefersFirstSeenUser() {
+        float[] live = l2Normalize(new float[]{1f, 0f, 0f});
+        ProfileRecord a1 = makeProfile("user_a", new float[]{0f, 1f, 0f});
+        ProfileRecord b  = makeProfile("user_b", new float[]{1f, 0f, 0f});
+        ProfileRecord a2 = makeProfile("user_a", new float[]{1f, 0f, 0f});
+        PackedGallery gallery = PackedGallery.build(Arrays.asList(a1, b, a2), 3);
+
+        EmbeddingMatcher.TopTwoResult r = EmbeddingMatcher.findTopTwoUsersWithMargin(live, gallery);
+
+        assertEquals("user_a", r.top1UserId);
+        assertEquals("user_b", r.top2UserId);
+        assertEquals(0f, r.margin, 1e-6f);
+        assertSame(a2, r.bestProfile);
+    }
+
+    @Test
+    public void packedGallery_singleUser_top2IsNull() {
+        float[] live = l2Normalize(new float[]{1f, 0f, 0f});
+        PackedGallery gallery = PackedGallery.build(Arrays.asList(
+                makeProfile("user_a", new float[]{1f, 0.1f, 0f}),
+                makeProfile("user_a", new float[]{1f, 0.2f, 0f})), 3);
+
+        EmbeddingMatcher.TopTwoResult r = EmbeddingMatcher.findTopTwoUsersWithMargin(live, gallery);
+
+        assertEquals("user_a", r.top1UserId);
+        assertNull(r.top2UserId);
+        assertEquals(0f, r.top2Score, 1e-6f);
+        assertEquals(r.top1Score, r.margin, 1e-6f);
+    }
+
+    // ── GalleryScores: 1회 스캔 결과에서 판정·진단 파생 ──────────────
+    @Test
+    public void scoreGallery_matchesTopTwoAndPerRowScores() {
+        java.util.Random rnd = new java.util.Random(5);
+        int dim = 16;
+        List<ProfileRecord> candidates = new java.util.ArrayList<>();
+        for (int i = 0; i < 120; i++) {
+            candidates.add(makeProfile("user_" + rnd.nextInt(30), randomVector(rnd, dim)));
+        }
+        PackedGallery gallery = PackedGallery.build(candidates, dim);
+        float[] live = randomVector(rnd, dim);
+
+        GalleryScores scores = EmbeddingMatcher.scoreGallery(live, gallery);
+        EmbeddingMatcher.TopTwoResult r = EmbeddingMatcher.findTopTwoUsersWithMargin(live, gallery);
+
+        assertEquals(r.top1UserId, scores.topTwo.top1UserId);
+        assertEquals(r.top2UserId, scores.topTwo.top2UserId);
+        assertEquals(r.top1Score, scores.topTwo.top1Score, 0f);
+        assertSame(r.bestProfile, scores.topTwo.bestProfile);
+        assertEquals(gallery.size(), scores.size());
+        assertEquals(gallery.size(), scores.scoredRows);
+        for (int row = 0; row < scores.size(); row++) {
+            assertEquals(gallery.scoreRow(live, PackedGallery.invNorm(live), row), scores.scoreAt(row), 0f);
+            assertSame(candidates.get(row), scores.profileAt(row));
+        }
+    }
+
+    @Test
+    public void scoreGallery_normStatsFromStoredNorms() {
+        ProfileRecord a = new ProfileRecord(0, "user_a", "NORMAL", new float[]{3f, 4f, 0f}, 3, 1.0f, 0L, "v1.0");
+        ProfileRecord b = new ProfileRecord(1, "user_b", "NORMAL", new float[]{0f, 0f, 2f}, 3, 1.0f, 0L, "v1.0");
+        GalleryScores scores = EmbeddingMatcher.scoreGallery(new float[]{0f, 6f, 8f},
+                PackedGallery.build(Arrays.asList(a, b), 3));
+
+        assertEquals(10f, scores.queryNorm, 1e-5f);
+        assertEquals(2f, scores.enrolledNormMin, 1e-5f);
+        assertEquals(5f, scores.enrolledNormMax, 1e-5f);
+        assertEquals(3, scores.dim);
+        assertEquals("MATCH", scores.decision(0.8f));
+        assertEquals("NO_MATCH", scores.decision(0.95f));
+    }
+
+    @Test
+    public void scoreGallery_empty_returnsNoMatch() {
+        GalleryScores scores = EmbeddingMatcher.scoreGallery(new float[]{1f, 0f, 0f},
+                PackedGallery.build(Collections.emptyList(), 3));
+        assertNull(scores.topTwo.top1UserId);
+        assertEquals(0, scores.size());
+        assertTrue(Float.isNaN(scores.enrolledNormMin));
+        assertEquals("NO_MATCH", scores.decision(0f));
+    }
+
+    @Test
+    public void topRows_returnsHighestScoredRowsDescending_skippingUnscored() {
+        float[] raw = {0.2f, Float.NaN, 0.9f, 0.5f, Float.NaN, 0.7f, 0.1f, 0.95f};
+        ProfileRecord[] rows = new ProfileRecord[raw.length];
+        for (int i = 0; i < rows.length; i++) rows[i] = makeProfile("user_" + i, new float[]{1f, i, 0f});
+        GalleryScores scores = new GalleryScores(new EmbeddingMatcher.TopTwoResult(null, 0f, null, 0f, 0f, null),
+                3, 1f, raw, new float[raw.length], rows, raw.length, 6);
+
+        assertArrayEquals(new int[]{7, 2, 5}, scores.topRows(3));
+        assertArrayEquals(new int[]{7, 2, 5, 3, 0, 6}, scores.topRows(6));
+        assertArrayEquals(new int[]{7, 2, 5, 3, 0, 6}, scores.topRows(10));
+    }
+
     // ── 헬퍼 ──────────────────────────────────────────────────────────
 
     private static ProfileRecord makeProfile(String userId, float[] emb) {
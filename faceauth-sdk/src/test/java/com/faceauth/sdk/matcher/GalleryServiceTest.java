@@ -0,0 +1,104 @@
+package com.faceauth.sdk.matcher;
+
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import com.faceauth.sdk.storage.ProfileRecord;
+
+import static org.junit.Assert.*;
+
+/**
+ * 공용 갤러리: 1회 로드 후 통지만으로 증분 갱신되는지 검증.
+ */
+public class GalleryServiceTest {
+
+    private static final int DIM = 4;
+
+    @Test
+    public void loadsOnce_thenUpdatesInMemory() {
+        AtomicInteger loads = new AtomicInteger();
+        List<ProfileRecord> db = new ArrayList<>();
+        db.add(record(1, "a"));
+        db.add(record(2, "b"));
+        GalleryService service = new GalleryService(sink -> {
+            loads.incrementAndGet();
+            sink.onBatch(new ArrayList<>(db.subList(0, 1)));
+            sink.onBatch(new ArrayList<>(db.subList(1, 2)));
+        }, DIM, false);
+
+        assertNull(service.peek());
+        GalleryService.Snapshot first = service.get();
+        assertSame(first, service.get());
+        assertEquals(2, first.profiles.size());
+        assertEquals("a", first.profiles.get(0).userId);
+        assertEquals(2, first.packed.size());
+
+        service.onProfileSaved(record(3, "c"));
+        GalleryService.Snapshot second = service.get();
+        assertTrue(second.version > first.version);
+        assertEquals(3, second.profiles.size());
+        assertEquals("c", second.profiles.get(2).userId);
+        assertEquals(1, second.templateCache.getTemplates("NORMAL", "c").size());
+
+        service.onProfileSaved(record(3, "c"));   // 중복 통지 무시
+        assertSame(second, service.get());
+
+        service.onUserDeleted("a");
+        assertEquals(2, service.get().profiles.size());
+        assertTrue(service.get().templateCache.getTemplates("NORMAL", "a").isEmpty());
+
+        service.onAllProfilesCleared();
+        assertTrue(service.get().isEmpty());
+        assertEquals(1, loads.get());
+    }
+
+    @Test
+    public void notificationsBeforeLoad_ignored() {
+        GalleryService service = new GalleryService(sink -> { }, DIM, true);
+        service.onProfileSaved(record(1, "a"));
+        assertNull(service.peek());
+        GalleryService.Snapshot s = service.get();
+        assertTrue(s.isEmpty());
+        assertNull(s.packed);
+        assertNotNull(s.templateCache.getQuantizedGallery());
+    }
+
+    @Test
+    public void interruptedLoad_publishesNothing_thenReloads() {
+        AtomicInteger loads = new AtomicInteger();
+        GalleryService service = new GalleryService(sink -> {
+            List<ProfileRecord> first = new ArrayList<>();
+            first.add(record(1, "a"));
+            sink.onBatch(first);
+            if (loads.incrementAndGet() == 1) {
+                // 두 번째 윈도 대기 중 인터럽트 (StorageManager.collect와 같은 처리)
+                Thread.currentThread().interrupt();
+                throw new CancellationException("interrupted");
+            }
+            List<ProfileRecord> second = new ArrayList<>();
+            second.add(record(2, "b"));
+            sink.onBatch(second);
+        }, DIM, false);
+
+        try {
+            service.get();
+            fail("expected CancellationException");
+        } catch (CancellationException expected) {
+            assertTrue(Thread.interrupted());
+        }
+        assertNull(service.peek());
+        assertFalse(service.isLoaded());
+
+        GalleryService.Snapshot s = service.get();
+        assertEquals(2, s.profiles.size());
+        assertEquals(2, loads.get());
+    }
+
+    private static ProfileRecord record(long id, String user) {
+        return new ProfileRecord(id, user, "NORMAL", new float[] { 1f, (float) id, 0f, 0f }, DIM, 1.0f, 0L, "v1");
+    }
+}
@@ -0,0 +1,183 @@
+package com.faceauth.sdk.matcher;
+
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import com.faceauth.sdk.storage.ProfileRecord;
+
+import static com.faceauth.sdk.matcher.TestVectors.*;
+import static org.junit.Assert.*;
+
+/**
+ * IVF 근사 후보 검색: 군집 데이터에서 recall, 증분 추가/삭제 검증.
+ */
+public class IvfIndexTest {
+
+    private static final int DIM = 32;
+
+    @Test
+    public void clusteredGallery_recallAt1High() {
+        Random rnd = new Random(3);
+        List<float[]> centers = new ArrayList<>();
+        List<ProfileRecord> gallery = clusteredProfiles(rnd, 300, 5, centers);
+        IvfIndex index = new IvfIndex(DIM, 0, 4);
+        index.rebuild(gallery);
+        assertTrue(index.isTrained());
+        assertEquals(gallery.size(), index.size());
+
+        List<float[]> queries = new ArrayList<>();
+        for (int q = 0; q < 50; q++) queries.add(jitter(rnd, centers.get(rnd.nextInt(centers.size())), 0.1f));
+        assertTrue(index.measureRecall(queries, 1) >= 0.95f);
+    }
+
+    @Test
+    public void candidates_rerankedEqualsExactTop1() {
+        Random rnd = new Random(5);
+        List<float[]> centers = new ArrayList<>();
+        List<ProfileRecord> gallery = clusteredProfiles(rnd, 200, 5, centers);
+        IvfIndex index = new IvfIndex(DIM, 16, 4);
+        index.rebuild(gallery);
+        for (int q = 0; q < 20; q++) {
+            float[] live = jitter(rnd, centers.get(q), 0.1f);
+            EmbeddingMatcher.TopTwoResult exact  = EmbeddingMatcher.findTopTwoUsersWithMargin(live, gallery);
+            EmbeddingMatcher.TopTwoResult approx =
+                    EmbeddingMatcher.findTopTwoUsersWithMargin(live, index.candidates(live, 8));
+            assertEquals(exact.top1UserId, approx.top1UserId);
+            assertEquals(exact.top1Score, approx.top1Score, 0f);
+        }
+    }
+
+    @Test
+    public void incrementalAddAndRemove() {
+        Random rnd = new Random(9);
+        List<float[]> centers = new ArrayList<>();
+        IvfIndex index = new IvfIndex(DIM, 8, 2);
+        index.rebuild(clusteredProfiles(rnd, 50, 3, centers));
+
+        float[] newcomer = randomVector(rnd, DIM);
+        index.onProfileSaved(new ProfileRecord(9999, "new", "NORMAL", newcomer, DIM, 1.0f, 0L, "v1"));
+        assertEquals(151, index.size());
+        assertEquals("new", index.searchUsers(newcomer, 1).get(0));
+
+        index.onUserDeleted("new");
+        assertEquals(150, index.size());
+        assertFalse(index.searchUsers(newcomer, 5).contains("new"));
+
+        index.onAllProfilesCleared();
+        assertEquals(0, index.size());
+        assertTrue(index.candidates(newcomer, 5).isEmpty());
+    }
+
+    @Test
+    public void training_runsOnTrainer_searchKeepsPreviousIndexUntilPublished() {
+        Random rnd = new Random(11);
+        List<float[]> centers = new ArrayList<>();
+        List<ProfileRecord> gallery = clusteredProfiles(rnd, 40, 2, centers);
+        List<Runnable> queued = new ArrayList<>();
+        IvfIndex index = new IvfIndex(DIM, 8, 2, queued::add);
+
+        index.rebuild(gallery);
+        assertTrue(index.isRebuilding());
+        assertEquals(0, index.size());          // 게시 전: 기존(빈) 인덱스
+        assertEquals(1, queued.size());
+        queued.remove(0).run();
+        assertFalse(index.isRebuilding());
+        assertTrue(index.isTrained());
+        assertEquals(80, index.size());
+
+        // 2배 초과로 커져도 검색은 학습하지 않고 예약만, 이전 센트로이드로 계속 검색
+        float[] newcomer = null;
+        for (int i = 0; i < 81; i++) {
+            newcomer = randomVector(rnd, DIM);
+            index.onProfileSaved(new ProfileRecord(1000 + i, "n" + i, "NORMAL", newcomer, DIM, 1.0f, 0L, "v1"));
+        }
+        assertEquals(1, queued.size());
+        assertEquals("n80", index.searchUsers(newcomer, 1).get(0));
+        assertEquals(1, queued.size());
+
+        // 학습 중 변경은 게시 후 재적용
+        float[] late = randomVector(rnd, DIM);
+        index.onProfileSaved(new ProfileRecord(5000, "late", "NORMAL", late, DIM, 1.0f, 0L, "v1"));
+        index.onUserDeleted("u0");
+        queued.remove(0).run();
+        assertTrue(queued.isEmpty());
+        assertEquals(80 + 81 + 1 - 2, index.size());
+        assertEquals("late", index.searchUsers(late, 1).get(0));
+        assertFalse(index.searchUsers(centers.get(0), 50).contains("u0"));
+    }
+
+    @Test
+    public void untrainedIndex_scansAllRows() {
+        List<Runnable> queued = new ArrayList<>();
+        IvfIndex index = new IvfIndex(DIM, 8, 1, queued::add);
+        Random rnd = new Random(13);
+        float[] v = randomVector(rnd, DIM);
+        index.onProfileSaved(new ProfileRecord(1, "solo", "NORMAL", v, DIM, 1.0f, 0L, "v1"));
+        assertFalse(index.isTrained());
+        assertEquals("solo", index.searchUsers(v, 1).get(0));
+        assertEquals(1, queued.size());
+    }
+
+    @Test
+    public void unindexableRows_countTowardCoveredCount() {
+        Random rnd = new Random(17);
+        List<float[]> centers = new ArrayList<>();
+        List<ProfileRecord> gallery = clusteredProfiles(rnd, 20, 3, centers);
+        gallery.add(new ProfileRecord(900, "zero", "NORMAL", new float[DIM], DIM, 1.0f, 0L, "v1"));
+        gallery.add(new ProfileRecord(901, "short", "NORMAL", new float[DIM / 2], DIM / 2, 1.0f, 0L, "v1"));
+
+        IvfIndex index = new IvfIndex(DIM, 4, 2);
+        index.rebuild(gallery);
+        assertEquals(60, index.size());
+        assertEquals(gallery.size(), index.coveredCount());
+
+        // 재학습·재적용에도 제외 행 유지, 사용자 삭제 시 함께 빠짐
+        index.onProfileSaved(new ProfileRecord(902, "zero", "NORMAL", new float[DIM], DIM, 1.0f, 0L, "v1"));
+        assertEquals(gallery.size() + 1, index.coveredCount());
+        index.onUserDeleted("zero");
+        assertEquals(gallery.size() - 1, index.coveredCount());
+        assertEquals(60, index.size());
+    }
+
+    @Test
+    public void searchUsers_ordersByBestScore_acrossRepeatedQueries() {
+        IvfIndex index = new IvfIndex(4, 4, 4);   // 전 리스트 탐색 → 근사 = 정확
+        List<ProfileRecord> gallery = new ArrayList<>();
+        gallery.add(new ProfileRecord(1, "far",  "NORMAL", new float[] { 0f, 1f, 0f, 0f }, 4, 1.0f, 0L, "v1"));
+        gallery.add(new ProfileRecord(2, "near", "NORMAL", new float[] { 1f, 0.1f, 0f, 0f }, 4, 1.0f, 0L, "v1"));
+        gallery.add(new ProfileRecord(3, "mid",  "NORMAL", new float[] { 1f, 1f, 0f, 0f }, 4, 1.0f, 0L, "v1"));
+        gallery.add(new ProfileRecord(4, "far",  "NORMAL", new float[] { 1f, 2f, 0f, 0f }, 4, 1.0f, 0L, "v1"));
+        index.rebuild(gallery);
+
+        float[] q = { 1f, 0f, 0f, 0f };
+        assertEquals(List.of("near", "mid", "far"), index.searchUsers(q, 5));
+        assertEquals(List.of("near", "mid"), index.searchUsers(q, 2));
+        assertEquals(List.of("far", "mid", "near"), index.searchUsers(new float[] { 0f, 1f, 0f, 0f }, 3));
+    }
+
+    @Test
+    public void recallSamples_accumulate() {
+        IvfIndex index = new IvfIndex(DIM, 0, 1);
+        assertEquals(1f, index.recordRecallSample("a", "a"), 0f);
+        assertEquals(0.5f, index.recordRecallSample("b", "a"), 0f);
+        assertEquals(2, index.recallSampleCount());
+    }
+
+    /** users명, 사용자당 perUser개 템플릿 (사용자 중심 근처). centers에 사용자 중심 추가. */
+    private static List<ProfileRecord> clusteredProfiles(Random rnd, int users, int perUser, List<float[]> centers) {
+        List<ProfileRecord> list = new ArrayList<>(users * perUser);
+        long id = 0;
+        for (int u = 0; u < users; u++) {
+            float[] c = randomVector(rnd, DIM);
+            centers.add(c);
+            for (int t = 0; t < perUser; t++) {
+                list.add(new ProfileRecord(id++, "u" + u, "NORMAL", jitter(rnd, c, 0.1f), DIM, 1.0f,
+                        System.currentTimeMillis(), "v1"));
+            }
+        }
+        return list;
+    }
+}
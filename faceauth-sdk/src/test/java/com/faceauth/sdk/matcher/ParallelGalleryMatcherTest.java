@@ -0,0 +1,88 @@
+package com.faceauth.sdk.matcher;
+
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import com.faceauth.sdk.storage.ProfileRecord;
+
+import static com.faceauth.sdk.matcher.TestVectors.*;
+import static org.junit.Assert.*;
+
+/**
+ * 병렬 샤드 스캔이 직렬 스캔과 동일한 결과를 내는지 검증.
+ */
+public class ParallelGalleryMatcherTest {
+
+    private static final int DIM = 32;
+
+    @Test
+    public void parallel_equalsSerial() {
+        Random rnd = new Random(7);
+        PackedGallery gallery = PackedGallery.build(randomProfiles(rnd, 3000, 400), DIM);
+        ParallelGalleryMatcher matcher = new ParallelGalleryMatcher(4, 1000);
+        try {
+            assertTrue(matcher.isParallelFor(gallery));
+            for (int q = 0; q < 30; q++) {
+                float[] live = randomVector(rnd, DIM);
+                EmbeddingMatcher.TopTwoResult serial = EmbeddingMatcher.findTopTwoUsersWithMargin(live, gallery);
+                EmbeddingMatcher.TopTwoResult parallel = matcher.findTopTwoUsersWithMargin(live, gallery);
+                assertEquals(serial.top1UserId, parallel.top1UserId);
+                assertEquals(serial.top2UserId, parallel.top2UserId);
+                assertEquals(serial.top1Score, parallel.top1Score, 0f);
+                assertEquals(serial.top2Score, parallel.top2Score, 0f);
+                assertSame(serial.bestProfile, parallel.bestProfile);
+            }
+        } finally {
+            matcher.close();
+        }
+    }
+
+    @Test
+    public void parallelScoreGallery_equalsSerial() {
+        Random rnd = new Random(9);
+        PackedGallery gallery = PackedGallery.build(randomProfiles(rnd, 3000, 400), DIM);
+        ParallelGalleryMatcher matcher = new ParallelGalleryMatcher(4, 1000);
+        try {
+            float[] live = randomVector(rnd, DIM);
+            GalleryScores serial = EmbeddingMatcher.scoreGallery(live, gallery);
+            GalleryScores parallel = matcher.scoreGallery(live, gallery);
+            assertEquals(serial.topTwo.top1UserId, parallel.topTwo.top1UserId);
+            assertEquals(serial.topTwo.top2UserId, parallel.topTwo.top2UserId);
+            assertSame(serial.topTwo.bestProfile, parallel.topTwo.bestProfile);
+            assertEquals(serial.size(), parallel.size());
+            for (int row = 0; row < serial.size(); row++) {
+                assertEquals(serial.scoreAt(row), parallel.scoreAt(row), 0f);
+            }
+        } finally {
+            matcher.close();
+        }
+    }
+
+    @Test
+    public void belowThreshold_runsSerial() {
+        Random rnd = new Random(11);
+        PackedGallery gallery = PackedGallery.build(randomProfiles(rnd, 600, 50), DIM);
+        ParallelGalleryMatcher matcher = new ParallelGalleryMatcher(4, 2048);
+        try {
+            assertFalse(matcher.isParallelFor(gallery));
+            float[] live = randomVector(rnd, DIM);
+            assertEquals(EmbeddingMatcher.findTopTwoUsersWithMargin(live, gallery).top1UserId,
+                    matcher.findTopTwoUsersWithMargin(live, gallery).top1UserId);
+        } finally {
+            matcher.close();
+        }
+    }
+
+    private static List<ProfileRecord> randomProfiles(Random rnd, int count, int users) {
+        List<ProfileRecord> list = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            float[] emb = randomVector(rnd, DIM);
+            list.add(new ProfileRecord(i, "u" + rnd.nextInt(users), "NORMAL", emb, DIM, 1.0f,
+                    System.currentTimeMillis(), "v1"));
+        }
+        return list;
+    }
+}
@@ -0,0 +1,112 @@
+package com.faceauth.sdk.matcher;
+
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import com.faceauth.sdk.storage.ProfileRecord;
+
+import static com.faceauth.sdk.matcher.TestVectors.*;
+import static org.junit.Assert.*;
+
+/**
+ * int8 양자화 스캔 + 후보 재점수화가 float 스캔과 동일한 Top-2를 내는지 검증.
+ */
+public class QuantizedGalleryTest {
+
+    private static final int DIM = 128;
+
+    @Test
+    public void quantized_equalsFloatScan() {
+        Random rnd = new Random(21);
+        List<float[]> centers = new ArrayList<>();
+        List<ProfileRecord> profiles = new ArrayList<>();
+        for (int u = 0; u < 200; u++) {
+            float[] c = randomVector(rnd, DIM);
+            centers.add(c);
+            for (int t = 0; t < 3; t++) {
+                profiles.add(new ProfileRecord(profiles.size(), "u" + u, "NORMAL", jitter(rnd, c, 0.3f),
+                        DIM, 1.0f, 0L, "v1"));
+            }
+        }
+        PackedGallery packed = PackedGallery.build(profiles, DIM);
+        QuantizedGallery quantized = QuantizedGallery.build(profiles, DIM);
+        assertEquals(packed.size() * DIM, quantized.codeBytes());
+
+        int[] stats = new int[2];
+        for (int q = 0; q < 50; q++) {
+            float[] live = q % 2 == 0 ? jitter(rnd, centers.get(q), 0.3f) : randomVector(rnd, DIM);
+            EmbeddingMatcher.TopTwoResult exact = EmbeddingMatcher.findTopTwoUsersWithMargin(live, packed);
+            EmbeddingMatcher.TopTwoResult approx = quantized.findTopTwoUsersWithMargin(live, stats, null);
+            assertEquals(exact.top1UserId, approx.top1UserId);
+            assertEquals(exact.top2UserId, approx.top2UserId);
+            assertEquals(exact.top1Score, approx.top1Score, 0f);
+            assertEquals(exact.top2Score, approx.top2Score, 0f);
+            assertSame(exact.bestProfile, approx.bestProfile);
+            if (q % 2 == 0) assertTrue(stats[0] < packed.size());
+        }
+    }
+
+    @Test
+    public void scoreGallery_scoresRescoredRowsOnly() {
+        Random rnd = new Random(23);
+        List<float[]> centers = new ArrayList<>();
+        List<ProfileRecord> profiles = new ArrayList<>();
+        for (int u = 0; u < 100; u++) {
+            float[] c = randomVector(rnd, DIM);
+            centers.add(c);
+            for (int t = 0; t < 3; t++) {
+                profiles.add(new ProfileRecord(profiles.size(), "u" + u, "NORMAL", jitter(rnd, c, 0.3f),
+                        DIM, 1.0f, 0L, "v1"));
+            }
+        }
+        PackedGallery packed = PackedGallery.build(profiles, DIM);
+        QuantizedGallery quantized = QuantizedGallery.build(profiles, DIM);
+        float[] live = jitter(rnd, centers.get(7), 0.3f);
+
+        GalleryScores scores = quantized.scoreGallery(live);
+        EmbeddingMatcher.TopTwoResult exact = EmbeddingMatcher.findTopTwoUsersWithMargin(live, packed);
+        assertEquals(exact.top1UserId, scores.topTwo.top1UserId);
+        assertEquals(exact.top1Score, scores.topTwo.top1Score, 0f);
+        assertTrue(scores.scoredRows < scores.size());
+
+        int scored = 0;
+        for (int row = 0; row < scores.size(); row++) {
+            float s = scores.scoreAt(row);
+            if (Float.isNaN(s)) continue;
+            assertEquals(PackedGallery.scoreExact(live, PackedGallery.invNorm(live), profiles.get(row).embedding), s, 0f);
+            scored++;
+        }
+        assertEquals(scores.scoredRows, scored);
+    }
+
+    @Test
+    public void zeroVectors_matchFloatScan() {
+        List<ProfileRecord> profiles = new ArrayList<>();
+        profiles.add(new ProfileRecord(0, "zero", "NORMAL", new float[DIM], DIM, 1.0f, 0L, "v1"));
+        profiles.add(new ProfileRecord(1, "a", "NORMAL", randomVector(new Random(1), DIM), DIM, 1.0f, 0L, "v1"));
+        PackedGallery packed = PackedGallery.build(profiles, DIM);
+        QuantizedGallery quantized = QuantizedGallery.build(profiles, DIM);
+        for (float[] live : new float[][] { new float[DIM], randomVector(new Random(2), DIM) }) {
+            EmbeddingMatcher.TopTwoResult exact = EmbeddingMatcher.findTopTwoUsersWithMargin(live, packed);
+            EmbeddingMatcher.TopTwoResult approx = quantized.findTopTwoUsersWithMargin(live);
+            assertEquals(exact.top1UserId, approx.top1UserId);
+            assertEquals(exact.top2UserId, approx.top2UserId);
+            assertEquals(exact.top1Score, approx.top1Score, 0f);
+        }
+    }
+
+    @Test
+    public void templateCache_buildsQuantizedOnlyWhenEnabled() {
+        List<ProfileRecord> profiles = new ArrayList<>();
+        profiles.add(new ProfileRecord(0, "a", "NORMAL", randomVector(new Random(3), DIM), DIM, 1.0f, 0L, "v1"));
+        TemplateCache plain = new TemplateCache(DIM);
+        plain.setProfiles(profiles);
+        assertNull(plain.getQuantizedGallery());
+        TemplateCache q = new TemplateCache(DIM, true);
+        q.setProfiles(profiles);
+        assertEquals(1, q.getQuantizedGallery().size());
+    }
+}
@@ -0,0 +1,132 @@
+package com.faceauth.sdk.matcher;
+
+import com.faceauth.sdk.storage.ProfileRecord;
+
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+
+import static com.faceauth.sdk.matcher.TestVectors.*;
+import static org.junit.Assert.*;
+
+/**
+ * TemplateCache 증분 갱신: add/remove 결과가 전체 재구성과 같고, 센트로이드는 정규화, 통계는 합에서 유도.
+ */
+public class TemplateCacheTest {
+
+    private static final int DIM = 8;
+
+    @Test
+    public void incrementalUpdates_matchFullRebuild() {
+        Random rnd = new Random(11);
+        List<ProfileRecord> all = new ArrayList<>();
+        for (int i = 0; i < 12; i++) {
+            all.add(profile(i, "u" + (i % 3), randomVector(rnd, DIM)));
+        }
+        TemplateCache incremental = new TemplateCache(DIM);
+        for (ProfileRecord p : all) assertTrue(incremental.addProfile(p));
+        assertTrue(incremental.removeProfile(all.get(4)));
+        assertEquals(4, incremental.removeUser("u2"));
+
+        List<ProfileRecord> remaining = new ArrayList<>();
+        for (ProfileRecord p : all) {
+            if (p != all.get(4) && !"u2".equals(p.userId)) remaining.add(p);
+        }
+        TemplateCache rebuilt = new TemplateCache(DIM);
+        rebuilt.setProfiles(remaining);
+
+        assertEquals(rebuilt.size(), incremental.size());
+        for (String u : new String[]{"u0", "u1"}) {
+            assertEquals(rebuilt.getTemplates("NORMAL", u), incremental.getTemplates("NORMAL", u));
+            assertArrayEquals(rebuilt.getCentroid("NORMAL", u), incremental.getCentroid("NORMAL", u), 1e-5f);
+            assertEquals(rebuilt.getStats("NORMAL", u).meanPairwiseCos,
+                    incremental.getStats("NORMAL", u).meanPairwiseCos, 1e-5f);
+        }
+        assertNull(incremental.getCentroid("NORMAL", "u2"));
+        assertTrue(incremental.getTemplates("NORMAL", "u2").isEmpty());
+    }
+
+    @Test
+    public void centroid_isNormalizedMeanDirection() {
+        TemplateCache cache = new TemplateCache(2);
+        cache.addProfile(new ProfileRecord(1, "a", "NORMAL", new float[]{3f, 0f}, 2, 1f, 0L, "v1"));
+        cache.addProfile(new ProfileRecord(2, "a", "NORMAL", new float[]{0f, 0.5f}, 2, 1f, 0L, "v1"));
+        float h = (float) Math.sqrt(0.5);
+        assertArrayEquals(new float[]{h, h}, cache.getCentroid("NORMAL", "a"), 1e-6f);
+
+        TemplateCache.Stats st = cache.getStats("NORMAL", "a");
+        assertEquals(2, st.count);
+        assertEquals(h, st.meanCosToCentroid, 1e-6f);    // 각 템플릿과 센트로이드는 45°
+        assertEquals(0f, st.meanPairwiseCos, 1e-6f);     // 직교 템플릿
+    }
+
+    @Test
+    public void profileTypes_areSeparateUsers() {
+        TemplateCache cache = new TemplateCache(2);
+        cache.addProfile(new ProfileRecord(1, "a", "NORMAL", new float[]{1f, 0f}, 2, 1f, 0L, "v1"));
+        cache.addProfile(new ProfileRecord(2, "a", "HELMET", new float[]{0f, 1f}, 2, 1f, 0L, "v1"));
+        assertArrayEquals(new float[]{1f, 0f}, cache.getCentroid("NORMAL", "a"), 1e-6f);
+        assertArrayEquals(new float[]{0f, 1f}, cache.getCentroid("HELMET", "a"), 1e-6f);
+        assertEquals(2, cache.removeUser("a"));
+        assertEquals(0, cache.size());
+    }
+
+    @Test
+    public void copy_isIndependent() {
+        TemplateCache base = new TemplateCache(2);
+        base.addProfile(new ProfileRecord(1, "a", "NORMAL", new float[]{1f, 0f}, 2, 1f, 0L, "v1"));
+        TemplateCache patched = base.copy();
+        patched.addProfile(new ProfileRecord(2, "b", "NORMAL", new float[]{0f, 1f}, 2, 1f, 0L, "v1"));
+        assertEquals(1, base.size());
+        assertEquals(2, patched.size());
+        assertNull(base.getCentroid("NORMAL", "b"));
+    }
+
+    @Test
+    public void invalidOrMissing_isIgnored() {
+        TemplateCache cache = new TemplateCache(DIM);
+        assertFalse(cache.addProfile(null));
+        assertFalse(cache.addProfile(new ProfileRecord(1, "a", "NORMAL", new float[3], 3, 1f, 0L, "v1")));
+        assertFalse(cache.removeProfile(profile(9, "nobody", new float[DIM])));
+        assertEquals(0, cache.removeUser("nobody"));
+        assertNull(cache.getStats("NORMAL", "a"));
+    }
+
+    @Test
+    public void removeProfile_duplicatedInstance_removesOneCopy() {
+        TemplateCache cache = new TemplateCache(DIM);
+        ProfileRecord p = profile(1, "a", randomVector(new Random(3), DIM));
+        ProfileRecord q = profile(2, "a", randomVector(new Random(4), DIM));
+        cache.setProfiles(Arrays.asList(p, q, p));
+
+        assertTrue(cache.removeProfile(p));
+        assertEquals(2, cache.size());
+        assertEquals(2, cache.getTemplates("NORMAL", "a").size());
+        assertTrue(cache.removeProfile(p));
+        assertEquals(1, cache.size());
+        assertSame(q, cache.getTemplates("NORMAL", "a").get(0));
+        TemplateCache only = new TemplateCache(DIM);
+        only.setProfiles(Arrays.asList(q));
+        assertArrayEquals(only.getCentroid("NORMAL", "a"), cache.getCentroid("NORMAL", "a"), 1e-5f);
+        assertFalse(cache.removeProfile(p));
+    }
+
+    @Test
+    public void quantizedGallery_followsIncrementalUpdates() {
+        TemplateCache cache = new TemplateCache(DIM, true);
+        Random rnd = new Random(5);
+        cache.setProfiles(Arrays.asList(profile(1, "a", randomVector(rnd, DIM))));
+        assertEquals(1, cache.getQuantizedGallery().size());
+        cache.addProfile(profile(2, "b", randomVector(rnd, DIM)));
+        assertEquals(2, cache.getQuantizedGallery().size());
+        cache.removeUser("a");
+        assertEquals(1, cache.getQuantizedGallery().size());
+    }
+
+    private static ProfileRecord profile(long id, String userId, float[] emb) {
+        return new ProfileRecord(id, userId, "NORMAL", emb, emb.length, 1.0f, 0L, "v1");
+    }
+}
@@ -0,0 +1,80 @@
+package com.faceauth.sdk.matcher;
+
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+/**
+ * TemporalFusion: 같은 트랙 임베딩 정규화 평균, 트랙 변경 시 초기화, 그레이존 프레임 수 제한.
+ */
+public class TemporalFusionTest {
+
+    private static final float T_HIGH = 0.88f, M_HIGH = 0.06f, T_LOW = 0.70f;
+
+    @Test
+    public void sameTrack_fusesNormalizedMean() {
+        TemporalFusion f = new TemporalFusion(3);
+        f.add(1, new float[]{2f, 0f});           // 크기와 무관하게 정규화 후 누적
+        float[] fused = f.add(1, new float[]{0f, 0.5f});
+        assertEquals(2, f.count());
+        float h = (float) Math.sqrt(0.5);
+        assertArrayEquals(new float[]{h, h}, fused, 1e-6f);
+    }
+
+    @Test
+    public void trackChange_restarts() {
+        TemporalFusion f = new TemporalFusion(3);
+        f.add(1, new float[]{1f, 0f});
+        float[] fused = f.add(2, new float[]{0f, 1f});
+        assertEquals(1, f.count());
+        assertArrayEquals(new float[]{0f, 1f}, fused, 1e-6f);
+
+        f.add(null, new float[]{1f, 0f});
+        f.add(null, new float[]{1f, 0f});
+        assertEquals(1, f.count());              // trackingId 없으면 융합하지 않음
+    }
+
+    @Test
+    public void band_acceptsAndRejectsImmediately() {
+        TemporalFusion f = new TemporalFusion(3);
+        f.add(1, new float[]{1f, 0f});
+        assertEquals(TemporalFusion.Band.ACCEPT, f.band(0.92f, 0.10f, T_HIGH, M_HIGH, T_LOW));
+        assertEquals(TemporalFusion.Band.REJECT, f.band(0.60f, 0.10f, T_HIGH, M_HIGH, T_LOW));
+    }
+
+    @Test
+    public void grayZone_collectsUntilMaxFrames() {
+        TemporalFusion f = new TemporalFusion(3);
+        f.add(1, new float[]{1f, 0f});
+        assertEquals(TemporalFusion.Band.COLLECT, f.band(0.80f, 0.10f, T_HIGH, M_HIGH, T_LOW));
+        f.add(1, new float[]{1f, 0f});
+        assertEquals(TemporalFusion.Band.COLLECT, f.band(0.90f, 0.01f, T_HIGH, M_HIGH, T_LOW));
+        f.add(1, new float[]{1f, 0f});
+        assertEquals(TemporalFusion.Band.GRAY, f.band(0.80f, 0.10f, T_HIGH, M_HIGH, T_LOW));
+
+        f.reset();
+        assertEquals(0, f.count());
+    }
+
+    @Test
+    public void settle_endsCollectionWithCurrentFusion() {
+        TemporalFusion f = new TemporalFusion(3);
+        assertNull(f.settle());
+        f.add(1, new float[]{1f, 0f});
+        assertTrue(f.isTracking(1));
+        assertFalse(f.isTracking(2));
+        assertArrayEquals(new float[]{1f, 0f}, f.settle(), 1e-6f);
+        assertEquals(1, f.count());
+        assertEquals(TemporalFusion.Band.GRAY, f.band(0.80f, 0.10f, T_HIGH, M_HIGH, T_LOW));
+
+        f.add(2, new float[]{0f, 1f});          // 새 트랙 → 다시 모음
+        assertEquals(TemporalFusion.Band.COLLECT, f.band(0.80f, 0.10f, T_HIGH, M_HIGH, T_LOW));
+    }
+
+    @Test
+    public void singleFrameMode_goesStraightToGray() {
+        TemporalFusion f = new TemporalFusion(1);
+        f.add(1, new float[]{1f, 0f});
+        assertEquals(TemporalFusion.Band.GRAY, f.band(0.80f, 0.10f, T_HIGH, M_HIGH, T_LOW));
+    }
+}
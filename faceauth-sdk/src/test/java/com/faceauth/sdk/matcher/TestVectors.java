@@ -0,0 +1,24 @@
+package com.faceauth.sdk.matcher;
+
+import java.util.Random;
+
+/**
+ * matcher 테스트 공용 합성 임베딩 (정규화하지 않은 가우시안 벡터).
+ */
+final class TestVectors {
+
+    private TestVectors() {}
+
+    static float[] randomVector(Random rnd, int dim) {
+        float[] v = new float[dim];
+        for (int i = 0; i < dim; i++) v[i] = (float) rnd.nextGaussian();
+        return v;
+    }
+
+    /** c 주변 표준편차 sigma 가우시안 잡음 (같은 사용자 재촬영 흉내). */
+    static float[] jitter(Random rnd, float[] c, float sigma) {
+        float[] v = new float[c.length];
+        for (int i = 0; i < c.length; i++) v[i] = c[i] + (float) (rnd.nextGaussian() * sigma);
+        return v;
+    }
+}
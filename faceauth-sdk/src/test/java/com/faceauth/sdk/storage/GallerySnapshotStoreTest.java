@@ -0,0 +1,133 @@
+package com.faceauth.sdk.storage;
+
+import org.junit.Test;
+
+import java.io.File;
+import java.io.RandomAccessFile;
+import java.util.ArrayList;
+import java.util.List;
+
+import javax.crypto.Cipher;
+import javax.crypto.spec.GCMParameterSpec;
+import javax.crypto.spec.SecretKeySpec;
+
+import static org.junit.Assert.*;
+
+/**
+ * 스냅샷 재작성/로드 왕복, 세그먼트 추가, stale·손상 감지 검증 (Keystore 대신 소프트웨어 래퍼).
+ */
+public class GallerySnapshotStoreTest {
+
+    private static final int DIM = 8;
+
+    /** 고정 키 AES-GCM 래퍼 (테스트 전용). */
+    private static final GallerySnapshotStore.KeyWrapper WRAPPER = new GallerySnapshotStore.KeyWrapper() {
+        private final SecretKeySpec kek = new SecretKeySpec(new byte[32], "AES");
+        private final byte[] iv = new byte[12];
+
+        @Override public byte[] wrapKey(byte[] rawKey) throws CryptoException {
+            return run(Cipher.ENCRYPT_MODE, rawKey);
+        }
+
+        @Override public byte[] unwrapKey(byte[] wrapped) throws CryptoException {
+            return run(Cipher.DECRYPT_MODE, wrapped);
+        }
+
+        private byte[] run(int mode, byte[] in) throws CryptoException {
+            try {
+                Cipher c = Cipher.getInstance("AES/GCM/NoPadding");
+                c.init(mode, kek, new GCMParameterSpec(128, iv));
+                return c.doFinal(in);
+            } catch (Exception e) {
+                throw new CryptoException("wrap", e);
+            }
+        }
+    };
+
+    @Test
+    public void rebuildThenLoad_roundTrips() throws Exception {
+        File f = tempFile();
+        List<ProfileRecord> rows = new ArrayList<>();
+        rows.add(record(1, "a", "NORMAL"));
+        rows.add(record(2, "b", "HELMET"));
+        GallerySnapshotStore.Fingerprint fp = new GallerySnapshotStore.Fingerprint(2, 2, 3);
+
+        assertTrue(new GallerySnapshotStore(f, WRAPPER, DIM, "v1").rebuild(rows, fp, 0));
+        List<ProfileRecord> loaded = new GallerySnapshotStore(f, WRAPPER, DIM, "v1").load(fp);
+        assertNotNull(loaded);
+        assertEquals(2, loaded.size());
+        assertEquals("b", loaded.get(1).userId);
+        assertEquals("HELMET", loaded.get(1).profileType);
+        assertEquals(2, loaded.get(1).profileId);
+        assertArrayEquals(rows.get(1).embedding, loaded.get(1).embedding, 0f);
+    }
+
+    @Test
+    public void appendSegments_appliedInOrder() throws Exception {
+        File f = tempFile();
+        List<ProfileRecord> rows = new ArrayList<>();
+        rows.add(record(1, "a", "NORMAL"));
+        GallerySnapshotStore store = new GallerySnapshotStore(f, WRAPPER, DIM, "v1");
+        store.rebuild(rows, new GallerySnapshotStore.Fingerprint(1, 1, 1), 0);
+        store.appendProfile(record(2, "b", "NORMAL"), new GallerySnapshotStore.Fingerprint(2, 2, 3));
+        store.appendUserDeleted("a", new GallerySnapshotStore.Fingerprint(1, 2, 2));
+        store.appendProfile(record(3, "c", "NORMAL"), new GallerySnapshotStore.Fingerprint(2, 3, 5));
+
+        List<ProfileRecord> loaded = new GallerySnapshotStore(f, WRAPPER, DIM, "v1")
+                .load(new GallerySnapshotStore.Fingerprint(2, 3, 5));
+        assertNotNull(loaded);
+        assertEquals(2, loaded.size());
+        assertEquals("b", loaded.get(0).userId);
+        assertEquals("c", loaded.get(1).userId);
+    }
+
+    @Test
+    public void skippedRows_countTowardFingerprint() throws Exception {
+        File f = tempFile();
+        List<ProfileRecord> rows = new ArrayList<>();
+        rows.add(record(1, "a", "NORMAL"));
+        rows.add(record(3, "c", "NORMAL"));
+        GallerySnapshotStore.Fingerprint fp = new GallerySnapshotStore.Fingerprint(3, 3, 6);   // id 2 복호화 실패
+
+        assertTrue(new GallerySnapshotStore(f, WRAPPER, DIM, "v1").rebuild(rows, fp, 1));
+        List<ProfileRecord> loaded = new GallerySnapshotStore(f, WRAPPER, DIM, "v1").load(fp);
+        assertNotNull(loaded);
+        assertEquals(2, loaded.size());
+
+        assertTrue(new GallerySnapshotStore(f, WRAPPER, DIM, "v1").rebuild(rows, fp, 0));
+        assertNull(new GallerySnapshotStore(f, WRAPPER, DIM, "v1").load(fp));
+    }
+
+    @Test
+    public void staleOrCorrupt_returnsNull() throws Exception {
+        File f = tempFile();
+        List<ProfileRecord> rows = new ArrayList<>();
+        rows.add(record(1, "a", "NORMAL"));
+        GallerySnapshotStore.Fingerprint fp = new GallerySnapshotStore.Fingerprint(1, 1, 1);
+        new GallerySnapshotStore(f, WRAPPER, DIM, "v1").rebuild(rows, fp, 0);
+
+        assertNull(new GallerySnapshotStore(f, WRAPPER, DIM, "v1")
+                .load(new GallerySnapshotStore.Fingerprint(2, 2, 3)));
+        assertNull(new GallerySnapshotStore(f, WRAPPER, DIM, "v2").load(fp));
+
+        try (RandomAccessFile raf = new RandomAccessFile(f, "rw")) {
+            raf.seek(raf.length() - 1);
+            int b = raf.read();
+            raf.seek(raf.length() - 1);
+            raf.write(b ^ 0xFF);
+        }
+        assertNull(new GallerySnapshotStore(f, WRAPPER, DIM, "v1").load(fp));
+    }
+
+    private static File tempFile() throws Exception {
+        File f = File.createTempFile("gallery", ".snap");
+        f.deleteOnExit();
+        return f;
+    }
+
+    private static ProfileRecord record(long id, String user, String type) {
+        float[] emb = new float[DIM];
+        for (int i = 0; i < DIM; i++) emb[i] = id + i * 0.5f;
+        return new ProfileRecord(id, user, type, emb, DIM, 0.9f, 1000L + id, "v1");
+    }
+}
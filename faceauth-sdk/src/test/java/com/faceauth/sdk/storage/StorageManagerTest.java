@@ -0,0 +1,57 @@
+package com.faceauth.sdk.storage;
+
+import org.junit.Test;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.Future;
+import java.util.concurrent.FutureTask;
+
+import static org.junit.Assert.*;
+
+/**
+ * 일괄 로드 결과 수집: 실패 행 스킵, 인터럽트 시 부분 목록 대신 중단.
+ */
+public class StorageManagerTest {
+
+    @Test
+    public void collect_skipsFailedRows_inSubmitOrder() {
+        List<ProfileRecord> out = StorageManager.collect(Arrays.asList(
+                done(record(1)), done(null), failed(), done(record(4))));
+        assertEquals(2, out.size());
+        assertEquals(1, out.get(0).profileId);
+        assertEquals(4, out.get(1).profileId);
+    }
+
+    @Test
+    public void collect_interrupted_cancelsRemainingAndThrows() {
+        FutureTask<ProfileRecord> blocked = new FutureTask<>(() -> record(2));   // 실행되지 않음
+        FutureTask<ProfileRecord> later   = new FutureTask<>(() -> record(3));
+        Thread.currentThread().interrupt();
+        try {
+            StorageManager.collect(Arrays.asList(done(record(1)), blocked, later));
+            fail("expected CancellationException");
+        } catch (CancellationException expected) {
+            assertTrue(Thread.interrupted());   // 플래그 유지
+        }
+        assertTrue(blocked.isCancelled());
+        assertTrue(later.isCancelled());
+    }
+
+    private static Future<ProfileRecord> done(ProfileRecord r) {
+        FutureTask<ProfileRecord> f = new FutureTask<>(() -> r);
+        f.run();
+        return f;
+    }
+
+    private static Future<ProfileRecord> failed() {
+        FutureTask<ProfileRecord> f = new FutureTask<>(() -> { throw new IllegalStateException("decrypt"); });
+        f.run();
+        return f;
+    }
+
+    private static ProfileRecord record(long id) {
+        return new ProfileRecord(id, "u" + id, "NORMAL", new float[] { 1f, 0f }, 2, 1.0f, 0L, "v1");
+    }
+}
@@ -0,0 +1,114 @@
+package com.faceauth.sdk.util;
+
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.Assert.*;
+
+/**
+ * SharedEngine: 참조 카운트 공유, 유휴 닫기, 사전 워밍업.
+ */
+public class SharedEngineTest {
+
+    /** 생성·닫기 기록용 가짜 엔진. */
+    private static final class Fake {
+        final int id;
+        boolean closed;
+        Fake(int id) { this.id = id; }
+    }
+
+    private final List<Fake> created = new ArrayList<>();
+
+    private SharedEngine<Fake, RuntimeException> engine(long idleMs, ScheduledExecutorService timer) {
+        return new SharedEngine<>(() -> {
+            Fake f = new Fake(created.size());
+            created.add(f);
+            return f;
+        }, f -> f.closed = true, idleMs, timer);
+    }
+
+    @Test
+    public void acquire_sharesOneInstance_closesWhenLastReleased() {
+        SharedEngine<Fake, RuntimeException> e = engine(0, null);
+        Fake a = e.acquire();
+        Fake b = e.acquire();
+        assertSame(a, b);
+        assertEquals(2, e.refCount());
+
+        e.release();
+        assertFalse(a.closed);
+        e.release();
+        assertTrue(a.closed);
+        assertFalse(e.isOpen());
+
+        e.release();   // 과다 release 무시
+        assertEquals(0, e.refCount());
+        assertNotSame(a, e.acquire());
+        assertEquals(2, created.size());
+    }
+
+    @Test
+    public void negativeIdle_keepsInstanceUntilClose() {
+        SharedEngine<Fake, RuntimeException> e = engine(-1, null);
+        Fake a = e.acquire();
+        e.release();
+        assertTrue(e.isOpen());
+        assertSame(a, e.acquire());
+        e.close();
+        assertTrue(a.closed);
+        assertEquals(0, e.refCount());
+    }
+
+    @Test
+    public void warm_createsWithoutReference_andAcquireReusesIt() {
+        SharedEngine<Fake, RuntimeException> e = engine(0, null);
+        Fake w = e.warm();
+        assertSame(w, e.warm());
+        assertEquals(0, e.refCount());
+        assertTrue(e.isOpen());
+        assertSame(w, e.acquire());
+        assertEquals(1, created.size());
+    }
+
+    @Test
+    public void idleClose_firesAfterDelay_unlessReacquired() throws Exception {
+        ScheduledExecutorService timer = Executors.newSingleThreadScheduledExecutor();
+        try {
+            SharedEngine<Fake, RuntimeException> e = engine(50, timer);
+            Fake a = e.acquire();
+            e.release();
+            assertSame(a, e.acquire());   // 유휴 닫기 전 재획득 → 예약 취소
+            Thread.sleep(120);
+            assertFalse(a.closed);
+
+            e.release();
+            CountDownLatch drained = new CountDownLatch(1);
+            timer.schedule(drained::countDown, 150, TimeUnit.MILLISECONDS);
+            assertTrue(drained.await(2, TimeUnit.SECONDS));
+            assertTrue(a.closed);
+            assertFalse(e.isOpen());
+        } finally {
+            timer.shutdownNow();
+        }
+    }
+
+    @Test
+    public void factoryFailure_leavesNoReference() {
+        SharedEngine<Fake, IllegalStateException> e = new SharedEngine<>(() -> {
+            throw new IllegalStateException("model missing");
+        }, f -> f.closed = true, 0, null);
+        try {
+            e.acquire();
+            fail("expected failure");
+        } catch (IllegalStateException expected) {
+            assertEquals(0, e.refCount());
+            assertFalse(e.isOpen());
+        }
+    }
+}